@@ -0,0 +1,464 @@
+package com.esproc.jdbc;
+
+import com.scudata.dm.DataStruct;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.cursor.ICursor;
+import com.scudata.thread.Job;
+import com.scudata.thread.ThreadPool;
+
+/**
+ * Fetches the rows of a cursor batch by batch for the streaming ResultSet.
+ * While the caller reads the current batch, the next batch is fetched and
+ * converted to columns in the thread pool, so at most two batches are held in
+ * memory. Integer, long and double columns are kept in primitive arrays.
+ */
+class BatchFetcher {
+	/**
+	 * Cursor of calculation result
+	 */
+	private ICursor cursor;
+
+	/**
+	 * The number of rows of each batch
+	 */
+	private int fetchSize;
+
+	/**
+	 * The job fetching the next batch, null if there is no pending fetch
+	 */
+	private FetchJob pending;
+
+	/**
+	 * Whether the cursor has no more data
+	 */
+	private boolean isEnd;
+
+	/**
+	 * Constructor
+	 *
+	 * @param cursor    Cursor of calculation result
+	 * @param fetchSize The number of rows of each batch
+	 */
+	public BatchFetcher(ICursor cursor, int fetchSize) {
+		this.cursor = cursor;
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Set the number of rows of the batches fetched later
+	 *
+	 * @param fetchSize
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	// Fetch the given number of rows in the current thread
+	private Batch fetch(int n) {
+		Sequence seq = cursor.fetch(n);
+		if (seq == null || seq.length() < n) {
+			isEnd = true;
+		}
+
+		return Batch.create(seq);
+	}
+
+	/**
+	 * Start fetching the next batch in the thread pool if it has not been started
+	 */
+	public void prefetch() {
+		if (pending == null && !isEnd) {
+			pending = new FetchJob(cursor, fetchSize);
+			ThreadPool.instance().submit(pending);
+		}
+	}
+
+	/**
+	 * Take the next batch and start fetching the one after it
+	 *
+	 * @return The batch, null if there is no more data
+	 */
+	public Batch next() {
+		Batch batch = takePending();
+		if (batch == null && !isEnd) {
+			batch = fetch(fetchSize);
+		}
+
+		prefetch();
+		return batch;
+	}
+
+	/**
+	 * Whether there are more rows after the batches taken, waits for the pending
+	 * fetch if needed
+	 *
+	 * @return boolean
+	 */
+	public boolean hasNext() {
+		prefetch();
+		if (pending == null) {
+			return false;
+		}
+
+		pending.join();
+		return pending.batch != null;
+	}
+
+	/**
+	 * Skip n rows and take the batch starting from the row after them
+	 *
+	 * @param n The number of rows to skip
+	 * @return The batch, null if there are no more than n rows left
+	 */
+	public Batch skip(long n) {
+		Batch batch = takePending();
+		if (batch != null) {
+			if (n < batch.getLength()) {
+				batch.setStart((int) n);
+				prefetch();
+				return batch;
+			}
+
+			n -= batch.getLength();
+		}
+
+		if (isEnd || cursor.skip(n) < n) {
+			isEnd = true;
+			return null;
+		}
+
+		return next();
+	}
+
+	/**
+	 * Skip all the rows left
+	 *
+	 * @return The number of rows skipped
+	 */
+	public long skipAll() {
+		Batch batch = takePending();
+		long count = batch == null ? 0 : batch.getLength();
+		if (!isEnd) {
+			count += cursor.skip();
+			isEnd = true;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Close the cursor after the pending fetch finishes
+	 */
+	public void close() {
+		try {
+			takePending();
+		} catch (RuntimeException e) {
+			// The cursor is being closed, the error is useless
+		} finally {
+			isEnd = true;
+			cursor.close();
+		}
+	}
+
+	// Wait for the pending fetch and return its batch
+	private Batch takePending() {
+		FetchJob job = pending;
+		if (job == null) {
+			return null;
+		}
+
+		pending = null;
+		job.join();
+		if (job.batch == null || job.batch.getLength() < job.count) {
+			isEnd = true;
+		}
+
+		return job.batch;
+	}
+
+	/**
+	 * The job fetching one batch
+	 */
+	private static class FetchJob extends Job {
+		private ICursor cursor;
+		private int count;
+		private Batch batch;
+
+		public FetchJob(ICursor cursor, int count) {
+			this.cursor = cursor;
+			this.count = count;
+		}
+
+		public void run() {
+			batch = Batch.create(cursor.fetch(count));
+		}
+	}
+
+	/**
+	 * Rows of one batch stored by column
+	 */
+	static class Batch {
+		private static final byte TYPE_OBJECT = 0;
+		private static final byte TYPE_INT = 1;
+		private static final byte TYPE_LONG = 2;
+		private static final byte TYPE_DOUBLE = 3;
+
+		private int len; // The number of rows
+		private int start; // The rows before it have been skipped
+		private byte[] types; // Type of each column
+		private Object[] columns; // int[], long[], double[] or Object[]
+		private boolean[][] nulls; // Null flags of primitive columns
+
+		private Batch(int len, int fcount) {
+			this.len = len;
+			types = new byte[fcount];
+			columns = new Object[fcount];
+			nulls = new boolean[fcount][];
+		}
+
+		/**
+		 * Convert the sequence to batch
+		 *
+		 * @param seq
+		 * @return The batch, null if the sequence is empty
+		 */
+		public static Batch create(Sequence seq) {
+			if (seq == null || seq.length() == 0) {
+				return null;
+			}
+
+			int len = seq.length();
+			DataStruct ds = seq.dataStruct();
+			Batch batch = new Batch(len, ds == null ? 0 : ds.getFieldCount());
+			Object[] rows = new Object[len];
+			for (int i = 0; i < len; i++) {
+				rows[i] = seq.get(i + 1);
+			}
+
+			for (int f = 0, fcount = batch.types.length; f < fcount; f++) {
+				batch.setColumn(f, rows);
+			}
+
+			return batch;
+		}
+
+		// Store the field values of the rows in the type of the column
+		private void setColumn(int f, Object[] rows) {
+			Object[] values = new Object[len];
+			byte type = TYPE_OBJECT;
+			boolean hasType = false;
+			boolean hasNull = false;
+			for (int i = 0; i < len; i++) {
+				if (!(rows[i] instanceof Record)) {
+					hasNull = true;
+					continue;
+				}
+
+				Record r = (Record) rows[i];
+				Object val = f < r.getFieldCount() ? r.getNormalFieldValue(f) : null;
+				values[i] = val;
+				byte curType;
+				if (val == null) {
+					hasNull = true;
+					continue;
+				} else if (val instanceof Integer) {
+					curType = TYPE_INT;
+				} else if (val instanceof Long) {
+					curType = TYPE_LONG;
+				} else if (val instanceof Double) {
+					curType = TYPE_DOUBLE;
+				} else {
+					curType = TYPE_OBJECT;
+				}
+
+				if (!hasType) {
+					type = curType;
+					hasType = true;
+				} else if (type != curType) {
+					type = TYPE_OBJECT;
+					break;
+				}
+			}
+
+			if (type == TYPE_OBJECT) {
+				for (int i = 0; i < len; i++) {
+					if (values[i] == null && rows[i] instanceof Record) {
+						Record r = (Record) rows[i];
+						if (f < r.getFieldCount()) {
+							values[i] = r.getNormalFieldValue(f);
+						}
+					}
+				}
+
+				columns[f] = values;
+				return;
+			}
+
+			boolean[] isNulls = hasNull ? new boolean[len] : null;
+			if (type == TYPE_INT) {
+				int[] array = new int[len];
+				for (int i = 0; i < len; i++) {
+					if (values[i] == null) {
+						isNulls[i] = true;
+					} else {
+						array[i] = ((Integer) values[i]).intValue();
+					}
+				}
+
+				columns[f] = array;
+			} else if (type == TYPE_LONG) {
+				long[] array = new long[len];
+				for (int i = 0; i < len; i++) {
+					if (values[i] == null) {
+						isNulls[i] = true;
+					} else {
+						array[i] = ((Long) values[i]).longValue();
+					}
+				}
+
+				columns[f] = array;
+			} else {
+				double[] array = new double[len];
+				for (int i = 0; i < len; i++) {
+					if (values[i] == null) {
+						isNulls[i] = true;
+					} else {
+						array[i] = ((Double) values[i]).doubleValue();
+					}
+				}
+
+				columns[f] = array;
+			}
+
+			types[f] = type;
+			nulls[f] = isNulls;
+		}
+
+		/**
+		 * The number of rows
+		 *
+		 * @return int
+		 */
+		public int getLength() {
+			return len;
+		}
+
+		/**
+		 * The index of the first row not skipped, starting from 0
+		 *
+		 * @return int
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		void setStart(int start) {
+			this.start = start;
+		}
+
+		/**
+		 * Whether the column is stored in primitive array
+		 *
+		 * @param col Column index, starting from 1
+		 * @return boolean
+		 */
+		public boolean isPrimitive(int col) {
+			return col >= 1 && col <= types.length && types[col - 1] != TYPE_OBJECT;
+		}
+
+		/**
+		 * Whether the value is null
+		 *
+		 * @param row Row index, starting from 0
+		 * @param col Column index, starting from 1
+		 * @return boolean
+		 */
+		public boolean isNull(int row, int col) {
+			if (types[col - 1] == TYPE_OBJECT) {
+				return ((Object[]) columns[col - 1])[row] == null;
+			}
+
+			boolean[] isNulls = nulls[col - 1];
+			return isNulls != null && isNulls[row];
+		}
+
+		/**
+		 * Get the value of primitive column as long
+		 *
+		 * @param row Row index, starting from 0
+		 * @param col Column index, starting from 1
+		 * @return long, 0 if the value is null
+		 */
+		public long getLong(int row, int col) {
+			Object column = columns[col - 1];
+			switch (types[col - 1]) {
+			case TYPE_INT:
+				return ((int[]) column)[row];
+			case TYPE_LONG:
+				return ((long[]) column)[row];
+			default:
+				return (long) ((double[]) column)[row];
+			}
+		}
+
+		/**
+		 * Get the value of primitive column as int
+		 *
+		 * @param row Row index, starting from 0
+		 * @param col Column index, starting from 1
+		 * @return int, 0 if the value is null
+		 */
+		public int getInt(int row, int col) {
+			Object column = columns[col - 1];
+			switch (types[col - 1]) {
+			case TYPE_INT:
+				return ((int[]) column)[row];
+			case TYPE_LONG:
+				return (int) ((long[]) column)[row];
+			default:
+				return (int) ((double[]) column)[row];
+			}
+		}
+
+		/**
+		 * Get the value of primitive column as double
+		 *
+		 * @param row Row index, starting from 0
+		 * @param col Column index, starting from 1
+		 * @return double, 0 if the value is null
+		 */
+		public double getDouble(int row, int col) {
+			Object column = columns[col - 1];
+			switch (types[col - 1]) {
+			case TYPE_INT:
+				return ((int[]) column)[row];
+			case TYPE_LONG:
+				return ((long[]) column)[row];
+			default:
+				return ((double[]) column)[row];
+			}
+		}
+
+		/**
+		 * Get the value
+		 *
+		 * @param row Row index, starting from 0
+		 * @param col Column index, starting from 1
+		 * @return Object
+		 */
+		public Object getObject(int row, int col) {
+			Object column = columns[col - 1];
+			switch (types[col - 1]) {
+			case TYPE_INT:
+				return isNull(row, col) ? null : Integer.valueOf(((int[]) column)[row]);
+			case TYPE_LONG:
+				return isNull(row, col) ? null : Long.valueOf(((long[]) column)[row]);
+			case TYPE_DOUBLE:
+				return isNull(row, col) ? null : Double.valueOf(((double[]) column)[row]);
+			default:
+				return ((Object[]) column)[row];
+			}
+		}
+	}
+}
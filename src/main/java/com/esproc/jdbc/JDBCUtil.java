@@ -964,7 +964,7 @@ public class JDBCUtil {
 			datas.add(row);
 		} else if (obj instanceof ICursor) {
 			ICursor c = (ICursor) obj;
-			com.esproc.jdbc.ResultSet set = new com.esproc.jdbc.ResultSet(c);
+			com.esproc.jdbc.ResultSet set = new com.esproc.jdbc.ResultSet(c, fetchSize);
 			return set;
 		} else {
 			fields = new String[] { colName };
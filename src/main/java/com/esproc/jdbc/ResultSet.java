@@ -82,14 +82,28 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	private int fetchSize = Server.DEFAULT_FETCH_SIZE;
 
+	/**
+	 * Fetches the batches of the cursor
+	 */
+	private BatchFetcher fetcher;
+
 	/**
 	 * Cached data
 	 */
-	private Sequence cache = null;
+	private BatchFetcher.Batch cache = null;
 	/**
-	 * The serial number of the cached data
+	 * The number of rows before the cached data
 	 */
 	private int cacheStart = 0;
+	/**
+	 * Index of the current row in the cached data, starting from 0
+	 */
+	private int cacheIndex = -1;
+
+	/**
+	 * Whether the last column read was null
+	 */
+	private boolean wasNull = false;
 
 	/**
 	 * Type of result set
@@ -281,17 +295,40 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 		this.setFetchSize(stat.getFetchSize());
 	}
 
+	/**
+	 * Constructor
+	 * 
+	 * @param cursor Cursor of calculation result
+	 * @throws SQLException
+	 */
 	public ResultSet(ICursor cursor) throws SQLException {
+		this(cursor, Server.DEFAULT_FETCH_SIZE);
+	}
+
+	/**
+	 * Constructor. The rows of the cursor are fetched batch by batch, the next
+	 * batch is fetched in background while the current batch is read.
+	 * 
+	 * @param cursor    Cursor of calculation result
+	 * @param fetchSize The number of rows of data fetched each time
+	 * @throws SQLException
+	 */
+	public ResultSet(ICursor cursor, int fetchSize) throws SQLException {
 		JDBCUtil.log("ResultSet-4");
 		this.cursor = cursor;
+		if (fetchSize >= 1)
+			this.fetchSize = fetchSize;
 		DataStruct ds = cursor.getDataStruct();
-		cache = cursor.fetch(1);
-		if (cache != null && cache.length() > 0) {
-			String[] fields = cache.dataStruct().getFieldNames();
+		Sequence first = cursor.fetch(1);
+		fetcher = new BatchFetcher(cursor, this.fetchSize);
+		cache = BatchFetcher.Batch.create(first);
+		if (cache != null) {
+			fetcher.prefetch();
+			String[] fields = first.dataStruct().getFieldNames();
 			int[] types = new int[fields.length];
-			Object seqi = cache.get(1);
+			Object seqi = first.get(1);
 			if (seqi != null && seqi instanceof Record) {
-				Record r = (Record) cache.get(1);
+				Record r = (Record) seqi;
 				for (int j = 0; j < fields.length; j++) {
 					Object o = r.getFieldValue(fields[j]);
 					if (o == null) {
@@ -337,6 +374,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 		if (moveCursorImpl(pos))
 			return true;
 		curRowData = null;
+		cacheIndex = -1;
 		return false;
 	}
 
@@ -348,31 +386,23 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	private boolean moveCursorImpl(int pos) {
 		if (cursor != null) {
-			if (cache == null || cache.length() == 0)
+			if (cache == null)
 				return false;
-			if (pos < cacheStart) {
+			if (pos <= cacheStart) {
 				Logger.error("The cursor may move only forward.");
 				return false;
 			}
-			if (pos - 1 == cacheStart + cache.length()) {
-				cacheStart += cache.length();
-				cache = cursor.fetch(fetchSize);
-				if (cache == null || cache.length() == 0)
+			int cacheLen = getCacheLength();
+			if (pos > cacheStart + cacheLen) {
+				// The rows before pos are skipped
+				long skip = pos - cacheStart - cacheLen - 1;
+				cacheStart += cacheLen;
+				cache = skip == 0 ? fetcher.next() : fetcher.skip(skip);
+				if (cache == null)
 					return false;
+				cacheStart += skip;
 			}
-			if (cacheStart > pos - 1 || pos - 1 > (cacheStart + cache.length())) {
-				long skip1 = pos - cacheStart - cache.length() - 1;
-				long skip2 = cursor.skip(skip1);
-				if (skip2 == skip1) {
-					cacheStart += skip1;
-					cache = cursor.fetch(fetchSize);
-					if (cache == null || cache.length() == 0)
-						return false;
-				} else {
-					return false;
-				}
-			}
-			curRowData = translateRow(cache.get(pos - cacheStart));
+			cacheIndex = cache.getStart() + pos - cacheStart - 1;
 			currentRow = pos;
 			return true;
 		} else {
@@ -390,21 +420,46 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	}
 
 	/**
-	 * Convert record into data list
+	 * The number of rows of the cached data
 	 * 
-	 * @param o
 	 * @return
 	 */
-	private ArrayList<Object> translateRow(Object o) {
-		if (o instanceof Record) {
-			Record r = (Record) o;
-			ArrayList<Object> al = new ArrayList<Object>();
-			for (int i = 0; i < r.getFieldCount(); i++) {
-				al.add(r.getFieldValue(i));
-			}
-			return al;
+	private int getCacheLength() {
+		return cache.getLength() - cache.getStart();
+	}
+
+	/**
+	 * Get the value of the designated column in the current row
+	 * 
+	 * @param columnIndex the first column is 1, the second is 2, ...
+	 * @return
+	 * @throws SQLException
+	 */
+	private Object getValue(int columnIndex) throws SQLException {
+		Object o;
+		if (cursor != null) {
+			if (cache == null || cacheIndex < 0)
+				throw new SQLException("No current row.");
+			o = cache.getObject(cacheIndex, columnIndex);
+		} else {
+			o = curRowData.get(columnIndex - 1);
 		}
-		return null;
+		wasNull = o == null;
+		return o;
+	}
+
+	/**
+	 * Whether the designated column of the cached data is stored in primitive
+	 * array. The typed getters read the array directly without boxing.
+	 * 
+	 * @param columnIndex the first column is 1, the second is 2, ...
+	 * @return
+	 */
+	private boolean isPrimitive(int columnIndex) {
+		if (cache == null || cacheIndex < 0 || !cache.isPrimitive(columnIndex))
+			return false;
+		wasNull = cache.isNull(cacheIndex, columnIndex);
+		return true;
 	}
 
 	/**
@@ -413,9 +468,12 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public void close() throws SQLException {
 		JDBCUtil.log("ResultSet-6");
-		if (cursor != null)
+		if (fetcher != null)
+			fetcher.close();
+		else if (cursor != null)
 			cursor.close();
 		cache = null;
+		cacheIndex = -1;
 		dataArray = null;
 	}
 
@@ -428,7 +486,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public boolean wasNull() throws SQLException {
 		JDBCUtil.log("ResultSet-7");
-		return false;
+		return wasNull;
 	}
 
 	/**
@@ -441,7 +499,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public String getString(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-8");
-		Object o = curRowData.get(columnIndex - 1);
+		Object o = getValue(columnIndex);
 		return o == null ? null : o.toString();
 	}
 
@@ -455,7 +513,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public boolean getBoolean(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-9");
-		return ((Boolean) curRowData.get(columnIndex - 1)).booleanValue();
+		return ((Boolean) getValue(columnIndex)).booleanValue();
 	}
 
 	/**
@@ -467,7 +525,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public byte getByte(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-10");
-		Object o = curRowData.get(columnIndex - 1);
+		Object o = getValue(columnIndex);
 		if (o instanceof Number) {
 			return ((Number) o).byteValue();
 		}
@@ -483,7 +541,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public short getShort(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-11");
-		Object o = curRowData.get(columnIndex - 1);
+		Object o = getValue(columnIndex);
 		if (o instanceof Number) {
 			return ((Number) o).shortValue();
 		}
@@ -499,7 +557,9 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public int getInt(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-12");
-		Object o = curRowData.get(columnIndex - 1);
+		if (isPrimitive(columnIndex))
+			return cache.getInt(cacheIndex, columnIndex);
+		Object o = getValue(columnIndex);
 		if (o instanceof Number) {
 			return ((Number) o).intValue();
 		}
@@ -515,7 +575,9 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public long getLong(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-13");
-		Object o = curRowData.get(columnIndex - 1);
+		if (isPrimitive(columnIndex))
+			return cache.getLong(cacheIndex, columnIndex);
+		Object o = getValue(columnIndex);
 		if (o instanceof Number) {
 			return ((Number) o).longValue();
 		}
@@ -531,7 +593,9 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public float getFloat(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-14");
-		Object o = curRowData.get(columnIndex - 1);
+		if (isPrimitive(columnIndex))
+			return (float) cache.getDouble(cacheIndex, columnIndex);
+		Object o = getValue(columnIndex);
 		if (o instanceof Number) {
 			return ((Number) o).floatValue();
 		}
@@ -547,7 +611,9 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public double getDouble(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-15");
-		Object o = curRowData.get(columnIndex - 1);
+		if (isPrimitive(columnIndex))
+			return cache.getDouble(cacheIndex, columnIndex);
+		Object o = getValue(columnIndex);
 		if (o instanceof Number) {
 			return ((Number) o).doubleValue();
 		}
@@ -565,7 +631,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
 		JDBCUtil.log("ResultSet-16");
-		Object obj = curRowData.get(columnIndex - 1);
+		Object obj = getValue(columnIndex);
 		if (obj instanceof Double) {
 			return new BigDecimal(((Double) obj).doubleValue());
 		} else if (obj instanceof String) {
@@ -593,7 +659,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public byte[] getBytes(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-17");
-		Object o = curRowData.get(columnIndex - 1);
+		Object o = getValue(columnIndex);
 		if (o == null)
 			return null;
 		if (o instanceof byte[])
@@ -613,7 +679,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public Date getDate(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-18");
-		Object obj = curRowData.get(columnIndex - 1);
+		Object obj = getValue(columnIndex);
 		if (obj != null) {
 			if (obj instanceof Date) {
 				return (Date) obj;
@@ -635,7 +701,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public Time getTime(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-19");
-		Object obj = curRowData.get(columnIndex - 1);
+		Object obj = getValue(columnIndex);
 		if (obj != null) {
 			if (obj instanceof Time) {
 				return (Time) obj;
@@ -657,7 +723,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public Timestamp getTimestamp(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-20");
-		Object obj = curRowData.get(columnIndex - 1);
+		Object obj = getValue(columnIndex);
 		if (obj != null) {
 			if (obj instanceof Timestamp) {
 				return (Timestamp) obj;
@@ -715,7 +781,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public InputStream getBinaryStream(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-23");
-		Object o = curRowData.get(columnIndex - 1);
+		Object o = getValue(columnIndex);
 		if (o == null)
 			return null;
 		if (o instanceof InputStream) {
@@ -1077,7 +1143,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public Object getObject(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-44");
-		return curRowData.get(columnIndex - 1);
+		return getValue(columnIndex);
 	}
 
 	/**
@@ -1128,7 +1194,7 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public Reader getCharacterStream(int columnIndex) throws SQLException {
 		JDBCUtil.log("ResultSet-47");
-		Object o = curRowData.get(columnIndex - 1);
+		Object o = getValue(columnIndex);
 		if (o == null)
 			return null;
 		if (o instanceof Reader)
@@ -1210,10 +1276,10 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	public boolean isAfterLast() throws SQLException {
 		JDBCUtil.log("ResultSet-52");
 		if (cursor != null) {
-			if (cache == null || cache.length() == 0) {
+			if (cache == null) {
 				return true;
 			} else {
-				return currentRow == cacheStart + cache.length() + 1;
+				return currentRow == cacheStart + getCacheLength() + 1;
 			}
 		}
 		if (dataArray == null)
@@ -1243,10 +1309,10 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	public boolean isLast() throws SQLException {
 		JDBCUtil.log("ResultSet-54");
 		if (cursor != null) {
-			if (cache == null || cache.length() == 0) {
+			if (cache == null) {
 				return false;
 			} else {
-				return currentRow == cacheStart + cache.length();
+				return currentRow == cacheStart + getCacheLength() && !fetcher.hasNext();
 			}
 		}
 		if (dataArray != null)
@@ -1278,12 +1344,14 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	public void afterLast() throws SQLException {
 		JDBCUtil.log("ResultSet-56");
 		if (cursor != null) {
-			if (cache == null || cache.length() == 0) {
+			if (cache == null) {
 				return;
 			}
-			currentRow = cacheStart + cache.length();
-			currentRow += cursor.skip();
+			currentRow = cacheStart + getCacheLength();
+			currentRow += fetcher.skipAll() + 1;
 			cacheStart = currentRow;
+			cache = null;
+			cacheIndex = -1;
 			return;
 		}
 		if (dataArray != null) {
@@ -1312,15 +1380,16 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	public boolean last() throws SQLException {
 		JDBCUtil.log("ResultSet-58");
 		if (cursor != null) {
-			if (cache == null || cache.length() == 0)
+			if (cache == null)
 				return false;
-			currentRow += cache.length();
-			Sequence tmpCache;
-			while ((tmpCache = cursor.fetch(fetchSize)) != null) {
-				cache = tmpCache;
-				currentRow += cache.length();
+			// Only the last batch is kept
+			BatchFetcher.Batch batch;
+			while ((batch = fetcher.next()) != null) {
+				cacheStart += getCacheLength();
+				cache = batch;
 			}
-			cacheStart = currentRow - cache.length();
+			currentRow = cacheStart + getCacheLength();
+			cacheIndex = cache.getLength() - 1;
 			return true;
 		}
 		if (dataArray == null)
@@ -1423,9 +1492,11 @@ public class ResultSet implements java.sql.ResultSet, Externalizable {
 	 */
 	public void setFetchSize(int rows) throws SQLException {
 		JDBCUtil.log("ResultSet-65");
-		if (rows >= 1)
+		if (rows >= 1) {
 			fetchSize = rows;
-		else {
+			if (fetcher != null)
+				fetcher.setFetchSize(rows);
+		} else {
 			throw new SQLException("Rows must be greater than 0.");
 		}
 	}
@@ -128,6 +128,22 @@ public class ConfigConsts {
 	public static String EXTLIBS = "extLibsPath";
 	/** Custom function file path */
 	public static String CUSTOM_FUNCTION_FILE = "customFunctionFile";
+	/** Memory limit of the in-memory groups result */
+	public static String GROUPS_MEMORY = "groupsMemory";
+	/** Whether to read group table blocks by memory mapping */
+	public static String MAP_GROUP_TABLE = "mapGroupTable";
+	/** Number of blocks prefetched by group table cursors */
+	public static String CURSOR_PREFETCH_COUNT = "cursorPrefetchCount";
+	/** Memory limit of the blocks prefetched by all cursors */
+	public static String PREFETCH_MEMORY = "prefetchMemory";
+	/** Number of pending fetch requests kept by remote cursors */
+	public static String REMOTE_FETCH_COUNT = "remoteFetchCount";
+	/** Maximum number of cached spl programs */
+	public static String DFX_CACHE_SIZE = "dfxCacheSize";
+	/** Memory limit of the group table block cache */
+	public static String BLOCK_CACHE_SIZE = "blockCacheSize";
+	/** Maximum number of run files merged at once by the parallel external sort */
+	public static String MERGE_FILE_COUNT = "mergeFileCount";
 
 	/**
 	 * Logger Configuration
@@ -365,6 +365,22 @@ public class ConfigHandler extends DefaultHandler {
 				importLibs.add(value);
 			} else if (qName.equalsIgnoreCase(ConfigConsts.CUSTOM_FUNCTION_FILE)) {
 				config.setCustomFunctionFile(value);
+			} else if (qName.equalsIgnoreCase(ConfigConsts.GROUPS_MEMORY)) {
+				config.setGroupsMemory(value);
+			} else if (qName.equalsIgnoreCase(ConfigConsts.MAP_GROUP_TABLE)) {
+				config.setMapGroupTable(value);
+			} else if (qName.equalsIgnoreCase(ConfigConsts.CURSOR_PREFETCH_COUNT)) {
+				config.setCursorPrefetchCount(value);
+			} else if (qName.equalsIgnoreCase(ConfigConsts.PREFETCH_MEMORY)) {
+				config.setPrefetchMemory(value);
+			} else if (qName.equalsIgnoreCase(ConfigConsts.REMOTE_FETCH_COUNT)) {
+				config.setRemoteFetchCount(value);
+			} else if (qName.equalsIgnoreCase(ConfigConsts.DFX_CACHE_SIZE)) {
+				config.setDfxCacheSize(value);
+			} else if (qName.equalsIgnoreCase(ConfigConsts.BLOCK_CACHE_SIZE)) {
+				config.setBlockCacheSize(value);
+			} else if (qName.equalsIgnoreCase(ConfigConsts.MERGE_FILE_COUNT)) {
+				config.setMergeFileCount(value);
 			}
 		} else if (activeNode == RUNTIME_LOGGER) {
 			if (qName.equalsIgnoreCase(ConfigConsts.LEVEL)) {
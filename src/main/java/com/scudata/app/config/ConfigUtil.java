@@ -413,6 +413,88 @@ public class ConfigUtil {
 				}
 			}
 
+			String sGroupsMemory = config.getGroupsMemory();
+			if (StringUtils.isValidString(sGroupsMemory)) {
+				long groupsMemory = parseMemorySize(sGroupsMemory);
+				if (groupsMemory < 0) {
+					Logger.error("Invalid " + ConfigConsts.GROUPS_MEMORY + ":"
+							+ sGroupsMemory);
+				} else {
+					Env.setGroupsMemory(groupsMemory);
+				}
+			}
+
+			String sMapGroupTable = config.getMapGroupTable();
+			if (StringUtils.isValidString(sMapGroupTable)) {
+				Env.setMapGroupTable(Boolean.valueOf(sMapGroupTable.trim()).booleanValue());
+			}
+
+			String sPrefetchCount = config.getCursorPrefetchCount();
+			if (StringUtils.isValidString(sPrefetchCount)) {
+				try {
+					int prefetchCount = Integer.parseInt(sPrefetchCount.trim());
+					Env.setCursorPrefetchCount(prefetchCount);
+				} catch (Exception ex) {
+					Logger.error("Invalid " + ConfigConsts.CURSOR_PREFETCH_COUNT
+							+ ":" + sPrefetchCount);
+				}
+			}
+
+			String sPrefetchMemory = config.getPrefetchMemory();
+			if (StringUtils.isValidString(sPrefetchMemory)) {
+				long prefetchMemory = parseMemorySize(sPrefetchMemory);
+				if (prefetchMemory < 0) {
+					Logger.error("Invalid " + ConfigConsts.PREFETCH_MEMORY + ":"
+							+ sPrefetchMemory);
+				} else {
+					Env.setPrefetchMemory(prefetchMemory);
+				}
+			}
+
+			String sRemoteFetchCount = config.getRemoteFetchCount();
+			if (StringUtils.isValidString(sRemoteFetchCount)) {
+				try {
+					int remoteFetchCount = Integer.parseInt(sRemoteFetchCount.trim());
+					Env.setRemoteFetchCount(remoteFetchCount);
+				} catch (Exception ex) {
+					Logger.error("Invalid " + ConfigConsts.REMOTE_FETCH_COUNT
+							+ ":" + sRemoteFetchCount);
+				}
+			}
+
+			String sDfxCacheSize = config.getDfxCacheSize();
+			if (StringUtils.isValidString(sDfxCacheSize)) {
+				try {
+					int dfxCacheSize = Integer.parseInt(sDfxCacheSize.trim());
+					Env.setDfxCacheSize(dfxCacheSize);
+				} catch (Exception ex) {
+					Logger.error("Invalid " + ConfigConsts.DFX_CACHE_SIZE
+							+ ":" + sDfxCacheSize);
+				}
+			}
+
+			String sBlockCacheSize = config.getBlockCacheSize();
+			if (StringUtils.isValidString(sBlockCacheSize)) {
+				long blockCacheSize = parseMemorySize(sBlockCacheSize);
+				if (blockCacheSize < 0) {
+					Logger.error("Invalid " + ConfigConsts.BLOCK_CACHE_SIZE + ":"
+							+ sBlockCacheSize);
+				} else {
+					Env.setBlockCacheSize(blockCacheSize);
+				}
+			}
+
+			String sMergeFileCount = config.getMergeFileCount();
+			if (StringUtils.isValidString(sMergeFileCount)) {
+				try {
+					int mergeFileCount = Integer.parseInt(sMergeFileCount.trim());
+					Env.setMergeFileCount(mergeFileCount);
+				} catch (Exception ex) {
+					Logger.error("Invalid " + ConfigConsts.MERGE_FILE_COUNT
+							+ ":" + sMergeFileCount);
+				}
+			}
+
 			String customFunctionFile = config.getCustomFunctionFile();
 			if (StringUtils.isValidString(customFunctionFile)) {
 				// Զ庯ļ
@@ -767,6 +849,50 @@ public class ConfigUtil {
 		return realPath;
 	}
 
+	/**
+	 * Convert memory size string to long. The unit can be k, m, g or t.
+	 * 
+	 * @param sNum
+	 * @return -1 if the string is empty, -2 if the string is invalid
+	 */
+	public static long parseMemorySize(String sNum) {
+		if (sNum == null)
+			return -1;
+		sNum = sNum.trim();
+		if (sNum.length() == 0)
+			return -1;
+		sNum = sNum.toLowerCase();
+		char lastChar = sNum.charAt(sNum.length() - 1);
+		if (lastChar == 'b') {
+			sNum = sNum.substring(0, sNum.length() - 1);
+			if (sNum.length() == 0)
+				return -2;
+			lastChar = sNum.charAt(sNum.length() - 1);
+		}
+		long size = -2;
+		try {
+			if (lastChar == 'k' || lastChar == 'm' || lastChar == 'g'
+					|| lastChar == 't') {
+				String num = sNum.substring(0, sNum.length() - 1);
+				double d = Double.parseDouble(num);
+				if (lastChar == 'k') {
+					d = d * 1024;
+				} else if (lastChar == 'm') {
+					d = d * 1024 * 1024;
+				} else if (lastChar == 'g') {
+					d = d * 1024 * 1024 * 1024;
+				} else {
+					d = d * 1024 * 1024 * 1024 * 1024;
+				}
+				size = (long) d;
+			} else {
+				size = Long.parseLong(sNum);
+			}
+		} catch (Exception ex) {
+		}
+		return size < 0 ? -2 : size;
+	}
+
 	/**
 	 * Convert file buffer size string to integer
 	 * 
@@ -296,6 +296,14 @@ public class ConfigWriter {
 		writeAttribute(ConfigConsts.EXTLIBS, config.getExtLibsPath());
 		writeImportLibList(config.getImportLibs());
 		writeAttribute(ConfigConsts.CUSTOM_FUNCTION_FILE, config.getCustomFunctionFile());
+		writeAttribute(ConfigConsts.GROUPS_MEMORY, config.getGroupsMemory());
+		writeAttribute(ConfigConsts.MAP_GROUP_TABLE, config.getMapGroupTable());
+		writeAttribute(ConfigConsts.CURSOR_PREFETCH_COUNT, config.getCursorPrefetchCount());
+		writeAttribute(ConfigConsts.PREFETCH_MEMORY, config.getPrefetchMemory());
+		writeAttribute(ConfigConsts.REMOTE_FETCH_COUNT, config.getRemoteFetchCount());
+		writeAttribute(ConfigConsts.DFX_CACHE_SIZE, config.getDfxCacheSize());
+		writeAttribute(ConfigConsts.BLOCK_CACHE_SIZE, config.getBlockCacheSize());
+		writeAttribute(ConfigConsts.MERGE_FILE_COUNT, config.getMergeFileCount());
 		level = 2;
 		endElement(ConfigConsts.ESPROC);
 	}
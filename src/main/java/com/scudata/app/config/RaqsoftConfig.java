@@ -61,6 +61,22 @@ public class RaqsoftConfig implements Cloneable, Externalizable {
 	private String extLibsPath = null;
 	/** File path of custom functions **/
 	private String customFunctionFile = null;
+	/** Memory limit of the in-memory groups result */
+	private String groupsMemory = null;
+	/** Whether to read group table blocks by memory mapping */
+	private String mapGroupTable = null;
+	/** Number of blocks prefetched by group table cursors */
+	private String cursorPrefetchCount = null;
+	/** Memory limit of the blocks prefetched by all cursors */
+	private String prefetchMemory = null;
+	/** Number of pending fetch requests kept by remote cursors */
+	private String remoteFetchCount = null;
+	/** Maximum number of cached spl programs */
+	private String dfxCacheSize = null;
+	/** Memory limit of the group table block cache */
+	private String blockCacheSize = null;
+	/** Maximum number of run files merged at once by the parallel external sort */
+	private String mergeFileCount = null;
 
 	/** Server **/
 	/** Default data source **/
@@ -649,6 +665,152 @@ public class RaqsoftConfig implements Cloneable, Externalizable {
 		return config;
 	}
 
+	/**
+	 * Get memory limit of the in-memory groups result
+	 * 
+	 * @return
+	 */
+	public String getGroupsMemory() {
+		return groupsMemory;
+	}
+
+	/**
+	 * Set memory limit of the in-memory groups result
+	 * 
+	 * @param groupsMemory
+	 */
+	public void setGroupsMemory(String groupsMemory) {
+		this.groupsMemory = groupsMemory;
+	}
+
+	/**
+	 * Get whether to read group table blocks by memory mapping
+	 * 
+	 * @return
+	 */
+	public String getMapGroupTable() {
+		return mapGroupTable;
+	}
+
+	/**
+	 * Set whether to read group table blocks by memory mapping
+	 * 
+	 * @param mapGroupTable
+	 */
+	public void setMapGroupTable(String mapGroupTable) {
+		this.mapGroupTable = mapGroupTable;
+	}
+
+	/**
+	 * Get number of blocks prefetched by group table cursors
+	 * 
+	 * @return
+	 */
+	public String getCursorPrefetchCount() {
+		return cursorPrefetchCount;
+	}
+
+	/**
+	 * Set number of blocks prefetched by group table cursors
+	 * 
+	 * @param cursorPrefetchCount
+	 */
+	public void setCursorPrefetchCount(String cursorPrefetchCount) {
+		this.cursorPrefetchCount = cursorPrefetchCount;
+	}
+
+	/**
+	 * Get memory limit of the blocks prefetched by all cursors
+	 * 
+	 * @return
+	 */
+	public String getPrefetchMemory() {
+		return prefetchMemory;
+	}
+
+	/**
+	 * Set memory limit of the blocks prefetched by all cursors
+	 * 
+	 * @param prefetchMemory
+	 */
+	public void setPrefetchMemory(String prefetchMemory) {
+		this.prefetchMemory = prefetchMemory;
+	}
+
+	/**
+	 * Get number of pending fetch requests kept by remote cursors
+	 * 
+	 * @return
+	 */
+	public String getRemoteFetchCount() {
+		return remoteFetchCount;
+	}
+
+	/**
+	 * Set number of pending fetch requests kept by remote cursors
+	 * 
+	 * @param remoteFetchCount
+	 */
+	public void setRemoteFetchCount(String remoteFetchCount) {
+		this.remoteFetchCount = remoteFetchCount;
+	}
+
+	/**
+	 * Get maximum number of cached spl programs
+	 * 
+	 * @return
+	 */
+	public String getDfxCacheSize() {
+		return dfxCacheSize;
+	}
+
+	/**
+	 * Set maximum number of cached spl programs
+	 * 
+	 * @param dfxCacheSize
+	 */
+	public void setDfxCacheSize(String dfxCacheSize) {
+		this.dfxCacheSize = dfxCacheSize;
+	}
+
+	/**
+	 * Get memory limit of the group table block cache
+	 * 
+	 * @return
+	 */
+	public String getBlockCacheSize() {
+		return blockCacheSize;
+	}
+
+	/**
+	 * Set memory limit of the group table block cache
+	 * 
+	 * @param blockCacheSize
+	 */
+	public void setBlockCacheSize(String blockCacheSize) {
+		this.blockCacheSize = blockCacheSize;
+	}
+
+	/**
+	 * Get maximum number of run files merged at once by the parallel external
+	 * sort
+	 * 
+	 * @return
+	 */
+	public String getMergeFileCount() {
+		return mergeFileCount;
+	}
+
+	/**
+	 * Set maximum number of run files merged at once by the parallel external
+	 * sort
+	 * 
+	 * @param mergeFileCount
+	 */
+	public void setMergeFileCount(String mergeFileCount) {
+		this.mergeFileCount = mergeFileCount;
+	}
+
 	/**
 	 * Set the configuration to the RaqsoftConfig object
 	 * 
@@ -694,6 +856,14 @@ public class RaqsoftConfig implements Cloneable, Externalizable {
 		}
 		config.setExtLibsPath(extLibsPath);
 		config.setCustomFunctionFile(customFunctionFile);
+		config.setGroupsMemory(groupsMemory);
+		config.setMapGroupTable(mapGroupTable);
+		config.setCursorPrefetchCount(cursorPrefetchCount);
+		config.setPrefetchMemory(prefetchMemory);
+		config.setRemoteFetchCount(remoteFetchCount);
+		config.setDfxCacheSize(dfxCacheSize);
+		config.setBlockCacheSize(blockCacheSize);
+		config.setMergeFileCount(mergeFileCount);
 
 		config.setDefDataSource(defDataSource);
 		if (jndiList != null) {
@@ -730,7 +900,7 @@ public class RaqsoftConfig implements Cloneable, Externalizable {
 	 */
 	public void writeExternal(ObjectOutput out) throws IOException {
 		/* Version type */
-		out.writeByte(2);
+		out.writeByte(9);
 		out.writeObject(dbList);
 		out.writeObject(mainPath);
 		out.writeObject(splPathList);
@@ -761,6 +931,14 @@ public class RaqsoftConfig implements Cloneable, Externalizable {
 		out.writeObject(xmlaList);
 		out.writeBoolean(jdbcNode);
 		out.writeObject(customFunctionFile);
+		out.writeObject(groupsMemory);
+		out.writeObject(mapGroupTable);
+		out.writeObject(cursorPrefetchCount);
+		out.writeObject(prefetchMemory);
+		out.writeObject(remoteFetchCount);
+		out.writeObject(dfxCacheSize);
+		out.writeObject(blockCacheSize);
+		out.writeObject(mergeFileCount);
 	}
 
 	/**
@@ -801,6 +979,28 @@ public class RaqsoftConfig implements Cloneable, Externalizable {
 		if (version > 1) {
 			customFunctionFile = (String) in.readObject();
 		}
+		if (version > 2) {
+			groupsMemory = (String) in.readObject();
+		}
+		if (version > 3) {
+			mapGroupTable = (String) in.readObject();
+		}
+		if (version > 4) {
+			cursorPrefetchCount = (String) in.readObject();
+			prefetchMemory = (String) in.readObject();
+		}
+		if (version > 5) {
+			remoteFetchCount = (String) in.readObject();
+		}
+		if (version > 6) {
+			dfxCacheSize = (String) in.readObject();
+		}
+		if (version > 7) {
+			blockCacheSize = (String) in.readObject();
+		}
+		if (version > 8) {
+			mergeFileCount = (String) in.readObject();
+		}
 	}
 
 }
@@ -0,0 +1,463 @@
+package com.scudata.array;
+
+import com.scudata.util.Variant;
+
+/**
+ * İ㣬ÿԱVariantӦһ
+ * 鶼ֵʱֱڻϼ㣬ԱVariant
+ * @author RunQian
+ *
+ */
+public final class ArrayCalc {
+	public static final int EQUAL = 1; // ==
+	public static final int NOT_EQUAL = 2; // !=
+	public static final int GREATER = 3; // >
+	public static final int GREATER_EQUAL = 4; // >=
+	public static final int LESS = 5; // <
+	public static final int LESS_EQUAL = 6; // <=
+
+	private static final int TYPE_OTHER = 0;
+	private static final int TYPE_INT = 1;
+	private static final int TYPE_LONG = 2;
+	private static final int TYPE_DOUBLE = 3;
+
+	private ArrayCalc() {
+	}
+
+	// ȡֵͣ鰴
+	private static int getNumberType(IArray array) {
+		if (array instanceof IntArray) {
+			return TYPE_INT;
+		} else if (array instanceof LongArray) {
+			return TYPE_LONG;
+		} else if (array instanceof DoubleArray) {
+			return TYPE_DOUBLE;
+		} else if (array instanceof ConstArray) {
+			Object value = ((ConstArray)array).getValue();
+			if (value instanceof Integer) {
+				return TYPE_INT;
+			} else if (value instanceof Long) {
+				return TYPE_LONG;
+			} else if (value instanceof Double) {
+				return TYPE_DOUBLE;
+			}
+		}
+
+		return TYPE_OTHER;
+	}
+
+	private static int[] toInts(IArray array, int len) {
+		if (array instanceof IntArray) {
+			return ((IntArray)array).getDatas();
+		} else {
+			int []datas = new int[len + 1];
+			int value = ((Number)((ConstArray)array).getValue()).intValue();
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = value;
+			}
+
+			return datas;
+		}
+	}
+
+	private static long[] toLongs(IArray array, int len) {
+		if (array instanceof LongArray) {
+			return ((LongArray)array).getDatas();
+		}
+
+		long []datas = new long[len + 1];
+		if (array instanceof IntArray) {
+			int []src = ((IntArray)array).getDatas();
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = src[i];
+			}
+		} else {
+			long value = ((Number)((ConstArray)array).getValue()).longValue();
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = value;
+			}
+		}
+
+		return datas;
+	}
+
+	private static double[] toDoubles(IArray array, int len) {
+		if (array instanceof DoubleArray) {
+			return ((DoubleArray)array).getDatas();
+		}
+
+		double []datas = new double[len + 1];
+		if (array instanceof IntArray) {
+			int []src = ((IntArray)array).getDatas();
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = src[i];
+			}
+		} else if (array instanceof LongArray) {
+			long []src = ((LongArray)array).getDatas();
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = src[i];
+			}
+		} else {
+			double value = ((Number)((ConstArray)array).getValue()).doubleValue();
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = value;
+			}
+		}
+
+		return datas;
+	}
+
+	/**
+	 * жָλõĳԱǷΪ
+	 * @param array 
+	 * @param index ţ1ʼ
+	 * @return boolean
+	 */
+	public static boolean isTrue(IArray array, int index) {
+		if (array instanceof BoolArray) {
+			return ((BoolArray)array).isTrue(index);
+		} else {
+			return Variant.isTrue(array.get(index));
+		}
+	}
+
+	/**
+	 * ԱӣӦVariant.add
+	 * @param a 
+	 * @param b 
+	 * @return IArray
+	 */
+	public static IArray add(IArray a, IArray b) {
+		int len = a.size();
+		int typeA = getNumberType(a);
+		int typeB = getNumberType(b);
+		
+		// Variant.addһԱΪʱһԱӿջ
+		// ͺĳԱͬʱԱ
+		int type = Math.max(Math.max(typeA, typeB), TYPE_LONG);
+		boolean isMixed = (typeA != type && hasNull(b)) || (typeB != type && hasNull(a));
+		
+		if (typeA == TYPE_OTHER || typeB == TYPE_OTHER || isMixed) {
+			ObjectArray result = new ObjectArray(len);
+			for (int i = 1; i <= len; ++i) {
+				result.add(Variant.add(a.get(i), b.get(i)));
+			}
+
+			return result;
+		} else if (type == TYPE_DOUBLE) {
+			double []x = toDoubles(a, len);
+			double []y = toDoubles(b, len);
+			double []datas = new double[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = x[i] + y[i]; // ֵλõֵΪ0
+			}
+
+			DoubleArray result = new DoubleArray(datas, len);
+			setNullIfBothNull(result, a, b, len);
+			return result;
+		} else {
+			// Ϊ˷ֹתlong
+			long []x = toLongs(a, len);
+			long []y = toLongs(b, len);
+			long []datas = new long[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = x[i] + y[i];
+			}
+
+			LongArray result = new LongArray(datas, len);
+			setNullIfBothNull(result, a, b, len);
+			return result;
+		}
+	}
+
+	/**
+	 * ԱӦVariant.subtract
+	 * @param a 
+	 * @param b 
+	 * @return IArray
+	 */
+	public static IArray subtract(IArray a, IArray b) {
+		int len = a.size();
+		int typeA = getNumberType(a);
+		int typeB = getNumberType(b);
+		
+		// Variant.subtractһԱΪʱһԱĸһԱͬ
+		// ͺĳԱͬʱԱ
+		int type = Math.max(typeA, typeB);
+		boolean isMixed = (typeA != type && hasNull(b)) || (typeB != type && hasNull(a));
+		
+		if (typeA == TYPE_OTHER || typeB == TYPE_OTHER || isMixed) {
+			ObjectArray result = new ObjectArray(len);
+			for (int i = 1; i <= len; ++i) {
+				result.add(Variant.subtract(a.get(i), b.get(i)));
+			}
+
+			return result;
+		}
+
+		PrimitiveArray result;
+		if (type == TYPE_DOUBLE) {
+			double []x = toDoubles(a, len);
+			double []y = toDoubles(b, len);
+			double []datas = new double[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = x[i] - y[i];
+			}
+
+			result = new DoubleArray(datas, len);
+		} else if (type == TYPE_LONG) {
+			long []x = toLongs(a, len);
+			long []y = toLongs(b, len);
+			long []datas = new long[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = x[i] - y[i];
+			}
+
+			result = new LongArray(datas, len);
+		} else {
+			int []x = toInts(a, len);
+			int []y = toInts(b, len);
+			int []datas = new int[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = x[i] - y[i];
+			}
+
+			result = new IntArray(datas, len);
+		}
+
+		// ֵ0㣬Variant.subtractһ£ΪʱΪ
+		setNullIfBothNull(result, a, b, len);
+		return result;
+	}
+
+	/**
+	 * ԱˣӦVariant.multiply
+	 * @param a 
+	 * @param b 
+	 * @return IArray
+	 */
+	public static IArray multiply(IArray a, IArray b) {
+		int len = a.size();
+		int typeA = getNumberType(a);
+		int typeB = getNumberType(b);
+		if (typeA == TYPE_OTHER || typeB == TYPE_OTHER) {
+			ObjectArray result = new ObjectArray(len);
+			for (int i = 1; i <= len; ++i) {
+				result.add(Variant.multiply(a.get(i), b.get(i)));
+			}
+
+			return result;
+		}
+
+		PrimitiveArray result;
+		if (typeA == TYPE_DOUBLE || typeB == TYPE_DOUBLE) {
+			double []x = toDoubles(a, len);
+			double []y = toDoubles(b, len);
+			double []datas = new double[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = x[i] * y[i];
+			}
+
+			result = new DoubleArray(datas, len);
+		} else {
+			long []x = toLongs(a, len);
+			long []y = toLongs(b, len);
+			long []datas = new long[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = x[i] * y[i];
+			}
+
+			result = new LongArray(datas, len);
+		}
+
+		setNullIfAnyNull(result, a, b, len);
+		return result;
+	}
+
+	/**
+	 * ԱӦVariant.divide
+	 * @param a 
+	 * @param b 
+	 * @return IArray
+	 */
+	public static IArray divide(IArray a, IArray b) {
+		int len = a.size();
+		if (getNumberType(a) == TYPE_OTHER || getNumberType(b) == TYPE_OTHER) {
+			ObjectArray result = new ObjectArray(len);
+			for (int i = 1; i <= len; ++i) {
+				result.add(Variant.divide(a.get(i), b.get(i)));
+			}
+
+			return result;
+		}
+
+		double []x = toDoubles(a, len);
+		double []y = toDoubles(b, len);
+		double []datas = new double[len + 1];
+		for (int i = 1; i <= len; ++i) {
+			datas[i] = x[i] / y[i];
+		}
+
+		DoubleArray result = new DoubleArray(datas, len);
+		setNullIfAnyNull(result, a, b, len);
+		return result;
+	}
+
+	/**
+	 * ԱȡӦVariant.negate
+	 * @param a 
+	 * @return IArray
+	 */
+	public static IArray negate(IArray a) {
+		int len = a.size();
+		int type = getNumberType(a);
+		PrimitiveArray result;
+		if (type == TYPE_INT) {
+			int []x = toInts(a, len);
+			int []datas = new int[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = -x[i];
+			}
+
+			result = new IntArray(datas, len);
+		} else if (type == TYPE_LONG) {
+			long []x = toLongs(a, len);
+			long []datas = new long[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = -x[i];
+			}
+
+			result = new LongArray(datas, len);
+		} else if (type == TYPE_DOUBLE) {
+			double []x = toDoubles(a, len);
+			double []datas = new double[len + 1];
+			for (int i = 1; i <= len; ++i) {
+				datas[i] = -x[i];
+			}
+
+			result = new DoubleArray(datas, len);
+		} else {
+			return null;
+		}
+
+		for (int i = 1; i <= len; ++i) {
+			if (a.isNull(i)) {
+				result.setNull(i);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * ԱȽϣֵСӦVariant.compareVariant.isEquals
+	 * @param a 
+	 * @param b 
+	 * @param op Ƚ㣬EQUALGREATER
+	 * @return BoolArray
+	 */
+	public static BoolArray compare(IArray a, IArray b, int op) {
+		int len = a.size();
+		boolean []datas = new boolean[len + 1];
+		int typeA = getNumberType(a);
+		int typeB = getNumberType(b);
+
+		if (typeA == TYPE_OTHER || typeB == TYPE_OTHER) {
+			for (int i = 1; i <= len; ++i) {
+				Object x = a.get(i);
+				Object y = b.get(i);
+				if (op == EQUAL) {
+					datas[i] = Variant.isEquals(x, y);
+				} else if (op == NOT_EQUAL) {
+					datas[i] = !Variant.isEquals(x, y);
+				} else {
+					datas[i] = isMatch(Variant.compare(x, y, true), op);
+				}
+			}
+		} else if (typeA == TYPE_DOUBLE || typeB == TYPE_DOUBLE) {
+			double []x = toDoubles(a, len);
+			double []y = toDoubles(b, len);
+			for (int i = 1; i <= len; ++i) {
+				int cmp;
+				if (a.isNull(i)) {
+					cmp = b.isNull(i) ? 0 : -1;
+				} else if (b.isNull(i)) {
+					cmp = 1;
+				} else {
+					cmp = Double.compare(x[i], y[i]);
+				}
+
+				datas[i] = isMatch(cmp, op);
+			}
+		} else {
+			long []x = toLongs(a, len);
+			long []y = toLongs(b, len);
+			for (int i = 1; i <= len; ++i) {
+				int cmp;
+				if (a.isNull(i)) {
+					cmp = b.isNull(i) ? 0 : -1;
+				} else if (b.isNull(i)) {
+					cmp = 1;
+				} else {
+					cmp = x[i] < y[i] ? -1 : (x[i] == y[i] ? 0 : 1);
+				}
+
+				datas[i] = isMatch(cmp, op);
+			}
+		}
+
+		return new BoolArray(datas, len);
+	}
+
+	private static boolean isMatch(int cmp, int op) {
+		switch (op) {
+		case EQUAL:
+			return cmp == 0;
+		case NOT_EQUAL:
+			return cmp != 0;
+		case GREATER:
+			return cmp > 0;
+		case GREATER_EQUAL:
+			return cmp >= 0;
+		case LESS:
+			return cmp < 0;
+		default:
+			return cmp <= 0;
+		}
+	}
+
+	/**
+	 * ԱȡǣӦVariant.isFalse
+	 * @param a 
+	 * @return BoolArray
+	 */
+	public static BoolArray not(IArray a) {
+		int len = a.size();
+		boolean []datas = new boolean[len + 1];
+		for (int i = 1; i <= len; ++i) {
+			datas[i] = !isTrue(a, i);
+		}
+
+		return new BoolArray(datas, len);
+	}
+
+	private static boolean hasNull(IArray array) {
+		return array.count() < array.size();
+	}
+
+	private static void setNullIfBothNull(PrimitiveArray result, IArray a, IArray b, int len) {
+		for (int i = 1; i <= len; ++i) {
+			if (a.isNull(i) && b.isNull(i)) {
+				result.setNull(i);
+			}
+		}
+	}
+
+	private static void setNullIfAnyNull(PrimitiveArray result, IArray a, IArray b, int len) {
+		for (int i = 1; i <= len; ++i) {
+			if (a.isNull(i) || b.isNull(i)) {
+				result.setNull(i);
+			}
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.scudata.array;
+
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+
+/**
+ * 鹤
+ * @author RunQian
+ *
+ */
+public final class ArrayUtil {
+	private ArrayUtil() {
+	}
+
+	/**
+	 * ֵʹܴ
+	 * @param value ֵɿ
+	 * @param capacity ʼ
+	 * @return IArray
+	 */
+	public static IArray newArray(Object value, int capacity) {
+		if (value instanceof Integer) {
+			return new IntArray(capacity);
+		} else if (value instanceof Long) {
+			return new LongArray(capacity);
+		} else if (value instanceof Double) {
+			return new DoubleArray(capacity);
+		} else if (DateArray.isDateType(value)) {
+			return new DateArray(capacity);
+		} else {
+			return new ObjectArray(capacity);
+		}
+	}
+
+	/**
+	 * ת飬гԱͬʱû洢
+	 * @param seq 
+	 * @return IArray
+	 */
+	public static IArray toArray(Sequence seq) {
+		int len = seq.length();
+		IArray array = null;
+		for (int i = 1; i <= len; ++i) {
+			Object obj = seq.getMem(i);
+			if (obj != null) {
+				array = newArray(obj, len);
+				break;
+			}
+		}
+
+		if (array == null) {
+			array = new ObjectArray(len);
+		}
+
+		for (int i = 1; i <= len; ++i) {
+			Object obj = seq.getMem(i);
+			if (!array.canAdd(obj)) {
+				array = new ObjectArray(array);
+			}
+
+			array.add(obj);
+		}
+
+		return array;
+	}
+
+	/**
+	 * ȡֶָεֵ
+	 * @param seq 
+	 * @param field ֶţ0ʼ
+	 * @return IArray
+	 */
+	public static IArray toArray(Sequence seq, int field) {
+		int len = seq.length();
+		IArray array = null;
+		for (int i = 1; i <= len; ++i) {
+			Object obj = ((Record)seq.getMem(i)).getNormalFieldValue(field);
+			if (obj != null) {
+				array = newArray(obj, len);
+				break;
+			}
+		}
+
+		if (array == null) {
+			array = new ObjectArray(len);
+		}
+
+		for (int i = 1; i <= len; ++i) {
+			Object obj = ((Record)seq.getMem(i)).getNormalFieldValue(field);
+			if (!array.canAdd(obj)) {
+				array = new ObjectArray(array);
+			}
+
+			array.add(obj);
+		}
+
+		return array;
+	}
+
+	/**
+	 * ֵдָλãͲƥʱתɶ
+	 * @param array 
+	 * @param index ţ1ʼ
+	 * @param value ֵ
+	 * @return IArray д飬
+	 */
+	public static IArray set(IArray array, int index, Object value) {
+		if (!array.canAdd(value)) {
+			array = new ObjectArray(array);
+		}
+
+		array.set(index, value);
+		return array;
+	}
+
+	/**
+	 * ֵ׷ӵ飬Ͳƥʱתɶ
+	 * @param array 
+	 * @param value ֵ
+	 * @return IArray ׷Ӻ飬
+	 */
+	public static IArray add(IArray array, Object value) {
+		if (!array.canAdd(value)) {
+			array = new ObjectArray(array);
+		}
+
+		array.add(value);
+		return array;
+	}
+}
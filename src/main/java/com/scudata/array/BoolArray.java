@@ -0,0 +1,144 @@
+package com.scudata.array;
+
+import com.scudata.util.Variant;
+
+/**
+ * 飬ڱʽĽ
+ * @author RunQian
+ *
+ */
+public class BoolArray extends PrimitiveArray {
+	private boolean []datas; // Ԫֵ飬0λò
+
+	public BoolArray() {
+		this(10);
+	}
+
+	/**
+	 * 
+	 * @param initialCapacity ʼ
+	 */
+	public BoolArray(int initialCapacity) {
+		datas = new boolean[initialCapacity + 1];
+	}
+
+	/**
+	 * 鹹飬0λò
+	 * @param datas 
+	 * @param size Ԫ
+	 */
+	public BoolArray(boolean []datas, int size) {
+		this.datas = datas;
+		this.size = size;
+	}
+
+	/**
+	 * ȡ飬0λò
+	 * @return boolean[]
+	 */
+	public boolean[] getDatas() {
+		return datas;
+	}
+
+	/**
+	 * жָλõԪǷΪ
+	 * @param index ţ1ʼ
+	 * @return boolean
+	 */
+	public boolean isTrue(int index) {
+		return datas[index] && !isNull(index);
+	}
+
+	protected int capacity() {
+		return datas.length;
+	}
+
+	public void ensureCapacity(int minCapacity) {
+		if (datas.length <= minCapacity) {
+			boolean []tmp = new boolean[newCapacity(datas.length, minCapacity + 1)];
+			System.arraycopy(datas, 0, tmp, 0, size + 1);
+			datas = tmp;
+		}
+	}
+
+	public Object get(int index) {
+		if (isNull(index)) {
+			return null;
+		} else {
+			return Boolean.valueOf(datas[index]);
+		}
+	}
+
+	public boolean canAdd(Object o) {
+		return o == null || o instanceof Boolean;
+	}
+
+	/**
+	 * ׷Ӳֵ
+	 * @param value ֵ
+	 */
+	public void addBool(boolean value) {
+		ensureCapacity(size + 1);
+		datas[++size] = value;
+	}
+
+	public void add(Object o) {
+		ensureCapacity(size + 1);
+		size++;
+		if (o == null) {
+			setNull(size);
+		} else {
+			datas[size] = ((Boolean)o).booleanValue();
+		}
+	}
+
+	public void set(int index, Object o) {
+		if (o == null) {
+			datas[index] = false;
+			setNull(index);
+		} else {
+			datas[index] = ((Boolean)o).booleanValue();
+			clearNull(index);
+		}
+	}
+
+	public Object sum() {
+		return null;
+	}
+
+	public Object average() {
+		return null;
+	}
+
+	public Object max() {
+		Object max = null;
+		for (int i = 1; i <= size; ++i) {
+			Object obj = get(i);
+			if (Variant.compare(max, obj, true) < 0) {
+				max = obj;
+			}
+		}
+
+		return max;
+	}
+
+	public Object min() {
+		Object min = null;
+		for (int i = 1; i <= size; ++i) {
+			Object obj = get(i);
+			if (obj != null && (min == null || Variant.compare(obj, min, true) < 0)) {
+				min = obj;
+			}
+		}
+
+		return min;
+	}
+
+	public int hashCode(int index) {
+		if (isNull(index)) {
+			return 0;
+		} else {
+			return datas[index] ? 1231 : 1237;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.scudata.array;
+
+import com.scudata.common.MessageManager;
+import com.scudata.common.RQException;
+import com.scudata.dm.Sequence;
+import com.scudata.resources.EngineMessage;
+
+/**
+ * 飬Ԫضͬһֵڱʽʱĳͱ
+ * 鲻޸
+ * @author RunQian
+ *
+ */
+public class ConstArray implements IArray {
+	private Object value; // Ԫֵ
+	private int size; // Ԫ
+
+	/**
+	 * 
+	 * @param value Ԫֵ
+	 * @param size Ԫ
+	 */
+	public ConstArray(Object value, int size) {
+		this.value = value;
+		this.size = size;
+	}
+
+	/**
+	 * ȡԪֵ
+	 * @return Object
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isNull(int index) {
+		return value == null;
+	}
+
+	public Object get(int index) {
+		return value;
+	}
+
+	public boolean canAdd(Object o) {
+		return false;
+	}
+
+	public void add(Object o) {
+		MessageManager mm = EngineMessage.get();
+		throw new RQException(mm.getMessage("engine.constArrayModify"));
+	}
+
+	public void set(int index, Object o) {
+		MessageManager mm = EngineMessage.get();
+		throw new RQException(mm.getMessage("engine.constArrayModify"));
+	}
+
+	public void ensureCapacity(int minCapacity) {
+	}
+
+	public int count() {
+		return value == null ? 0 : size;
+	}
+
+	public Object sum() {
+		return new ObjectArray(this).sum();
+	}
+
+	public Object average() {
+		return new ObjectArray(this).average();
+	}
+
+	public Object max() {
+		return size > 0 ? value : null;
+	}
+
+	public Object min() {
+		return size > 0 ? value : null;
+	}
+
+	public int hashCode(int index) {
+		return value != null ? value.hashCode() : 0;
+	}
+
+	public Sequence toSequence() {
+		Sequence seq = new Sequence(size);
+		for (int i = 1; i <= size; ++i) {
+			seq.add(value);
+		}
+
+		return seq;
+	}
+}
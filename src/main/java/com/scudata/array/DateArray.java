@@ -0,0 +1,193 @@
+package com.scudata.array;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * ʱ飬longȡʱڶ
+ * гԱͬһ
+ * @author RunQian
+ *
+ */
+public class DateArray extends PrimitiveArray {
+	private long []datas; // 飬0λò
+	private Class<?> type; // Աͣ׸ǿճԱʱȷ
+
+	public DateArray() {
+		this(10);
+	}
+
+	/**
+	 * 
+	 * @param initialCapacity ʼ
+	 */
+	public DateArray(int initialCapacity) {
+		datas = new long[initialCapacity + 1];
+	}
+
+	/**
+	 * ȡ飬0λòãֵλõֵΪ0
+	 * @return long[]
+	 */
+	public long[] getDatas() {
+		return datas;
+	}
+
+	/**
+	 * ȡָλõĺֵ0
+	 * @param index ţ1ʼ
+	 * @return long
+	 */
+	public long getTime(int index) {
+		return datas[index];
+	}
+
+	protected int capacity() {
+		return datas.length;
+	}
+
+	public void ensureCapacity(int minCapacity) {
+		if (datas.length <= minCapacity) {
+			long []tmp = new long[newCapacity(datas.length, minCapacity + 1)];
+			System.arraycopy(datas, 0, tmp, 0, size + 1);
+			datas = tmp;
+		}
+	}
+
+	/**
+	 * жǷǿú𱣴
+	 * @param o ֵ
+	 * @return boolean
+	 */
+	public static boolean isDateType(Object o) {
+		if (o instanceof Timestamp) {
+			return ((Timestamp)o).getNanos() % 1000000 == 0;
+		} else {
+			return o instanceof Date;
+		}
+	}
+
+	public boolean canAdd(Object o) {
+		if (o == null) {
+			return true;
+		} else if (type == null) {
+			return isDateType(o);
+		} else {
+			return o.getClass() == type && isDateType(o);
+		}
+	}
+
+	private Object toDate(long time) {
+		Class<?> type = this.type;
+		if (type == java.sql.Date.class) {
+			return new java.sql.Date(time);
+		} else if (type == Timestamp.class) {
+			return new Timestamp(time);
+		} else if (type == Time.class) {
+			return new Time(time);
+		} else {
+			return new Date(time);
+		}
+	}
+
+	public Object get(int index) {
+		if (isNull(index)) {
+			return null;
+		} else {
+			return toDate(datas[index]);
+		}
+	}
+
+	public void add(Object o) {
+		ensureCapacity(size + 1);
+		size++;
+		if (o == null) {
+			setNull(size);
+		} else {
+			if (type == null) {
+				type = o.getClass();
+			}
+
+			datas[size] = ((Date)o).getTime();
+		}
+	}
+
+	public void set(int index, Object o) {
+		if (o == null) {
+			datas[index] = 0;
+			setNull(index);
+		} else {
+			if (type == null) {
+				type = o.getClass();
+			}
+
+			datas[index] = ((Date)o).getTime();
+			clearNull(index);
+		}
+	}
+
+	public Object sum() {
+		// ڲͣSequence.sumһԷֵԱ
+		return null;
+	}
+
+	public Object average() {
+		return null;
+	}
+
+	public Object max() {
+		int size = this.size;
+		if (count() == 0) {
+			return null;
+		}
+
+		long []datas = this.datas;
+		boolean hasNull = nullCount > 0;
+		int i = 1;
+		while (hasNull && isNull(i)) {
+			i++;
+		}
+
+		long max = datas[i];
+		for (++i; i <= size; ++i) {
+			if (datas[i] > max && (!hasNull || !isNull(i))) {
+				max = datas[i];
+			}
+		}
+
+		return toDate(max);
+	}
+
+	public Object min() {
+		int size = this.size;
+		if (count() == 0) {
+			return null;
+		}
+
+		long []datas = this.datas;
+		boolean hasNull = nullCount > 0;
+		int i = 1;
+		while (hasNull && isNull(i)) {
+			i++;
+		}
+
+		long min = datas[i];
+		for (++i; i <= size; ++i) {
+			if (datas[i] < min && (!hasNull || !isNull(i))) {
+				min = datas[i];
+			}
+		}
+
+		return toDate(min);
+	}
+
+	public int hashCode(int index) {
+		if (isNull(index)) {
+			return 0;
+		} else {
+			long v = datas[index];
+			return (int)(v ^ (v >>> 32));
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.scudata.array;
+
+/**
+ * 飬ԪΪDouble
+ * @author RunQian
+ *
+ */
+public class DoubleArray extends PrimitiveArray {
+	private double []datas; // Ԫֵ飬0λò
+
+	public DoubleArray() {
+		this(10);
+	}
+
+	/**
+	 * 
+	 * @param initialCapacity ʼ
+	 */
+	public DoubleArray(int initialCapacity) {
+		datas = new double[initialCapacity + 1];
+	}
+
+	/**
+	 * 鹹飬0λò
+	 * @param datas 
+	 * @param size Ԫ
+	 */
+	public DoubleArray(double []datas, int size) {
+		this.datas = datas;
+		this.size = size;
+	}
+
+	/**
+	 * ȡ飬0λòãֵλõֵΪ0
+	 * @return double[]
+	 */
+	public double[] getDatas() {
+		return datas;
+	}
+
+	/**
+	 * ȡָλõֵֵ0
+	 * @param index ţ1ʼ
+	 * @return double
+	 */
+	public double getDouble(int index) {
+		return datas[index];
+	}
+
+	protected int capacity() {
+		return datas.length;
+	}
+
+	public void ensureCapacity(int minCapacity) {
+		if (datas.length <= minCapacity) {
+			double []tmp = new double[newCapacity(datas.length, minCapacity + 1)];
+			System.arraycopy(datas, 0, tmp, 0, size + 1);
+			datas = tmp;
+		}
+	}
+
+	public Object get(int index) {
+		if (isNull(index)) {
+			return null;
+		} else {
+			return new Double(datas[index]);
+		}
+	}
+
+	public boolean canAdd(Object o) {
+		return o == null || o instanceof Double;
+	}
+
+	/**
+	 * ׷ֵ
+	 * @param value ֵ
+	 */
+	public void addDouble(double value) {
+		ensureCapacity(size + 1);
+		datas[++size] = value;
+	}
+
+	public void add(Object o) {
+		ensureCapacity(size + 1);
+		size++;
+		if (o == null) {
+			setNull(size);
+		} else {
+			datas[size] = ((Double)o).doubleValue();
+		}
+	}
+
+	public void set(int index, Object o) {
+		if (o == null) {
+			datas[index] = 0;
+			setNull(index);
+		} else {
+			datas[index] = ((Double)o).doubleValue();
+			clearNull(index);
+		}
+	}
+
+	public Object sum() {
+		double []datas = this.datas;
+		double sum = 0;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			sum += datas[i]; // ֵλõֵΪ0
+		}
+
+		if (count() == 0) {
+			return null;
+		} else {
+			return new Double(sum);
+		}
+	}
+
+	public Object average() {
+		int count = count();
+		if (count == 0) {
+			return null;
+		}
+
+		double []datas = this.datas;
+		double sum = 0;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			sum += datas[i];
+		}
+
+		return new Double(sum / count);
+	}
+
+	public Object max() {
+		int size = this.size;
+		if (count() == 0) {
+			return null;
+		}
+
+		double []datas = this.datas;
+		boolean hasNull = nullCount > 0;
+		int i = 1;
+		while (hasNull && isNull(i)) {
+			i++;
+		}
+
+		double max = datas[i];
+		for (++i; i <= size; ++i) {
+			if (datas[i] > max && (!hasNull || !isNull(i))) {
+				max = datas[i];
+			}
+		}
+
+		return new Double(max);
+	}
+
+	public Object min() {
+		int size = this.size;
+		if (count() == 0) {
+			return null;
+		}
+
+		double []datas = this.datas;
+		boolean hasNull = nullCount > 0;
+		int i = 1;
+		while (hasNull && isNull(i)) {
+			i++;
+		}
+
+		double min = datas[i];
+		for (++i; i <= size; ++i) {
+			if (datas[i] < min && (!hasNull || !isNull(i))) {
+				min = datas[i];
+			}
+		}
+
+		return new Double(min);
+	}
+
+	public int hashCode(int index) {
+		if (isNull(index)) {
+			return 0;
+		} else {
+			long v = Double.doubleToLongBits(datas[index]);
+			return (int)(v ^ (v >>> 32));
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.scudata.array;
+
+import com.scudata.dm.Sequence;
+
+/**
+ * ʽ洢ӿڣԪŴ1ʼ
+ * ֵڵû洢ÿԪزһ
+ * @author RunQian
+ *
+ */
+public interface IArray {
+	/**
+	 * ȡԪ
+	 * @return int
+	 */
+	int size();
+
+	/**
+	 * жָλõԪǷΪ
+	 * @param index ţ1ʼ
+	 * @return boolean
+	 */
+	boolean isNull(int index);
+
+	/**
+	 * ȡָλõԪأͻᱻװɶ
+	 * @param index ţ1ʼ
+	 * @return Object
+	 */
+	Object get(int index);
+
+	/**
+	 * жֵָܷ
+	 * @param o ֵ
+	 * @return boolean
+	 */
+	boolean canAdd(Object o);
+
+	/**
+	 * ׷ԪأǰcanAddжǷƥ
+	 * @param o ֵ
+	 */
+	void add(Object o);
+
+	/**
+	 * ޸ָλõԪأǰcanAddжǷƥ
+	 * @param index ţ1ʼ
+	 * @param o ֵ
+	 */
+	void set(int index, Object o);
+
+	/**
+	 * ʹСminCapacity
+	 * @param minCapacity С
+	 */
+	void ensureCapacity(int minCapacity);
+
+	/**
+	 * طǿԪ
+	 * @return int
+	 */
+	int count();
+
+	/**
+	 * ֵͣSequence.sumһ
+	 * @return Object
+	 */
+	Object sum();
+
+	/**
+	 * ƽֵֵ
+	 * @return Object
+	 */
+	Object average();
+
+	/**
+	 * ֵȫΪʱؿ
+	 * @return Object
+	 */
+	Object max();
+
+	/**
+	 * СֵԿֵ
+	 * @return Object
+	 */
+	Object min();
+
+	/**
+	 * ָλԪصhashֵ
+	 * @param index ţ1ʼ
+	 * @return int
+	 */
+	int hashCode(int index);
+
+	/**
+	 * תУԪػᱻװ
+	 * @return Sequence
+	 */
+	Sequence toSequence();
+}
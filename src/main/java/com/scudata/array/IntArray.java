@@ -0,0 +1,185 @@
+package com.scudata.array;
+
+/**
+ * 飬ԪΪInteger
+ * @author RunQian
+ *
+ */
+public class IntArray extends PrimitiveArray {
+	private int []datas; // Ԫֵ飬0λò
+
+	public IntArray() {
+		this(10);
+	}
+
+	/**
+	 * 
+	 * @param initialCapacity ʼ
+	 */
+	public IntArray(int initialCapacity) {
+		datas = new int[initialCapacity + 1];
+	}
+
+	/**
+	 * 鹹飬0λò
+	 * @param datas 
+	 * @param size Ԫ
+	 */
+	public IntArray(int []datas, int size) {
+		this.datas = datas;
+		this.size = size;
+	}
+
+	/**
+	 * ȡ飬0λòãֵλõֵΪ0
+	 * @return int[]
+	 */
+	public int[] getDatas() {
+		return datas;
+	}
+
+	/**
+	 * ȡָλõֵֵ0
+	 * @param index ţ1ʼ
+	 * @return int
+	 */
+	public int getInt(int index) {
+		return datas[index];
+	}
+
+	protected int capacity() {
+		return datas.length;
+	}
+
+	public void ensureCapacity(int minCapacity) {
+		if (datas.length <= minCapacity) {
+			int []tmp = new int[newCapacity(datas.length, minCapacity + 1)];
+			System.arraycopy(datas, 0, tmp, 0, size + 1);
+			datas = tmp;
+		}
+	}
+
+	public Object get(int index) {
+		if (isNull(index)) {
+			return null;
+		} else {
+			return new Integer(datas[index]);
+		}
+	}
+
+	public boolean canAdd(Object o) {
+		return o == null || o instanceof Integer;
+	}
+
+	/**
+	 * ׷
+	 * @param value ֵ
+	 */
+	public void addInt(int value) {
+		ensureCapacity(size + 1);
+		datas[++size] = value;
+	}
+
+	public void add(Object o) {
+		ensureCapacity(size + 1);
+		size++;
+		if (o == null) {
+			setNull(size);
+		} else {
+			datas[size] = ((Integer)o).intValue();
+		}
+	}
+
+	public void set(int index, Object o) {
+		if (o == null) {
+			datas[index] = 0;
+			setNull(index);
+		} else {
+			datas[index] = ((Integer)o).intValue();
+			clearNull(index);
+		}
+	}
+
+	public Object sum() {
+		int []datas = this.datas;
+		long sum = 0;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			sum += datas[i]; // ֵλõֵΪ0
+		}
+
+		int count = count();
+		if (count == 0) {
+			return null;
+		} else if (count == 1) {
+			// Sequence.sumһ£ֻһԱʱתlong
+			return new Integer((int)sum);
+		} else {
+			return new Long(sum);
+		}
+	}
+
+	public Object average() {
+		int count = count();
+		if (count == 0) {
+			return null;
+		}
+
+		int []datas = this.datas;
+		long sum = 0;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			sum += datas[i];
+		}
+
+		return new Double((double)sum / count);
+	}
+
+	public Object max() {
+		int size = this.size;
+		if (count() == 0) {
+			return null;
+		}
+
+		int []datas = this.datas;
+		boolean hasNull = nullCount > 0;
+		int i = 1;
+		while (hasNull && isNull(i)) {
+			i++;
+		}
+
+		int max = datas[i];
+		for (++i; i <= size; ++i) {
+			if (datas[i] > max && (!hasNull || !isNull(i))) {
+				max = datas[i];
+			}
+		}
+
+		return new Integer(max);
+	}
+
+	public Object min() {
+		int size = this.size;
+		if (count() == 0) {
+			return null;
+		}
+
+		int []datas = this.datas;
+		boolean hasNull = nullCount > 0;
+		int i = 1;
+		while (hasNull && isNull(i)) {
+			i++;
+		}
+
+		int min = datas[i];
+		for (++i; i <= size; ++i) {
+			if (datas[i] < min && (!hasNull || !isNull(i))) {
+				min = datas[i];
+			}
+		}
+
+		return new Integer(min);
+	}
+
+	public int hashCode(int index) {
+		return isNull(index) ? 0 : datas[index];
+	}
+}
@@ -0,0 +1,186 @@
+package com.scudata.array;
+
+/**
+ * 飬ԪΪLong
+ * @author RunQian
+ *
+ */
+public class LongArray extends PrimitiveArray {
+	private long []datas; // Ԫֵ飬0λò
+
+	public LongArray() {
+		this(10);
+	}
+
+	/**
+	 * 
+	 * @param initialCapacity ʼ
+	 */
+	public LongArray(int initialCapacity) {
+		datas = new long[initialCapacity + 1];
+	}
+
+	/**
+	 * 鹹飬0λò
+	 * @param datas 
+	 * @param size Ԫ
+	 */
+	public LongArray(long []datas, int size) {
+		this.datas = datas;
+		this.size = size;
+	}
+
+	/**
+	 * ȡ飬0λòãֵλõֵΪ0
+	 * @return long[]
+	 */
+	public long[] getDatas() {
+		return datas;
+	}
+
+	/**
+	 * ȡָλõֵֵ0
+	 * @param index ţ1ʼ
+	 * @return long
+	 */
+	public long getLong(int index) {
+		return datas[index];
+	}
+
+	protected int capacity() {
+		return datas.length;
+	}
+
+	public void ensureCapacity(int minCapacity) {
+		if (datas.length <= minCapacity) {
+			long []tmp = new long[newCapacity(datas.length, minCapacity + 1)];
+			System.arraycopy(datas, 0, tmp, 0, size + 1);
+			datas = tmp;
+		}
+	}
+
+	public Object get(int index) {
+		if (isNull(index)) {
+			return null;
+		} else {
+			return new Long(datas[index]);
+		}
+	}
+
+	public boolean canAdd(Object o) {
+		return o == null || o instanceof Long;
+	}
+
+	/**
+	 * ׷ֵ
+	 * @param value ֵ
+	 */
+	public void addLong(long value) {
+		ensureCapacity(size + 1);
+		datas[++size] = value;
+	}
+
+	public void add(Object o) {
+		ensureCapacity(size + 1);
+		size++;
+		if (o == null) {
+			setNull(size);
+		} else {
+			datas[size] = ((Long)o).longValue();
+		}
+	}
+
+	public void set(int index, Object o) {
+		if (o == null) {
+			datas[index] = 0;
+			setNull(index);
+		} else {
+			datas[index] = ((Long)o).longValue();
+			clearNull(index);
+		}
+	}
+
+	public Object sum() {
+		long []datas = this.datas;
+		long sum = 0;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			sum += datas[i]; // ֵλõֵΪ0
+		}
+
+		if (count() == 0) {
+			return null;
+		} else {
+			return new Long(sum);
+		}
+	}
+
+	public Object average() {
+		int count = count();
+		if (count == 0) {
+			return null;
+		}
+
+		long []datas = this.datas;
+		long sum = 0;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			sum += datas[i];
+		}
+
+		return new Double((double)sum / count);
+	}
+
+	public Object max() {
+		int size = this.size;
+		if (count() == 0) {
+			return null;
+		}
+
+		long []datas = this.datas;
+		boolean hasNull = nullCount > 0;
+		int i = 1;
+		while (hasNull && isNull(i)) {
+			i++;
+		}
+
+		long max = datas[i];
+		for (++i; i <= size; ++i) {
+			if (datas[i] > max && (!hasNull || !isNull(i))) {
+				max = datas[i];
+			}
+		}
+
+		return new Long(max);
+	}
+
+	public Object min() {
+		int size = this.size;
+		if (count() == 0) {
+			return null;
+		}
+
+		long []datas = this.datas;
+		boolean hasNull = nullCount > 0;
+		int i = 1;
+		while (hasNull && isNull(i)) {
+			i++;
+		}
+
+		long min = datas[i];
+		for (++i; i <= size; ++i) {
+			if (datas[i] < min && (!hasNull || !isNull(i))) {
+				min = datas[i];
+			}
+		}
+
+		return new Long(min);
+	}
+
+	public int hashCode(int index) {
+		if (isNull(index)) {
+			return 0;
+		} else {
+			long v = datas[index];
+			return (int)(v ^ (v >>> 32));
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.scudata.array;
+
+import com.scudata.dm.Sequence;
+import com.scudata.util.Variant;
+
+/**
+ * 飬ڲûͱ
+ * @author RunQian
+ *
+ */
+public class ObjectArray implements IArray {
+	private Object []datas; // Ԫֵ飬0λò
+	private int size; // Ԫ
+
+	public ObjectArray() {
+		this(10);
+	}
+
+	/**
+	 * 
+	 * @param initialCapacity ʼ
+	 */
+	public ObjectArray(int initialCapacity) {
+		datas = new Object[initialCapacity + 1];
+	}
+
+	/**
+	 * 鹹飬еͱòʱ
+	 * @param src Դ
+	 */
+	public ObjectArray(IArray src) {
+		int size = src.size();
+		datas = new Object[size + 11];
+		for (int i = 1; i <= size; ++i) {
+			datas[i] = src.get(i);
+		}
+
+		this.size = size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isNull(int index) {
+		return datas[index] == null;
+	}
+
+	public Object get(int index) {
+		return datas[index];
+	}
+
+	public boolean canAdd(Object o) {
+		return true;
+	}
+
+	public void add(Object o) {
+		ensureCapacity(size + 1);
+		datas[++size] = o;
+	}
+
+	public void set(int index, Object o) {
+		datas[index] = o;
+	}
+
+	public void ensureCapacity(int minCapacity) {
+		if (datas.length <= minCapacity) {
+			int newCapacity = (datas.length * 3) / 2;
+			if (newCapacity <= minCapacity) {
+				newCapacity = minCapacity + 1;
+			}
+
+			Object []tmp = new Object[newCapacity];
+			System.arraycopy(datas, 0, tmp, 0, size + 1);
+			datas = tmp;
+		}
+	}
+
+	public int count() {
+		Object []datas = this.datas;
+		int count = 0;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			if (datas[i] != null) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	public Object sum() {
+		Object []datas = this.datas;
+		Number result = null;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			if (datas[i] instanceof Number) {
+				if (result == null) {
+					result = (Number)datas[i];
+				} else {
+					result = Variant.addNum(result, (Number)datas[i]);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	public Object average() {
+		Object []datas = this.datas;
+		Number result = null;
+		int count = 0;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			if (datas[i] instanceof Number) {
+				count++;
+				if (result == null) {
+					result = (Number)datas[i];
+				} else {
+					result = Variant.addNum(result, (Number)datas[i]);
+				}
+			}
+		}
+
+		return Variant.avg(result, count);
+	}
+
+	public Object max() {
+		Object []datas = this.datas;
+		Object max = null;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			if (Variant.compare(max, datas[i], true) < 0) {
+				max = datas[i];
+			}
+		}
+
+		return max;
+	}
+
+	public Object min() {
+		Object []datas = this.datas;
+		Object min = null;
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			Object obj = datas[i];
+			if (obj != null && (min == null || Variant.compare(obj, min, true) < 0)) {
+				min = obj;
+			}
+		}
+
+		return min;
+	}
+
+	public int hashCode(int index) {
+		Object obj = datas[index];
+		return obj != null ? obj.hashCode() : 0;
+	}
+
+	public Sequence toSequence() {
+		Sequence seq = new Sequence(size);
+		for (int i = 1, size = this.size; i <= size; ++i) {
+			seq.add(datas[i]);
+		}
+
+		return seq;
+	}
+}
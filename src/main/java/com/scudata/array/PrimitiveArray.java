@@ -0,0 +1,100 @@
+package com.scudata.array;
+
+import com.scudata.dm.Sequence;
+
+/**
+ * Ļ࣬λͼ¼ֵ
+ * @author RunQian
+ *
+ */
+abstract class PrimitiveArray implements IArray {
+	protected int size; // Ԫ
+	protected long []nullBits; // ֵλͼiλΪ1ʾiԪΪգûпֵʱΪnull
+	protected int nullCount; // ֵ
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isNull(int index) {
+		// λͼֻÿֵʱ׷ӵķǿԪؿܳλͼķΧ
+		long []nullBits = this.nullBits;
+		int word = index >>> 6;
+		if (nullBits == null || word >= nullBits.length) {
+			return false;
+		} else {
+			return (nullBits[word] & (1L << index)) != 0;
+		}
+	}
+
+	/**
+	 * ָλñΪֵ
+	 * @param index ţ1ʼ
+	 */
+	protected void setNull(int index) {
+		long []nullBits = this.nullBits;
+		int word = index >>> 6;
+		if (nullBits == null) {
+			nullBits = new long[Math.max(word + 1, capacity() / 64 + 1)];
+			this.nullBits = nullBits;
+		} else if (word >= nullBits.length) {
+			long []tmp = new long[Math.max(word + 1, nullBits.length * 3 / 2)];
+			System.arraycopy(nullBits, 0, tmp, 0, nullBits.length);
+			nullBits = tmp;
+			this.nullBits = tmp;
+		}
+
+		long bit = 1L << index;
+		if ((nullBits[word] & bit) == 0) {
+			nullBits[word] |= bit;
+			nullCount++;
+		}
+	}
+
+	/**
+	 * ָλõĿֵ
+	 * @param index ţ1ʼ
+	 */
+	protected void clearNull(int index) {
+		long []nullBits = this.nullBits;
+		if (nullBits != null) {
+			int word = index >>> 6;
+			long bit = 1L << index;
+			if (word < nullBits.length && (nullBits[word] & bit) != 0) {
+				nullBits[word] &= ~bit;
+				nullCount--;
+			}
+		}
+	}
+
+	public int count() {
+		return size - nullCount;
+	}
+
+	public Sequence toSequence() {
+		int size = this.size;
+		Sequence seq = new Sequence(size);
+		for (int i = 1; i <= size; ++i) {
+			seq.add(get(i));
+		}
+
+		return seq;
+	}
+
+	/**
+	 * صǰ
+	 * @return int
+	 */
+	protected abstract int capacity();
+
+	/**
+	 * 
+	 * @param oldCapacity ԭ
+	 * @param minCapacity С
+	 * @return int
+	 */
+	protected static int newCapacity(int oldCapacity, int minCapacity) {
+		int newCapacity = (oldCapacity * 3) / 2;
+		return newCapacity < minCapacity ? minCapacity : newCapacity;
+	}
+}
@@ -1,5 +1,6 @@
 package com.scudata.common;
 
+import java.io.UnsupportedEncodingException;
 import java.text.DateFormatSymbols;
 import java.text.ParseException;
 import java.text.ParsePosition;
@@ -201,6 +202,73 @@ public class DateFormatX extends SimpleDateFormat {
         }
     }
 
+    /**
+     * ֽڣڶıļģʽеķָASCIIַʱм䴮
+     * @param bytes ֽ
+     * @param start ʼλã
+     * @param end λã
+     * @param charset ַҪתɴʱʹ
+     * @return ڣʽƥʱؿ
+     * @throws UnsupportedEncodingException
+     */
+    public Date parse(byte []bytes, int start, int end, String charset) throws UnsupportedEncodingException {
+    	char[] compiledPattern = this.compiledPattern;
+    	if (compiledPattern == null) {
+    		return parse(new String(bytes, start, end - start, charset));
+    	}
+    	
+    	int pos = start;
+        calendar.clear(); // Clears all the time fields
+
+        for (int i = 0; i < compiledPattern.length; ) {
+            int tag = compiledPattern[i++];
+		    if (tag == TAG_QUOTE_CHARS) {
+		    	char c = compiledPattern[i++];
+		    	if (c > 127) {
+		    		return parse(new String(bytes, start, end - start, charset));
+		    	} else if (pos >= end || bytes[pos] != c) {
+				    return null;
+				}
+				
+				pos++;
+		    } else {
+		    	int value = 0;
+		    	int numEnd = pos;
+		    	for (; numEnd < end; ++numEnd) {
+		    		byte b = bytes[numEnd];
+		    		if (b >= '0' && b <= '9') {
+		    			value = value * 10 + (b - '0');
+		    		} else {
+		    			break;
+		    		}
+		    	}
+		    	
+		    	if (numEnd == pos) {
+		    		// ɸദ
+		    		return parse(new String(bytes, start, end - start, charset));
+		    	}
+		    	
+		    	calendar.set(tag, tag == Calendar.MONTH ? value - 1 : value);
+		    	pos = numEnd;
+		    }
+	    }
+
+        // ںǷжķǿհַ
+        for (; pos < end; ++pos) {
+        	if (bytes[pos] < 0) {
+        		return parse(new String(bytes, start, end - start, charset));
+        	} else if (!Character.isWhitespace(bytes[pos])) {
+        		return null;
+        	}
+        }
+        
+        try {
+            return calendar.getTime();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Private member function that converts the parsed date strings into
      * timeFields. Returns -start (for ParsePosition) if failed.
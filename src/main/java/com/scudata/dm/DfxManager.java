@@ -1,17 +1,38 @@
 package com.scudata.dm;
 
 import java.lang.ref.SoftReference;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.WeakHashMap;
 
 import com.scudata.cellset.datamodel.PgmCellSet;
 
 /**
  * dfx
+ * ͬһdfxԻĵʹãȡʱȽļ޸ʱ䣬ļɵĳ¶
+ * ĳEnv.getDfxCacheSize()ʱɾûõ
  */
 public class DfxManager {
 	private static DfxManager dfxManager = new DfxManager();
-	private HashMap<String, SoftReference<PgmCellSet>> dfxRefMap = 
-		new HashMap<String, SoftReference<PgmCellSet>>();
+
+	// dfxļӦĻ棬˳Уûõǰ
+	private LinkedHashMap<String, DfxEntry> dfxMap =
+		new LinkedHashMap<String, DfxEntry>(16, 0.75f, true);
+
+	// ȡ߻ûصĳӦļ޸ʱ䣬ʱжϳǷѹ
+	private WeakHashMap<PgmCellSet, Long> usingMap = new WeakHashMap<PgmCellSet, Long>();
+	private int cacheCount; // ĳ
+
+	private long hitCount; // ӻȡĴ
+	private long missCount; // ûгҪļĴ
+	private long reloadCount; // ļ޸ĵ»ϵĴ
+
+	// һdfxļĻ
+	private static class DfxEntry {
+		long lastModified; // ĳӦļ޸ʱ
+		ArrayList<SoftReference<PgmCellSet>> dfxList = new ArrayList<SoftReference<PgmCellSet>>();
+	}
 
 	private DfxManager() {}
 
@@ -26,12 +47,12 @@ public class DfxManager {
 	/**
 	 * ĳ
 	 */
-	public void clear() {
-		synchronized(dfxRefMap) {
-			dfxRefMap.clear();
-		}
+	public synchronized void clear() {
+		dfxMap.clear();
+		usingMap.clear();
+		cacheCount = 0;
 	}
-	
+
 	/**
 	 * ʹdfx
 	 * @param dfx PgmCellSet
@@ -42,8 +63,47 @@ public class DfxManager {
 		dfxCtx.setJobSpace(null);
 		dfx.reset();
 
-		synchronized(dfxRefMap) {
-			dfxRefMap.put(dfx.getName(), new SoftReference<PgmCellSet>(dfx));
+		synchronized(this) {
+			// ļ޸ǰȡߵĳٻ
+			Long time = usingMap.remove(dfx);
+			int maxCount = Env.getDfxCacheSize();
+			if (time == null || maxCount <= 0) {
+				return;
+			}
+
+			String name = dfx.getName();
+			DfxEntry entry = dfxMap.get(name);
+			if (entry == null) {
+				entry = new DfxEntry();
+				entry.lastModified = time;
+				dfxMap.put(name, entry);
+			} else if (entry.lastModified != time) {
+				if (entry.lastModified > time) {
+					return;
+				}
+
+				cacheCount -= entry.dfxList.size();
+				entry.dfxList.clear();
+				entry.lastModified = time;
+			}
+
+			entry.dfxList.add(new SoftReference<PgmCellSet>(dfx));
+			cacheCount++;
+
+			// ɾûõĳȡߵļбΪգֱɾ
+			Iterator<DfxEntry> itr = dfxMap.values().iterator();
+			while (cacheCount > maxCount && itr.hasNext()) {
+				DfxEntry first = itr.next();
+				ArrayList<SoftReference<PgmCellSet>> dfxList = first.dfxList;
+				while (cacheCount > maxCount && dfxList.size() > 0) {
+					dfxList.remove(0);
+					cacheCount--;
+				}
+
+				if (dfxList.isEmpty()) {
+					itr.remove();
+				}
+			}
 		}
 	}
 
@@ -54,20 +114,7 @@ public class DfxManager {
 	 * @return PgmCellSet
 	 */
 	public PgmCellSet removeDfx(String name, Context ctx) {
-		PgmCellSet dfx = null;
-		synchronized(dfxRefMap) {
-			SoftReference<PgmCellSet> sr = dfxRefMap.remove(name);
-			if (sr != null) dfx = (PgmCellSet)sr.get();
-		}
-
-		if (dfx == null) {
-			return readDfx(name, ctx);
-		} else {
-			// ٹctxеı
-			Context dfxCtx = dfx.getContext();
-			dfxCtx.setEnv(ctx);
-			return dfx;
-		}
+		return removeDfx(new FileObject(name, null, "s", ctx), ctx);
 	}
 
 	/**
@@ -79,21 +126,49 @@ public class DfxManager {
 	public PgmCellSet removeDfx(FileObject fo, Context ctx) {
 		PgmCellSet dfx = null;
 		String name = fo.getFileName();
-		synchronized(dfxRefMap) {
-			SoftReference<PgmCellSet> sr = dfxRefMap.remove(name);
-			if (sr != null) dfx = (PgmCellSet)sr.get();
+		long time = fo.getFile().lastModified();
+
+		synchronized(this) {
+			DfxEntry entry = dfxMap.get(name);
+			if (entry != null) {
+				ArrayList<SoftReference<PgmCellSet>> dfxList = entry.dfxList;
+				if (entry.lastModified != time) {
+					// ļ޸
+					cacheCount -= dfxList.size();
+					dfxMap.remove(name);
+					reloadCount++;
+				} else {
+					while (dfx == null && dfxList.size() > 0) {
+						dfx = dfxList.remove(dfxList.size() - 1).get();
+						cacheCount--;
+					}
+				}
+			}
+
+			if (dfx == null) {
+				missCount++;
+			} else {
+				hitCount++;
+			}
 		}
-		
+
 		if (dfx == null) {
-			return readDfx(fo, ctx);
+			dfx = readDfx(fo, ctx);
 		} else {
 			// ٹctxеı
 			Context dfxCtx = dfx.getContext();
 			dfxCtx.setEnv(ctx);
-			return dfx;
 		}
+
+		if (Env.getDfxCacheSize() > 0) {
+			synchronized(this) {
+				usingMap.put(dfx, time);
+			}
+		}
+
+		return dfx;
 	}
-	
+
 	/**
 	 * ȡdfxʹû
 	 * @param fo dfxļ
@@ -104,13 +179,13 @@ public class DfxManager {
 		PgmCellSet dfx = fo.readPgmCellSet();
 		dfx.setName(fo.getFileName());
 		dfx.resetParam();
-		
+
 		// ٹctxеı
 		Context dfxCtx = dfx.getContext();
 		dfxCtx.setEnv(ctx);
 		return dfx;
 	}
-	
+
 	/**
 	 * ȡdfxʹû
 	 * @param name dfxļ
@@ -120,4 +195,44 @@ public class DfxManager {
 	public PgmCellSet readDfx(String name, Context ctx) {
 		return readDfx(new FileObject(name, null, "s", ctx), ctx);
 	}
+
+	/**
+	 * ȡӻȡĴ
+	 * @return long
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * ȡûгҪļĴ
+	 * @return long
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * ȡļ޸ĵ»ϵĴ
+	 * @return long
+	 */
+	public synchronized long getReloadCount() {
+		return reloadCount;
+	}
+
+	/**
+	 * ȡǰĳ
+	 * @return int
+	 */
+	public synchronized int getCacheCount() {
+		return cacheCount;
+	}
+
+	/**
+	 * ػͳϢ
+	 */
+	public synchronized String toString() {
+		return "DfxManager: hit=" + hitCount + ", miss=" + missCount +
+			", reload=" + reloadCount + ", cached=" + cacheCount;
+	}
 }
@@ -15,6 +15,7 @@ import com.scudata.common.DateFormatFactory;
 import com.scudata.common.IOUtils;
 import com.scudata.common.ISessionFactory;
 import com.scudata.common.Logger;
+import com.scudata.dw.BlockCache;
 import com.scudata.expression.Expression;
 
 /**
@@ -47,6 +48,30 @@ public class Env {
 	
 	// ǷǨע͸еĵԪ
 	private static boolean adjustNoteCell = true;
+	
+	// Ƿڴӳȡ飬ֻ޸ĵ
+	private static boolean mapGroupTable = false;
+	
+	// αĬԤ0ʾԤ
+	private static int cursorPrefetchCount = 0;
+	
+	// αԤֽ
+	private static long prefetchMemory = 64L * 1024 * 1024;
+	
+	// ݿ黺ֽޣ0ʾ
+	private static long blockCacheSize = 0;
+	
+	// ڴĽռڴޣʱѷϣдʱļ0ʾ
+	private static long groupsMemory = 0;
+	
+	// ԶαȡʱֵδȡֻڱʱŲݣ0ʾԤȡ
+	private static int remoteFetchCount = 2;
+
+	// ĳޣʱɾûõ
+	private static int dfxCacheSize = 128;
+	
+	// ߳ʱһ鲢ļʱȷ鲢ɽϴΣ0ʾڴȷ
+	private static int mergeFileCount = 0;
 
 	private static String DEFAULT_TASK = "_default_task_";
 	private static Map<String,Integer> areaNo = Collections.synchronizedMap(new HashMap<String,Integer>());
@@ -653,4 +678,136 @@ public class Env {
 	public static void setAdjustNoteCell(boolean adjustNoteCell) {
 		Env.adjustNoteCell = adjustNoteCell;
 	}
+
+	/**
+	 * Ƿڴӳķʽȡ
+	 * @return
+	 */
+	public static boolean isMapGroupTable() {
+		return mapGroupTable;
+	}
+
+	/**
+	 * Ƿڴӳķʽȡ
+	 * @param mapGroupTable trueʱֱӴҳȡٵϵͳ
+	 */
+	public static void setMapGroupTable(boolean mapGroupTable) {
+		Env.mapGroupTable = mapGroupTable;
+	}
+
+	/**
+	 * ȡαĬԤ
+	 * @return 0ʾԤ
+	 */
+	public static int getCursorPrefetchCount() {
+		return cursorPrefetchCount;
+	}
+
+	/**
+	 * αĬԤαȡʱ̨߳Ԥȶȡѹ
+	 * @param count 0ʾԤ
+	 */
+	public static void setCursorPrefetchCount(int count) {
+		cursorPrefetchCount = count;
+	}
+
+	/**
+	 * ȡαԤֽ
+	 * @return
+	 */
+	public static long getPrefetchMemory() {
+		return prefetchMemory;
+	}
+
+	/**
+	 * αԤֽޣʱαΪͬ
+	 * @param size ֽ
+	 */
+	public static void setPrefetchMemory(long size) {
+		prefetchMemory = size;
+	}
+
+	/**
+	 * ȡݿ黺ֽޣʵͳϢcom.scudata.dw.BlockCache
+	 * @return ֽ0ʾ
+	 */
+	public static long getBlockCacheSize() {
+		return blockCacheSize;
+	}
+
+	/**
+	 * ݿ黺ֽޣѯͬһʱʡȥļͽѹ
+	 * Ϊ0ʱѻݿ飬ʱдļټ¼ļĸд
+	 * @param size ֽ0ʾ
+	 */
+	public static void setBlockCacheSize(long size) {
+		blockCacheSize = size;
+		if (size <= 0) {
+			BlockCache.clear();
+		}
+	}
+
+	/**
+	 * ȡڴĽռڴ
+	 * @return ֽ0ʾ
+	 */
+	public static long getGroupsMemory() {
+		return groupsMemory;
+	}
+
+	/**
+	 * ڴĽռڴޣʱѷϣдʱļλ
+	 * @param size ֽ0ʾ
+	 */
+	public static void setGroupsMemory(long size) {
+		groupsMemory = size;
+	}
+
+	/**
+	 * ȡԶαȡʱֵδȡ
+	 * @return 0ʾԤȡ
+	 */
+	public static int getRemoteFetchCount() {
+		return remoteFetchCount;
+	}
+
+	/**
+	 * Զαȡʱֵδȡֻôݣ뱾ļص
+	 * @param count 0ʾԤȡ
+	 */
+	public static void setRemoteFetchCount(int count) {
+		remoteFetchCount = count;
+	}
+
+	/**
+	 * ȡĳ
+	 * @return 0ʾ
+	 */
+	public static int getDfxCacheSize() {
+		return dfxCacheSize;
+	}
+
+	/**
+	 * ûĳޣʱɾûõĳ
+	 * @param size 0ʾ
+	 */
+	public static void setDfxCacheSize(int size) {
+		dfxCacheSize = size;
+	}
+
+	/**
+	 * ȡ߳ʱһ鲢ļ
+	 * @return ļ0ʾڴȷ
+	 */
+	public static int getMergeFileCount() {
+		return mergeFileCount;
+	}
+
+	/**
+	 * ö߳ʱһ鲢ļÿļ鲢ʱҪԤ飬ļ̫ʱڴ治
+	 * @param count ļ0ʾڴȷ
+	 */
+	public static void setMergeFileCount(int count) {
+		mergeFileCount = count;
+	}
 }
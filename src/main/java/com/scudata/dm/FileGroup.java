@@ -107,6 +107,22 @@ public class FileGroup implements Externalizable {
 	 * @throws IOException
 	 */
 	public TableMetaDataGroup create(String []colNames, String distribute, String opt, Context ctx) throws IOException {
+		return create(colNames, null, null, distribute, opt, ctx);
+	}
+	
+	/**
+	 * ָÿпıǷɿ
+	 * @param colNames ֶ
+	 * @param codecs ÿеı룬ȡֵΪBlockCodecжıͣLZ4
+	 * @param blockFilters ÿǷΪпɲ¡򶼲
+	 * @param distribute ֲʽ
+	 * @param opt ѡ
+	 * @param ctx 
+	 * @return
+	 * @throws IOException
+	 */
+	public TableMetaDataGroup create(String []colNames, byte []codecs, boolean []blockFilters, 
+			String distribute, String opt, Context ctx) throws IOException {
 		int pcount = partitions.length;
 		TableMetaData []tables = new TableMetaData[pcount];
 		boolean yopt = opt != null && opt.indexOf('y') != -1;
@@ -132,7 +148,7 @@ public class FileGroup implements Externalizable {
 			if (ropt) {
 				table = new RowGroupTable(file, colNames, distribute, opt, ctx);
 			} else {
-				table = new ColumnGroupTable(file, colNames, distribute, opt, ctx);
+				table = new ColumnGroupTable(file, colNames, codecs, blockFilters, distribute, opt, ctx);
 			}
 			
 			table.setPartition(partitions[i]);
@@ -239,7 +255,15 @@ public class FileGroup implements Externalizable {
 		try {
 			//ļ
 			if (isCol) {
-				newGroupTable = new ColumnGroupTable(newFile, colNames, null, newOpt, ctx);
+				byte []codecs = null;
+				boolean []blockFilters = null;
+				if (baseTable instanceof ColumnTableMetaData) {
+					// ԭÿеıͿ
+					codecs = ((ColumnTableMetaData)baseTable).getCodecs(srcColNames);
+					blockFilters = ((ColumnTableMetaData)baseTable).getBlockFilters(srcColNames);
+				}
+				
+				newGroupTable = new ColumnGroupTable(newFile, colNames, codecs, blockFilters, null, newOpt, ctx);
 				if (compress) {
 					newGroupTable.setCompress(true);
 				} else if (uncompress) {
@@ -412,7 +436,14 @@ public class FileGroup implements Externalizable {
 			}
 			try {
 				//д
-				TableMetaDataGroup newTableGroup = newFileGroup.create(colNames, distribute, newOpt, ctx);
+				byte []codecs = null;
+				boolean []blockFilters = null;
+				if (isCol && baseTable instanceof ColumnTableMetaData) {
+					codecs = ((ColumnTableMetaData)baseTable).getCodecs(srcColNames);
+					blockFilters = ((ColumnTableMetaData)baseTable).getBlockFilters(srcColNames);
+				}
+				
+				TableMetaDataGroup newTableGroup = newFileGroup.create(colNames, codecs, blockFilters, distribute, newOpt, ctx);
 				ICursor cs = tableGroup.merge(ctx);
 				newTableGroup.append(cs, "xi");
 				
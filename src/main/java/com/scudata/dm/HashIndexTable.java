@@ -195,6 +195,31 @@ public class HashIndexTable extends IndexTable {
 		}
 	}
 	
+	/**
+	 * õļֵϣ
+	 * @param code Դ
+	 * @param keyValues ֵ飬iԪԴݵi+1Ԫصļ
+	 */
+	void create(Sequence code, Object []keyValues) {
+		this.code = code;
+		HashUtil hashUtil = this.hashUtil;
+		Entry []groups = new Entry[hashUtil.getCapacity()];
+		this.entries = groups;
+		
+		for (int i = 0, len = keyValues.length; i < len; ++i) {
+			Object key = keyValues[i];
+			int hash = hashUtil.hashCode(key);
+			for (Entry entry = groups[hash]; entry != null; entry = entry.next) {
+				if (Variant.compare(entry.key, key, true) == 0) {
+					MessageManager mm = EngineMessage.get();
+					throw new RQException(Variant.toString(key) + mm.getMessage("engine.dupKeys"));
+				}
+			}
+			
+			groups[hash] = new Entry(key, i + 1, groups[hash]);
+		}
+	}
+	
 	// ϲϣ
 	private static void combineHashGroups(Entry []result, Entry []entries) {
 		int len = result.length;
@@ -4,6 +4,7 @@ import com.scudata.expression.Expression;
 
 /**
  * ڴ
+ * ֶļǴֶļintʱÿѰַĹϣʽϣ
  * @author WangXiaoJun
  *
  */
@@ -49,9 +50,18 @@ abstract public class IndexTable {
 			}
 		}
 		
-		HashIndexTable it = new HashIndexTable(capacity);
-		it.create(code);
-		return it;
+		int len = code.length();
+		Object []keys = new Object[len];
+		for (int i = 1; i <= len; ++i) {
+			Object r = code.getMem(i);
+			if (r instanceof Record) {
+				keys[i - 1] = ((Record)r).getPKValue();
+			} else {
+				keys[i - 1] = r;
+			}
+		}
+		
+		return newHashIndexTable(code, keys, capacity);
 	}
 	
 	/**
@@ -77,11 +87,84 @@ abstract public class IndexTable {
 		if (exp == null) {
 			return instance(code, capacity);
 		} else {
-			HashIndexTable it = new HashIndexTable(capacity);
-			it.create(code, exp, ctx);
-			return it;
+			return newHashIndexTable(code, calculateKeys(code, exp, ctx), capacity);
 		}
 	}
+	
+	// ÿԪصļֵiԪеi+1Ԫصļ
+	private static Object[] calculateKeys(Sequence code, Expression exp, Context ctx) {
+		if (code instanceof Table) {
+			int f = ((Table)code).dataStruct().getFieldIndex(exp.toString());
+			if (f != -1) {
+				return getFieldValues(code, f);
+			}
+		}
+		
+		int len = code.length();
+		Object []keys = new Object[len];
+		ComputeStack stack = ctx.getComputeStack();
+		Sequence.Current current = code.new Current();
+		stack.push(current);
+
+		try {
+			for (int i = 1; i <= len; ++i) {
+				current.setCurrent(i);
+				keys[i - 1] = exp.calculate(ctx);
+			}
+		} finally {
+			stack.pop();
+		}
+		
+		return keys;
+	}
+	
+	// ȡÿ¼ֵֶ
+	private static Object[] getFieldValues(Sequence code, int field) {
+		int len = code.length();
+		Object []keys = new Object[len];
+		for (int i = 1; i <= len; ++i) {
+			keys[i - 1] = ((Record)code.getMem(i)).getNormalFieldValue(field);
+		}
+		
+		return keys;
+	}
+	
+	// õļֵֶĹϣǴʱÿѰַĹϣ
+	private static HashIndexTable newHashIndexTable(Sequence code, Object []keys, int capacity) {
+		Object key = keys.length > 0 ? keys[0] : null;
+		if (key instanceof Integer) {
+			IntHashIndexTable it = new IntHashIndexTable(capacity);
+			if (it.tryCreate(code, keys)) {
+				return it;
+			}
+		}
+		
+		if (key instanceof Integer || key instanceof Long) {
+			LongHashIndexTable it = new LongHashIndexTable(capacity);
+			if (it.tryCreate(code, keys)) {
+				return it;
+			}
+		} else if (key instanceof String) {
+			StringHashIndexTable it = new StringHashIndexTable(capacity);
+			if (it.tryCreate(code, keys)) {
+				return it;
+			}
+		}
+		
+		HashIndexTable it = new HashIndexTable(capacity);
+		it.create(code, keys);
+		return it;
+	}
+	
+	// ֶļintʱƴlongѰַĹϣ򷵻ؿ
+	private static IndexTable newPackedIndexTable(Sequence code, Object []keys1, Object []keys2, int capacity) {
+		if (keys1.length == 0 || !(keys1[0] instanceof Integer) || !(keys2[0] instanceof Integer)) {
+			return null;
+		}
+		
+		LongHashIndexTable it = new LongHashIndexTable(capacity);
+		return it.tryCreate(code, keys1, keys2) ? it : null;
+	}
 
 	/**
 	 * Ϊаָʽֶ
@@ -115,6 +198,15 @@ abstract public class IndexTable {
 				}
 			}
 			
+			if (exps.length == 2 && isIntKey(code, exps, ctx)) {
+				Object []keys1 = calculateKeys(code, exps[0], ctx);
+				Object []keys2 = calculateKeys(code, exps[1], ctx);
+				IndexTable it = newPackedIndexTable(code, keys1, keys2, capacity);
+				if (it != null) {
+					return it;
+				}
+			}
+			
 			HashArrayIndexTable it = new HashArrayIndexTable(capacity);
 			it.create(code, exps, ctx);
 			return it;
@@ -122,16 +214,31 @@ abstract public class IndexTable {
 	}
 
 	public static IndexTable instance(Sequence code, int []fields, int capacity, String opt) {
+		boolean isMultithread = opt != null && opt.indexOf('m') != -1;
 		if (fields.length == 1) {
-			HashIndexTable it = new HashIndexTable(capacity, opt);
-			it.create(code, fields[0]);
-			return it;
+			if (isMultithread) {
+				HashIndexTable it = new HashIndexTable(capacity, opt);
+				it.create(code, fields[0]);
+				return it;
+			} else {
+				return newHashIndexTable(code, getFieldValues(code, fields[0]), capacity);
+			}
 		} else {
 			if (code.length() > 0) {
 				Record r = (Record)code.getMem(1);
 				if (r.dataStruct().getTimeKeyCount() == 1) {
 					return new TimeIndexTable(code, fields, capacity);
 				}
+				
+				if (fields.length == 2 && !isMultithread && r.getNormalFieldValue(fields[0]) instanceof Integer && 
+						r.getNormalFieldValue(fields[1]) instanceof Integer) {
+					Object []keys1 = getFieldValues(code, fields[0]);
+					Object []keys2 = getFieldValues(code, fields[1]);
+					IndexTable it = newPackedIndexTable(code, keys1, keys2, capacity);
+					if (it != null) {
+						return it;
+					}
+				}
 			}
 			
 			HashArrayIndexTable it = new HashArrayIndexTable(capacity, opt);
@@ -140,6 +247,24 @@ abstract public class IndexTable {
 		}
 	}
 	
+	// õһԪжǷܶintⲻʱһֵ
+	private static boolean isIntKey(Sequence code, Expression []exps, Context ctx) {
+		if (code.length() == 0) {
+			return false;
+		}
+		
+		ComputeStack stack = ctx.getComputeStack();
+		Sequence.Current current = code.new Current();
+		stack.push(current);
+
+		try {
+			current.setCurrent(1);
+			return exps[0].calculate(ctx) instanceof Integer && exps[1].calculate(ctx) instanceof Integer;
+		} finally {
+			stack.pop();
+		}
+	}
+	
 	/**
 	 * ݼҶӦֵ˷ΪһֶεĹϣ
 	 * @param key 
@@ -0,0 +1,169 @@
+package com.scudata.dm;
+
+import com.scudata.common.MessageManager;
+import com.scudata.common.RQException;
+import com.scudata.dm.Sequence.Current;
+import com.scudata.expression.Expression;
+import com.scudata.resources.EngineMessage;
+import com.scudata.util.HashUtil;
+import com.scudata.util.Variant;
+
+/**
+ * intĵֶÿѰַĹϣڴһΪÿԪز
+ * @author RunQian
+ *
+ */
+public class IntHashIndexTable extends HashIndexTable {
+	private Sequence code; // ԴϣŵԪصλãҪλõԴȡԪ
+	private int []slots; // ÿռλãΪԪԴеţ0ʾղ
+	private int slotCount; // 
+
+	public IntHashIndexTable(int capacity) {
+		super(capacity);
+	}
+
+	/**
+	 * ɼֵϣIntegerʱfalse
+	 * @param code Դ
+	 * @param keyValues ֵ飬iԪԴݵi+1Ԫصļ
+	 * @return trueɹfalseô˹ϣ
+	 */
+	boolean tryCreate(Sequence code, Object []keyValues) {
+		for (Object key : keyValues) {
+			if (!(key instanceof Integer)) {
+				return false;
+			}
+		}
+
+		int len = keyValues.length;
+		init(code, len);
+		for (int i = 0; i < len; ++i) {
+			put(((Integer)keyValues[i]).intValue(), i + 1);
+		}
+
+		return true;
+	}
+
+	private void init(Sequence code, int count) {
+		int slotCount = HashUtil.getSlotCount(count);
+		this.hashUtil = new HashUtil(slotCount, false);
+		this.slotCount = slotCount;
+		this.code = code;
+		this.slots = new int[slotCount * 2];
+	}
+
+	private void put(int key, int seq) {
+		int []slots = this.slots;
+		int slotCount = this.slotCount;
+		int slot = hashUtil.hashInt(key);
+
+		while (slots[slot * 2 + 1] != 0) {
+			if (slots[slot * 2] == key) {
+				MessageManager mm = EngineMessage.get();
+				throw new RQException(key + mm.getMessage("engine.dupKeys"));
+			}
+
+			if (++slot == slotCount) {
+				slot = 0;
+			}
+		}
+
+		slots[slot * 2] = key;
+		slots[slot * 2 + 1] = seq;
+	}
+
+	private int findSeq(int key) {
+		int []slots = this.slots;
+		int slotCount = this.slotCount;
+		int slot = hashUtil.hashInt(key);
+
+		while (slots[slot * 2 + 1] != 0) {
+			if (slots[slot * 2] == key) {
+				return slots[slot * 2 + 1];
+			}
+
+			if (++slot == slotCount) {
+				slot = 0;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * ɼԪţҲ-1
+	 * @param key ֵ
+	 */
+	public int findSeq(Object key) {
+		if (key instanceof Integer) {
+			return findSeq(((Integer)key).intValue());
+		} else if (key instanceof Long) {
+			long n = ((Long)key).longValue();
+			if (n >= Integer.MIN_VALUE && n <= Integer.MAX_VALUE) {
+				return findSeq((int)n);
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * ɼԪأҲؿ
+	 * @param key ֵ
+	 */
+	public Object find(Object key) {
+		int seq = findSeq(key);
+		return seq > 0 ? code.getMem(seq) : null;
+	}
+
+	/**
+	 * ɼԪأҲؿ
+	 * @param keys Ϊ1ļֵ
+	 */
+	public Object find(Object []keys) {
+		return find(keys[0]);
+	}
+
+	/**
+	 * й
+	 * @param exp ˱ʽ
+	 * @param ctx
+	 * @return Table ļ¼ɵ
+	 */
+	public Table select(Expression exp, Context ctx) {
+		Sequence code = this.code;
+		int []slots = this.slots;
+		Table result = new Table(code.dataStruct(), code.length());
+		ListBase1 mems = result.getMems();
+		int []resultKeys = new int[code.length()];
+		int newLen = 0;
+
+		ComputeStack stack = ctx.getComputeStack();
+		Current current = code.new Current();
+		stack.push(current);
+
+		try {
+			for (int i = 0, size = slots.length; i < size; i += 2) {
+				if (slots[i + 1] != 0) {
+					current.setCurrent(slots[i + 1]);
+					if (Variant.isTrue(exp.calculate(ctx))) {
+						mems.add(current.getCurrent());
+						resultKeys[newLen++] = slots[i];
+					}
+				}
+			}
+		} finally {
+			stack.pop();
+		}
+
+		result.trimToSize();
+		IntHashIndexTable indexTable = new IntHashIndexTable(getCapacity());
+		indexTable.init(result, newLen);
+		for (int i = 0; i < newLen; ++i) {
+			indexTable.put(resultKeys[i], i + 1);
+		}
+
+		result.setIndexTable(indexTable);
+		return result;
+	}
+}
@@ -326,6 +326,30 @@ public final class LineImporter implements ILineInput {
 		}
 	}
 
+	/**
+	 * ӵǰλÿʼɨ裬ȡѺݷֳsegCountʱεĽλãڶ̶߳ȡ
+	 * λöף@oѡʱڵĻк@lѡʱвᱻ
+	 * ζλÿʼΪֹһδӽλÿʼͷһ
+	 * @param segCount ֶ
+	 * @param size ļС
+	 * @return εĽλãһΪļС
+	 * @throws IOException
+	 */
+	public long[] getSegmentEnds(int segCount, long size) throws IOException {
+		long []ends = new long[segCount];
+		long blockSize = size / segCount;
+		for (int i = 1; i < segCount; ++i) {
+			long target = blockSize * i;
+			while (getCurrentPosition() < target && skipLine()) {
+			}
+			
+			ends[i - 1] = getCurrentPosition();
+		}
+		
+		ends[segCount - 1] = size;
+		return ends;
+	}
+
 	/**
 	 * ֶ
 	 * @param types 
@@ -636,8 +660,12 @@ public final class LineImporter implements ILineInput {
 						}
 					}
 				}
-			} else {
+			} else if (skipQuoteEnter || isContinueLine) {
 				++index;
+			} else {
+				// Ҫƥʱֱһз
+				for (++index; index < count && buffer[index] != LF; ++index) {
+				}
 			}
 		}
 	}
@@ -732,8 +760,12 @@ public final class LineImporter implements ILineInput {
 				}
 				
 				index++;
-			} else {
+			} else if (doQuoteMatch || doSingleQuoteMatch) {
 				index++;
+			} else {
+				// Ҫƥʱֱһзָ
+				for (++index; index < end && buffer[index] != colSeparator; ++index) {
+				}
 			}
 		}
 		
@@ -1598,12 +1630,18 @@ public final class LineImporter implements ILineInput {
 			break;
 		case Types.DT_DOUBLE:
 			if (bytes[end - 1] == '%') { // 5%
+				Double d = parseDouble(bytes, start, end - 1);
+				if (d != null) return new Double(d.doubleValue() / 100);
+				
 				try {
 					FloatingDecimal fd = FloatingDecimal.readJavaFormatString(bytes, start, end - 1);
 					if (fd != null) return new Double(fd.doubleValue() / 100);
 				} catch (RuntimeException e) {
 				}
 			} else {
+				Double d = parseDouble(bytes, start, end);
+				if (d != null) return d;
+				
 				try {
 					FloatingDecimal fd = FloatingDecimal.readJavaFormatString(bytes, start, end);
 					if (fd != null) return new Double(fd.doubleValue());
@@ -1613,8 +1651,7 @@ public final class LineImporter implements ILineInput {
 
 			break;
 		case Types.DT_DATE:
-			String text = new String(bytes, start, end - start, charset);
-			Date date = fmts[col].parse(text);
+			Date date = fmts[col].parse(bytes, start, end, charset);
 			if (date != null) return new java.sql.Date(date.getTime());
 
 			break;
@@ -1648,14 +1685,12 @@ public final class LineImporter implements ILineInput {
 
 			break;
 		case Types.DT_DATETIME:
-			text = new String(bytes, start, end - start, charset);
-			date = fmts[col].parse(text);
+			date = fmts[col].parse(bytes, start, end, charset);
 			if (date != null) return new java.sql.Timestamp(date.getTime());
 
 			break;
 		case Types.DT_TIME:
-			text = new String(bytes, start, end - start, charset);
-			date = fmts[col].parse(text);
+			date = fmts[col].parse(bytes, start, end, charset);
 			if (date != null) return new java.sql.Time(date.getTime());
 
 			break;
@@ -1750,6 +1785,12 @@ public final class LineImporter implements ILineInput {
 			break;
 		case Types.DT_DOUBLE:
 			if (bytes[end - 1] == '%') { // 5%
+				Double d = parseDouble(bytes, start, end - 1);
+				if (d != null) {
+					outValue[col] = new Double(d.doubleValue() / 100);
+					return true;
+				}
+				
 				try {
 					FloatingDecimal fd = FloatingDecimal.readJavaFormatString(bytes, start, end - 1);
 					outValue[col] = new Double(fd.doubleValue() / 100);
@@ -1757,6 +1798,12 @@ public final class LineImporter implements ILineInput {
 				} catch (RuntimeException e) {
 				}
 			} else {
+				Double d = parseDouble(bytes, start, end);
+				if (d != null) {
+					outValue[col] = d;
+					return true;
+				}
+				
 				try {
 					FloatingDecimal fd = FloatingDecimal.readJavaFormatString(bytes, start, end);
 					outValue[col] = new Double(fd.doubleValue());
@@ -1767,8 +1814,7 @@ public final class LineImporter implements ILineInput {
 
 			break;
 		case Types.DT_DATE:
-			String text = new String(bytes, start, end - start, charset);
-			Date date = fmts[col].parse(text);
+			Date date = fmts[col].parse(bytes, start, end, charset);
 			if (date != null) {
 				outValue[col] = new java.sql.Date(date.getTime());
 				return true;
@@ -1808,8 +1854,7 @@ public final class LineImporter implements ILineInput {
 
 			break;
 		case Types.DT_DATETIME:
-			text = new String(bytes, start, end - start, charset);
-			date = fmts[col].parse(text);
+			date = fmts[col].parse(bytes, start, end, charset);
 			if (date != null) {
 				outValue[col] = new java.sql.Timestamp(date.getTime());
 				return true;
@@ -1817,8 +1862,7 @@ public final class LineImporter implements ILineInput {
 
 			break;
 		case Types.DT_TIME:
-			text = new String(bytes, start, end - start, charset);
-			date = fmts[col].parse(text);
+			date = fmts[col].parse(bytes, start, end, charset);
 			if (date != null) {
 				outValue[col] = new java.sql.Time(date.getTime());
 				return true;
@@ -1869,6 +1913,51 @@ public final class LineImporter implements ILineInput {
 		}
 	}
 	
+	// 10022ηdoubleȷʾ
+	private static final double []POW10 = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	
+	// ٽ-123.45ĸЧֲ2^53Сλ22ʱ10ǾȷĽ
+	// ʽѧЧ̫ȣؿգFloatingDecimal
+	static Double parseDouble(byte []bytes, int i, int e) {
+		boolean negative = false;
+		if (bytes[i] == '-') {
+			negative = true;
+			i++;
+		} else if (bytes[i] == '+') {
+			i++;
+		}
+		
+		long mantissa = 0;
+		int digitCount = 0;
+		int scale = -1; // Сλ-1ʾûС
+		for (; i < e; ++i) {
+			int digit = bytes[i] - '0';
+			if (digit >= 0 && digit <= 9) {
+				if (++digitCount > 15) {
+					return null;
+				}
+				
+				mantissa = mantissa * 10 + digit;
+				if (scale >= 0) {
+					scale++;
+				}
+			} else if (bytes[i] == '.' && scale < 0) {
+				scale = 0;
+			} else {
+				return null;
+			}
+		}
+		
+		if (digitCount == 0 || scale > 22) {
+			return null;
+		}
+		
+		double value = scale > 0 ? mantissa / POW10[scale] : (double)mantissa;
+		return new Double(negative ? -value : value);
+	}
+	
 	// ֵֵ򷵻ؿ
 	private static Integer parseInt(byte []bytes, int i, int e) {
 		int result = 0;
@@ -0,0 +1,236 @@
+package com.scudata.dm;
+
+import com.scudata.common.MessageManager;
+import com.scudata.common.RQException;
+import com.scudata.dm.Sequence.Current;
+import com.scudata.expression.Expression;
+import com.scudata.resources.EngineMessage;
+import com.scudata.util.HashUtil;
+import com.scudata.util.Variant;
+
+/**
+ * ÿѰַĹϣŴΪÿԪز
+ * ֶʱΪlongֶεintʱֶƴһlong
+ * @author RunQian
+ *
+ */
+public class LongHashIndexTable extends HashIndexTable {
+	private Sequence code; // ԴϣŵԪصλãҪλõԴȡԪ
+	private int keyCount = 1; // ֶ12
+	private long []keys; // ÿ۵ļ
+	private int []seqs; // ÿ۶ӦԪԴеţ0ʾղ
+	private int slotCount; // 
+
+	public LongHashIndexTable(int capacity) {
+		super(capacity);
+	}
+
+	/**
+	 * ɼֵֶĹϣIntegerLongʱfalse
+	 * @param code Դ
+	 * @param keyValues ֵ飬iԪԴݵi+1Ԫصļ
+	 * @return trueɹfalseô˹ϣ
+	 */
+	boolean tryCreate(Sequence code, Object []keyValues) {
+		for (Object key : keyValues) {
+			if (!(key instanceof Integer) && !(key instanceof Long)) {
+				return false;
+			}
+		}
+
+		int len = keyValues.length;
+		init(code, len);
+		for (int i = 0; i < len; ++i) {
+			put(((Number)keyValues[i]).longValue(), i + 1);
+		}
+
+		return true;
+	}
+
+	/**
+	 * ɼֵֶĹϣIntegerʱfalse
+	 * @param code Դ
+	 * @param keyValues1 һֶεļֵ
+	 * @param keyValues2 ڶֶεļֵ
+	 * @return trueɹfalseô˹ϣ
+	 */
+	boolean tryCreate(Sequence code, Object []keyValues1, Object []keyValues2) {
+		int len = keyValues1.length;
+		for (int i = 0; i < len; ++i) {
+			if (!(keyValues1[i] instanceof Integer) || !(keyValues2[i] instanceof Integer)) {
+				return false;
+			}
+		}
+
+		keyCount = 2;
+		init(code, len);
+		for (int i = 0; i < len; ++i) {
+			put(pack(((Integer)keyValues1[i]).intValue(), ((Integer)keyValues2[i]).intValue()), i + 1);
+		}
+
+		return true;
+	}
+
+	private static long pack(int key1, int key2) {
+		return ((long)key1 << 32) | (key2 & 0xFFFFFFFFL);
+	}
+
+	private void init(Sequence code, int count) {
+		int slotCount = HashUtil.getSlotCount(count);
+		this.hashUtil = new HashUtil(slotCount, false);
+		this.slotCount = slotCount;
+		this.code = code;
+		this.keys = new long[slotCount];
+		this.seqs = new int[slotCount];
+	}
+
+	private void put(long key, int seq) {
+		long []keys = this.keys;
+		int []seqs = this.seqs;
+		int slotCount = this.slotCount;
+		int slot = hashUtil.hashLong(key);
+
+		while (seqs[slot] != 0) {
+			if (keys[slot] == key) {
+				MessageManager mm = EngineMessage.get();
+				String str;
+				if (keyCount == 1) {
+					str = Long.toString(key);
+				} else {
+					str = "[" + (int)(key >> 32) + "," + (int)key + "]";
+				}
+
+				throw new RQException(str + mm.getMessage("engine.dupKeys"));
+			}
+
+			if (++slot == slotCount) {
+				slot = 0;
+			}
+		}
+
+		keys[slot] = key;
+		seqs[slot] = seq;
+	}
+
+	private int findSeq(long key) {
+		long []keys = this.keys;
+		int []seqs = this.seqs;
+		int slotCount = this.slotCount;
+		int slot = hashUtil.hashLong(key);
+
+		while (seqs[slot] != 0) {
+			if (keys[slot] == key) {
+				return seqs[slot];
+			}
+
+			if (++slot == slotCount) {
+				slot = 0;
+			}
+		}
+
+		return -1;
+	}
+
+	// ֶεʱֵҪתint
+	private static boolean isIntKey(Object key) {
+		if (key instanceof Integer) {
+			return true;
+		} else if (key instanceof Long) {
+			long n = ((Long)key).longValue();
+			return n >= Integer.MIN_VALUE && n <= Integer.MAX_VALUE;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * ɼԪţҲ-1
+	 * @param key ֵֶεʱΪ
+	 */
+	public int findSeq(Object key) {
+		if (keyCount == 1) {
+			if (key instanceof Integer || key instanceof Long) {
+				return findSeq(((Number)key).longValue());
+			} else {
+				return -1;
+			}
+		} else if (key instanceof Sequence && ((Sequence)key).length() == 2) {
+			return findSeq(((Sequence)key).toArray());
+		} else {
+			return -1;
+		}
+	}
+
+	private int findSeq(Object []keys) {
+		if (keyCount == 1) {
+			return findSeq(keys[0]);
+		} else if (keys.length == 2 && isIntKey(keys[0]) && isIntKey(keys[1])) {
+			return findSeq(pack(((Number)keys[0]).intValue(), ((Number)keys[1]).intValue()));
+		} else {
+			return -1;
+		}
+	}
+
+	/**
+	 * ɼԪأҲؿ
+	 * @param key ֵ
+	 */
+	public Object find(Object key) {
+		int seq = findSeq(key);
+		return seq > 0 ? code.getMem(seq) : null;
+	}
+
+	/**
+	 * ɼԪأҲؿ
+	 * @param keys ֵ
+	 */
+	public Object find(Object []keys) {
+		int seq = findSeq(keys);
+		return seq > 0 ? code.getMem(seq) : null;
+	}
+
+	/**
+	 * й
+	 * @param exp ˱ʽ
+	 * @param ctx
+	 * @return Table ļ¼ɵ
+	 */
+	public Table select(Expression exp, Context ctx) {
+		Sequence code = this.code;
+		long []keys = this.keys;
+		int []seqs = this.seqs;
+		Table result = new Table(code.dataStruct(), code.length());
+		ListBase1 mems = result.getMems();
+		long []resultKeys = new long[code.length()];
+		int newLen = 0;
+
+		ComputeStack stack = ctx.getComputeStack();
+		Current current = code.new Current();
+		stack.push(current);
+
+		try {
+			for (int i = 0; i < slotCount; ++i) {
+				if (seqs[i] != 0) {
+					current.setCurrent(seqs[i]);
+					if (Variant.isTrue(exp.calculate(ctx))) {
+						mems.add(current.getCurrent());
+						resultKeys[newLen++] = keys[i];
+					}
+				}
+			}
+		} finally {
+			stack.pop();
+		}
+
+		result.trimToSize();
+		LongHashIndexTable indexTable = new LongHashIndexTable(getCapacity());
+		indexTable.keyCount = keyCount;
+		indexTable.init(result, newLen);
+		for (int i = 0; i < newLen; ++i) {
+			indexTable.put(resultKeys[i], i + 1);
+		}
+
+		result.setIndexTable(indexTable);
+		return result;
+	}
+}
@@ -0,0 +1,120 @@
+package com.scudata.dm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.scudata.dw.BufferPool;
+import com.scudata.dw.LZ4Util;
+
+/**
+ * ʱļд¼дÿLZ4ѹ
+ * ʽ¼ѹǰȡѹ󳤶ȡѹݣдÿ¼ֵֶ
+ * ļֻڱڶȡдݽṹRunFileCursorȡ
+ * @author RunQian
+ *
+ */
+public class RunFileWriter {
+	public static final int BLOCK_SIZE = 1024 * 64; // ÿѹǰĴֽ鲢ʱÿļ
+	private static final int CHECK_COUNT = 64; // ÿд¼һοС
+
+	private FileObject file;
+	private OutputStream os;
+	private BlockBuffer blockBuffer = new BlockBuffer();
+	private ObjectWriter writer;
+	private int recordCount; // ǰļ¼
+
+	// ֱȡֽ
+	private static class BlockBuffer extends ByteArrayOutputStream {
+		private BlockBuffer() {
+			super(BLOCK_SIZE + 1024 * 8);
+		}
+
+		public byte[] getBuffer() {
+			return buf;
+		}
+	}
+
+	/**
+	 * ļд
+	 * @param file ʱļ
+	 */
+	public RunFileWriter(FileObject file) {
+		this.file = file;
+		this.os = file.getOutputStream(false);
+		this.writer = new ObjectWriter(blockBuffer, 1024 * 8);
+	}
+
+	/**
+	 * ȡдļ
+	 * @return FileObject
+	 */
+	public FileObject getFile() {
+		return file;
+	}
+
+	/**
+	 * деָεļ¼
+	 * @param data 
+	 * @param start ʼλã
+	 * @param end λã
+	 * @throws IOException
+	 */
+	public void write(Sequence data, int start, int end) throws IOException {
+		ListBase1 mems = data.getMems();
+		ObjectWriter writer = this.writer;
+		for (int i = start; i <= end; ++i) {
+			Object []vals = ((Record)mems.get(i)).getFieldValues();
+			for (Object val : vals) {
+				writer.writeObject(val);
+			}
+
+			if (++recordCount % CHECK_COUNT == 0) {
+				writer.flush();
+				if (blockBuffer.size() >= BLOCK_SIZE) {
+					writeBlock();
+				}
+			}
+		}
+	}
+
+	// ѵǰѹд
+	private void writeBlock() throws IOException {
+		writer.flush();
+		int srcCount = blockBuffer.size();
+		if (recordCount == 0) {
+			return;
+		}
+
+		LZ4Util lz4 = LZ4Util.instance();
+		byte []buffer = BufferPool.get(lz4.maxCompressedLength(srcCount) + 12);
+		int count = lz4.compress(blockBuffer.getBuffer(), srcCount, buffer, 12);
+		writeInt32(buffer, 0, recordCount);
+		writeInt32(buffer, 4, srcCount);
+		writeInt32(buffer, 8, count);
+		os.write(buffer, 0, count + 12);
+		BufferPool.release(buffer);
+
+		blockBuffer.reset();
+		recordCount = 0;
+	}
+
+	private static void writeInt32(byte []buffer, int pos, int n) {
+		buffer[pos] = (byte)(n >>> 24);
+		buffer[pos + 1] = (byte)(n >>> 16);
+		buffer[pos + 2] = (byte)(n >>> 8);
+		buffer[pos + 3] = (byte)n;
+	}
+
+	/**
+	 * дʣݲرļ
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		try {
+			writeBlock();
+		} finally {
+			os.close();
+		}
+	}
+}
@@ -15,6 +15,7 @@ import java.util.Map;
 import java.util.Set;
 
 import com.ibm.icu.text.Collator;
+import com.scudata.array.IArray;
 import com.scudata.cellset.ICellSet;
 import com.scudata.common.ByteArrayInputRecord;
 import com.scudata.common.ByteArrayOutputRecord;
@@ -4293,6 +4294,25 @@ public class Sequence implements Externalizable, IRecord, Comparable<Sequence> {
 		return result;
 	}
 
+	/**
+	 * егԱʽǰexp.canCalculateAllж
+	 * ֵڽڻΪÿԱ
+	 * @param exp Expression ʽ
+	 * @param ctx Context Ļ
+	 * @return IArray ֵ
+	 */
+	public IArray calculateAll(Expression exp, Context ctx) {
+		ComputeStack stack = ctx.getComputeStack();
+		Current current = new Current();
+		stack.push(current);
+
+		try {
+			return exp.calculateAll(ctx);
+		} finally {
+			stack.pop();
+		}
+	}
+
 	private Sequence calc(Expression []exps, Context ctx) {
 		if (exps == null) return this;
 
@@ -0,0 +1,165 @@
+package com.scudata.dm;
+
+import com.scudata.common.MessageManager;
+import com.scudata.common.RQException;
+import com.scudata.dm.Sequence.Current;
+import com.scudata.expression.Expression;
+import com.scudata.resources.EngineMessage;
+import com.scudata.util.HashUtil;
+import com.scudata.util.Variant;
+
+/**
+ * ǴĵֶÿѰַĹϣŴΪÿԪز
+ * @author RunQian
+ *
+ */
+public class StringHashIndexTable extends HashIndexTable {
+	private Sequence code; // ԴϣŵԪصλãҪλõԴȡԪ
+	private String []keys; // ÿ۵ļ
+	private int []seqs; // ÿ۶ӦԪԴеţ0ʾղ
+	private int slotCount; // 
+
+	public StringHashIndexTable(int capacity) {
+		super(capacity);
+	}
+
+	/**
+	 * ɼֵϣǴʱfalse
+	 * @param code Դ
+	 * @param keyValues ֵ飬iԪԴݵi+1Ԫصļ
+	 * @return trueɹfalseô˹ϣ
+	 */
+	boolean tryCreate(Sequence code, Object []keyValues) {
+		for (Object key : keyValues) {
+			if (!(key instanceof String)) {
+				return false;
+			}
+		}
+
+		int len = keyValues.length;
+		init(code, len);
+		for (int i = 0; i < len; ++i) {
+			put((String)keyValues[i], i + 1);
+		}
+
+		return true;
+	}
+
+	private void init(Sequence code, int count) {
+		int slotCount = HashUtil.getSlotCount(count);
+		this.hashUtil = new HashUtil(slotCount, false);
+		this.slotCount = slotCount;
+		this.code = code;
+		this.keys = new String[slotCount];
+		this.seqs = new int[slotCount];
+	}
+
+	private void put(String key, int seq) {
+		String []keys = this.keys;
+		int []seqs = this.seqs;
+		int slotCount = this.slotCount;
+		int slot = hashUtil.hashInt(key.hashCode());
+
+		while (seqs[slot] != 0) {
+			if (keys[slot].equals(key)) {
+				MessageManager mm = EngineMessage.get();
+				throw new RQException(key + mm.getMessage("engine.dupKeys"));
+			}
+
+			if (++slot == slotCount) {
+				slot = 0;
+			}
+		}
+
+		keys[slot] = key;
+		seqs[slot] = seq;
+	}
+
+	/**
+	 * ɼԪţҲ-1
+	 * @param key ֵ
+	 */
+	public int findSeq(Object key) {
+		if (!(key instanceof String)) {
+			return -1;
+		}
+
+		String []keys = this.keys;
+		int []seqs = this.seqs;
+		int slotCount = this.slotCount;
+		int slot = hashUtil.hashInt(key.hashCode());
+
+		while (seqs[slot] != 0) {
+			if (keys[slot].equals(key)) {
+				return seqs[slot];
+			}
+
+			if (++slot == slotCount) {
+				slot = 0;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * ɼԪأҲؿ
+	 * @param key ֵ
+	 */
+	public Object find(Object key) {
+		int seq = findSeq(key);
+		return seq > 0 ? code.getMem(seq) : null;
+	}
+
+	/**
+	 * ɼԪأҲؿ
+	 * @param keys Ϊ1ļֵ
+	 */
+	public Object find(Object []keys) {
+		return find(keys[0]);
+	}
+
+	/**
+	 * й
+	 * @param exp ˱ʽ
+	 * @param ctx
+	 * @return Table ļ¼ɵ
+	 */
+	public Table select(Expression exp, Context ctx) {
+		Sequence code = this.code;
+		String []keys = this.keys;
+		int []seqs = this.seqs;
+		Table result = new Table(code.dataStruct(), code.length());
+		ListBase1 mems = result.getMems();
+		String []resultKeys = new String[code.length()];
+		int newLen = 0;
+
+		ComputeStack stack = ctx.getComputeStack();
+		Current current = code.new Current();
+		stack.push(current);
+
+		try {
+			for (int i = 0; i < slotCount; ++i) {
+				if (seqs[i] != 0) {
+					current.setCurrent(seqs[i]);
+					if (Variant.isTrue(exp.calculate(ctx))) {
+						mems.add(current.getCurrent());
+						resultKeys[newLen++] = keys[i];
+					}
+				}
+			}
+		} finally {
+			stack.pop();
+		}
+
+		result.trimToSize();
+		StringHashIndexTable indexTable = new StringHashIndexTable(getCapacity());
+		indexTable.init(result, newLen);
+		for (int i = 0; i < newLen; ++i) {
+			indexTable.put(resultKeys[i], i + 1);
+		}
+
+		result.setIndexTable(indexTable);
+		return result;
+	}
+}
@@ -1,6 +1,8 @@
 package com.scudata.dm.cursor;
 
 import java.io.UnsupportedEncodingException;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -13,6 +15,7 @@ import com.scudata.common.DBConfig;
 import com.scudata.common.DBInfo;
 import com.scudata.common.DBSession;
 import com.scudata.common.DBTypes;
+import com.scudata.common.ISessionFactory;
 import com.scudata.common.Logger;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
@@ -52,6 +55,10 @@ public class DBCursor extends ICursor {
 
 	private boolean isAccessBug = false;
 	private boolean isSingleField; // Ƿ񷵻صɵ
+	
+	private int fetchSize; // ÿδݿȡļ¼0ʾȱʡֵ
+	private int []colTypes; // ʱʹõֻͣoracleҪ
+	private Class<?> []directClasses; // вҪתݵ࣬ȡȷ
 
 	//private Table cursorTable; ICursor.dataStructʾ
 
@@ -386,6 +393,10 @@ public class DBCursor extends ICursor {
 					//pst.setFetchSize(Integer.MIN_VALUE);
 					// pst.setFetchDirection(ResultSet.FETCH_REVERSE);
 				//}
+				
+				if (fetchSize > 0) {
+					pst.setFetchSize(fetchSize);
+				}
 			} catch (SQLException e) {
 				Logger.debug(e.getMessage());
 				String name = "";
@@ -557,6 +568,14 @@ public class DBCursor extends ICursor {
 			
 			colTypes[c - 1] = rsmd.getColumnType(c);
 		}
+		
+		// oracleҪͶݿⶼgetObject
+		this.colTypes = new int[colCount];
+		if (dbType == DBTypes.ORACLE) {
+			System.arraycopy(colTypes, 0, this.colTypes, 0, colCount);
+		}
+		
+		directClasses = new Class<?>[colCount];
 
 		if (tranContent
 				&& (toCharset == null || toCharset.trim().length() == 0)) {
@@ -576,21 +595,206 @@ public class DBCursor extends ICursor {
 	private void get(Table table, int colCount) throws SQLException,
 			UnsupportedEncodingException {
 		Record record = table.newLast();
+		int []colTypes = this.colTypes;
+		Class<?> []directClasses = this.directClasses;
 		for (int n = 1; n <= colCount; ++n) {
-			int type = 0;
-			if (dbType == DBTypes.ORACLE) {
-				type = rsmd.getColumnType(n);
-			}
 			try {
-				Object obj = DatabaseUtil.tranData(type, dbType, rs, n,
-						tranContent, dbCharset, toCharset, bb,opt);//optѡʵ@d  xq 2015.4.22
-				record.set(n - 1, obj);
+				Object obj = DatabaseUtil.readData(colTypes[n - 1], rs, n);
+				if (obj != null && obj.getClass() != directClasses[n - 1]) {
+					//optѡʵ@d  xq 2015.4.22
+					Object val = DatabaseUtil.tranObject(obj, dbType, tranContent, 
+							dbCharset, toCharset, bb, opt);
+					if (val == obj && !(obj instanceof Blob) && !(obj instanceof Clob)) {
+						// תֻйأԺת
+						directClasses[n - 1] = obj.getClass();
+					}
+					
+					obj = val;
+				}
+				
+				record.setNormalFieldValue(n - 1, obj);
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
 		}
 	}
 
+	/**
+	 * ÿδݿȡļ¼ʱһЩ罻
+	 * @param fetchSize ¼
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+		try {
+			if (pst != null) {
+				pst.setFetchSize(fetchSize);
+			}
+			
+			if (rs != null) {
+				rs.setFetchSize(fetchSize);
+			}
+		} catch (SQLException e) {
+			Logger.debug(e.getMessage());
+		}
+	}
+	
+	/**
+	 * ֶβȡα꣬SQLĽֵsegCountΣÿһ½Ӳѯ
+	 * ߳ͬʱȡε˳˳һ
+	 * ֶε㰴Сֵֵȷ֣Ϊյļ¼ڵһΣֵڡ
+	 * ݿ½ʱͨαꣻֶʱ@xȡķΧرݿ
+	 * @param sql SQL
+	 * @param params 
+	 * @param types 
+	 * @param db ݿȡķΧ½
+	 * @param key ֶμSQLֵ͵
+	 * @param segCount ֶ
+	 * @param fetchSize ÿδݿȡļ¼0ʾȱʡֵ
+	 * @param opt ѡ
+	 * @param ctx 
+	 * @return α
+	 */
+	public static ICursor createRangeCursor(String sql, Object[] params, byte[] types, DBObject db, 
+			String key, int segCount, int fetchSize, String opt, Context ctx) {
+		ISessionFactory factory = null;
+		Object []bounds = null;
+		if (segCount > 1) {
+			factory = DatabaseUtil.getSessionFactory(db.getDbSession());
+		}
+		
+		if (factory != null) {
+			String from = " from (" + sql + ") T_RANGE";
+			Object range = db.query1("select min(" + key + "),max(" + key + ")" + from, params, types, null);
+			if (range instanceof Sequence && ((Sequence)range).length() == 2) {
+				Sequence seq = (Sequence)range;
+				bounds = getRangeBounds(seq.get(1), seq.get(2), segCount);
+			}
+		}
+		
+		if (bounds == null) {
+			DBCursor cursor = new DBCursor(sql, params, types, db, opt, ctx);
+			if (fetchSize > 0) {
+				cursor.setFetchSize(fetchSize);
+			}
+			
+			return cursor;
+		}
+		
+		// ÿεαرʱر
+		String segOpt = opt == null ? "x" : opt + "x";
+		String dbOpt = db.isLower() ? "l" : null;
+		int paramCount = params == null ? 0 : params.length;
+		segCount = bounds.length + 1;
+		DBCursor []cursors = new DBCursor[segCount];
+		
+		try {
+			for (int i = 0; i < segCount; ++i) {
+				String where;
+				Object []segParams;
+				if (i == 0) {
+					where = " where (" + key + "<? or " + key + " is null)";
+					segParams = new Object[] {bounds[0]};
+				} else if (i == segCount - 1) {
+					where = " where " + key + ">=?";
+					segParams = new Object[] {bounds[i - 1]};
+				} else {
+					where = " where " + key + ">=? and " + key + "<?";
+					segParams = new Object[] {bounds[i - 1], bounds[i]};
+				}
+				
+				Object []allParams = new Object[paramCount + segParams.length];
+				if (paramCount > 0) {
+					System.arraycopy(params, 0, allParams, 0, paramCount);
+				}
+				
+				System.arraycopy(segParams, 0, allParams, paramCount, segParams.length);
+				DBObject segDb = new DBObject(factory, dbOpt, ctx);
+				String segSql = "select *" + " from (" + sql + ") T_RANGE" + where;
+				cursors[i] = new DBCursor(segSql, allParams, types, segDb, segOpt, ctx);
+				if (fetchSize > 0) {
+					cursors[i].setFetchSize(fetchSize);
+				}
+			}
+		} catch (Exception e) {
+			for (DBCursor cursor : cursors) {
+				if (cursor != null) {
+					cursor.close();
+				}
+			}
+			
+			if (e instanceof RQException) {
+				throw (RQException)e;
+			} else {
+				throw new RQException(e.getMessage(), e);
+			}
+		} finally {
+			// ½ӣֻȡķΧ@xʱر
+			if (opt != null && opt.indexOf('x') != -1 && db.canClose()) {
+				db.close();
+			}
+		}
+		
+		return new MultipathCursors(cursors, ctx);
+	}
+	
+	// ֵ[min, max]ȷֳsegCountΣмķֶε㣬ֶܷʱؿ
+	static Object[] getRangeBounds(Object min, Object max, int segCount) {
+		double start, end;
+		boolean isDate = false;
+		boolean isIntegral = false;
+		if (min instanceof Number && max instanceof Number) {
+			start = ((Number)min).doubleValue();
+			end = ((Number)max).doubleValue();
+			isIntegral = isIntegral(min) && isIntegral(max);
+		} else if (min instanceof java.util.Date && max instanceof java.util.Date) {
+			start = ((java.util.Date)min).getTime();
+			end = ((java.util.Date)max).getTime();
+			isDate = true;
+		} else {
+			return null;
+		}
+		
+		ArrayList<Object> list = new ArrayList<Object>(segCount - 1);
+		double prev = start;
+		for (int i = 1; i < segCount; ++i) {
+			double bound = start + (end - start) * i / segCount;
+			if (isIntegral || isDate) {
+				bound = Math.ceil(bound);
+			}
+			
+			if (bound <= prev || bound > end) {
+				continue;
+			}
+			
+			prev = bound;
+			if (isDate) {
+				list.add(new java.sql.Timestamp((long)bound));
+			} else if (isIntegral) {
+				list.add(new Long((long)bound));
+			} else {
+				list.add(new Double(bound));
+			}
+		}
+		
+		if (list.size() == 0) {
+			return null;
+		} else {
+			return list.toArray();
+		}
+	}
+	
+	private static boolean isIntegral(Object obj) {
+		if (obj instanceof Integer || obj instanceof Long || obj instanceof Short ||
+				obj instanceof Byte || obj instanceof java.math.BigInteger) {
+			return true;
+		} else if (obj instanceof java.math.BigDecimal) {
+			return ((java.math.BigDecimal)obj).scale() <= 0 || 
+					((java.math.BigDecimal)obj).stripTrailingZeros().scale() <= 0;
+		} else {
+			return false;
+		}
+	}
+	
 	protected void finalize() throws Throwable {
 		close();
 	}
@@ -136,6 +136,93 @@ public class FileCursor extends ICursor {
 		}
 	}
 
+	/**
+	 * ıļĶ·α꣬ļֳsegCountɶ̲߳жȡΰ˳ƴӾļ
+	 * @o@lѡʱ˳ɨһļڲڻке׷ֶΣֶֽκͷȥβ
+	 * ûֶָκʱֻõһƶһֶͣζͽٸƶ
+	 * @param fileObject ıļ
+	 * @param segCount ֶ
+	 * @param fields ѡֶ
+	 * @param types ѡֶ飨ɿգcom.scudata.common.Types
+	 * @param fmts ʱֶεĸʽ
+	 * @param s зָ
+	 * @param opt ѡͬ캯
+	 * @param ctx
+	 * @return εα
+	 */
+	public static FileCursor[] createSegmentCursors(FileObject fileObject, int segCount, String []fields, 
+			byte []types, String []fmts, String s, String opt, Context ctx) {
+		FileCursor []cursors = new FileCursor[segCount];
+		for (int i = 0; i < segCount; ++i) {
+			cursors[i] = new FileCursor(fileObject, i + 1, segCount, fields, types, s, opt, ctx);
+			cursors[i].setFormats(fmts);
+		}
+		
+		boolean splitByLine = opt != null && (opt.indexOf('o') != -1 || opt.indexOf('l') != -1);
+		boolean inferTypes = fields == null && types == null && !hasOption(opt, "sfdnvwi");
+		if (segCount < 2 || (!splitByLine && !inferTypes)) {
+			return cursors;
+		}
+		
+		FileCursor first = cursors[0];
+		LineImporter importer = null;
+		try {
+			importer = new LineImporter(fileObject.getBlockInputStream(), 
+					fileObject.getCharset(), first.colSeparator, opt);
+			if (first.isTitle && !importer.skipLine()) {
+				return cursors;
+			}
+			
+			if (inferTypes) {
+				Object []line = importer.readFirstLine();
+				if (line == null) {
+					return cursors;
+				}
+				
+				int fcount = line.length;
+				byte []colTypes = new byte[fcount];
+				for (int f = 0; f < fcount; ++f) {
+					colTypes[f] = Variant.getObjectType(line[f]);
+				}
+				
+				for (int i = 1; i < segCount; ++i) {
+					cursors[i].types = colTypes;
+				}
+			}
+			
+			if (splitByLine) {
+				long []ends = importer.getSegmentEnds(segCount, fileObject.size());
+				for (int i = 0; i < segCount; ++i) {
+					cursors[i].start = i == 0 ? 0 : ends[i - 1];
+					cursors[i].end = ends[i];
+				}
+			}
+			
+			return cursors;
+		} catch (IOException e) {
+			throw new RQException(e.getMessage(), e);
+		} finally {
+			if (importer != null) {
+				try {
+					importer.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+	}
+	
+	private static boolean hasOption(String opt, String chars) {
+		if (opt != null) {
+			for (int i = 0; i < chars.length(); ++i) {
+				if (opt.indexOf(chars.charAt(i)) != -1) {
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
 	/**
 	 * öļʼλ
 	 * @param startPos ʼλãͷȥβ
@@ -270,6 +357,11 @@ public class FileCursor extends ICursor {
 					
 					if (optimize) {
 						byte []colTypes = new byte[fcount];
+						if (types != null && types.length == fcount) {
+							// ̶߳ʱõһƶϳ
+							System.arraycopy(types, 0, colTypes, 0, fcount);
+						}
+						
 						importer.setColTypes(colTypes, fmts);
 					}
 				}
@@ -411,8 +503,13 @@ public class FileCursor extends ICursor {
 			
 			if (optimize) {
 				byte []colTypes = new byte[fcount];
-				for (int i = 0; i < fcount; ++i) {
-					colTypes[i] = Variant.getObjectType(line[i]);
+				if (types != null && types.length == fcount) {
+					// ̶߳ʱõһƶϳ
+					System.arraycopy(types, 0, colTypes, 0, fcount);
+				} else {
+					for (int i = 0; i < fcount; ++i) {
+						colTypes[i] = Variant.getObjectType(line[i]);
+					}
 				}
 	
 				importer.setColTypes(colTypes, fmts);
@@ -8,6 +8,7 @@ import com.scudata.common.RQException;
 import com.scudata.dm.ComputeStack;
 import com.scudata.dm.Context;
 import com.scudata.dm.DataStruct;
+import com.scudata.dm.Env;
 import com.scudata.dm.IResource;
 import com.scudata.dm.ListBase1;
 import com.scudata.dm.Param;
@@ -15,6 +16,7 @@ import com.scudata.dm.Record;
 import com.scudata.dm.Sequence;
 import com.scudata.dm.Table;
 import com.scudata.dm.Sequence.Current;
+import com.scudata.dm.op.GroupsResult;
 import com.scudata.dm.op.GroupxResult;
 import com.scudata.dm.op.IDResult;
 import com.scudata.dm.op.IGroupsResult;
@@ -24,6 +26,7 @@ import com.scudata.dm.op.TotalResult;
 import com.scudata.expression.Expression;
 import com.scudata.resources.EngineMessage;
 import com.scudata.util.CursorUtil;
+import com.scudata.util.EnvUtil;
 import com.scudata.util.Variant;
 
 /**
@@ -1104,6 +1107,32 @@ abstract public class ICursor implements IResource, Operable {
 		return groupx.getResultCursor();
 	}
 
+	/**
+	 * αзܣسα꣬ռõڴ泬Env.getGroupsMemory()ʱд
+	 * ûڴʱڴȷڴбķ
+	 * @param exps ʽ
+	 * @param names	ֶ
+	 * @param calcExps ܱʽ	
+	 * @param calcNames	ֶ
+	 * @param opt ѡ
+	 * @param ctx 
+	 * @return ICursor α
+	 */
+	public ICursor groupx(Expression[] exps, String []names, 
+			Expression[] calcExps, String []calcNames, String opt, Context ctx) {
+		if (Env.getGroupsMemory() <= 0 || exps == null || exps.length == 0 || 
+				(opt != null && opt.indexOf('n') != -1)) {
+			int fcount = exps == null ? 0 : exps.length;
+			if (calcExps != null) fcount += calcExps.length;
+			return groupx(exps, names, calcExps, calcNames, opt, ctx, EnvUtil.getCapacity(fcount));
+		}
+		
+		String groupsOpt = opt != null && opt.indexOf('u') != -1 ? "u" : null;
+		GroupsResult groups = new GroupsResult(exps, names, calcExps, calcNames, groupsOpt, ctx);
+		groups.push(this);
+		return groups.getResultCursor();
+	}
+
 	/**
 	 * ÿʽйϣȥأcountֵͬ
 	 * @param exps ʽ
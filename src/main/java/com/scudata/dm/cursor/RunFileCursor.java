@@ -0,0 +1,247 @@
+package com.scudata.dm.cursor;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.scudata.common.RQException;
+import com.scudata.dm.DataStruct;
+import com.scudata.dm.FileObject;
+import com.scudata.dm.ListBase1;
+import com.scudata.dm.ObjectReader;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.dw.BufferPool;
+import com.scudata.dw.LZ4Util;
+import com.scudata.thread.Job;
+import com.scudata.thread.ThreadPool;
+
+/**
+ * ʱļα꣬ȡRunFileWriterдļ
+ * ȡǰʱ̳߳Ԥȶȡѹһ飬鲢ʱļͽѹռù鲢߳
+ * αرպɾļ
+ * @author RunQian
+ *
+ */
+public class RunFileCursor extends ICursor {
+	private FileObject file;
+	private DataStruct ds;
+	private InputStream is;
+
+	private Sequence data; // ǰļ¼
+	private int next = 1; // һ¼ڵǰе
+	private ReadJob readJob; // Ԥһ
+	private boolean isEnd = false;
+
+	// ȡһ
+	private class ReadJob extends Job {
+		private Sequence result;
+
+		public void run() {
+			try {
+				result = readBlock();
+			} catch (IOException e) {
+				throw new RQException(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * ļα
+	 * @param file ʱļ
+	 * @param ds ¼ݽṹ
+	 */
+	public RunFileCursor(FileObject file, DataStruct ds) {
+		this.file = file;
+		this.ds = ds;
+		setDataStruct(ds);
+		is = file.getInputStream();
+		prefetch();
+	}
+
+	// ύԤһ
+	private void prefetch() {
+		readJob = new ReadJob();
+		ThreadPool.instance().submit(readJob);
+	}
+
+	// ȡԤĿ鲢ʼԤһ飬ûʱؿ
+	private Sequence nextBlock() {
+		if (readJob == null) {
+			return null;
+		}
+
+		ReadJob job = readJob;
+		readJob = null;
+		job.join();
+
+		Sequence result = job.result;
+		if (result != null) {
+			prefetch();
+		}
+
+		return result;
+	}
+
+	// 벢ѹһ飬ļؿ
+	private Sequence readBlock() throws IOException {
+		byte []header = new byte[12];
+		int n = readFully(header, 12);
+		if (n == 0) {
+			return null;
+		} else if (n < 12) {
+			throw new EOFException();
+		}
+
+		int recordCount = readInt32(header, 0);
+		int srcCount = readInt32(header, 4);
+		int count = readInt32(header, 8);
+		byte []bytes = BufferPool.get(count);
+		byte []buffer = new byte[srcCount];
+
+		try {
+			if (readFully(bytes, count) < count) {
+				throw new EOFException();
+			}
+
+			LZ4Util.instance().decompress(bytes, buffer, srcCount);
+		} finally {
+			BufferPool.release(bytes);
+		}
+
+		DataStruct ds = this.ds;
+		int fcount = ds.getFieldCount();
+		ObjectReader reader = new ObjectReader(new ByteArrayInputStream(buffer), 1024 * 8);
+		Table table = new Table(ds, recordCount);
+		ListBase1 mems = table.getMems();
+		for (int i = 0; i < recordCount; ++i) {
+			Object []vals = new Object[fcount];
+			for (int f = 0; f < fcount; ++f) {
+				vals[f] = reader.readObject();
+			}
+
+			mems.add(new Record(ds, vals));
+		}
+
+		return table;
+	}
+
+	// lenֽڣʵʶֽСlenʾļ
+	private int readFully(byte []buffer, int len) throws IOException {
+		int total = 0;
+		while (total < len) {
+			int n = is.read(buffer, total, len - total);
+			if (n < 0) {
+				break;
+			}
+
+			total += n;
+		}
+
+		return total;
+	}
+
+	private static int readInt32(byte []buffer, int pos) {
+		return (buffer[pos] << 24) + ((buffer[pos + 1] & 0xff) << 16) +
+			((buffer[pos + 2] & 0xff) << 8) + (buffer[pos + 3] & 0xff);
+	}
+
+	/**
+	 * ȡָݷ
+	 * @param n 
+	 * @return Sequence
+	 */
+	protected Sequence get(int n) {
+		if (n < 1 || isEnd) {
+			return null;
+		}
+
+		Table result = null;
+		while (n > 0) {
+			if (data == null) {
+				data = nextBlock();
+				next = 1;
+				if (data == null) {
+					isEnd = true;
+					break;
+				}
+			}
+
+			int rest = data.length() - next + 1;
+			if (result == null && next == 1 && rest <= n) {
+				// 鷵أҪ
+				result = (Table)data;
+				data = null;
+				n -= rest;
+				continue;
+			}
+
+			if (result == null) {
+				result = new Table(ds, n);
+			}
+
+			int count = rest < n ? rest : n;
+			result.getMems().addSection(data.getMems(), next, next + count);
+			next += count;
+			n -= count;
+			if (next > data.length()) {
+				data = null;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * ָ
+	 * @param n 
+	 * @return long ʵ
+	 */
+	protected long skipOver(long n) {
+		long count = 0;
+		while (count < n) {
+			Sequence seq = get((int)Math.min(n - count, MAXSIZE));
+			if (seq == null || seq.length() == 0) {
+				break;
+			}
+
+			count += seq.length();
+		}
+
+		return count;
+	}
+
+	/**
+	 * رα겢ɾļ
+	 */
+	public synchronized void close() {
+		super.close();
+
+		if (readJob != null) {
+			try {
+				readJob.join();
+			} catch (RuntimeException e) {
+			}
+
+			readJob = null;
+		}
+
+		data = null;
+		isEnd = true;
+		if (file != null) {
+			try {
+				is.close();
+			} catch (IOException e) {
+			}
+
+			file.delete();
+			file = null;
+		}
+	}
+
+	protected void finalize() throws Throwable {
+		close();
+	}
+}
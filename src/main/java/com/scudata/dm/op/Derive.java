@@ -1,5 +1,6 @@
 package com.scudata.dm.op;
 
+import com.scudata.array.IArray;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.ComputeStack;
@@ -122,6 +123,12 @@ public class Derive extends Operation  {
 
 		try {
 			if (containNull) {
+				// ֵֶ
+				IArray []columns = Operation.calculateAll(exps, names, seq.dataStruct(), ctx);
+				if (columns == null) {
+					columns = new IArray[colCount];
+				}
+				
 				for (int i = 1; i <= len; ++i) {
 					Record or = (Record)mems.get(i);
 					Record r = table.newLast(or.getFieldValues());
@@ -131,7 +138,11 @@ public class Derive extends Operation  {
 
 					// ֶ
 					for (int c = 0; c < colCount; ++c) {
-						r.setNormalFieldValue(c + oldColCount, exps[c].calculate(ctx));
+						if (columns[c] != null) {
+							r.setNormalFieldValue(c + oldColCount, columns[c].get(i));
+						} else {
+							r.setNormalFieldValue(c + oldColCount, exps[c].calculate(ctx));
+						}
 					}
 				}
 			} else {
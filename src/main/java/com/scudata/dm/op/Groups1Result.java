@@ -1,5 +1,6 @@
 package com.scudata.dm.op;
 
+import com.scudata.array.IArray;
 import com.scudata.common.MessageManager;
 import com.scudata.common.ObjectCache;
 import com.scudata.common.RQException;
@@ -357,9 +358,13 @@ public class Groups1Result extends IGroupsResult {
 		stack.push(current);
 
 		try {
+			// ʽʱгԱķֵ
+			IArray []keyValues = Operation.calculateAll(new Expression[]{gexp}, null, null, ctx);
+			IArray keyArray = keyValues != null ? keyValues[0] : null;
+			
 			for (int i = 1, len = table.length(); i <= len; ++i) {
 				current.setCurrent(i);
-				key = gexp.calculate(ctx);
+				key = keyArray != null ? keyArray.get(i) : gexp.calculate(ctx);
 
 				Record r;
 				int hash = hashUtil.hashCode(key);
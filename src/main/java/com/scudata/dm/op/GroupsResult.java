@@ -1,5 +1,13 @@
 package com.scudata.dm.op;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import com.scudata.array.IArray;
+import com.scudata.common.Logger;
 import com.scudata.common.MessageManager;
 import com.scudata.common.ObjectCache;
 import com.scudata.common.RQException;
@@ -7,11 +15,17 @@ import com.scudata.dm.ComputeStack;
 import com.scudata.dm.Context;
 import com.scudata.dm.DataStruct;
 import com.scudata.dm.Env;
+import com.scudata.dm.FileObject;
 import com.scudata.dm.ListBase1;
 import com.scudata.dm.Record;
+import com.scudata.dm.RunFileWriter;
 import com.scudata.dm.Sequence;
 import com.scudata.dm.Table;
+import com.scudata.dm.cursor.ConjxCursor;
 import com.scudata.dm.cursor.ICursor;
+import com.scudata.dm.cursor.MemoryCursor;
+import com.scudata.dm.cursor.MergesCursor;
+import com.scudata.dm.cursor.RunFileCursor;
 import com.scudata.expression.Expression;
 import com.scudata.expression.Gather;
 import com.scudata.expression.Node;
@@ -21,6 +35,9 @@ import com.scudata.util.Variant;
 
 /**
  * ڶִаֶνڴ
+ * Env.getGroupsMemoryϣʱռõڴ棬ʱѷϣдʱļ
+ * ȡʱλܣĻܽʱٷʱʱļ
+ * getResultCursorȡʱÿֻһĽڴ
  * @author RunQian
  *
  */
@@ -50,6 +67,17 @@ public class GroupsResult extends IGroupsResult {
 	private boolean nOpt;
 	private boolean hOpt;
 	public boolean XOpt;//ʹö̬Żʹ
+	
+	private static final int SPILL_FILE_COUNT = 29; // ʱķļ
+	private static final int SAMPLE_INTERVAL = 1024; // ÿٸ¹һμ¼С
+	private static final int MAX_SPILL_LEVEL = 4; // Ĺϣֵͬʱ޷ٲ
+	
+	private long memoryLimit; // ռڴޣ0ʾ
+	private int spillLevel; // Ĳλܷʱ1ͬòͬķ
+	private long usedMemory; // ǰռõڴ
+	private long recordSize; // ÿ¼ռõڴ
+	private FileObject []spillFiles; // ķļ
+	private RunFileWriter []spillWriters; // ļд
 
 	/**
 	 * ʼ
@@ -140,6 +168,7 @@ public class GroupsResult extends IGroupsResult {
 		} else if (keyCount != 0 && !oOpt && !iOpt && !nOpt) {
 			hashUtil = new HashUtil(capacity);
 			groups = new ListBase1[hashUtil.getCapacity()];
+			memoryLimit = Env.getGroupsMemory();
 		}
 		
 		result = new Table(ds, 1024);
@@ -226,7 +255,9 @@ public class GroupsResult extends IGroupsResult {
 	 * @return Table
 	 */
 	public Table getTempResult() {
-		if (hashUtil != null) {
+		if (spillWriters != null) {
+			return getSpillResult(true);
+		} else if (hashUtil != null) {
 			this.hashUtil = null;
 			this.groups = null;
 		}  else if (nOpt) {
@@ -255,7 +286,9 @@ public class GroupsResult extends IGroupsResult {
 	 * @return Table
 	 */
 	public Table getResultTable() {
-		if (hashUtil != null) {	
+		if (spillWriters != null) {
+			return getSpillResult(false);
+		} else if (hashUtil != null) {	
 			if (opt == null || opt.indexOf('u') == -1) {
 				int []fields = new int[keyCount];
 				for (int i = 0; i < keyCount; ++i) {
@@ -410,11 +443,21 @@ public class GroupsResult extends IGroupsResult {
 		stack.push(current);
 
 		try {
+			// ķʽгԱķֵ
+			IArray []keyArrays = Operation.calculateAll(exps, null, null, ctx);
+			if (keyArrays == null) {
+				keyArrays = new IArray[keyCount];
+			}
+			
 			for (int i = 1, len = table.length(); i <= len; ++i) {
 				current.setCurrent(i);
 				// ݼ¼ɼֵ
 				for (int k = 0; k < keyCount; ++k) {
-					keys[k] = exps[k].calculate(ctx);
+					if (keyArrays[k] != null) {
+						keys[k] = keyArrays[k].get(i);
+					} else {
+						keys[k] = exps[k].calculate(ctx);
+					}
 				}
 
 				Record r;
@@ -427,6 +470,10 @@ public class GroupsResult extends IGroupsResult {
 						Object val = gathers[v].gather(ctx);
 						r.setNormalFieldValue(f, val);
 					}
+					
+					if (memoryLimit > 0) {
+						addMemory(r);
+					}
 				} else {
 					int index = HashUtil.bsearch_r(groups[hash], keys);
 					if (index < 1) {
@@ -436,6 +483,10 @@ public class GroupsResult extends IGroupsResult {
 							Object val = gathers[v].gather(ctx);
 							r.setNormalFieldValue(f, val);
 						}
+						
+						if (memoryLimit > 0) {
+							addMemory(r);
+						}
 					} else {
 						r = (Record)groups[hash].get(index);
 						for (int v = 0, f = keyCount; v < valCount; ++v, ++f) {
@@ -445,10 +496,373 @@ public class GroupsResult extends IGroupsResult {
 					}
 				}
 			}
+		} catch (RuntimeException e) {
+			deleteSpillFiles();
+			throw e;
 		} finally {
 			stack.pop();
 		}
 	}
+	
+	// ۼռõڴ棬ʱѵǰдļ
+	private void addMemory(Record r) {
+		if (result.length() % SAMPLE_INTERVAL == 1) {
+			// ֵĴСݱ仯¼¼¹
+			long size = estimateSize(r);
+			recordSize = recordSize == 0 ? size : (recordSize + size) / 2;
+		}
+		
+		usedMemory += recordSize;
+		if (usedMemory > memoryLimit) {
+			spill();
+		}
+	}
+	
+	// ¼ռõڴ棬¼ֵֶ͹ϣе
+	private static long estimateSize(Record r) {
+		Object []vals = r.getFieldValues();
+		long size = 64 + 8 * vals.length;
+		for (Object val : vals) {
+			size += estimateSize(val);
+		}
+		
+		return size;
+	}
+	
+	private static long estimateSize(Object val) {
+		if (val == null) {
+			return 0;
+		} else if (val instanceof String) {
+			return 40 + 2 * ((String)val).length();
+		} else if (val instanceof BigDecimal) {
+			return 64;
+		} else if (val instanceof Number || val instanceof Date) {
+			return 24;
+		} else if (val instanceof Sequence) {
+			Sequence seq = (Sequence)val;
+			int len = seq.length();
+			long size = 48 + 8 * len;
+			if (len > 0) {
+				size += len * estimateSize(seq.getMem(1));
+			}
+			
+			return size;
+		} else if (val instanceof Record) {
+			return estimateSize((Record)val);
+		} else {
+			return 32;
+		}
+	}
+	
+	// ѵǰϣֵдʱļȻչϣ
+	private void spill() {
+		final int fileCount = SPILL_FILE_COUNT;
+		if (spillWriters == null) {
+			spillFiles = new FileObject[fileCount];
+			spillWriters = new RunFileWriter[fileCount];
+			MessageManager mm = EngineMessage.get();
+			
+			for (int i = 0; i < fileCount; ++i) {
+				spillFiles[i] = FileObject.createTempFileObject();
+				Logger.info(mm.getMessage("engine.createTmpFile") + spillFiles[i].getFileName());
+				spillWriters[i] = new RunFileWriter(spillFiles[i]);
+			}
+		}
+		
+		Table result = this.result;
+		if (valCount > 0) {
+			result.finishGather1(gathers);
+		}
+		
+		// ͬһһдͬһļλʱÿļԵ
+		Sequence []seqs = new Sequence[fileCount];
+		int initSize = result.length() / fileCount + 1024;
+		for (int i = 0; i < fileCount; ++i) {
+			seqs[i] = new Sequence(initSize);
+		}
+		
+		ListBase1 mems = result.getMems();
+		for (int i = 1, len = mems.size(); i <= len; ++i) {
+			Record r = (Record)mems.get(i);
+			seqs[getPartition(r.getFieldValues())].add(r);
+		}
+		
+		Arrays.fill(groups, null);
+		
+		try {
+			for (int i = 0; i < fileCount; ++i) {
+				if (seqs[i].length() > 0) {
+					spillWriters[i].write(seqs[i], 1, seqs[i].length());
+				}
+			}
+		} catch (IOException e) {
+			deleteSpillFiles();
+			throw new RQException(e.getMessage(), e);
+		}
+		
+		result.clear();
+		usedMemory = 0;
+	}
+	
+	// ڵķ÷ӣϲͬһһֵܷͬ
+	private int getPartition(Object []vals) {
+		int h = spillLevel * 0x9E3779B9;
+		for (int k = 0; k < keyCount; ++k) {
+			h = 31 * h + (vals[k] != null ? vals[k].hashCode() : 0);
+		}
+		
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return (h & 0x7FFFFFFF) % SPILL_FILE_COUNT;
+	}
+	
+	// ڴʣĽдļرд
+	private void finishSpill() {
+		if (result.length() > 0) {
+			spill();
+		}
+		
+		try {
+			for (RunFileWriter writer : spillWriters) {
+				writer.close();
+			}
+		} catch (IOException e) {
+			deleteSpillFiles();
+			throw new RQException(e.getMessage(), e);
+		}
+		
+		this.hashUtil = null;
+		this.groups = null;
+		this.prevRecord = null;
+		this.result = null;
+	}
+	
+	// һļλܣĽڴʱٷļڶɾ
+	private Table groupPartition(FileObject file, boolean isTemp, int capacity) {
+		// ȡξۺҪõıʽ
+		Expression []keyExps = new Expression[keyCount];
+		for (int i = 0, q = 1; i < keyCount; ++i, ++q) {
+			keyExps[i] = new Expression(ctx, "#" + q);
+		}
+
+		Expression []valExps = null;
+		if (valCount > 0) {
+			valExps = new Expression[valCount];
+			for (int i = 0, q = keyCount + 1; i < valCount; ++i, ++q) {
+				valExps[i] = gathers[i].getRegatherExpression(q);
+			}
+		}
+		
+		RunFileCursor cursor = new RunFileCursor(file, ds);
+		try {
+			GroupsResult groups = new GroupsResult(keyExps, names, valExps, calcNames, "u", ctx, capacity);
+			groups.spillLevel = spillLevel + 1;
+			groups.memoryLimit = groups.spillLevel < MAX_SPILL_LEVEL ? memoryLimit : 0;
+			groups.push(cursor);
+			return isTemp ? groups.getTempResult() : groups.getResultTable();
+		} finally {
+			// رαʱɾļ
+			cursor.close();
+		}
+	}
+	
+	// սһѡɾֵ
+	private void finishPartition(Table table) {
+		if (opt == null || opt.indexOf('u') == -1) {
+			int []fields = new int[keyCount];
+			for (int i = 0; i < keyCount; ++i) {
+				fields[i] = i;
+			}
+
+			table.sortFields(fields);
+		}
+		
+		if (opt != null && opt.indexOf('0') != -1) {
+			table.deleteNullFieldRecord(0);
+		}
+	}
+	
+	// ȡĽļλܺϲ
+	private Table getSpillResult(boolean isTemp) {
+		int capacity = hashUtil.getCapacity();
+		finishSpill();
+		
+		FileObject []spillFiles = this.spillFiles;
+		Table table = new Table(ds, 1024);
+		ListBase1 mems = table.getMems();
+		
+		try {
+			for (int i = 0; i < spillFiles.length; ++i) {
+				Table part = groupPartition(spillFiles[i], isTemp, capacity);
+				if (part != null) {
+					mems.addAll(part.getMems());
+				}
+			}
+		} finally {
+			deleteSpillFiles();
+		}
+		
+		if (table.length() == 0) {
+			return isTemp || opt == null || opt.indexOf('t') == -1 ? null : table;
+		}
+		
+		if (!isTemp) {
+			finishPartition(table);
+		}
+		
+		table.trimToSize();
+		return table;
+	}
+	
+	/**
+	 * ȡܽα꣬ûʱڴα
+	 * ʱλܣҪʱηأźķдʱļٹ鲢
+	 * ڴֻһĻܽ
+	 * @return ICursor Ϊʱؿ
+	 */
+	public ICursor getResultCursor() {
+		if (spillWriters == null) {
+			Table table = getResultTable();
+			return table == null || table.length() == 0 ? null : new MemoryCursor(table);
+		}
+		
+		int capacity = hashUtil.getCapacity();
+		finishSpill();
+		
+		FileObject []spillFiles = this.spillFiles;
+		int fileCount = spillFiles.length;
+		
+		if (opt != null && opt.indexOf('u') != -1) {
+			// ļα꣬ʱٶλ
+			ICursor []cursors = new ICursor[fileCount];
+			for (int i = 0; i < fileCount; ++i) {
+				cursors[i] = new PartitionCursor(spillFiles[i], capacity);
+			}
+			
+			this.spillWriters = null;
+			this.spillFiles = null;
+			return new ConjxCursor(cursors);
+		}
+		
+		ArrayList<ICursor> cursorList = new ArrayList<ICursor>(fileCount);
+		try {
+			MessageManager mm = EngineMessage.get();
+			for (int i = 0; i < fileCount; ++i) {
+				Table part = groupPartition(spillFiles[i], false, capacity);
+				if (part == null || part.length() == 0) {
+					continue;
+				}
+				
+				finishPartition(part);
+				FileObject file = FileObject.createTempFileObject();
+				Logger.info(mm.getMessage("engine.createTmpFile") + file.getFileName());
+				RunFileWriter writer = new RunFileWriter(file);
+				try {
+					writer.write(part, 1, part.length());
+				} finally {
+					writer.close();
+				}
+				
+				cursorList.add(new RunFileCursor(file, ds));
+			}
+		} catch (IOException e) {
+			for (ICursor cursor : cursorList) {
+				cursor.close();
+			}
+			
+			throw new RQException(e.getMessage(), e);
+		} finally {
+			deleteSpillFiles();
+		}
+		
+		int size = cursorList.size();
+		if (size == 0) {
+			return null;
+		} else if (size == 1) {
+			return cursorList.get(0);
+		}
+		
+		// ͬ鲻ظ鲢
+		Expression []keyExps = new Expression[keyCount];
+		for (int i = 0, q = 1; i < keyCount; ++i, ++q) {
+			keyExps[i] = new Expression(ctx, "#" + q);
+		}
+		
+		ICursor []cursors = new ICursor[size];
+		cursorList.toArray(cursors);
+		return new MergesCursor(cursors, keyExps, ctx);
+	}
+	
+	// ҪʱһĽα꣬һȡʱŶԷļλ
+	private class PartitionCursor extends ICursor {
+		private FileObject file; // ļλܺɾ
+		private int capacity; // λܵĹϣ
+		private ICursor result; // Ļܽ
+
+		PartitionCursor(FileObject file, int capacity) {
+			this.file = file;
+			this.capacity = capacity;
+			this.ctx = GroupsResult.this.ctx;
+		}
+
+		private ICursor getResult() {
+			if (result == null && file != null) {
+				Table table = groupPartition(file, false, capacity);
+				file = null;
+				if (table != null) {
+					finishPartition(table);
+					result = new MemoryCursor(table);
+				}
+			}
+			
+			return result;
+		}
+		
+		protected Sequence get(int n) {
+			ICursor result = getResult();
+			return result == null ? null : result.fetch(n);
+		}
+
+		protected long skipOver(long n) {
+			ICursor result = getResult();
+			return result == null ? 0 : result.skip(n);
+		}
+
+		public synchronized void close() {
+			super.close();
+			if (file != null) {
+				file.delete();
+				file = null;
+			}
+			
+			if (result != null) {
+				result.close();
+				result = null;
+			}
+		}
+	}
+	
+	// ɾķļ
+	private void deleteSpillFiles() {
+		if (spillWriters != null) {
+			for (RunFileWriter writer : spillWriters) {
+				try {
+					if (writer != null) writer.close();
+				} catch (IOException e) {
+				}
+			}
+			
+			for (FileObject file : spillFiles) {
+				if (file != null) file.delete();
+			}
+			
+			spillWriters = null;
+			spillFiles = null;
+		}
+	}
 
 	private void addGroups_1(Sequence table, Context ctx) {
 		ComputeStack stack = ctx.getComputeStack();
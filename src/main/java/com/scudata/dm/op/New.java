@@ -1,8 +1,13 @@
 package com.scudata.dm.op;
 
+import com.scudata.array.IArray;
+import com.scudata.dm.ComputeStack;
 import com.scudata.dm.Context;
 import com.scudata.dm.DataStruct;
+import com.scudata.dm.Record;
 import com.scudata.dm.Sequence;
+import com.scudata.dm.Sequence.Current;
+import com.scudata.dm.Table;
 import com.scudata.expression.Expression;
 import com.scudata.expression.Function;
 
@@ -82,6 +87,50 @@ public class New extends Operation  {
 			}
 		}
 		
-		return seq.newTable(newDs, newExps, opt, ctx);
+		if (opt == null || opt.indexOf('i') == -1) {
+			return newTable(seq, ctx);
+		} else {
+			return seq.newTable(newDs, newExps, opt, ctx);
+		}
+	}
+	
+	// ֵֶ飬ֶ
+	private Table newTable(Sequence seq, Context ctx) {
+		DataStruct newDs = this.newDs;
+		Expression []exps = this.newExps;
+		int colCount = exps.length;
+		int len = seq.length();
+		Table table = new Table(newDs, len);
+
+		ComputeStack stack = ctx.getComputeStack();
+		Current newCurrent = table.new Current();
+		stack.push(newCurrent);
+		Current current = seq.new Current();
+		stack.push(current);
+
+		try {
+			IArray []columns = Operation.calculateAll(exps, names, seq.dataStruct(), ctx);
+			if (columns == null) {
+				columns = new IArray[colCount];
+			}
+			
+			for (int i = 1; i <= len; ++i) {
+				Record r = table.newLast();
+				newCurrent.setCurrent(i);
+				current.setCurrent(i);
+				for (int c = 0; c < colCount; ++c) {
+					if (columns[c] != null) {
+						r.setNormalFieldValue(c, columns[c].get(i));
+					} else {
+						r.setNormalFieldValue(c, exps[c].calculate(ctx));
+					}
+				}
+			}
+		} finally {
+			stack.pop();
+			stack.pop();
+		}
+
+		return table;
 	}
 }
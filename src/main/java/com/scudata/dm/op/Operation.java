@@ -1,10 +1,15 @@
 package com.scudata.dm.op;
 
+import com.scudata.array.IArray;
 import com.scudata.cellset.INormalCell;
 import com.scudata.dm.Context;
+import com.scudata.dm.DataStruct;
 import com.scudata.dm.Sequence;
+import com.scudata.expression.Constant;
 import com.scudata.expression.Expression;
 import com.scudata.expression.Function;
+import com.scudata.expression.Node;
+import com.scudata.expression.UnknownSymbol;
 
 /**
  * α͹ܵӳټ㺯
@@ -132,6 +137,60 @@ public abstract class Operation {
 		return dupExps;
 	}
 
+	/**
+	 * ıʽջгԱֵǰѹջ
+	 * ֶκͳʽȡֵ죬
+	 * бʽʱ㣬ıʽиֵȸãÿ¼ҵļ˳
+	 * @param exps ʽ
+	 * @param newNames ²ֶЩֶεıʽ㣬ɿ
+	 * @param srcDs Դеݽṹɿ
+	 * @param ctx 
+	 * @return ֵ飬ıʽӦλΪգʱؿ
+	 */
+	public static IArray[] calculateAll(Expression []exps, String []newNames, DataStruct srcDs, Context ctx) {
+		if (exps == null) {
+			return null;
+		}
+		
+		int count = exps.length;
+		for (Expression exp : exps) {
+			if (exp != null && !exp.canCalculateAll()) {
+				return null;
+			}
+		}
+		
+		IArray []result = null;
+		
+		Next:
+		for (int i = 0; i < count; ++i) {
+			Expression exp = exps[i];
+			if (exp == null) {
+				continue;
+			}
+			
+			Node home = exp.getHome();
+			if (home instanceof UnknownSymbol || home instanceof Constant) {
+				continue;
+			}
+			
+			if (newNames != null) {
+				for (String name : newNames) {
+					if (name != null && (srcDs == null || srcDs.getFieldIndex(name) == -1) && exp.containParam(name)) {
+						continue Next;
+					}
+				}
+			}
+			
+			if (result == null) {
+				result = new IArray[count];
+			}
+			
+			result[i] = exp.calculateAll(ctx);
+		}
+		
+		return result;
+	}
+
 	public INormalCell getCurrentCell() {
 		return currentCell;
 	}
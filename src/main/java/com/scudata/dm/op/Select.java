@@ -1,5 +1,7 @@
 package com.scudata.dm.op;
 
+import com.scudata.array.ArrayCalc;
+import com.scudata.array.IArray;
 import com.scudata.dm.ComputeStack;
 import com.scudata.dm.Context;
 import com.scudata.dm.Sequence;
@@ -50,6 +52,22 @@ public class Select extends Operation {
 		return fltExp;
 	}
 
+	/**
+	 * ȡѡ
+	 * @return
+	 */
+	public String getOption() {
+		return opt;
+	}
+	
+	/**
+	 * ȡղݵĹܵ
+	 * @return IPipeûʱؿ
+	 */
+	public IPipe getPipe() {
+		return pipe;
+	}
+
 	/**
 	 * ȡǷԪ˺ټ¼
 	 * ˺αľȷȡӵĲʹ¼ֻ谴ȡ
@@ -118,6 +136,21 @@ public class Select extends Operation {
 						}
 					}
 				}
+			} else if (exp.canCalculateAll()) {
+				// ˱ʽʱгԱֵ
+				IArray signs = exp.calculateAll(ctx);
+				Sequence other = pipe != null ? new Sequence() : null;
+				for (int i = 1; i <= len; ++i) {
+					if (ArrayCalc.isTrue(signs, i)) {
+						result.add(seq.getMem(i));
+					} else if (other != null) {
+						other.add(seq.getMem(i));
+					}
+				}
+				
+				if (other != null && other.length() != 0) {
+					pipe.push(other, ctx);
+				}
 			} else if (pipe == null) {
 				for (int i = 1; i <= len; ++i) {
 					current.setCurrent(i);
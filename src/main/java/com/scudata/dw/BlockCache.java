@@ -0,0 +1,377 @@
+package com.scudata.dw;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.scudata.dm.Env;
+
+/**
+ * ݿĻ棬ãѹݿ飬ļݿλΪ
+ * ֽEnv.getBlockCacheSize()ƣ0ʾ
+ * ÷ֶLRṶݿȷöΣٴʱƵΣ
+ * Χɨֻἷöݿ飬ʹõȿ
+ * ļдļʶı䣬ɵݿ鲻У̭Ƴ
+ * ļ´򿪡ؽɾʱƳļݿ飬ļرʱƳļĸд¼
+ * @author RunQian
+ *
+ */
+public final class BlockCache {
+	private static final int SHARD_COUNT = 16; // Ƭٶ߳̾
+	private static final int PROBATION_PERCENT = 20; // öռõڴ
+	private static final int ENTRY_OVERHEAD = 64; // ÿݿĹֽ
+
+	private static final Shard []shards = new Shard[SHARD_COUNT];
+	private static final ConcurrentHashMap<String, Long> fileVersions =
+			new ConcurrentHashMap<String, Long>(); // ŵĲڱڱдļİ汾
+	private static final AtomicLong versionSeq = new AtomicLong(); // 汾У汾Ųظʹ
+
+	private static final AtomicLong hitCount = new AtomicLong();
+	private static final AtomicLong missCount = new AtomicLong();
+	private static final AtomicLong evictionCount = new AtomicLong();
+
+	static {
+		for (int i = 0; i < SHARD_COUNT; ++i) {
+			shards[i] = new Shard();
+		}
+	}
+
+	private BlockCache() {
+	}
+
+	// ݿļ
+	private static class Key {
+		private final String file;
+		private final long pos;
+
+		public Key(String file, long pos) {
+			this.file = file;
+			this.pos = pos;
+		}
+
+		public int hashCode() {
+			return file.hashCode() * 31 + (int)(pos ^ (pos >>> 32));
+		}
+
+		public boolean equals(Object obj) {
+			Key other = (Key)obj;
+			return pos == other.pos && file.equals(other.file);
+		}
+	}
+
+	/**
+	 * ݿ
+	 */
+	static class Entry {
+		private final byte []data; // ѹ
+		private final long endPos; // ݿļеĽλ
+		private final int size; // ռõֽ
+
+		public Entry(byte []data, long endPos) {
+			this.data = data;
+			this.endPos = endPos;
+			this.size = data.length + ENTRY_OVERHEAD;
+		}
+
+		/**
+		 * ȡѹݣ߲޸
+		 * @return byte[]
+		 */
+		public byte[] getData() {
+			return data;
+		}
+
+		/**
+		 * ȡݿļеĽλ
+		 * @return long
+		 */
+		public long getEndPos() {
+			return endPos;
+		}
+	}
+
+	// һƬöκͱΣLinkedHashMap˳ûõʹ
+	private static class Shard {
+		private LinkedHashMap<Key, Entry> probation = new LinkedHashMap<Key, Entry>();
+		private LinkedHashMap<Key, Entry> protect = new LinkedHashMap<Key, Entry>();
+		private long probationSize;
+		private long protectSize;
+
+		public synchronized Entry get(Key key) {
+			Entry entry = probation.remove(key);
+			if (entry != null) {
+				// ٴУƵ
+				probationSize -= entry.size;
+				protect.put(key, entry);
+				protectSize += entry.size;
+				return entry;
+			}
+
+			entry = protect.remove(key);
+			if (entry != null) {
+				protect.put(key, entry);
+			}
+
+			return entry;
+		}
+
+		public synchronized void put(Key key, Entry entry, long capacity) {
+			if (probation.containsKey(key) || protect.containsKey(key)) {
+				return;
+			}
+
+			probation.put(key, entry);
+			probationSize += entry.size;
+			evict(capacity);
+		}
+
+		// γʱûõƻöΣʱöοʼ̭
+		private void evict(long capacity) {
+			long maxProtect = capacity - capacity * PROBATION_PERCENT / 100;
+			Iterator<java.util.Map.Entry<Key, Entry>> itr = protect.entrySet().iterator();
+			while (protectSize > maxProtect && itr.hasNext()) {
+				java.util.Map.Entry<Key, Entry> e = itr.next();
+				Entry entry = e.getValue();
+				itr.remove();
+				protectSize -= entry.size;
+				probation.put(e.getKey(), entry);
+				probationSize += entry.size;
+			}
+
+			itr = probation.entrySet().iterator();
+			while (probationSize + protectSize > capacity && itr.hasNext()) {
+				Entry entry = itr.next().getValue();
+				itr.remove();
+				probationSize -= entry.size;
+				evictionCount.incrementAndGet();
+			}
+		}
+
+		// ɾļʶprefixͷݿ
+		public synchronized void remove(String prefix) {
+			Iterator<java.util.Map.Entry<Key, Entry>> itr = probation.entrySet().iterator();
+			while (itr.hasNext()) {
+				java.util.Map.Entry<Key, Entry> e = itr.next();
+				if (e.getKey().file.startsWith(prefix)) {
+					itr.remove();
+					probationSize -= e.getValue().size;
+				}
+			}
+
+			itr = protect.entrySet().iterator();
+			while (itr.hasNext()) {
+				java.util.Map.Entry<Key, Entry> e = itr.next();
+				if (e.getKey().file.startsWith(prefix)) {
+					itr.remove();
+					protectSize -= e.getValue().size;
+				}
+			}
+		}
+
+		public synchronized void clear() {
+			probation.clear();
+			protect.clear();
+			probationSize = 0;
+			protectSize = 0;
+		}
+
+		public synchronized long size() {
+			return probationSize + protectSize;
+		}
+
+		public synchronized int count() {
+			return probation.size() + protect.size();
+		}
+	}
+
+	private static Shard getShard(Key key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return shards[h & (SHARD_COUNT - 1)];
+	}
+
+	/**
+	 * Ƿ˻
+	 * @return boolean
+	 */
+	public static boolean isEnabled() {
+		return Env.getBlockCacheSize() > 0;
+	}
+
+	/**
+	 * ȡļǰĻʶļڱڸд߱޸ĺʶı
+	 * @param path ļľ·
+	 * @param lastModified ļ޸ʱ
+	 * @param length ļĳ
+	 * @return String
+	 */
+	static String getFileKey(String path, long lastModified, long length) {
+		Long version = fileVersions.get(path);
+		long v = version == null ? 0 : version.longValue();
+		return path + '|' + v + '|' + lastModified + '|' + length;
+	}
+
+	/**
+	 * ļдʹǰĴļݿʧЧûûʱ
+	 * @param path ļľ·
+	 */
+	static void invalidate(String path) {
+		if (isEnabled()) {
+			fileVersions.put(path, new Long(versionSeq.incrementAndGet()));
+		}
+	}
+
+	/**
+	 * ļ´򿪻ؽʹļݿʧЧƳ
+	 * @param path ļľ·
+	 */
+	static void purge(String path) {
+		invalidate(path);
+		removeBlocks(path);
+	}
+
+	/**
+	 * ļرգƳļĸд¼дļͬʱƳļݿ
+	 * ûдļݿ飬´򿪺󻹿
+	 * @param path ļľ·
+	 */
+	static void release(String path) {
+		if (fileVersions.remove(path) != null) {
+			removeBlocks(path);
+		}
+	}
+
+	/**
+	 * ļɾ߱ļ滻Ƴļĸд¼ݿ
+	 * @param path ļľ·
+	 */
+	static void remove(String path) {
+		fileVersions.remove(path);
+		removeBlocks(path);
+	}
+
+	private static void removeBlocks(String path) {
+		String prefix = path + '|';
+		for (Shard shard : shards) {
+			shard.remove(prefix);
+		}
+	}
+
+	/**
+	 * ȡݿ
+	 * @param file ļʶ
+	 * @param pos ݿļеĿʼλ
+	 * @return Entryûлʱؿ
+	 */
+	static Entry get(String file, long pos) {
+		Key key = new Key(file, pos);
+		Entry entry = getShard(key).get(key);
+		if (entry == null) {
+			missCount.incrementAndGet();
+		} else {
+			hitCount.incrementAndGet();
+		}
+
+		return entry;
+	}
+
+	/**
+	 * ָСݿǷܱ棬Ƭһʱ
+	 * @param size ѹֽ
+	 * @return boolean
+	 */
+	static boolean isCacheable(int size) {
+		long capacity = Env.getBlockCacheSize() / SHARD_COUNT;
+		return size + ENTRY_OVERHEAD <= capacity / 2;
+	}
+
+	/**
+	 * ݿ飬ݿ鳬Ƭһʱ
+	 * @param file ļʶ
+	 * @param pos ݿļеĿʼλ
+	 * @param data ѹݣ޸
+	 * @param endPos ݿļеĽλ
+	 */
+	static void put(String file, long pos, byte []data, long endPos) {
+		if (!isCacheable(data.length)) {
+			return;
+		}
+
+		Key key = new Key(file, pos);
+		getShard(key).put(key, new Entry(data, endPos), Env.getBlockCacheSize() / SHARD_COUNT);
+	}
+
+	/**
+	 * ջ沢ü
+	 */
+	public static void clear() {
+		for (Shard shard : shards) {
+			shard.clear();
+		}
+
+		hitCount.set(0);
+		missCount.set(0);
+		evictionCount.set(0);
+	}
+
+	/**
+	 * ȡд
+	 * @return long
+	 */
+	public static long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * ȡûд
+	 * @return long
+	 */
+	public static long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * ȡ
+	 * @return doubleûжݿʱ0
+	 */
+	public static double getHitRatio() {
+		long hit = hitCount.get();
+		long total = hit + missCount.get();
+		return total == 0 ? 0 : (double)hit / total;
+	}
+
+	/**
+	 * ȡΪ̭ݿ
+	 * @return long
+	 */
+	public static long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 * ȡռõֽ
+	 * @return long
+	 */
+	public static long getSize() {
+		long size = 0;
+		for (Shard shard : shards) {
+			size += shard.size();
+		}
+
+		return size;
+	}
+
+	/**
+	 * ȡݿ
+	 * @return int
+	 */
+	public static int getBlockCount() {
+		int count = 0;
+		for (Shard shard : shards) {
+			count += shard.count();
+		}
+
+		return count;
+	}
+}
@@ -0,0 +1,539 @@
+package com.scudata.dw;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.scudata.common.MessageManager;
+import com.scudata.common.RQException;
+import com.scudata.resources.EngineMessage;
+
+/**
+ * дݿıÿпѡͬı룬ͼ¼еͷϢ
+ * ݿʽ䣬Ȼǣѹ󳤶ȡ󳤶ȡݣݿʱҪ
+ * û״̬Ա߳ͬʱʹ
+ * @author RunQian
+ *
+ */
+public abstract class BlockCodec {
+	public static final byte LZ4 = 0; // LZ4ѹȱʡ
+	public static final byte ZIP = 1; // DeflateѹѹʸLZ4ٶ
+	public static final byte DELTA = 2; // Ĳֻ߻׼ֵλѹʱLZ4
+	public static final byte DICT = 3; // ִֵ룬ŰλѹʱLZ4
+
+	private static final String []NAMES = new String[] {"lz4", "zip", "delta", "dict"};
+	private static final BlockCodec []CODECS = new BlockCodec[] {
+		new LZ4Codec(), new ZipCodec(), new DeltaCodec(), new DictCodec()};
+
+	/**
+	 * ȡָ͵ı
+	 * @param type 
+	 * @return BlockCodec
+	 */
+	public static BlockCodec getCodec(byte type) {
+		if (type < 0 || type >= CODECS.length) {
+			MessageManager mm = EngineMessage.get();
+			throw new RQException(mm.getMessage("license.fileFormatError"));
+		}
+
+		return CODECS[type];
+	}
+
+	/**
+	 * ɱȡֲִͣСд
+	 * @param name lz4zipdeltadict
+	 * @return ͣʶַ-1
+	 */
+	public static byte parseType(String name) {
+		for (byte i = 0; i < NAMES.length; ++i) {
+			if (NAMES[i].equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * ȡ͵
+	 * @param type 
+	 * @return String
+	 */
+	public static String getName(byte type) {
+		return NAMES[type];
+	}
+
+	/**
+	 * رsrcCountֽҪĻ
+	 * @param srcCount ǰ
+	 * @return int
+	 */
+	public abstract int maxEncodedLength(int srcCount);
+
+	/**
+	 * srcǰsrcCountֽڵdestرĳ
+	 * @param src ǰ
+	 * @param srcCount ǰ
+	 * @param dest ݣȲСmaxEncodedLength(srcCount)
+	 * @return int
+	 * @throws IOException
+	 */
+	public abstract int encode(byte []src, int srcCount, byte []dest) throws IOException;
+
+	/**
+	 * srcǰcountֽڵdest
+	 * @param src 
+	 * @param count 󳤶
+	 * @param dest 
+	 * @param srcCount 󳤶
+	 * @throws IOException
+	 */
+	public abstract void decode(byte []src, int count, byte []dest, int srcCount) throws IOException;
+
+	// LZ4ѹ
+	private static class LZ4Codec extends BlockCodec {
+		public int maxEncodedLength(int srcCount) {
+			return LZ4Util.instance().maxCompressedLength(srcCount);
+		}
+
+		public int encode(byte []src, int srcCount, byte []dest) {
+			return LZ4Util.instance().compress(src, srcCount, dest);
+		}
+
+		public void decode(byte []src, int count, byte []dest, int srcCount) {
+			LZ4Util.instance().decompress(src, dest, srcCount);
+		}
+	}
+
+	// Deflateѹ
+	private static class ZipCodec extends BlockCodec {
+		private static ThreadLocal<Deflater> deflater = new ThreadLocal<Deflater>() {
+			protected Deflater initialValue() {
+				return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+			}
+		};
+
+		private static ThreadLocal<Inflater> inflater = new ThreadLocal<Inflater>() {
+			protected Inflater initialValue() {
+				return new Inflater(true);
+			}
+		};
+
+		public int maxEncodedLength(int srcCount) {
+			// ѹݰÿ16Kһ洢鱣棬ÿ5ֽڵͷ
+			return srcCount + (srcCount >> 12) * 5 + 64;
+		}
+
+		public int encode(byte []src, int srcCount, byte []dest) throws IOException {
+			Deflater deflater = ZipCodec.deflater.get();
+			deflater.reset();
+			deflater.setInput(src, 0, srcCount);
+			deflater.finish();
+
+			int count = 0;
+			while (!deflater.finished()) {
+				if (count == dest.length) {
+					throw new IOException("Deflate buffer overflow.");
+				}
+
+				count += deflater.deflate(dest, count, dest.length - count);
+			}
+
+			return count;
+		}
+
+		public void decode(byte []src, int count, byte []dest, int srcCount) throws IOException {
+			Inflater inflater = ZipCodec.inflater.get();
+			inflater.reset();
+			inflater.setInput(src, 0, count);
+
+			try {
+				int n = 0;
+				while (n < srcCount) {
+					int len = inflater.inflate(dest, n, srcCount - n);
+					if (len == 0 && (inflater.finished() || inflater.needsInput())) {
+						throw new IOException("Unexpected end of deflate data.");
+					}
+
+					n += len;
+				}
+			} catch (DataFormatException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+		}
+	}
+
+	// ȳרñ룬רñ벻û߲LZ4ʱLZ4ֽڱʾõ
+	private static abstract class AdaptiveCodec extends BlockCodec {
+		protected static final int MODE_LZ4 = 0;
+
+		public int maxEncodedLength(int srcCount) {
+			return LZ4Util.instance().maxCompressedLength(srcCount) + 1;
+		}
+
+		public int encode(byte []src, int srcCount, byte []dest) throws IOException {
+			LZ4Util lz4 = LZ4Util.instance();
+			int count = lz4.compress(src, srcCount, dest, 1) + 1;
+			dest[0] = MODE_LZ4;
+
+			byte []bytes = encode(src, srcCount, count);
+			if (bytes != null) {
+				System.arraycopy(bytes, 0, dest, 0, bytes.length);
+				return bytes.length;
+			} else {
+				return count;
+			}
+		}
+
+		public void decode(byte []src, int count, byte []dest, int srcCount) throws IOException {
+			if (src[0] == MODE_LZ4) {
+				LZ4Util.instance().decompress(src, 1, dest, srcCount);
+				return;
+			}
+
+			BufferWriter writer = new BufferWriter(null, dest);
+			decode(src, count, writer);
+			if (writer.finishWrite() != srcCount || writer.getBuffer() != dest) {
+				throw new IOException("Block length mismatch.");
+			}
+		}
+
+		/**
+		 * רñ룬û߱󳤶ȲСmaxCountʱؿգֽģʽ
+		 * @param src ǰ
+		 * @param srcCount ǰ
+		 * @param maxCount 󳤶ȵ
+		 * @return byte[]
+		 * @throws IOException
+		 */
+		protected abstract byte[] encode(byte []src, int srcCount, int maxCount) throws IOException;
+
+		/**
+		 * רñĽ룬ѽֵдwriter
+		 * @param src 
+		 * @param count 󳤶
+		 * @param writer дֵ
+		 * @throws IOException
+		 */
+		protected abstract void decode(byte []src, int count, BufferWriter writer) throws IOException;
+
+		// ݿֵֵͲtypeķؿ
+		protected static Object[] readValues(byte []src, int srcCount, Class<?> type, boolean allowNull) throws IOException {
+			BufferReader reader = new BufferReader(null, src, 0, srcCount);
+			Object []values = new Object[Math.max(16, srcCount / 2)];
+			int n = 0;
+
+			try {
+				while (reader.hasNext() || reader.hasRepeatValue()) {
+					Object obj = reader.readObject();
+					if (obj == null ? !allowNull : obj.getClass() != type) {
+						return null;
+					}
+
+					if (n == values.length) {
+						values = Arrays.copyOf(values, n * 2);
+					}
+
+					values[n++] = obj;
+				}
+			} catch (RuntimeException e) {
+				// ¼Ҫṹֵܶרñ
+				return null;
+			}
+
+			return Arrays.copyOf(values, n);
+		}
+
+		// ֵдǷԭȫһ֤ݿ鲻
+		protected static boolean isSame(Object []values, byte []src, int srcCount) throws IOException {
+			BufferWriter writer = new BufferWriter(null);
+			for (Object obj : values) {
+				writer.writeObject(obj);
+			}
+
+			int len = writer.finishWrite();
+			byte []bytes = writer.getBuffer();
+			boolean result = len == srcCount;
+			for (int i = 0; result && i < len; ++i) {
+				result = bytes[i] == src[i];
+			}
+
+			writer.releaseBuffer();
+			return result;
+		}
+
+		// رʾ޷valueҪλ
+		protected static int getBitWidth(long value) {
+			return 64 - Long.numberOfLeadingZeros(value);
+		}
+
+		// valuesǰnֵĵwidthλдdestposλãдλ
+		protected static int pack(long []values, int n, int width, byte []dest, int pos) {
+			int end = pos + (int)(((long)n * width + 7) >>> 3);
+			Arrays.fill(dest, pos, end, (byte)0);
+			if (width == 0) {
+				return end;
+			}
+
+			long bitPos = (long)pos << 3;
+			for (int i = 0; i < n; ++i) {
+				long v = values[i];
+				for (int w = width; w > 0;) {
+					int index = (int)(bitPos >>> 3);
+					int offset = (int)(bitPos & 7);
+					int bits = Math.min(8 - offset, w);
+					dest[index] |= (byte)((v & ((1 << bits) - 1)) << offset);
+					v >>>= bits;
+					w -= bits;
+					bitPos += bits;
+				}
+			}
+
+			return end;
+		}
+
+		// srcposλönwidthλ޷
+		protected static long[] unpack(byte []src, int pos, int n, int width) {
+			long []values = new long[n];
+			if (width == 0) {
+				return values;
+			}
+
+			long bitPos = (long)pos << 3;
+			for (int i = 0; i < n; ++i) {
+				long v = 0;
+				for (int shift = 0; shift < width;) {
+					int index = (int)(bitPos >>> 3);
+					int offset = (int)(bitPos & 7);
+					int bits = Math.min(8 - offset, width - shift);
+					v |= (long)((src[index] >>> offset) & ((1 << bits) - 1)) << shift;
+					shift += bits;
+					bitPos += bits;
+				}
+
+				values[i] = v;
+			}
+
+			return values;
+		}
+
+		protected static void writeInt32(byte []dest, int pos, int n) {
+			dest[pos] = (byte)(n >>> 24);
+			dest[pos + 1] = (byte)(n >>> 16);
+			dest[pos + 2] = (byte)(n >>> 8);
+			dest[pos + 3] = (byte)n;
+		}
+
+		protected static int readInt32(byte []src, int pos) {
+			return (src[pos] << 24) + ((src[pos + 1] & 0xff) << 16) +
+				((src[pos + 2] & 0xff) << 8) + (src[pos + 3] & 0xff);
+		}
+
+		protected static void writeLong64(byte []dest, int pos, long n) {
+			writeInt32(dest, pos, (int)(n >>> 32));
+			writeInt32(dest, pos + 4, (int)n);
+		}
+
+		protected static long readLong64(byte []src, int pos) {
+			return ((long)readInt32(src, pos) << 32) + (readInt32(src, pos + 4) & 0xFFFFFFFFL);
+		}
+	}
+
+	// 룬ֵInteger߶Longʱ׼ֵڲֱ룬ȡλٵ
+	// ʽģʽֵ׼ֵֵĻ׼ֵλλѹֵ
+	private static class DeltaCodec extends AdaptiveCodec {
+		private static final int MODE_INT = 1; // Integer׼ֵ
+		private static final int MODE_LONG = 2; // Long׼ֵ
+		private static final int MODE_DELTA = 4; // ֱ룬ģʽ
+		private static final int HEADER_SIZE = 1 + 4 + 8 + 8 + 1;
+
+		protected byte[] encode(byte []src, int srcCount, int maxCount) throws IOException {
+			Object []values = readValues(src, srcCount, Integer.class, false);
+			int mode = MODE_INT;
+			if (values == null) {
+				values = readValues(src, srcCount, Long.class, false);
+				mode = MODE_LONG;
+			}
+
+			int n = values == null ? 0 : values.length;
+			if (n == 0) {
+				return null;
+			}
+
+			long []longs = new long[n];
+			for (int i = 0; i < n; ++i) {
+				longs[i] = ((Number)values[i]).longValue();
+			}
+
+			// ׼ֵ룬ֵ޷ʱ64λ
+			long min = longs[0], max = longs[0];
+			for (int i = 1; i < n; ++i) {
+				if (longs[i] < min) {
+					min = longs[i];
+				} else if (longs[i] > max) {
+					max = longs[i];
+				}
+			}
+
+			int width = getBitWidth(max - min);
+
+			// ڲֱ룬ֵΪ׼ֵ
+			long []deltas = new long[n - 1];
+			long deltaMin = 0, deltaMax = 0;
+			for (int i = 1; i < n; ++i) {
+				long d = longs[i] - longs[i - 1];
+				deltas[i - 1] = d;
+				if (i == 1 || d < deltaMin) {
+					deltaMin = d;
+				}
+
+				if (i == 1 || d > deltaMax) {
+					deltaMax = d;
+				}
+			}
+
+			int deltaWidth = getBitWidth(deltaMax - deltaMin);
+			long base = min;
+			if (n > 1 && (long)(n - 1) * deltaWidth < (long)n * width) {
+				mode |= MODE_DELTA;
+				base = longs[0];
+				width = deltaWidth;
+				for (int i = 0; i < n - 1; ++i) {
+					deltas[i] -= deltaMin;
+				}
+
+				longs = deltas;
+			} else {
+				for (int i = 0; i < n; ++i) {
+					longs[i] -= min;
+				}
+			}
+
+			long len = HEADER_SIZE + (((long)longs.length * width + 7) >>> 3);
+			if (len >= maxCount || !isSame(values, src, srcCount)) {
+				return null;
+			}
+
+			byte []dest = new byte[(int)len];
+			dest[0] = (byte)mode;
+			writeInt32(dest, 1, n);
+			writeLong64(dest, 5, base);
+			writeLong64(dest, 13, deltaMin);
+			dest[21] = (byte)width;
+			pack(longs, longs.length, width, dest, HEADER_SIZE);
+			return dest;
+		}
+
+		protected void decode(byte []src, int count, BufferWriter writer) throws IOException {
+			int mode = src[0];
+			int n = readInt32(src, 1);
+			long base = readLong64(src, 5);
+			long deltaMin = readLong64(src, 13);
+			int width = src[21];
+			boolean isInt = (mode & MODE_INT) != 0;
+
+			if ((mode & MODE_DELTA) != 0) {
+				long []deltas = unpack(src, HEADER_SIZE, n - 1, width);
+				long value = base;
+				writeValue(writer, value, isInt);
+				for (int i = 0; i < n - 1; ++i) {
+					value += deltas[i] + deltaMin;
+					writeValue(writer, value, isInt);
+				}
+			} else {
+				long []values = unpack(src, HEADER_SIZE, n, width);
+				for (int i = 0; i < n; ++i) {
+					writeValue(writer, values[i] + base, isInt);
+				}
+			}
+		}
+
+		private static void writeValue(BufferWriter writer, long value, boolean isInt) throws IOException {
+			if (isInt) {
+				writer.writeObject(new Integer((int)value));
+			} else {
+				writer.writeObject(new Long(value));
+			}
+		}
+	}
+
+	// ֵ룬ֵǴ߿ʱֵͬΪֵ䣬ÿֵдֵе
+	// ʽģʽֵֵ䳤ȡֵֵֽ䡢λλѹ
+	private static class DictCodec extends AdaptiveCodec {
+		private static final int MODE_DICT = 1;
+		private static final int MAX_DICT_SIZE = 1 << 16; // ֵ̫ͬʱֵû
+
+		protected byte[] encode(byte []src, int srcCount, int maxCount) throws IOException {
+			Object []values = readValues(src, srcCount, String.class, true);
+			if (values == null || values.length == 0) {
+				return null;
+			}
+
+			int n = values.length;
+			HashMap<Object, Integer> map = new HashMap<Object, Integer>();
+			BufferWriter dictWriter = new BufferWriter(null);
+			long []indexes = new long[n];
+
+			for (int i = 0; i < n; ++i) {
+				Integer index = map.get(values[i]);
+				if (index == null) {
+					if (map.size() == MAX_DICT_SIZE) {
+						dictWriter.releaseBuffer();
+						return null;
+					}
+
+					index = map.size();
+					map.put(values[i], index);
+					dictWriter.writeObject(values[i]);
+					dictWriter.flush();
+				}
+
+				indexes[i] = index;
+			}
+
+			int dictSize = map.size();
+			int dictLen = dictWriter.finishWrite();
+			int width = getBitWidth(dictSize - 1);
+			long len = 1 + 4 + 4 + 4 + dictLen + 1 + (((long)n * width + 7) >>> 3);
+			if (len >= maxCount || !isSame(values, src, srcCount)) {
+				dictWriter.releaseBuffer();
+				return null;
+			}
+
+			byte []dest = new byte[(int)len];
+			dest[0] = MODE_DICT;
+			writeInt32(dest, 1, n);
+			writeInt32(dest, 5, dictSize);
+			writeInt32(dest, 9, dictLen);
+			System.arraycopy(dictWriter.getBuffer(), 0, dest, 13, dictLen);
+			dictWriter.releaseBuffer();
+
+			int pos = 13 + dictLen;
+			dest[pos++] = (byte)width;
+			pack(indexes, n, width, dest, pos);
+			return dest;
+		}
+
+		protected void decode(byte []src, int count, BufferWriter writer) throws IOException {
+			int n = readInt32(src, 1);
+			int dictSize = readInt32(src, 5);
+			int dictLen = readInt32(src, 9);
+
+			BufferReader reader = new BufferReader(null, src, 13, 13 + dictLen);
+			Object []dict = new Object[dictSize];
+			for (int i = 0; i < dictSize; ++i) {
+				dict[i] = reader.readObject();
+			}
+
+			int pos = 13 + dictLen;
+			int width = src[pos++];
+			long []indexes = unpack(src, pos, n, width);
+			for (int i = 0; i < n; ++i) {
+				writer.writeObject(dict[(int)indexes[i]]);
+			}
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.scudata.dw;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * пĲ¡¼ڳֵֵֹͰʱ¼Ŀ
+ * жΪʱһжΪʱУԼΪ1%
+ * λڲֵͬĸȷֵͬٵĿҲС
+ * ȵInteger1Long1Double1.0ͬĹϣֵVariant.isEqualsһ
+ * @author RunQian
+ *
+ */
+public final class BlockFilter {
+	private static final int BITS_PER_VALUE = 10; // ÿֵͬռõλ
+	private static final int HASH_COUNT = 7; // ϣ
+	private static final int MIN_BITS = 64; // ٵλ
+	private static final long MAX_EXACT = 1L << 53; // ֵСڴֵdoubleȷʾ
+
+	private static final long TAG_NULL = 1;
+	private static final long TAG_INTEGER = 2;
+	private static final long TAG_DOUBLE = 3;
+	private static final long TAG_STRING = 4;
+	private static final long TAG_DATE = 5;
+	private static final long TAG_BOOLEAN = 6;
+
+	private final byte []data; // ֽΪϣλ
+	private final long bitCount;
+
+	/**
+	 * лݲ
+	 * @param data createص
+	 */
+	public BlockFilter(byte []data) {
+		this.data = data;
+		this.bitCount = (long)(data.length - 1) * 8;
+	}
+
+	/**
+	 * пݲ
+	 * @param buffer пǰ
+	 * @param count ݵֽ
+	 * @return лĹвֵֵ֧ʱؿ
+	 */
+	public static byte[] create(byte []buffer, int count) {
+		BufferReader reader = new BufferReader(null, buffer, 0, count);
+		long []hashs = new long[1024];
+		int n = 0;
+
+		try {
+			while (reader.hasNext() || reader.hasRepeatValue()) {
+				Object obj = reader.readObject();
+				if (!isSupported(obj)) {
+					return null;
+				}
+
+				if (n == hashs.length) {
+					hashs = Arrays.copyOf(hashs, n * 2);
+				}
+
+				hashs[n++] = hash(obj);
+			}
+		} catch (Exception e) {
+			// ¼Ҫṹֵܶ
+			return null;
+		}
+
+		// ֵͬĸȷλ
+		long []sorted = Arrays.copyOf(hashs, n);
+		Arrays.sort(sorted);
+		int distinct = n > 0 ? 1 : 0;
+		for (int i = 1; i < n; ++i) {
+			if (sorted[i] != sorted[i - 1]) {
+				distinct++;
+			}
+		}
+
+		int byteCount = Math.max(MIN_BITS, distinct * BITS_PER_VALUE + 7) / 8;
+		byte []data = new byte[byteCount + 1];
+		data[0] = HASH_COUNT;
+		long bitCount = (long)byteCount * 8;
+		for (int i = 0; i < n; ++i) {
+			long h = hashs[i];
+			int h1 = (int)h;
+			int h2 = (int)(h >>> 32);
+			for (int k = 0; k < HASH_COUNT; ++k) {
+				long bit = ((h1 + k * h2) & 0x7FFFFFFFL) % bitCount;
+				data[1 + (int)(bit >>> 3)] |= 1 << (bit & 7);
+			}
+		}
+
+		return data;
+	}
+
+	/**
+	 * ؿǷֵvalue
+	 * @param value ֵ
+	 * @return falseһûУtrue
+	 */
+	public boolean mayContain(Object value) {
+		if (!isSupported(value)) {
+			return true;
+		}
+
+		byte []data = this.data;
+		long bitCount = this.bitCount;
+		long h = hash(value);
+		int h1 = (int)h;
+		int h2 = (int)(h >>> 32);
+		for (int k = 0, hashCount = data[0]; k < hashCount; ++k) {
+			long bit = ((h1 + k * h2) & 0x7FFFFFFFL) % bitCount;
+			if ((data[1 + (int)(bit >>> 3)] & (1 << (bit & 7))) == 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * ؿǷֵvaluesеĳֵ
+	 * @param values ֵ
+	 * @return falseһûУtrue
+	 */
+	public boolean mayContainAny(Object []values) {
+		for (Object value : values) {
+			if (mayContain(value)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isSupported(Object obj) {
+		return obj == null || obj instanceof String || obj instanceof Number ||
+				obj instanceof Date || obj instanceof Boolean;
+	}
+
+	// ֵĹϣȵĹϣͬ
+	private static long hash(Object obj) {
+		if (obj == null) {
+			return mix(0, TAG_NULL);
+		} else if (obj instanceof String) {
+			String str = (String)obj;
+			long h = 0xcbf29ce484222325L;
+			for (int i = 0, len = str.length(); i < len; ++i) {
+				h ^= str.charAt(i);
+				h *= 0x100000001b3L;
+			}
+
+			return mix(h, TAG_STRING);
+		} else if (obj instanceof Date) {
+			return mix(((Date)obj).getTime(), TAG_DATE);
+		} else if (obj instanceof Boolean) {
+			return mix(((Boolean)obj).booleanValue() ? 1 : 0, TAG_BOOLEAN);
+		} else if (obj instanceof Double || obj instanceof Float) {
+			return hash(((Number)obj).doubleValue());
+		} else if (obj instanceof BigDecimal) {
+			BigDecimal decimal = (BigDecimal)obj;
+			if (decimal.signum() == 0 || decimal.scale() <= 0 || decimal.stripTrailingZeros().scale() <= 0) {
+				return hash(decimal.toBigInteger());
+			} else {
+				return hash(decimal.doubleValue());
+			}
+		} else if (obj instanceof BigInteger) {
+			return hash((BigInteger)obj);
+		} else {
+			return hash(((Number)obj).longValue());
+		}
+	}
+
+	private static long hash(BigInteger value) {
+		if (value.bitLength() < 63) {
+			return hash(value.longValue());
+		} else {
+			return hash(value.doubleValue());
+		}
+	}
+
+	// doubleȷʾΧdouble㣬VariantȽlongdoubleʱתһ
+	private static long hash(long value) {
+		if (value > -MAX_EXACT && value < MAX_EXACT) {
+			return mix(value, TAG_INTEGER);
+		} else {
+			return hash((double)value);
+		}
+	}
+
+	private static long hash(double value) {
+		if (value > -MAX_EXACT && value < MAX_EXACT && value == Math.rint(value)) {
+			return mix((long)value, TAG_INTEGER);
+		} else {
+			return mix(Double.doubleToLongBits(value), TAG_DOUBLE);
+		}
+	}
+
+	private static long mix(long value, long tag) {
+		long z = value + tag * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return z ^ (z >>> 33);
+	}
+}
@@ -2,6 +2,7 @@ package com.scudata.dw;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class BlockLinkReader extends InputStream {
 	private BlockLink blockLink;
@@ -12,11 +13,16 @@ public class BlockLinkReader extends InputStream {
 	
 	private long currentBlockPos = Long.MAX_VALUE;
 	private byte []block; // ǰĿ
+	private MappedFile mappedFile; // ʹڴӳʱʹõӳ䣬رնȡǰӳ䲻ܱ
+	private ByteBuffer blockBuffer; // ʹڴӳʱǰĻʱٰѿblock
 	private int caret; // blockеλ
+	private long pendingPos = -1; // ݿӻȡʱλãʱٶλ-1ʾû
 	
 	private byte[] readBuffer = new byte[32];
 	private LZ4Util lz4 = LZ4Util.instance();
 	private byte []decompressBuffer;
+	private byte codecType = BlockCodec.LZ4; // ݿı
+	private BlockCodec codec = BlockCodec.getCodec(BlockCodec.LZ4);
 	
 	public BlockLinkReader(BlockLink blockLink) {
 		this(blockLink, 0);
@@ -28,45 +34,119 @@ public class BlockLinkReader extends InputStream {
 		
 		blockSize = storage.getBlockSize();
 		pointerPos = blockSize - IBlockStorage.POS_SIZE;
-		block = new byte[blockSize];
 	}
 	
 	public void close() {
+		pendingPos = -1;
 		block = null;
+		blockBuffer = null;
+		setMappedFile(null);
 	}
 	
 	void setDecompressBufferSize(int size) {
 		decompressBuffer = new byte[size];
 	}
+	
+	// ݿı룬ѹʱ
+	void setCodec(byte type) {
+		codecType = type;
+		codec = BlockCodec.getCodec(type);
+	}
+	
+	byte getCodec() {
+		return codecType;
+	}
 
 	public void loadFirstBlock() throws IOException {
 		loadBlock(blockLink.firstBlockPos);
 	}
 	
 	public void loadBlock(long pos) throws IOException {
+		pendingPos = -1;
 		currentBlockPos = pos;
-		storage.loadBlock(pos, block);
+		readBlock(pos);
 		caret = 0;
 	}
 	
+	// ָλõĿ飬ڴӳʱֱӳĻ
+	private void readBlock(long pos) throws IOException {
+		MappedFile mappedFile = storage.getMappedFile();
+		setMappedFile(mappedFile);
+		if (mappedFile != null) {
+			blockBuffer = mappedFile.getBlock(pos);
+		} else {
+			blockBuffer = null;
+			if (block == null) {
+				block = new byte[blockSize];
+			}
+			
+			storage.loadBlock(pos, block);
+		}
+	}
+	
+	// ļдỻµӳ䣬Ǽʹµӳ䣬ʹԭ
+	private void setMappedFile(MappedFile mappedFile) {
+		if (this.mappedFile != mappedFile) {
+			if (mappedFile != null) {
+				mappedFile.pin();
+			}
+			
+			if (this.mappedFile != null) {
+				this.mappedFile.unpin();
+			}
+			
+			this.mappedFile = mappedFile;
+		}
+	}
+	
+	// ӵǰcaretλølenֽڵb
+	private void copy(byte []b, int off, int len) {
+		if (blockBuffer == null) {
+			System.arraycopy(block, caret, b, off, len);
+		} else {
+			ByteBuffer blockBuffer = this.blockBuffer;
+			blockBuffer.position(caret);
+			blockBuffer.get(b, off, len);
+		}
+	}
+	
+	// λӻȡõݿ
+	private void seekPending() throws IOException {
+		long pos = pendingPos;
+		pendingPos = -1;
+		seek(pos);
+	}
+	
 	public int read() throws IOException {
+		if (pendingPos != -1) {
+			seekPending();
+		}
+		
 		if (caret == pointerPos) {
 			loadBlock(readPosition(pointerPos));
 		}
 		
-		return block[caret++] & 0xff;
+		if (blockBuffer == null) {
+			return block[caret++] & 0xff;
+		} else {
+			return blockBuffer.get(caret++) & 0xff;
+		}
 	}
 	
 	public int read(byte b[], int off, int len) throws IOException {
+		if (pendingPos != -1) {
+			seekPending();
+		}
+		
 		int count = len;
 		while (true) {
 			int freeSize = pointerPos - caret;
 			if (len <= freeSize) {
-				System.arraycopy(block, caret, b, off, len);
+				copy(b, off, len);
 				caret += len;
 				return count;
 			} else {
-				System.arraycopy(block, caret, b, off, freeSize);
+				copy(b, off, freeSize);
 				if (currentBlockPos < blockLink.lastBlockPos) {
 					off += freeSize;
 					len -= freeSize;
@@ -80,14 +160,18 @@ public class BlockLinkReader extends InputStream {
 	}
 	
 	public void readFully(byte []b, int off, int len) throws IOException {
+		if (pendingPos != -1) {
+			seekPending();
+		}
+		
 		while (true) {
 			int freeSize = pointerPos - caret;
 			if (len <= freeSize) {
-				System.arraycopy(block, caret, b, off, len);
+				copy(b, off, len);
 				caret += len;
 				break;
 			} else {
-				System.arraycopy(block, caret, b, off, freeSize);
+				copy(b, off, freeSize);
 				off += freeSize;
 				len -= freeSize;
 				loadBlock(readPosition(pointerPos));
@@ -96,7 +180,15 @@ public class BlockLinkReader extends InputStream {
 	}
 	
 	public int readInt32() throws IOException {
-		if (pointerPos - caret >= 4) {
+		if (pendingPos != -1) {
+			seekPending();
+		}
+		
+		if (pointerPos - caret >= 4 && blockBuffer != null) {
+			int index = this.caret;
+			this.caret += 4;
+			return blockBuffer.getInt(index);
+		} else if (pointerPos - caret >= 4) {
 			byte []data = this.block;
 			int index = this.caret;
 			this.caret += 4;
@@ -110,25 +202,98 @@ public class BlockLinkReader extends InputStream {
 		}
 	}
 	
-	// һݿ鲢ѹ
+	// һݿ鲢ѹصܱݳᱻĶ
 	public byte[] readDataBlock() throws IOException {
+		if (BlockCache.isEnabled()) {
+			return readCachedDataBlock(false);
+		}
+		
 		int srcCount = readInt32();
+		byte []buffer = getDecompressBuffer(srcCount);
 		if (storage.isCompress()) {
-			int count = readInt32();
-			byte []buffer = new byte[count];
-			
-			readFully(buffer, 0, count);
-
-			if (srcCount > decompressBuffer.length) {
-				decompressBuffer = new byte[srcCount];
+			decompress(buffer, srcCount);
+		} else {
+			readFully(buffer, 0, srcCount);
+		}
+		
+		return buffer;
+	}
+	
+	// ȡõĽѹʱӴ
+	private byte[] getDecompressBuffer(int size) {
+		if (decompressBuffer == null || decompressBuffer.length < size) {
+			decompressBuffer = new byte[size];
+		}
+		
+		return decompressBuffer;
+	}
+	
+	// һݿ鲢ѹ²ֽ飬ص鲻ᱻĶǣԤ
+	byte[] readDataBlockBytes() throws IOException {
+		if (BlockCache.isEnabled()) {
+			return readCachedDataBlock(true);
+		}
+		
+		int srcCount = readInt32();
+		byte []buffer = new byte[srcCount];
+		if (storage.isCompress()) {
+			decompress(buffer, srcCount);
+		} else {
+			readFully(buffer, 0, srcCount);
+		}
+		
+		return buffer;
+	}
+	
+	// ȴ黺һݿ飬Ҳٶ뻺棬ص鲻޸
+	// ֻз뻺isNewΪʱŲ飬õĽѹ
+	private byte[] readCachedDataBlock(boolean isNew) throws IOException {
+		long pos = pendingPos != -1 ? pendingPos : currentBlockPos + caret;
+		String file = currentBlockPos == Long.MAX_VALUE ? null : storage.getCacheKey();
+		if (file != null) {
+			BlockCache.Entry entry = BlockCache.get(file, pos);
+			if (entry != null) {
+				pendingPos = entry.getEndPos();
+				return entry.getData();
 			}
-			
-			lz4.decompress(buffer, decompressBuffer, srcCount);
-			return decompressBuffer;
+		}
+		
+		int srcCount = readInt32();
+		boolean isCache = file != null && BlockCache.isCacheable(srcCount);
+		byte []buffer = isCache || isNew ? new byte[srcCount] : getDecompressBuffer(srcCount);
+		if (storage.isCompress()) {
+			decompress(buffer, srcCount);
 		} else {
-			byte []buffer = new byte[srcCount];
 			readFully(buffer, 0, srcCount);
-			return buffer;
+		}
+		
+		if (isCache) {
+			BlockCache.put(file, pos, buffer, currentBlockPos + caret);
+		}
+		
+		return buffer;
+	}
+	
+	// һѹݿ飬д
+	byte[] readBlockBytes() throws IOException {
+		int count = readInt32();
+		byte []buffer = new byte[count];
+		readFully(buffer, 0, count);
+		return buffer;
+	}
+	
+	// ѹݲѹbuffersrcCountΪѹ󳤶
+	private void decompress(byte []buffer, int srcCount) throws IOException {
+		int count = readInt32();
+		if (codecType == BlockCodec.LZ4 && blockBuffer != null && pointerPos - caret >= count) {
+			// ѹڵǰڣֱӴӳĻѹ
+			lz4.decompress(blockBuffer, caret, buffer, srcCount);
+			caret += count;
+		} else {
+			byte []bytes = BufferPool.get(count);
+			readFully(bytes, 0, count);
+			codec.decode(bytes, count, buffer, srcCount);
+			BufferPool.release(bytes);
 		}
 	}
 	
@@ -137,9 +302,10 @@ public class BlockLinkReader extends InputStream {
 	}
 	
 	public void seek(long pos) throws IOException {
+		pendingPos = -1;
 		long blockPos = getBlockPos(pos);
 		if (blockPos != currentBlockPos) {
-			storage.loadBlock(blockPos, block);
+			readBlock(blockPos);
 			currentBlockPos = blockPos;
 		}
 		
@@ -154,6 +320,15 @@ public class BlockLinkReader extends InputStream {
 	
 	// һλ
 	private long readPosition(int i) {
+		if (blockBuffer != null) {
+			ByteBuffer block = this.blockBuffer;
+			return (((long)(block.get(i) & 0xff) << 32) +
+					((long)(block.get(i + 1) & 0xff) << 24) +
+					((block.get(i + 2) & 0xff) << 16) +
+					((block.get(i + 3) & 0xff) <<  8) +
+					(block.get(i + 4) & 0xff));
+		}
+		
 		byte []block = this.block;
 		return (((long)(block[i] & 0xff) << 32) +
 				((long)(block[i + 1] & 0xff) << 24) +
@@ -164,27 +339,70 @@ public class BlockLinkReader extends InputStream {
 	
 	// ֽ鷵
 	public byte[] readBlocks() throws IOException {
+		pendingPos = -1;
 		int blockCount = blockLink.blockCount;
 		if (blockCount > 1) {
 			byte []bytes = new byte[pointerPos * blockCount];
 			long blockPos = blockLink.firstBlockPos;
 			for (int i = 0, j = 0; i < blockCount; ++i, j += pointerPos) {
-				storage.loadBlock(blockPos, block);
-				System.arraycopy(block, 0, bytes, j, pointerPos);
+				readBlock(blockPos);
+				caret = 0;
+				copy(bytes, j, pointerPos);
 				blockPos = readPosition(pointerPos);
 			}
 			
+			currentBlockPos = Long.MAX_VALUE;
 			return bytes;
 		} else {
-			storage.loadBlock(blockLink.firstBlockPos, block);
-			return block;
+			readBlock(blockLink.firstBlockPos);
+			currentBlockPos = Long.MAX_VALUE;
+			if (blockBuffer == null) {
+				return block;
+			}
+			
+			byte []bytes = new byte[blockSize];
+			caret = 0;
+			copy(bytes, 0, blockSize);
+			return bytes;
 		}
 	}
 	
 	public BufferReader readBlockData() throws IOException {
+		if (!storage.isCompress() && !BlockCache.isEnabled()) {
+			ByteBuffer buffer = readMappedDataBlock();
+			if (buffer != null) {
+				return new BufferReader(storage.getStructManager(), buffer);
+			}
+		}
+		
 		return new BufferReader(storage.getStructManager(), readDataBlock());
 	}
 	
+	// ѹݿڵǰӳʱֱӷӳĻݣ򷵻ؿ
+	private ByteBuffer readMappedDataBlock() throws IOException {
+		if (pendingPos != -1) {
+			seekPending();
+		}
+		
+		ByteBuffer blockBuffer = this.blockBuffer;
+		int caret = this.caret;
+		if (blockBuffer == null || pointerPos - caret < 4) {
+			return null;
+		}
+		
+		int srcCount = blockBuffer.getInt(caret);
+		int start = caret + 4;
+		if (pointerPos - start < srcCount) {
+			return null;
+		}
+		
+		ByteBuffer buffer = blockBuffer.duplicate();
+		buffer.limit(start + srcCount);
+		buffer.position(start);
+		this.caret = start + srcCount;
+		return buffer;
+	}
+	
 	public BufferReader readBlockData(long pos) throws IOException {
 		return new BufferReader(storage.getStructManager(), readDataBlock(pos));
 
@@ -192,10 +410,7 @@ public class BlockLinkReader extends InputStream {
 	
 	//ѹȡ
 	public RowBufferReader readBlockBuffer() throws IOException {
-		int count = readInt32();
-		byte []buffer = new byte[count];
-		readFully(buffer, 0, count);
-		return new RowBufferReader(storage.getStructManager(), buffer);
+		return new RowBufferReader(storage.getStructManager(), readBlockBytes());
 	}
 	
 	public BufferReader readBlockBuffer(long pos) throws IOException {
@@ -206,11 +421,23 @@ public class BlockLinkReader extends InputStream {
 		return new BufferReader(storage.getStructManager(), buffer);
 	}
 	
-	public long position() {
+	public long position() throws IOException {
+		if (pendingPos != -1) {
+			seekPending();
+		}
+		
 		return currentBlockPos;
 	}
 	
-	public int getCaret() {
+	StructManager getStructManager() {
+		return storage.getStructManager();
+	}
+	
+	public int getCaret() throws IOException {
+		if (pendingPos != -1) {
+			seekPending();
+		}
+		
 		return caret;
 	}
 }
\ No newline at end of file
@@ -12,7 +12,7 @@ public class BlockLinkWriter extends OutputStream {
 	private byte []block; // 
 	private int caret; // ڿеλ
 	
-	private LZ4Util lz4 = LZ4Util.instance();
+	private BlockCodec codec = BlockCodec.getCodec(BlockCodec.LZ4); // ݿı
 	
 	public BlockLinkWriter(BlockLink blockLink, boolean isAppend) throws IOException {
 		this.blockLink = blockLink;
@@ -32,6 +32,11 @@ public class BlockLinkWriter extends OutputStream {
 		return pointerPos;
 	}
 	
+	// ݿı룬ѹʱ
+	void setCodec(byte type) {
+		codec = BlockCodec.getCodec(type);
+	}
+	
 	private void loadLastBlock() throws IOException {
 		storage.loadBlock(blockLink.lastBlockPos, block);
 	}
@@ -85,15 +90,29 @@ public class BlockLinkWriter extends OutputStream {
 	
 	// ׷Ӳѹݿ飬дλ
 	public long writeDataBlock(byte[] bytes) throws IOException {
-		int srcCount = bytes.length;
+		return writeDataBlock(bytes, bytes.length);
+	}
+	
+	// ׷ӲѹbufferWriterݣдbufferWriterĻأдλ
+	public long writeDataBlock(BufferWriter bufferWriter) throws IOException {
+		int srcCount = bufferWriter.finishWrite();
+		long pos = writeDataBlock(bufferWriter.getBuffer(), srcCount);
+		bufferWriter.releaseBuffer();
+		return pos;
+	}
+	
+	// ׷ӲеıѹbytesǰsrcCountֽڣдλ
+	public long writeDataBlock(byte[] bytes, int srcCount) throws IOException {
 		if (storage.isCompress()) {
-			byte []buffer = lz4.compress(bytes);
-			int count = lz4.getCount();
+			BlockCodec codec = this.codec;
+			byte []buffer = BufferPool.get(codec.maxEncodedLength(srcCount));
+			int count = codec.encode(bytes, srcCount, buffer);
 			long pos = blockLink.lastBlockPos + caret;
 			
 			writeInt32(srcCount);
 			writeInt32(count);
 			write(buffer, 0, count);
+			BufferPool.release(buffer);
 			return pos;
 		} else {
 			long pos = blockLink.lastBlockPos + caret;
@@ -106,13 +125,14 @@ public class BlockLinkWriter extends OutputStream {
 	public long copyDataBlock(BlockLinkReader colReader) throws IOException {
 		int srcCount = colReader.readInt32();
 		int count = colReader.readInt32();
-		byte []buffer = new byte[count];
+		byte []buffer = BufferPool.get(count);
 		colReader.readFully(buffer, 0, count);
 		
 		long pos = blockLink.lastBlockPos + caret;
 		writeInt32(srcCount);
 		writeInt32(count);
 		write(buffer, 0, count);
+		BufferPool.release(buffer);
 		return pos;
 	}
 	
@@ -0,0 +1,231 @@
+package com.scudata.dw;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.scudata.common.RQException;
+import com.scudata.dm.Env;
+import com.scudata.thread.Job;
+import com.scudata.thread.ThreadPool;
+
+/**
+ * Ԥα˳леݿʱɺ̨߳Ԥȶȡѹ
+ * ÿԤͬʱֻһִУԤ߻泬ڴʱ̳߳
+ * ȡʱûʼִȡ񣬸ΪͬԲΪ̳߳æ
+ * αرʱҪclose򻺴ռõڴȲͷ
+ * @author RunQian
+ *
+ */
+class BlockPrefetcher {
+	private static ThreadPool pool; // Ԥõ̳߳
+	private static final AtomicLong usedMemory = new AtomicLong(); // Ԥֽ
+
+	private BlockLinkReader reader;
+	private final boolean isRowBlock; // ǷдĲѹ
+	private final int prefetchCount; // Ԥ
+	private int restCount; // ûж
+
+	private LinkedList<byte[]> blocks = new LinkedList<byte[]>(); // Ѷ
+	private PrefetchJob pendingJob; // ύûʼִе
+	private boolean isRunning = false; // Ƿڶ
+	private boolean isClosed = false;
+	private Throwable error; // Ԥʱ쳣ȡʱ׳
+
+	private class PrefetchJob extends Job {
+		public void run() {
+			prefetch(this);
+		}
+	}
+
+	/**
+	 * ԤreaderֻԤʹ
+	 * @param reader Ѷλ׿ݵȡ
+	 * @param blockCount Ҫ
+	 * @param prefetchCount Ԥ
+	 * @param isRowBlock trueдĲѹ飬falseдݿ
+	 */
+	public BlockPrefetcher(BlockLinkReader reader, int blockCount, int prefetchCount, boolean isRowBlock) {
+		this.reader = reader;
+		this.restCount = blockCount;
+		this.prefetchCount = prefetchCount;
+		this.isRowBlock = isRowBlock;
+		schedule();
+	}
+
+	static synchronized ThreadPool getThreadPool() {
+		if (pool == null) {
+			pool = ThreadPool.newInstance(Env.getParallelNum());
+		}
+
+		return pool;
+	}
+
+	/**
+	 * Ԥǰֽ
+	 * @return long
+	 */
+	public static long getUsedMemory() {
+		return usedMemory.get();
+	}
+
+	// ûﵽԤڴûʱύԤ
+	private synchronized void schedule() {
+		if (isClosed || isRunning || pendingJob != null || restCount == 0) {
+			return;
+		}
+
+		if (blocks.size() >= prefetchCount || usedMemory.get() >= Env.getPrefetchMemory()) {
+			return;
+		}
+
+		pendingJob = new PrefetchJob();
+		getThreadPool().submit(pendingJob);
+	}
+
+	private void prefetch(PrefetchJob job) {
+		synchronized(this) {
+			if (pendingJob != job) {
+				// ѱȡ߳ȡ
+				return;
+			}
+
+			pendingJob = null;
+			isRunning = true;
+		}
+
+		try {
+			while (true) {
+				synchronized(this) {
+					if (isClosed || restCount == 0 || blocks.size() >= prefetchCount) {
+						break;
+					}
+				}
+
+				byte []block = isRowBlock ? reader.readBlockBytes() : reader.readDataBlockBytes();
+				synchronized(this) {
+					if (isClosed) {
+						break;
+					}
+
+					restCount--;
+					blocks.add(block);
+					notifyAll();
+					if (usedMemory.addAndGet(block.length) >= Env.getPrefetchMemory()) {
+						break;
+					}
+				}
+			}
+		} catch (Throwable e) {
+			synchronized(this) {
+				error = e;
+			}
+		} finally {
+			synchronized(this) {
+				isRunning = false;
+				notifyAll();
+			}
+		}
+	}
+
+	// ȡһ飬ûʱͬ
+	private byte[] nextBlock() throws IOException {
+		byte []block = null;
+		synchronized(this) {
+			while (blocks.size() == 0 && isRunning) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					throw new RQException(e);
+				}
+			}
+
+			if (blocks.size() > 0) {
+				block = blocks.removeFirst();
+				usedMemory.addAndGet(-block.length);
+			} else if (error != null) {
+				// ѶĿȡ׳Ԥʱ쳣
+				if (error instanceof IOException) {
+					throw (IOException)error;
+				} else {
+					throw new RQException(error.getMessage(), error);
+				}
+			} else {
+				// ȡûʼִеɵǰ̶߳
+				pendingJob = null;
+				restCount--;
+			}
+		}
+
+		if (block == null) {
+			block = isRowBlock ? reader.readBlockBytes() : reader.readDataBlockBytes();
+		}
+
+		schedule();
+		return block;
+	}
+
+	/**
+	 * һ
+	 * @return BufferReader
+	 * @throws IOException
+	 */
+	public BufferReader readBlockData() throws IOException {
+		return new BufferReader(reader.getStructManager(), nextBlock());
+	}
+
+	/**
+	 * һ
+	 * @return RowBufferReader
+	 * @throws IOException
+	 */
+	public RowBufferReader readBlockBuffer() throws IOException {
+		return new RowBufferReader(reader.getStructManager(), nextBlock());
+	}
+
+	/**
+	 * ԤڶͷŻͶȡ
+	 */
+	public void close() {
+		synchronized(this) {
+			if (isClosed) {
+				return;
+			}
+
+			isClosed = true;
+			pendingJob = null;
+
+			// 굱ǰ֮ͷŶȡαرļʱܻڶ
+			boolean isInterrupted = false;
+			while (isRunning) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					isInterrupted = true;
+				}
+			}
+
+			if (isInterrupted) {
+				Thread.currentThread().interrupt();
+			}
+
+			for (byte []block : blocks) {
+				usedMemory.addAndGet(-block.length);
+			}
+
+			blocks.clear();
+		}
+
+		reader.close();
+	}
+
+	// ػ
+	synchronized int getCachedBlockCount() {
+		return blocks.size();
+	}
+
+	// Ƿڶȴִ
+	synchronized boolean isPrefetching() {
+		return isRunning || pendingJob != null;
+	}
+}
@@ -0,0 +1,128 @@
+package com.scudata.dw;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ֽ黺أдп顢ѹͽѹʱʱÿ鶼
+ * 2ݷּÿ߳ԼĳأȡҪͬ
+ * صĻٱʹ
+ * @author RunQian
+ *
+ */
+public final class BufferPool {
+	private static final int MIN_SHIFT = 12; // С4K
+	private static final int MAX_SHIFT = 24; // 16MĲ
+	private static final long MAX_POOL_SIZE = 16L * 1024 * 1024; // ÿֽ̻߳
+
+	private static final AtomicLong hitCount = new AtomicLong();
+	private static final AtomicLong missCount = new AtomicLong();
+
+	private static ThreadLocal<BufferPool> local = new ThreadLocal<BufferPool>() {
+		protected BufferPool initialValue() {
+			return new BufferPool();
+		}
+	};
+
+	private byte [][][]buffers = new byte[MAX_SHIFT - MIN_SHIFT + 1][][]; // ÿĿл
+	private int []counts = new int[MAX_SHIFT - MIN_SHIFT + 1]; // ÿĿл
+	private long poolSize; // ǰֽ
+
+	private BufferPool() {
+	}
+
+	/**
+	 * ȡȲСsizeĻǲȷ
+	 * @param size Ҫĳ
+	 * @return byte[]
+	 */
+	public static byte[] get(int size) {
+		return local.get().getBuffer(size);
+	}
+
+	/**
+	 * ѻǰ̵߳ĳ
+	 * @param buffer ɿ
+	 */
+	public static void release(byte []buffer) {
+		if (buffer != null) {
+			local.get().releaseBuffer(buffer);
+		}
+	}
+
+	/**
+	 * شӳȡĴ
+	 * @return long
+	 */
+	public static long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * سûкʻ²Ĵ
+	 * @return long
+	 */
+	public static long getMissCount() {
+		return missCount.get();
+	}
+
+	// ȡsizeֽڵļ󼶷-1
+	private static int getLevel(int size) {
+		if (size <= (1 << MIN_SHIFT)) {
+			return 0;
+		}
+
+		int shift = 32 - Integer.numberOfLeadingZeros(size - 1);
+		return shift <= MAX_SHIFT ? shift - MIN_SHIFT : -1;
+	}
+
+	private byte[] getBuffer(int size) {
+		int level = getLevel(size);
+		if (level == -1) {
+			missCount.incrementAndGet();
+			return new byte[size];
+		}
+
+		int count = counts[level];
+		if (count > 0) {
+			count--;
+			counts[level] = count;
+			byte []buffer = buffers[level][count];
+			buffers[level][count] = null;
+			poolSize -= buffer.length;
+			hitCount.incrementAndGet();
+			return buffer;
+		} else {
+			missCount.incrementAndGet();
+			return new byte[1 << (level + MIN_SHIFT)];
+		}
+	}
+
+	private void releaseBuffer(byte []buffer) {
+		// ڳȵ߼ţ֤Ӵ˼ȡĻ
+		int len = buffer.length;
+		if (len < (1 << MIN_SHIFT) || poolSize + len > MAX_POOL_SIZE) {
+			return;
+		}
+
+		int level = 31 - Integer.numberOfLeadingZeros(len) - MIN_SHIFT;
+		if (level >= buffers.length) {
+			return;
+		}
+
+		byte [][]array = buffers[level];
+		int count = counts[level];
+		if (array == null) {
+			array = new byte[4][];
+			buffers[level] = array;
+		} else if (count == array.length) {
+			byte [][]tmp = new byte[count * 2][];
+			System.arraycopy(array, 0, tmp, 0, count);
+			array = tmp;
+			buffers[level] = array;
+		}
+
+		array[count] = buffer;
+		counts[level] = count + 1;
+		poolSize += len;
+	}
+}
@@ -2,6 +2,7 @@ package com.scudata.dw;
 
 import java.io.*;
 import java.math.*;
+import java.nio.ByteBuffer;
 
 import com.scudata.common.DateCache;
 import com.scudata.common.ObjectCache;
@@ -19,6 +20,7 @@ import com.scudata.dm.Table;
 public class BufferReader {
 	private StructManager structManager;
 	private byte[] buffer; // ÿζֽڻ
+	private ByteBuffer byteBuffer; // ֱӶڴӳʱʹãʱbufferΪ
 	private int index; // һֽbufferе
 	private int count; // bufferʵֽĿ
 
@@ -52,6 +54,18 @@ public class BufferReader {
 		this.index = index;
 		this.count = count;
 	}
+	
+	/**
+	 * ֱӴӻݣڶڴӳ
+	 * @param structManager
+	 * @param buffer ȡΧΪpositionlimit
+	 */
+	public BufferReader(StructManager structManager, ByteBuffer buffer) {
+		this.structManager = structManager;
+		this.byteBuffer = buffer;
+		this.index = buffer.position();
+		this.count = buffer.limit();
+	}
 
 	// صǰȡλ
 	public long position() {
@@ -98,6 +112,11 @@ public class BufferReader {
 		return count > index;
 	}
 
+	// Ƿûȡظֵݶʱظֵܻûȡ
+	boolean hasRepeatValue() {
+		return repeatCount > 0;
+	}
+
 	public int available() throws IOException {
 		return count - index;
 	}
@@ -111,15 +130,15 @@ public class BufferReader {
 	}
 
 	public boolean readBoolean() throws IOException {
-		return buffer[index++] != 0;
+		return readByte() != 0;
 	}
 
 	public int read() throws IOException {
-		return buffer[index++] & 0xff;
+		return readByte() & 0xff;
 	}
 
 	private int read2() throws IOException {
-		return buffer[index++] & 0xff;
+		return readByte() & 0xff;
 	}
 
 	public int read(byte []b) throws IOException {
@@ -129,11 +148,11 @@ public class BufferReader {
 	public int read(byte []b, int off, int len) throws IOException {
 		int total = count - index;
 		if (total >= len) {
-			System.arraycopy(buffer, index, b, off, len);
+			copy(b, off, len);
 			index += len;
 			return len;
 		} else if (total > 0) {
-			System.arraycopy(buffer, index, b, off, total);
+			copy(b, off, total);
 			index = count;
 			return total;
 		} else {
@@ -141,6 +160,17 @@ public class BufferReader {
 		}
 	}
 
+	// ӵǰλølenֽڵbƶλ
+	private void copy(byte []b, int off, int len) {
+		if (buffer != null) {
+			System.arraycopy(buffer, index, b, off, len);
+		} else {
+			ByteBuffer bb = byteBuffer.duplicate();
+			bb.position(index);
+			bb.get(b, off, len);
+		}
+	}
+
 	public void readFully(byte []b) throws IOException {
 		if (read(b, 0, b.length) != b.length) {
 			throw new EOFException();
@@ -154,26 +184,28 @@ public class BufferReader {
 	}
 
 	public byte readByte() throws IOException {
-		return buffer[index++];
+		byte []buffer = this.buffer;
+		if (buffer != null) {
+			return buffer[index++];
+		} else {
+			return byteBuffer.get(index++);
+		}
 	}
 
 	public int readUnsignedByte() throws IOException {
-		return buffer[index++] & 0xff;
+		return readByte() & 0xff;
 	}
 
 	public short readShort() throws IOException {
-		int ch1 = buffer[index++] << 8;
-		return (short)(ch1 + (buffer[index++] & 0xff));
+		return (short)readUInt16();
 	}
 
 	public int readUnsignedShort() throws IOException {
-		int ch1 = (buffer[index++] & 0xff) << 8;
-		return ch1 + (buffer[index++] & 0xff);
+		return readUInt16();
 	}
 
 	public char readChar() throws IOException {
-		int ch1 = buffer[index++] << 8;
-		return (char)(ch1 + (buffer[index++] & 0xff));
+		return (char)readUInt16();
 	}
 
 	public float readFloat() throws IOException {
@@ -310,7 +342,7 @@ public class BufferReader {
 		byte []bytearr;
 		int i = 0;
 
-		if (count - index >= size) {
+		if (buffer != null && count - index >= size) {
 			bytearr = this.buffer;
 			i = index;
 			this.index += size;
@@ -396,6 +428,13 @@ public class BufferReader {
 	}
 
 	private int readUInt16() throws IOException {
+		byte []buffer = this.buffer;
+		if (buffer == null) {
+			int n = byteBuffer.getShort(index) & 0xFFFF;
+			index += 2;
+			return n;
+		}
+		
 		int n = ((buffer[index] & 0xFF) << 8) + (buffer[index + 1] & 0xFF);
 		index += 2;
 		return n;
@@ -405,6 +444,11 @@ public class BufferReader {
 		byte []data = this.buffer;
 		int index = this.index;
 		this.index += 3;
+		if (data == null) {
+			ByteBuffer bb = byteBuffer;
+			return ((bb.get(index) & 0xff) << 16) + (bb.getShort(index + 1) & 0xffff);
+		}
+		
 		return ((data[index] & 0xff) << 16) +
 			((data[index + 1] & 0xff) << 8) + (data[index + 2] & 0xff);
 	}
@@ -413,6 +457,10 @@ public class BufferReader {
 		byte []data = this.buffer;
 		int index = this.index;
 		this.index += 4;
+		if (data == null) {
+			return byteBuffer.getInt(index);
+		}
+		
 		return (data[index] << 24) + ((data[index + 1] & 0xff) << 16) +
 			((data[index + 2] & 0xff) << 8) + (data[index + 3] & 0xff);
 	}
@@ -421,6 +469,10 @@ public class BufferReader {
 		byte []data = this.buffer;
 		int index = this.index;
 		this.index += 4;
+		if (data == null) {
+			return byteBuffer.getInt(index) & 0xFFFFFFFFL;
+		}
+		
 		return ((long)(data[index] & 0xff) << 24) + ((data[index + 1] & 0xff) << 16) +
 			((data[index + 2] & 0xff) << 8) + (data[index + 3] & 0xff);
 	}
@@ -430,6 +482,11 @@ public class BufferReader {
 		byte []data = this.buffer;
 		int index = this.index;
 		this.index += 5;
+		if (data == null) {
+			ByteBuffer bb = byteBuffer;
+			return ((long)(bb.get(index) & 0xff) << 32) + (bb.getInt(index + 1) & 0xFFFFFFFFL);
+		}
+		
 		return (((long)(data[index] & 0xff) << 32) +
 				((long)(data[index + 1] & 0xff) << 24) +
 				((data[index + 2] & 0xff) << 16) +
@@ -442,6 +499,11 @@ public class BufferReader {
 		byte []data = this.buffer;
 		int index = this.index;
 		this.index += 6;
+		if (data == null) {
+			ByteBuffer bb = byteBuffer;
+			return ((long)(bb.getShort(index) & 0xffff) << 32) + (bb.getInt(index + 2) & 0xFFFFFFFFL);
+		}
+		
 		return (((long)(data[index] & 0xff) << 40) +
 				((long)(data[index + 1] & 0xff) << 32) +
 				((long)(data[index + 2] & 0xff) << 24) +
@@ -454,6 +516,10 @@ public class BufferReader {
 		byte []data = this.buffer;
 		int index = this.index;
 		this.index += 8;
+		if (data == null) {
+			return byteBuffer.getLong(index);
+		}
+		
 		return (((long)data[index] << 56) +
 				((long)(data[index + 1] & 0xff) << 48) +
 				((long)(data[index + 2] & 0xff) << 40) +
@@ -83,14 +83,17 @@ public class BufferWriter {
 	static final int INIT_BUFFER_SIZE = 1024 * 64;
 	
 	private byte []buf; // д
+	private boolean isPooled = false; // ǷȡԻأʱԭ
 	private int count = 0;
 	private StructManager structManager;
 	
 	private Object repeatValue;
 	private int repeatCount = 0;
+	private boolean isExactDouble = false; // Ƿ8ֽԭдĬϰСλѹౣ4λС
 
 	public BufferWriter(StructManager structManager) {
-		buf = new byte[INIT_BUFFER_SIZE];
+		buf = BufferPool.get(INIT_BUFFER_SIZE);
+		isPooled = true;
 		this.structManager = structManager;
 	}
 	
@@ -99,6 +102,14 @@ public class BufferWriter {
 		this.structManager = structManager;
 	}
 
+	/**
+	 * writeObjectдʱǷ8ֽԭд紫Ȳܶʧȵĳ
+	 * @param isExactDouble trueԭдfalseСλѹܾȷʾСᶪʧ
+	 */
+	public void setExactDouble(boolean isExactDouble) {
+		this.isExactDouble = isExactDouble;
+	}
+	
 	// дؽֽ
 	public byte[] finish() throws IOException {
 		if (repeatCount > 0) {
@@ -109,13 +120,54 @@ public class BufferWriter {
 		count = 0;
 		return Arrays.copyOf(buf, len);
 	}
+	
+	/**
+	 * ддֽݲƣgetBuffer()صĻ
+	 * @return int
+	 * @throws IOException
+	 */
+	public int finishWrite() throws IOException {
+		if (repeatCount > 0) {
+			writeRepeat();
+		}
+		
+		int len = count;
+		count = 0;
+		return len;
+	}
+	
+	/**
+	 * ȡд󻺳
+	 * @return byte[]
+	 */
+	public byte[] getBuffer() {
+		return buf;
+	}
+	
+	/**
+	 * дأ֮ô˶д
+	 */
+	public void releaseBuffer() {
+		if (isPooled) {
+			BufferPool.release(buf);
+		}
+		
+		buf = null;
+	}
 
 	private void enlargeBuffer() {
-		buf = Arrays.copyOf(buf, buf.length << 1);
+		enlargeBuffer(buf.length << 1);
 	}
 	
 	private void enlargeBuffer(int newLen) {
-		buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newLen));
+		if (isPooled) {
+			byte []tmp = BufferPool.get(Math.max(buf.length << 1, newLen));
+			System.arraycopy(buf, 0, tmp, 0, buf.length);
+			BufferPool.release(buf);
+			buf = tmp;
+		} else {
+			buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newLen));
+		}
 	}
 	
 	public void write(int b) throws IOException {
@@ -663,7 +715,11 @@ public class BufferWriter {
 		} else if (obj instanceof Integer) {
 			writeInt(((Number)obj).intValue());
 		} else if (obj instanceof Double) {
-			writeDouble(((Number)obj).doubleValue());
+			if (isExactDouble) {
+				writeDouble64(((Number)obj).doubleValue());
+			} else {
+				writeDouble(((Number)obj).doubleValue());
+			}
 		} else if (obj instanceof BigDecimal) {
 			writeDecimal((BigDecimal)obj);
 		} else if (obj instanceof Long) {
@@ -683,7 +739,11 @@ public class BufferWriter {
 		} else if (obj instanceof BigInteger) {
 			writeDecimal((BigInteger)obj);
 		} else if (obj instanceof Float) {
-			writeDouble(((Number)obj).doubleValue());
+			if (isExactDouble) {
+				writeDouble64(((Number)obj).doubleValue());
+			} else {
+				writeDouble(((Number)obj).doubleValue());
+			}
 		} else if (obj instanceof Number) { // Byte  Short
 			writeInt(((Number)obj).intValue());
 		} else if (obj instanceof Sequence) {
@@ -53,6 +53,10 @@ public class ColumnFilter extends IFilter {
 		}
 	}
 	
+	public boolean matchBlock(BlockFilter blockFilter) {
+		return operator != EQUAL || blockFilter.mayContain(rightValue);
+	}
+	
 	public Object getRightValue() {
 		return rightValue;
 	}
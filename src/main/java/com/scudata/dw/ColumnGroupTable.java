@@ -57,6 +57,37 @@ public class ColumnGroupTable extends GroupTable {
 	 */
 	public ColumnGroupTable(File file, String []colNames, String distribute, String opt, Context ctx) 
 			throws IOException {
+		this(file, colNames, null, distribute, opt, ctx);
+	}
+	
+	/**
+	 * ָÿпı
+	 * @param file ļ
+	 * @param colNames 
+	 * @param codecs ÿеı룬ȡֵΪBlockCodecжıͣLZ4
+	 * @param distribute ֲʽ
+	 * @param opt uѹݣpһֶηֶ
+	 * @param ctx 
+	 * @throws IOException
+	 */
+	public ColumnGroupTable(File file, String []colNames, byte []codecs, String distribute, String opt, Context ctx) 
+			throws IOException {
+		this(file, colNames, codecs, null, distribute, opt, ctx);
+	}
+	
+	/**
+	 * ָÿпıǷɿ
+	 * @param file ļ
+	 * @param colNames 
+	 * @param codecs ÿеı룬ȡֵΪBlockCodecжıͣLZ4
+	 * @param blockFilters ÿǷΪпɲ¡򶼲
+	 * @param distribute ֲʽ
+	 * @param opt uѹݣpһֶηֶ
+	 * @param ctx 
+	 * @throws IOException
+	 */
+	public ColumnGroupTable(File file, String []colNames, byte []codecs, boolean []blockFilters, 
+			String distribute, String opt, Context ctx) throws IOException {
 		file.delete();
 		File parent = file.getParentFile();
 		if (parent != null) {
@@ -81,7 +112,7 @@ public class ColumnGroupTable extends GroupTable {
 		headerBlockLink = new BlockLink(this);
 		headerBlockLink.setFirstBlockPos(applyNewBlock());
 
-		baseTable = new ColumnTableMetaData(this, colNames);
+		baseTable = new ColumnTableMetaData(this, colNames, codecs, blockFilters);
 		structManager = new StructManager();
 		
 		// һֶηֶ
@@ -133,6 +164,8 @@ public class ColumnGroupTable extends GroupTable {
 	 * @throws IOException
 	 */
 	protected void reopen() throws IOException {
+		purgeCache();
+		releaseMappedFile();
 		// дļͷʱ֧ͬͬʱд
 		raf = new RandomAccessFile(file, "rw");
 		Object syncObj = getSyncObject();
@@ -13,21 +13,27 @@ public class ColumnMetaData {
 	private String colName; // #ͷʾάа#ȥ
 	private boolean isDim; // Ƿάֶεһֶ֣
 	private boolean isKey; // Ƿһ
+	private byte codec = BlockCodec.LZ4; // пı룬汾2
+	private boolean hasBlockFilter; // ǷΪÿпɲ¡汾3
 	
 	// ѷ
 	private int serialBytesLen = 0; // 0Ϊźż
 	
 	private BlockLink dataBlockLink; // п
 	private BlockLink segmentBlockLink; // ֶϢμ¼ÿпλãάֶټСֵֵ
+	private BlockLink filterBlockLink; // μ¼ÿпĲ¡
 
 	private transient BlockLinkWriter colWriter;
 	private transient BlockLinkWriter segmentWriter;
 	private transient ObjectWriter objectWriter;
+	private transient BlockLinkWriter filterWriter;
+	private transient ObjectWriter filterObjectWriter;
 	
 	public ColumnMetaData(ColumnTableMetaData table) {
 		groupTable = table.groupTable;
 		dataBlockLink = new BlockLink(groupTable);
 		segmentBlockLink = new BlockLink(groupTable);
+		filterBlockLink = new BlockLink(groupTable);
 	}
 	
 	public ColumnMetaData(ColumnTableMetaData table, ColumnMetaData src) {
@@ -36,6 +42,8 @@ public class ColumnMetaData {
 		isDim = src.isDim;
 		isKey = src.isKey;
 		serialBytesLen = src.serialBytesLen;
+		codec = src.codec;
+		hasBlockFilter = src.hasBlockFilter;
 	}
 	
 	/**
@@ -66,6 +74,38 @@ public class ColumnMetaData {
 		this.serialBytesLen = serialBytesLen;
 	}
 	
+	/**
+	 * ȡпı
+	 * @return BlockCodecжı
+	 */
+	public byte getCodec() {
+		return codec;
+	}
+	
+	/**
+	 * пı룬Ҫдǰ
+	 * @param codec BlockCodecжı
+	 */
+	public void setCodec(byte codec) {
+		this.codec = codec;
+	}
+	
+	/**
+	 * ǷΪÿпɲ¡
+	 * @return boolean
+	 */
+	public boolean hasBlockFilter() {
+		return hasBlockFilter;
+	}
+	
+	/**
+	 * ǷΪÿпɲ¡Ҫдǰ
+	 * @param hasBlockFilter
+	 */
+	public void setBlockFilter(boolean hasBlockFilter) {
+		this.hasBlockFilter = hasBlockFilter;
+	}
+	
 	public boolean isSerialBytes() {
 		return serialBytesLen > 0;
 	}
@@ -107,6 +147,9 @@ public class ColumnMetaData {
 	void applySegmentFirstBlock() throws IOException {
 		if (dataBlockLink.isEmpty()) {
 			segmentBlockLink.setFirstBlockPos(groupTable.applyNewBlock());
+			if (hasBlockFilter) {
+				filterBlockLink.setFirstBlockPos(groupTable.applyNewBlock());
+			}
 		}
 	}
 	
@@ -126,9 +169,24 @@ public class ColumnMetaData {
 		} else {
 			isKey = isDim;
 		}
+		
+		if (version > 1) {
+			codec = reader.readByte();
+		} else {
+			codec = BlockCodec.LZ4;
+		}
+		
+		if (version > 2) {
+			hasBlockFilter = reader.readBoolean();
+			if (hasBlockFilter) {
+				filterBlockLink.readExternal(reader);
+			}
+		} else {
+			hasBlockFilter = false;
+		}
 	}
 	
-	public void writeExternal(BufferWriter writer) throws IOException {
+	public void writeExternal(BufferWriter writer, byte version) throws IOException {
 		writer.writeUTF(colName);
 		writer.writeBoolean(isDim);
 		writer.writeInt(serialBytesLen);
@@ -136,12 +194,30 @@ public class ColumnMetaData {
 		segmentBlockLink.writeExternal(writer);
 		
 		writer.writeBoolean(isKey); // 汾1
+		
+		if (version > 1) {
+			writer.writeByte(codec); // 汾2
+		}
+		
+		if (version > 2) {
+			// 汾3
+			writer.writeBoolean(hasBlockFilter);
+			if (hasBlockFilter) {
+				filterBlockLink.writeExternal(writer);
+			}
+		}
 	}
 	
 	public void prepareWrite() throws IOException {
 		colWriter = new BlockLinkWriter(dataBlockLink, true);
+		colWriter.setCodec(codec);
 		segmentWriter = new BlockLinkWriter(segmentBlockLink, true);
 		objectWriter = new ObjectWriter(segmentWriter, groupTable.getBlockSize() - GroupTable.POS_SIZE);
+		
+		if (hasBlockFilter) {
+			filterWriter = new BlockLinkWriter(filterBlockLink, true);
+			filterObjectWriter = new ObjectWriter(filterWriter, groupTable.getBlockSize() - GroupTable.POS_SIZE);
+		}
 	}
 	
 	public void finishWrite() throws IOException {
@@ -152,17 +228,72 @@ public class ColumnMetaData {
 		segmentWriter.finishWrite();
 		segmentWriter = null;
 		objectWriter = null;
+		
+		if (filterWriter != null) {
+			filterObjectWriter.flush();
+			filterWriter.finishWrite();
+			filterWriter = null;
+			filterObjectWriter = null;
+		}
+	}
+	
+	// дпĲ¡вֵֵ֧ʱд0
+	private void writeBlockFilter(byte []bytes, int count) throws IOException {
+		byte []filter = BlockFilter.create(bytes, count);
+		if (filter == null) {
+			filterObjectWriter.writeInt(0);
+		} else {
+			filterObjectWriter.writeInt(filter.length);
+			filterObjectWriter.write(filter);
+		}
+	}
+	
+	// дbufferWriterݣдbufferWriterĻ
+	private long writeDataBlock(BufferWriter bufferWriter) throws IOException {
+		if (!hasBlockFilter) {
+			return colWriter.writeDataBlock(bufferWriter);
+		}
+		
+		int count = bufferWriter.finishWrite();
+		byte []bytes = bufferWriter.getBuffer();
+		writeBlockFilter(bytes, count);
+		long pos = colWriter.writeDataBlock(bytes, count);
+		bufferWriter.releaseBuffer();
+		return pos;
+	}
+	
+	private long writeDataBlock(byte []bytes) throws IOException {
+		if (hasBlockFilter) {
+			writeBlockFilter(bytes, bytes.length);
+		}
+		
+		return colWriter.writeDataBlock(bytes);
 	}
 	
 	// ׷һп飬ͬʱҪ޸ķֶϢ
 	public void appendColBlock(byte []bytes) throws IOException {
-		long pos = colWriter.writeDataBlock(bytes);
+		long pos = writeDataBlock(bytes);
 		objectWriter.writeLong40(pos);
 	}
 	
 	// ׷һάп飬ͬʱҪ޸ķֶϢ
 	public void appendColBlock(byte []bytes, Object minValue, Object maxValue, Object startValue) throws IOException {
-		long pos = colWriter.writeDataBlock(bytes);
+		long pos = writeDataBlock(bytes);
+		objectWriter.writeLong40(pos);
+		objectWriter.writeObject(minValue);
+		objectWriter.writeObject(maxValue);
+		objectWriter.writeObject(startValue);
+	}
+	
+	// ׷һп飬дbufferWriterĻ
+	public void appendColBlock(BufferWriter bufferWriter) throws IOException {
+		long pos = writeDataBlock(bufferWriter);
+		objectWriter.writeLong40(pos);
+	}
+	
+	// ׷һάп飬дbufferWriterĻ
+	public void appendColBlock(BufferWriter bufferWriter, Object minValue, Object maxValue, Object startValue) throws IOException {
+		long pos = writeDataBlock(bufferWriter);
 		objectWriter.writeLong40(pos);
 		objectWriter.writeObject(minValue);
 		objectWriter.writeObject(maxValue);
@@ -170,7 +301,13 @@ public class ColumnMetaData {
 	}
 	
 	public void copyColBlock(BlockLinkReader colReader, ObjectReader segmentReader) throws IOException {
-		long pos = colWriter.copyDataBlock(colReader);
+		long pos;
+		if (colReader.getCodec() == codec && !hasBlockFilter) {
+			pos = colWriter.copyDataBlock(colReader);
+		} else {
+			// 벻ͬҪɿʱҪ±
+			pos = writeDataBlock(colReader.readDataBlockBytes());
+		}
 		
 		segmentReader.readLong40();
 		objectWriter.writeLong40(pos);
@@ -184,6 +321,7 @@ public class ColumnMetaData {
 	public BlockLinkReader getColReader(boolean isLoadFirstBlock) {
 		BlockLinkReader reader = new BlockLinkReader(dataBlockLink, serialBytesLen);
 		reader.setDecompressBufferSize(4096);
+		reader.setCodec(codec);
 		
 		if (isLoadFirstBlock) {
 			try {
@@ -207,6 +345,54 @@ public class ColumnMetaData {
 		}
 	}
 	
+	/**
+	 * ȡĶȡÿпζӦһreadBlockFilterȡ
+	 * @return ObjectReaderûпʱؿ
+	 */
+	public ObjectReader getBlockFilterReader() {
+		if (!hasBlockFilter) {
+			return null;
+		}
+		
+		BlockLinkReader filterReader = new BlockLinkReader(filterBlockLink);
+		try {
+			filterReader.loadFirstBlock();
+			return new ObjectReader(filterReader, groupTable.getBlockSize() - GroupTable.POS_SIZE);
+		} catch (IOException e) {
+			filterReader.close();
+			throw new RQException(e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * һпĹ
+	 * @param reader getBlockFilterReaderصĶȡ
+	 * @return BlockFilterпûйʱؿ
+	 * @throws IOException
+	 */
+	public static BlockFilter readBlockFilter(ObjectReader reader) throws IOException {
+		int len = reader.readInt();
+		if (len == 0) {
+			return null;
+		}
+		
+		byte []data = new byte[len];
+		reader.readFully(data);
+		return new BlockFilter(data);
+	}
+	
+	/**
+	 * һпĹ
+	 * @param reader getBlockFilterReaderصĶȡ
+	 * @throws IOException
+	 */
+	public static void skipBlockFilter(ObjectReader reader) throws IOException {
+		int len = reader.readInt();
+		if (len > 0) {
+			reader.skipBytes(len);
+		}
+	}
+	
 	/**
 	 * ȡп
 	 * @return
@@ -228,6 +414,12 @@ public class ColumnMetaData {
 		info.add(dataBlockLink.lastBlockPos);
 		info.add(dataBlockLink.freeIndex);
 		info.add(dataBlockLink.blockCount);
+		if (hasBlockFilter) {
+			info.add(filterBlockLink.firstBlockPos);
+			info.add(filterBlockLink.lastBlockPos);
+			info.add(filterBlockLink.freeIndex);
+			info.add(filterBlockLink.blockCount);
+		}
 	}
 	
 	public BlockLink getSegmentBlockLink() {
@@ -237,4 +429,12 @@ public class ColumnMetaData {
 	public BlockLink getDataBlockLink() {
 		return dataBlockLink;
 	}
+	
+	/**
+	 * ȡ
+	 * @return BlockLinkûпʱؿ
+	 */
+	public BlockLink getFilterBlockLink() {
+		return hasBlockFilter ? filterBlockLink : null;
+	}
 }
\ No newline at end of file
@@ -156,6 +156,41 @@ public class ColumnTableMetaData extends TableMetaData {
 		tableList = new ArrayList<TableMetaData>();
 	}
 
+	/**
+	 * ´һָÿпı
+	 * @param groupTable Ҫ
+	 * @param colNames 
+	 * @param codecs ÿеı룬ȡֵΪBlockCodecжı
+	 * @throws IOException
+	 */
+	public ColumnTableMetaData(GroupTable groupTable, String []colNames, byte []codecs) throws IOException {
+		this(groupTable, colNames, codecs, null);
+	}
+	
+	/**
+	 * ´һָÿпıǷɿ
+	 * @param groupTable Ҫ
+	 * @param colNames 
+	 * @param codecs ÿеı룬ȡֵΪBlockCodecжıͣLZ4
+	 * @param blockFilters ÿǷΪпɲ¡򶼲
+	 * @throws IOException
+	 */
+	public ColumnTableMetaData(GroupTable groupTable, String []colNames, byte []codecs, 
+			boolean []blockFilters) throws IOException {
+		this(groupTable, colNames);
+		if (codecs != null) {
+			for (int i = 0, count = columns.length; i < count; ++i) {
+				columns[i].setCodec(codecs[i]);
+			}
+		}
+		
+		if (blockFilters != null) {
+			for (int i = 0, count = columns.length; i < count; ++i) {
+				columns[i].setBlockFilter(blockFilters[i]);
+			}
+		}
+	}
+
 	/**
 	 * Ĵ
 	 * @param groupTable Ҫ
@@ -620,6 +655,40 @@ public class ColumnTableMetaData extends TableMetaData {
 		return null;
 	}
 
+	/**
+	 * ȡָеп룬ڰĽṹؽ±
+	 * @param colNames 
+	 * @return ÿеı룬LZ4ʱؿ
+	 */
+	public byte[] getCodecs(String []colNames) {
+		int count = colNames.length;
+		byte []codecs = new byte[count];
+		boolean hasCodec = false;
+		for (int i = 0; i < count; ++i) {
+			codecs[i] = getColumn(colNames[i]).getCodec();
+			hasCodec |= codecs[i] != BlockCodec.LZ4;
+		}
+		
+		return hasCodec ? codecs : null;
+	}
+	
+	/**
+	 * ȡָǷɿڰĽṹؽ±
+	 * @param colNames 
+	 * @return ÿǷɿʱؿ
+	 */
+	public boolean[] getBlockFilters(String []colNames) {
+		int count = colNames.length;
+		boolean []blockFilters = new boolean[count];
+		boolean hasBlockFilter = false;
+		for (int i = 0; i < count; ++i) {
+			blockFilters[i] = getColumn(colNames[i]).hasBlockFilter();
+			hasBlockFilter |= blockFilters[i];
+		}
+		
+		return hasBlockFilter ? blockFilters : null;
+	}
+
 	/**
 	 * ظĵ
 	 * @return
@@ -753,11 +822,40 @@ public class ColumnTableMetaData extends TableMetaData {
 		}
 	}
 	
+	// Ƿʹ˷ȱʡı
+	private boolean hasCodec() {
+		for (ColumnMetaData col : columns) {
+			if (col.getCodec() != BlockCodec.LZ4) {
+				return true;
+			}
+		}
+		
+		return guideColumn != null && guideColumn.getCodec() != BlockCodec.LZ4;
+	}
+	
+	// Ƿ˿
+	private boolean hasBlockFilter() {
+		for (ColumnMetaData col : columns) {
+			if (col.hasBlockFilter()) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
 	/**
 	 * дͷ
 	 */
 	public void writeExternal(BufferWriter writer) throws IOException {
-		reserve[0] = 1;
+		// ˿ʱð汾3ʹ˷ȱʡıʱð汾2ð汾1ʹûЩԭĸʽһ
+		if (hasBlockFilter()) {
+			reserve[0] = 3;
+		} else {
+			reserve[0] = hasCodec() ? (byte)2 : (byte)1;
+		}
+		
+		byte version = reserve[0];
 		writer.write(reserve);
 		writer.writeUTF(tableName);
 		writer.writeStrings(colNames);
@@ -772,7 +870,7 @@ public class ColumnTableMetaData extends TableMetaData {
 		int count = columns.length;
 		writer.writeInt(count);
 		for (int i = 0; i < count; ++i) {
-			columns[i].writeExternal(writer);
+			columns[i].writeExternal(writer, version);
 		}
 		
 		if (maxValues == null) {
@@ -790,7 +888,7 @@ public class ColumnTableMetaData extends TableMetaData {
 		writer.writeBoolean(isSorted);
 		writer.writeBoolean(parent == null);
 		if (parent != null) {
-			guideColumn.writeExternal(writer);
+			guideColumn.writeExternal(writer, version);
 		}
 		
 		writer.writeStrings(indexNames);
@@ -900,13 +998,13 @@ public class ColumnTableMetaData extends TableMetaData {
 			}
 		}
 		
-		guideColumn.appendColBlock(bufferWriter.finish());
+		guideColumn.appendColBlock(bufferWriter);
 		
 		if (sortedColumns == null) {
 			//ύÿпbuffer
 			for (int j = 0; j < count; j++) {
 				if (!isMyCol[j]) continue;
-				columns[j].appendColBlock(bufferWriters[j].finish());
+				columns[j].appendColBlock(bufferWriters[j]);
 			}
 			//·ֶϢbuffer
 			appendSegmentBlock(end);
@@ -918,10 +1016,10 @@ public class ColumnTableMetaData extends TableMetaData {
 			if (!isMyCol[j]) continue;
 			if (!columns[j].isDim()) {
 				//׷п
-				columns[j].appendColBlock(bufferWriters[j].finish());
+				columns[j].appendColBlock(bufferWriters[j]);
 			} else {
 				//׷ά
-				columns[j].appendColBlock(bufferWriters[j].finish(), minValues[j], maxValues[j], startValues[j]);
+				columns[j].appendColBlock(bufferWriters[j], minValues[j], maxValues[j], startValues[j]);
 			}
 		}
 		
@@ -996,7 +1094,7 @@ public class ColumnTableMetaData extends TableMetaData {
 		if (sortedColumns == null) {
 			//ύÿпbuffer
 			for (int j = 0; j < count; j++) {
-				columns[j].appendColBlock(bufferWriters[j].finish());
+				columns[j].appendColBlock(bufferWriters[j]);
 			}
 			//·ֶϢbuffer
 			appendSegmentBlock(end - start + 1);
@@ -1007,10 +1105,10 @@ public class ColumnTableMetaData extends TableMetaData {
 		for (int j = 0; j < count; j++) {
 			if (!columns[j].isDim()) {
 				//׷п
-				columns[j].appendColBlock(bufferWriters[j].finish());
+				columns[j].appendColBlock(bufferWriters[j]);
 			} else {
 				//׷ά
-				columns[j].appendColBlock(bufferWriters[j].finish(), minValues[j], maxValues[j], startValues[j]);
+				columns[j].appendColBlock(bufferWriters[j], minValues[j], maxValues[j], startValues[j]);
 			}
 		}
 		
@@ -1411,7 +1509,7 @@ public class ColumnTableMetaData extends TableMetaData {
 			baseTable.close();
 			
 			// رղɾļʱļΪļ
-			groupTable.raf.close();
+			groupTable.closeFile();
 			groupTable.file.delete();
 			tmpFile.renameTo(groupTable.file);
 			
@@ -2871,6 +2969,12 @@ public class ColumnTableMetaData extends TableMetaData {
 			blockLink = col.getDataBlockLink();//ݿ
 			blockLink.setFirstBlockPos(blockLink.firstBlockPos);
 			blockLink.freeIndex = 0;
+			
+			blockLink = col.getFilterBlockLink();//
+			if (blockLink != null) {
+				blockLink.setFirstBlockPos(blockLink.firstBlockPos);
+				blockLink.freeIndex = 0;
+			}
 		}
 		
 		/**
@@ -2927,11 +3031,10 @@ public class ColumnTableMetaData extends TableMetaData {
 			 * дݵÿп
 			 */
 			for (int j = 0; j < columnCount; j++) {
-				byte[] buf = bufferWriters[j].finish();
 				if (!columns[j].isDim()) {
-					columns[j].appendColBlock(buf);//׷п
+					columns[j].appendColBlock(bufferWriters[j]);//׷п
 				} else {
-					columns[j].appendColBlock(buf, minValues[j], maxValues[j], startValues[j]);//׷ά
+					columns[j].appendColBlock(bufferWriters[j], minValues[j], maxValues[j], startValues[j]);//׷ά
 				}
 			}
 		}
@@ -4024,6 +4127,28 @@ public class ColumnTableMetaData extends TableMetaData {
 				blockLink = col.getDataBlockLink();
 				blockLink.freeIndex = (int) (tempPos % blockSize);
 				blockLink.lastBlockPos = tempPos - (tempPos % blockSize);
+				
+				//д
+				blockLink = col.getFilterBlockLink();
+				if (blockLink != null) {
+					BlockLinkReader filterReader = new BlockLinkReader(blockLink);
+					try {
+						filterReader.loadFirstBlock();
+						reader = new ObjectReader(filterReader, blockSize - GroupTable.POS_SIZE);
+					} catch (IOException e) {
+						filterReader.close();
+						throw new RQException(e.getMessage(), e);
+					}
+					
+					for (int i = 0; i < block; ++i) {
+						ColumnMetaData.skipBlockFilter(reader);
+					}
+					
+					blockLink.freeIndex = (int) (reader.position() % blockSize);
+					blockLink.lastBlockPos = filterReader.position();
+					reader.close();
+					filterReader.close();
+				}
 			}
 
 			if (parent != null) {
@@ -4543,7 +4668,7 @@ public class ColumnTableMetaData extends TableMetaData {
 				for (int i = 1; i <= len; ++i) {
 					bufferWriter.writeObject(mems.get(i));
 				}
-				col.appendColBlock(bufferWriter.finish());
+				col.appendColBlock(bufferWriter);
 			}
 			
 			col.finishWrite();
@@ -75,6 +75,10 @@ class ContainFilter extends IFilter {
 		return false;
 	}
 	
+	public boolean matchBlock(BlockFilter blockFilter) {
+		return blockFilter.mayContainAny(values);
+	}
+	
 	public boolean match(Object minValue, Object maxValue) {
 		Object []values = this.values;
 		int len = values.length;
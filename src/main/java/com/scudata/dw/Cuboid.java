@@ -2265,7 +2265,7 @@ class CuboidTable extends RowTableMetaData {
 			baseTable.close();
 			
 			// رղɾļʱļΪļ
-			groupTable.raf.close();
+			groupTable.closeFile();
 			groupTable.file.delete();
 			tmpFile.renameTo(groupTable.file);
 			
@@ -4,10 +4,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 
+import com.scudata.cellset.ICellSet;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
 import com.scudata.dm.DataStruct;
+import com.scudata.dm.Env;
 import com.scudata.dm.ListBase1;
 import com.scudata.dm.ObjectReader;
 import com.scudata.dm.Record;
@@ -15,14 +17,19 @@ import com.scudata.dm.Sequence;
 import com.scudata.dm.Table;
 import com.scudata.dm.cursor.ICursor;
 import com.scudata.dm.op.New;
+import com.scudata.dm.op.Operable;
+import com.scudata.dm.op.Operation;
 import com.scudata.dm.op.Select;
 import com.scudata.dm.op.Switch;
 import com.scudata.expression.CurrentElement;
+import com.scudata.expression.CurrentSeq;
 import com.scudata.expression.ElementRef;
 import com.scudata.expression.Expression;
+import com.scudata.expression.FieldId;
 import com.scudata.expression.FieldRef;
 import com.scudata.expression.Function;
 import com.scudata.expression.IParam;
+import com.scudata.expression.Move;
 import com.scudata.expression.Moves;
 import com.scudata.expression.Node;
 import com.scudata.expression.UnknownSymbol;
@@ -62,6 +69,10 @@ public class Cursor extends IDWCursor {
 	private String []opts;
 	
 	private IFilter []filters;//
+	private Expression lateFilter; // תйȶõУֻЩ
+	private ColumnMetaData []lateFilterColumns; // lateFilterõУcolumnsڹк
+	private int []lateFilterIndex; // lateFilterColumnscolumnsе
+	private DataStruct lateFilterDs; // lateFilterColumnsɵݽṹڼlateFilter
 	protected FindFilter []findFilters; // switchֶ
 	private int []seqs; // colReadersӦֶκţֶοܲѡ
 	
@@ -69,6 +80,9 @@ public class Cursor extends IDWCursor {
 	private BlockLinkReader rowCountReader;
 	private BlockLinkReader []colReaders;
 	private ObjectReader []segmentReaders;
+	private ObjectReader []blockFilterReaders; // еĿȡûпʱΪ
+	private int prefetchCount = Env.getCursorPrefetchCount(); // ˳ʱԤ
+	private BlockPrefetcher []prefetchers; // еԤûйʱʹ
 	
 	private int startBlock; // 
 	private int endBlock = -1; // 
@@ -164,7 +178,58 @@ public class Cursor extends IDWCursor {
 	public TableMetaData getTableMetaData() {
 		return table;
 	}
+	
+	/**
+	 * ԤȡǰãûйʱЧ
+	 * @param count 0ʾԤ
+	 */
+	public void setPrefetchCount(int count) {
+		this.prefetchCount = count;
+	}
+	
+	// ˳fеһݣԤʱԤcurBlockΪѾ1ĵǰ
+	private BufferReader readBlockData(int f, int curBlock) throws IOException {
+		if (prefetchCount < 1) {
+			return colReaders[f].readBlockData();
+		}
+		
+		if (prefetchers == null) {
+			prefetchers = new BlockPrefetcher[colReaders.length];
+		}
+		
+		if (prefetchers[f] == null) {
+			prefetchers[f] = new BlockPrefetcher(colReaders[f], endBlock - curBlock + 1, prefetchCount, false);
+		}
+		
+		return prefetchers[f].readBlockData();
+	}
 
+	// ÿжϵǰǷļ¼ÿ鶼Ҫһʹȡǰ
+	private boolean matchBlockFilters() throws IOException {
+		ObjectReader []readers = blockFilterReaders;
+		if (readers == null) {
+			return true;
+		}
+		
+		boolean result = true;
+		for (int f = 0; f < readers.length; ++f) {
+			if (readers[f] == null) {
+				continue;
+			}
+			
+			if (result) {
+				BlockFilter blockFilter = ColumnMetaData.readBlockFilter(readers[f]);
+				if (blockFilter != null && !filters[f].matchBlock(blockFilter)) {
+					result = false;
+				}
+			} else {
+				ColumnMetaData.skipBlockFilter(readers[f]);
+			}
+		}
+		
+		return result;
+	}
+	
 	/**
 	 * ÷ֶstartBlockendBlock
 	 */
@@ -184,7 +249,7 @@ public class Cursor extends IDWCursor {
 		long prevRecordSeq = 0;
 		
 		try {
-			if (filters == null) {
+			if (filters == null && lateFilter == null) {
 				BlockLinkReader []colReaders = this.colReaders;
 				ObjectReader []segmentReaders = new ObjectReader[colCount];
 				for (int i = 0; i < colCount; ++i) {
@@ -215,6 +280,7 @@ public class Cursor extends IDWCursor {
 				}
 			} else {
 				ObjectReader []segmentReaders = this.segmentReaders;
+				ObjectReader []blockFilterReaders = this.blockFilterReaders;
 				for (int i = 0; i < startBlock; ++i) {
 					prevRecordSeq += rowCountReader.readInt32();
 					for (int f = 0; f < colCount; ++f) {
@@ -227,6 +293,14 @@ public class Cursor extends IDWCursor {
 							}
 						}
 					}
+					
+					if (blockFilterReaders != null) {
+						for (ObjectReader reader : blockFilterReaders) {
+							if (reader != null) {
+								ColumnMetaData.skipBlockFilter(reader);
+							}
+						}
+					}
 				}
 			}
 			
@@ -527,6 +601,7 @@ public class Cursor extends IDWCursor {
 	private void parseFilter() {
 		Object obj = parseFilter(table, filter, ctx);
 		Expression unknownFilter = null;
+		lateFilter = null;
 		
 		if (obj instanceof IFilter) {
 			filters = new IFilter[] {(IFilter)obj};
@@ -575,6 +650,10 @@ public class Cursor extends IDWCursor {
 			unknownFilter = filter;
 		}
 		
+		if (unknownFilter != null && setLateFilter(unknownFilter)) {
+			return;
+		}
+		
 		if (unknownFilter != null) {
 			Select select = new Select(unknownFilter, "o");
 			addOperation(select, ctx);
@@ -626,6 +705,107 @@ public class Cursor extends IDWCursor {
 		}
 	}
 	
+	/**
+	 * תйαڼ㣬ȶõУֻ
+	 * бʽֶΡšǰԪءλʱãSelect
+	 * @param exp ʽ
+	 * @return trueãfalse
+	 */
+	private boolean setLateFilter(Expression exp) {
+		if (exps != null || fkNames != null) {
+			return false;
+		}
+		
+		ArrayList<ModifyRecord> modifyRecords = table.getModifyRecords();
+		if (modifyRecords != null && modifyRecords.size() > 0) {
+			return false;
+		}
+		
+		if (filters != null) {
+			// ֶλĹҪае˳
+			for (IFilter f : filters) {
+				if (f instanceof ColumnOr) {
+					return false;
+				}
+			}
+		}
+		
+		// SelectͬԵ¼ģexpɽڵģԭ
+		if (hasPositionalRef(filter)) {
+			return false;
+		}
+		
+		ArrayList<String> nameList = new ArrayList<String>();
+		exp.getUsedFields(ctx, nameList);
+		ArrayList<ColumnMetaData> columnList = new ArrayList<ColumnMetaData>();
+		ArrayList<String> colNameList = new ArrayList<String>();
+		for (String name : nameList) {
+			ColumnMetaData col = table.getColumn(name);
+			if (col != null && !columnList.contains(col)) {
+				columnList.add(col);
+				colNameList.add(col.getColName());
+			}
+		}
+		
+		if (columnList.size() == 0) {
+			return false;
+		}
+		
+		lateFilter = exp;
+		lateFilterColumns = new ColumnMetaData[columnList.size()];
+		columnList.toArray(lateFilterColumns);
+		String []colNames = new String[colNameList.size()];
+		colNameList.toArray(colNames);
+		lateFilterDs = new DataStruct(colNames);
+		return true;
+	}
+	
+	/**
+	 * ȡαڼûʱؿ
+	 * @return Expression
+	 */
+	Expression getLateFilter() {
+		return lateFilter;
+	}
+	
+	/**
+	 * ʽǷšֶšǰԪػλãıʽڼ¼еλ
+	 * һνڵڵжϣг[...]
+	 * @param exp ʽ
+	 * @return trueˣfalseû
+	 */
+	static boolean hasPositionalRef(Expression exp) {
+		return exp == null || hasPositionalRef(exp.getHome());
+	}
+	
+	private static boolean hasPositionalRef(Node node) {
+		if (node == null) {
+			return false;
+		} else if (node instanceof CurrentSeq || node instanceof FieldId || node instanceof CurrentElement ||
+				node instanceof Move || node instanceof Moves) {
+			return true; // ##n~x[i]x{a,b}
+		}
+		
+		if (hasPositionalRef(node.getLeft()) || hasPositionalRef(node.getRight())) {
+			return true;
+		}
+		
+		if (node instanceof Function) {
+			IParam param = ((Function)node).getParam();
+			if (param != null) {
+				ArrayList<Expression> list = new ArrayList<Expression>();
+				param.getAllLeafExpression(list);
+				for (Expression exp : list) {
+					if (exp != null && hasPositionalRef(exp.getHome())) {
+						return true;
+					}
+				}
+			}
+		}
+		
+		return false;
+	}
+	
 	private static Object parseTop(ColumnTableMetaData table, Top top, Context ctx) {
 		top.prepare(ctx);
 		String col = top.getExp().getIdentifierName();
@@ -639,6 +819,12 @@ public class Cursor extends IDWCursor {
 	}
 	
 	private static Object parseBetween(ColumnTableMetaData table, Between bt, Context ctx) {
+		// @bرȽϽ
+		String opt = bt.getOption();
+		if (opt != null && opt.indexOf('b') != -1) {
+			return bt;
+		}
+		
 		IParam sub0 = bt.getParam().getSub(0);
 		IParam sub1 = bt.getParam().getSub(1);
 		if (sub0 == null || sub1 == null) {
@@ -652,16 +838,25 @@ public class Cursor extends IDWCursor {
 		}
 		
 		int pri = table.getColumnFilterPriority(column);
+		if (sub1.isLeaf()) {
+			// between(x,a)ͬx==a
+			Object value = sub1.getLeafExpression().calculate(ctx);
+			return new ColumnFilter(column, pri, IFilter.EQUAL, value);
+		}
+		
+		// @l˵㣬@rҶ˵
+		boolean isLeftOpen = opt != null && opt.indexOf('l') != -1;
+		boolean isRightOpen = opt != null && opt.indexOf('r') != -1;
 		IParam startParam = sub1.getSub(0);
 		IParam endParam = sub1.getSub(1);
 		IFilter s = null, e = null;
 		if (startParam != null) {
 			Object value = startParam.getLeafExpression().calculate(ctx);
-			s = new ColumnFilter(column, pri, IFilter.GREATER_EQUAL, value);
+			s = new ColumnFilter(column, pri, isLeftOpen ? IFilter.GREATER : IFilter.GREATER_EQUAL, value);
 		}
 		if (endParam != null) {
 			Object value = endParam.getLeafExpression().calculate(ctx);
-			e = new ColumnFilter(column, pri, IFilter.LESS_EQUAL, value);
+			e = new ColumnFilter(column, pri, isRightOpen ? IFilter.LESS : IFilter.LESS_EQUAL, value);
 		}
 		
 		if (s == null && e != null)
@@ -816,7 +1011,12 @@ public class Cursor extends IDWCursor {
 	
 	
 	// nodeǵֶαʽתNodeFilter
+	// NodeFilterм㣬ûеǰ¼ţšֶšǰԪػλõĲת
 	private static Object parseFieldExp(ColumnTableMetaData table, Node node, Context ctx, Context filterCtx) {
+		if (hasPositionalRef(node)) {
+			return node;
+		}
+		
 		ArrayList<String> fieldList = new ArrayList<String>();
 		node.getUsedFields(ctx, fieldList);
 		ColumnMetaData column = null;
@@ -917,7 +1117,8 @@ public class Cursor extends IDWCursor {
 				}
 			}
 
-			return node;
+			// Ƚϵǵֶαʽyear(dt)==2022k+1>10תNodeFilterƳȡֵΧʱ
+			return parseFieldExp(table, node, ctx, filterCtx);
 		}
 	}
 	
@@ -974,7 +1175,7 @@ public class Cursor extends IDWCursor {
 			list.toArray(columns);
 		}
 		
-		if (filters == null) {
+		if (filters == null && lateFilter == null) {
 			colReaders = new BlockLinkReader[colCount];
 			this.columns = columns;
 			
@@ -985,8 +1186,23 @@ public class Cursor extends IDWCursor {
 			}
 		} else {
 			ArrayList<ColumnMetaData> list = new ArrayList<ColumnMetaData>();
-			for (IFilter filter : filters) {
-				list.add(filter.getColumn());
+			if (filters != null) {
+				for (IFilter filter : filters) {
+					list.add(filter.getColumn());
+				}
+			}
+			
+			if (lateFilter != null) {
+				for (ColumnMetaData col : lateFilterColumns) {
+					if (!list.contains(col)) {
+						list.add(col);
+					}
+				}
+				
+				lateFilterIndex = new int[lateFilterColumns.length];
+				for (int i = 0; i < lateFilterColumns.length; ++i) {
+					lateFilterIndex[i] = list.indexOf(lateFilterColumns[i]);
+				}
 			}
 			
 			for (ColumnMetaData col : columns) {
@@ -1014,6 +1230,19 @@ public class Cursor extends IDWCursor {
 					seqs[i] = -1;
 				}
 			}
+			
+			// ǰ棬п¼Ŀ
+			int filterCount = filters == null ? 0 : filters.length;
+			for (int i = 0; i < filterCount; ++i) {
+				ObjectReader reader = this.columns[i].getBlockFilterReader();
+				if (reader != null) {
+					if (blockFilterReaders == null) {
+						blockFilterReaders = new ObjectReader[filterCount];
+					}
+					
+					blockFilterReaders[i] = reader;
+				}
+			}
 		}
 
 		modifyRecords = table.getModifyRecords();
@@ -1298,14 +1527,157 @@ public class Cursor extends IDWCursor {
 		this.cache = null;
 
 		try {
-			if (filters == null) {
+			if (lateFilter != null) {
+				ColumnMetaData []columns = this.columns;
+				int []seqs = this.seqs;
+				ObjectReader []segmentReaders = this.segmentReaders;
+				int filterCount = filters == null ? 0 : filters.length;
+				int []lateFilterIndex = this.lateFilterIndex;
+				int lateCount = lateFilterIndex.length;
+				long []positions = new long[colCount];
+				Expression lateFilter = this.lateFilter;
+				Record temp = new Record(lateFilterDs);
+				Context ctx = this.ctx;
+				
+				while (curBlock < endBlock) {
+					curBlock++;
+					int recordCount = rowCountReader.readInt32();
+					boolean sign = true;
+					for (int f = 0; f < colCount; ++f) {
+						positions[f] = segmentReaders[f].readLong40();
+						if (columns[f].isDim()) {
+							if (f < filterCount && sign) {
+								Object minValue = segmentReaders[f].readObject();
+								Object maxValue = segmentReaders[f].readObject();
+								segmentReaders[f].skipObject();
+								sign = filters[f].match(minValue, maxValue);
+							} else {
+								segmentReaders[f].skipObject();
+								segmentReaders[f].skipObject();
+								segmentReaders[f].skipObject();
+							}
+						}
+					}
+					
+					if (!matchBlockFilters()) {
+						sign = false;
+					}
+					
+					if (!sign) {
+						prevRecordSeq += recordCount;
+						continue;
+					}
+					
+					// ȶУٶõУֻǰĹ˺ʣµ
+					boolean []matchs = new boolean[recordCount];
+					Arrays.fill(matchs, true);
+					int matchCount = recordCount;
+					Object [][]values = new Object[colCount][]; // Ѿеֵ
+					for (int f = 0; f < filterCount && matchCount > 0; ++f) {
+						Object []curValues = new Object[recordCount];
+						values[f] = curValues;
+						IFilter filter = filters[f];
+						BufferReader reader = colReaders[f].readBlockData(positions[f]);
+						for (int i = 0; i < recordCount; ++i) {
+							if (matchs[i]) {
+								curValues[i] = reader.readObject();
+								if (!filter.match(curValues[i])) {
+									matchs[i] = false;
+									if (--matchCount == 0) {
+										break;
+									}
+								}
+							} else {
+								reader.skipObject();
+							}
+						}
+					}
+					
+					for (int k = 0; k < lateCount && matchCount > 0; ++k) {
+						int f = lateFilterIndex[k];
+						if (values[f] == null) {
+							Object []curValues = new Object[recordCount];
+							values[f] = curValues;
+							BufferReader reader = colReaders[f].readBlockData(positions[f]);
+							for (int i = 0; i < recordCount; ++i) {
+								if (matchs[i]) {
+									curValues[i] = reader.readObject();
+								} else {
+									reader.skipObject();
+								}
+							}
+						}
+					}
+					
+					for (int i = 0; i < recordCount && matchCount > 0; ++i) {
+						if (matchs[i]) {
+							for (int k = 0; k < lateCount; ++k) {
+								temp.setNormalFieldValue(k, values[lateFilterIndex[k]][i]);
+							}
+							
+							if (!Variant.isTrue(temp.calc(lateFilter, ctx))) {
+								matchs[i] = false;
+								matchCount--;
+							}
+						}
+					}
+					
+					if (matchCount == 0) {
+						prevRecordSeq += recordCount;
+						continue;
+					}
+					
+					// ֻУûʱп
+					for (int f = 0; f < colCount; ++f) {
+						if (values[f] == null) {
+							bufReaders[f] = colReaders[f].readBlockData(positions[f]);
+						}
+					}
+					
+					for (int i = 0; i < recordCount && matchCount > 0; ++i) {
+						if (matchs[i]) {
+							matchCount--;
+							GroupTableRecord r = new GroupTableRecord(ds);
+							for (int f = 0; f < colCount; ++f) {
+								if (values[f] != null) {
+									if (seqs[f] != -1) {
+										r.setNormalFieldValue(seqs[f], values[f][i]);
+									}
+								} else if (seqs[f] != -1) {
+									r.setNormalFieldValue(seqs[f], bufReaders[f].readObject());
+								} else {
+									bufReaders[f].skipObject();
+								}
+							}
+							
+							r.setRecordSeq(prevRecordSeq + i + 1);
+							mems.add(r);
+						} else {
+							for (int f = 0; f < colCount; ++f) {
+								if (values[f] == null) {
+									bufReaders[f].skipObject();
+								}
+							}
+						}
+					}
+					
+					prevRecordSeq += recordCount;
+					int diff = n - cache.length();
+					if (diff < 0) {
+						this.cache = cache.split(n + 1);
+						break;
+					} else if (diff == 0) {
+						break;
+					}
+				}
+			} else if (filters == null) {
 				while (curBlock < endBlock) {
 					
 					curBlock++;
 					int recordCount = rowCountReader.readInt32();
 
 					for (int f = 0; f < colCount; ++f) {
-						bufReaders[f] = colReaders[f].readBlockData();
+						bufReaders[f] = readBlockData(f, curBlock);
 					}
 					
 					int diff = n - cache.length();
@@ -1375,6 +1747,16 @@ public class Cursor extends IDWCursor {
 					}
 					
 					positions[0] = segmentReaders[0].readLong40();
+					if (!matchBlockFilters()) {
+						if (columns[0].isDim()) {
+							segmentReaders[0].skipObject();
+							segmentReaders[0].skipObject();
+							segmentReaders[0].skipObject();
+						}
+						
+						continue;
+					}
+					
 					if (columns[0].isDim()) {
 						Object minValue = segmentReaders[0].readObject();
 						Object maxValue = segmentReaders[0].readObject();
@@ -1470,6 +1852,10 @@ public class Cursor extends IDWCursor {
 						}
 					}
 					
+					if (!matchBlockFilters()) {
+						sign = false;
+					}
+					
 					if (!sign) {
 						continue;
 					}
@@ -1607,7 +1993,7 @@ public class Cursor extends IDWCursor {
 
 					for (int f = 0; f < colCount; ++f) {
 						if (isField[f]) {
-							bufReaders[f] = colReaders[f].readBlockData();
+							bufReaders[f] = readBlockData(f, curBlock);
 						}
 					}
 					
@@ -1732,6 +2118,10 @@ public class Cursor extends IDWCursor {
 						}
 					}
 					
+					if (!matchBlockFilters()) {
+						sign = false;
+					}
+					
 					if (!sign) {
 						prevRecordSeq += recordCount;
 						for (TableGather gather : gathers) {
@@ -1931,7 +2321,7 @@ public class Cursor extends IDWCursor {
 					curBlock++;
 					int recordCount = rowCountReader.readInt32();
 					for (int f = 0; f < colCount; ++f) {
-						bufReaders[f] = colReaders[f].readBlockData();
+						bufReaders[f] = readBlockData(f, curBlock);
 					}
 					
 					for (int i = 0; i < recordCount; ++i) {
@@ -2038,6 +2428,10 @@ public class Cursor extends IDWCursor {
 						}
 					}
 					
+					if (!matchBlockFilters()) {
+						sign = false;
+					}
+					
 					if (!sign) {
 						prevRecordSeq += recordCount;
 						mindex = getModifyRecord(mindex, prevRecordSeq, cache);
@@ -2213,7 +2607,7 @@ public class Cursor extends IDWCursor {
 					int recordCount = rowCountReader.readInt32();
 					for (int f = 0; f < colCount; ++f) {
 						if (isField[f]) {
-							bufReaders[f] = colReaders[f].readBlockData();
+							bufReaders[f] = readBlockData(f, curBlock);
 						}
 					}
 					
@@ -2365,6 +2759,10 @@ public class Cursor extends IDWCursor {
 						}
 					}
 					
+					if (!matchBlockFilters()) {
+						sign = false;
+					}
+					
 					if (!sign) {
 						prevRecordSeq += recordCount;
 						mindex = getModifyRecord(mindex, prevRecordSeq, cache);
@@ -2551,7 +2949,7 @@ public class Cursor extends IDWCursor {
 		long count = 0;
 		
 		// ԵнŻɼ¼
-		if (gathers == null && mcount < 1 && n == MAXSKIPSIZE) {
+		if (gathers == null && mcount < 1 && n == MAXSKIPSIZE && lateFilter == null) {
 			if (cache != null) {
 				count = cache.length();
 			}
@@ -2577,6 +2975,16 @@ public class Cursor extends IDWCursor {
 						int recordCount = rowCountReader.readInt32();
 						
 						long position = segmentReader.readLong40();
+						if (!matchBlockFilters()) {
+							if (column.isDim()) {
+								segmentReader.skipObject();
+								segmentReader.skipObject();
+								segmentReader.skipObject();
+							}
+							
+							continue;
+						}
+						
 						if (column.isDim()) {
 							Object minValue = segmentReader.readObject();
 							Object maxValue = segmentReader.readObject();
@@ -2622,6 +3030,10 @@ public class Cursor extends IDWCursor {
 							}
 						}
 						
+						if (!matchBlockFilters()) {
+							sign = false;
+						}
+						
 						if (!sign) {
 							continue;
 						}
@@ -2688,6 +3100,26 @@ public class Cursor extends IDWCursor {
 		cache = null;
 		
 		try {
+			if (prefetchers != null) {
+				for (BlockPrefetcher prefetcher : prefetchers) {
+					if (prefetcher != null) {
+						prefetcher.close();
+					}
+				}
+			}
+			
+			if (rowCountReader != null) {
+				rowCountReader.close();
+			}
+			
+			if (colReaders != null) {
+				for (BlockLinkReader reader : colReaders) {
+					if (reader != null) {
+						reader.close();
+					}
+				}
+			}
+			
 			if (segmentReaders != null) {
 				for (ObjectReader reader : segmentReaders) {
 					if (reader != null) {
@@ -2695,13 +3127,102 @@ public class Cursor extends IDWCursor {
 					}
 				}
 			}
+			
+			if (blockFilterReaders != null) {
+				for (ObjectReader reader : blockFilterReaders) {
+					if (reader != null) {
+						reader.close();
+					}
+				}
+			}
 		} catch (Exception e) {
 			throw new RQException(e.getMessage(), e);
 		} finally {
 			rowCountReader = null;
 			colReaders = null;
 			segmentReaders = null;
+			blockFilterReaders = null;
+			prefetchers = null;
+		}
+	}
+	
+	/**
+	 * 㣬ûȡʱselectϲαĹй͹
+	 * @param op 
+	 * @param ctx 
+	 * @return Operable
+	 */
+	public Operable addOperation(Operation op, Context ctx) {
+		if (op instanceof Select && pushSelect((Select)op, ctx)) {
+			return this;
+		}
+		
+		return super.addOperation(op, ctx);
+	}
+	
+	/**
+	 * ѡĶֶβûswitchʱselectԵľǱУԺϲαĹ
+	 * 㡢ѾȡselectѡܵšǰԪءλʱϲ
+	 * @param select 
+	 * @param ctx 
+	 * @return trueѺϲfalseûкϲ
+	 */
+	private boolean pushSelect(Select select, Context ctx) {
+		if (opList != null || cache != null || super.cache != null || appendData != null || 
+				exps != null || fkNames != null || select.getOption() != null || select.getPipe() != null) {
+			return false;
+		}
+		
+		if (isClosed || !isFirstSkip || curBlock != startBlock || mindex != 0) {
+			return false;
+		}
+		
+		Expression exp = select.getFilterExpression();
+		String str = exp.toString();
+		if (str == null || hasPositionalRef(exp)) {
+			return false;
+		}
+		
+		// selectѡֶμģõҪѡ
+		ArrayList<String> nameList = new ArrayList<String>();
+		exp.getUsedFields(ctx, nameList);
+		for (String name : nameList) {
+			if (table.getColumn(name) != null && ds.getFieldIndex(name) == -1) {
+				return false;
+			}
+		}
+		
+		ICellSet cs = exp.getCellSet();
+		if (filter != null) {
+			String filterStr = filter.toString();
+			ICellSet filterCs = filter.getCellSet();
+			if (filterStr == null || (cs != null && filterCs != null && cs != filterCs)) {
+				return false;
+			}
+			
+			if (cs == null) {
+				cs = filterCs;
+			}
+			
+			str = "(" + filterStr + ")&&(" + str + ")";
 		}
+		
+		// úϲ³ʼûָĲαselectĽ
+		if (this.ctx == null) {
+			this.ctx = ctx;
+		}
+		
+		filter = new Expression(cs, ctx, str);
+		int endBlock = this.endBlock;
+		close();
+		isClosed = false;
+		prevRecordSeq = 0;
+		init();
+		if (isSegment) {
+			setSegment(startBlock, endBlock);
+		}
+		
+		return true;
 	}
 	
 	public boolean reset() {
@@ -1,8 +1,13 @@
 package com.scudata.dw;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -11,6 +16,7 @@ import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
 import com.scudata.dm.DataStruct;
+import com.scudata.dm.Env;
 import com.scudata.dm.FileGroup;
 import com.scudata.dm.FileObject;
 import com.scudata.dm.LongArray;
@@ -33,7 +39,7 @@ abstract public class GroupTable implements IBlockStorage {
 	public static final String SF_SUFFIX = ".ext"; //ļ׺
 	
 	protected File file;
-	protected RandomAccessFile raf;
+	protected volatile RandomAccessFile raf;
 	protected TableMetaData baseTable;
 	
 	protected int blockSize; // С
@@ -58,6 +64,10 @@ abstract public class GroupTable implements IBlockStorage {
 	
 	private transient GroupTable sfGroupTable;
 	private transient Integer partition; // ļ
+	private transient volatile MappedFile mappedFile; // ڴӳ䣬Env.isMapGroupTable()Ϊʱڶ
+	private transient volatile boolean isClosed; // Ƿѵcloseرպ´ļ
+	private transient String cacheKey; // 黺еļʶ
+	private transient RandomAccessFile cacheKeyFile; // cacheKeyʱ򿪵ļ´ļҪ²
 
 	/**
 	 * Ĳļ
@@ -230,6 +240,7 @@ abstract public class GroupTable implements IBlockStorage {
 
 			close();
 			file.delete();
+			BlockCache.remove(file.getAbsolutePath());
 		} catch (IOException e) {
 			throw new RQException(e);
 		}
@@ -243,7 +254,10 @@ abstract public class GroupTable implements IBlockStorage {
 				table.appendCache();
 			}
 			
+			closeMappedFile();
+			isClosed = true;
 			raf.close();
+			BlockCache.release(file.getAbsolutePath());
 			if (sfGroupTable != null) {
 				sfGroupTable.close();
 			}
@@ -272,17 +286,146 @@ abstract public class GroupTable implements IBlockStorage {
 	/**
 	 * ȡһ
 	 */
-	public synchronized void loadBlock(long pos, byte []block) throws IOException {
-		raf.seek(pos);
-		raf.readFully(block);
+	public void loadBlock(long pos, byte []block) throws IOException {
+		MappedFile mappedFile = getMappedFile();
+		if (mappedFile != null) {
+			mappedFile.loadBlock(pos, block);
+		} else {
+			readBlock(pos, block);
+		}
+	}
+	
+	/**
+	 * λöȡݣıļָ룬߳̿ͬʱ
+	 */
+	private void readBlock(long pos, byte []block) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(block);
+		while (true) {
+			RandomAccessFile raf = this.raf;
+			try {
+				FileChannel channel = raf.getChannel();
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer, pos + buffer.position()) < 0) {
+						throw new EOFException();
+					}
+				}
+				
+				return;
+			} catch (ClosedByInterruptException e) {
+				// ̱߳жʱͨᱻرգ´ļԱ̼߳ʹ
+				reopenFile(raf);
+				throw e;
+			} catch (ClosedChannelException e) {
+				// ̱߳жϵͨرգڶ֮ǰѹرջû´򿪣´򿪺ٶ
+				if (!reopenFile(raf)) {
+					throw e;
+				}
+				
+				buffer.clear();
+			}
+		}
+	}
+	
+	// ļͨ߳жϱرպ´ļǷԼ
+	private synchronized boolean reopenFile(RandomAccessFile oldRaf) throws IOException {
+		if (isClosed) {
+			return false;
+		} else if (raf != oldRaf) {
+			return true; // Ѿ߳´
+		} else if (raf.getChannel().isOpen()) {
+			return false;
+		}
+		
+		raf = new RandomAccessFile(file, "rw");
+		return true;
+	}
+	
+	/**
+	 * ȡļڴӳ䣬ûʹڴӳʱؿգ´ļҪӳ
+	 */
+	public MappedFile getMappedFile() {
+		MappedFile mappedFile = this.mappedFile;
+		if (mappedFile != null && mappedFile.getFile() == raf && !mappedFile.isClosed()) {
+			return mappedFile;
+		} else if (!Env.isMapGroupTable() || blockSize <= 0) {
+			return null;
+		}
+		
+		synchronized(this) {
+			mappedFile = this.mappedFile;
+			if (mappedFile == null || mappedFile.getFile() != raf || mappedFile.isClosed()) {
+				mappedFile = new MappedFile(raf, blockSize);
+				this.mappedFile = mappedFile;
+			}
+			
+			return mappedFile;
+		}
 	}
 
+	/**
+	 * ļڴӳ䣬ļд滻ǰãٶʱӳ
+	 * ûαܻԭӳ黺ӳ䣬ͷ
+	 */
+	protected synchronized void releaseMappedFile() {
+		mappedFile = null;
+	}
+	
+	// رʱرڴӳ䣬ûжȡʱӳ
+	private synchronized void closeMappedFile() {
+		MappedFile mappedFile = this.mappedFile;
+		if (mappedFile != null) {
+			this.mappedFile = null;
+			mappedFile.close();
+		}
+	}
+	
+	/**
+	 * رļԱɾļ滻֮reopen
+	 * @throws IOException
+	 */
+	void closeFile() throws IOException {
+		releaseMappedFile();
+		raf.close();
+	}
+
+	/**
+	 * ȡ黺еļʶļд´򿪺ʶı
+	 */
+	public synchronized String getCacheKey() {
+		if (cacheKey == null || cacheKeyFile != raf) {
+			cacheKey = BlockCache.getFileKey(file.getAbsolutePath(), file.lastModified(), file.length());
+			cacheKeyFile = raf;
+		}
+		
+		return cacheKey;
+	}
+	
+	// ļд黺дļݿʧЧûûʱҪ
+	protected void invalidateCache() {
+		if (BlockCache.isEnabled()) {
+			BlockCache.invalidate(file.getAbsolutePath());
+			synchronized(this) {
+				cacheKey = null;
+			}
+		}
+	}
+	
+	// ļ´򿪣黺дļݿƳ
+	protected void purgeCache() {
+		BlockCache.purge(file.getAbsolutePath());
+		synchronized(this) {
+			cacheKey = null;
+		}
+	}
+	
 	public void saveBlock(long pos, byte []block) throws IOException {
+		invalidateCache();
 		raf.seek(pos);
 		raf.write(block);
 	}
 	
 	public void saveBlock(long pos, byte []block, int off, int len) throws IOException {
+		invalidateCache();
 		raf.seek(pos);
 		raf.write(block, off, len);
 	}
@@ -511,7 +654,15 @@ abstract public class GroupTable implements IBlockStorage {
 		try {
 			//ļ
 			if (isCol) {
-				newGroupTable = new ColumnGroupTable(newFile, colNames, distribute, newOpt, ctx);
+				byte []codecs = null;
+				boolean []blockFilters = null;
+				if (baseTable instanceof ColumnTableMetaData) {
+					// ԭÿеıͿ
+					codecs = ((ColumnTableMetaData)baseTable).getCodecs(srcColNames);
+					blockFilters = ((ColumnTableMetaData)baseTable).getBlockFilters(srcColNames);
+				}
+				
+				newGroupTable = new ColumnGroupTable(newFile, colNames, codecs, blockFilters, distribute, newOpt, ctx);
 				if (compress) {
 					newGroupTable.setCompress(true);
 				} else if (uncompress) {
@@ -631,6 +782,7 @@ abstract public class GroupTable implements IBlockStorage {
 			
 			if (hasQ) {
 				//resetԭֹ
+				releaseMappedFile();
 				long pos, freePos;
 				freePos = baseTable.resetByBlock(startBlock);
 				for (TableMetaData t : tableList) {
@@ -730,6 +882,7 @@ abstract public class GroupTable implements IBlockStorage {
 			return Boolean.FALSE;
 		newGroupTable.close();
 		newFileObj.move(path, null);
+		BlockCache.remove(path);
 
 		try{
 			newGroupTable = open(this.file, ctx);
@@ -822,7 +975,14 @@ abstract public class GroupTable implements IBlockStorage {
 		}
 		try {
 			//д
-			TableMetaDataGroup newTableGroup = fileGroup.create(colNames, distribute, newOpt, ctx);
+			byte []codecs = null;
+			boolean []blockFilters = null;
+			if (isCol && baseTable instanceof ColumnTableMetaData) {
+				codecs = ((ColumnTableMetaData)baseTable).getCodecs(srcColNames);
+				blockFilters = ((ColumnTableMetaData)baseTable).getBlockFilters(srcColNames);
+			}
+			
+			TableMetaDataGroup newTableGroup = fileGroup.create(colNames, codecs, blockFilters, distribute, newOpt, ctx);
 			ICursor cs = baseTable.cursor();
 			newTableGroup.append(cs, "xi");
 			
@@ -935,8 +1095,7 @@ abstract public class GroupTable implements IBlockStorage {
 				try {
 					while (pos > 1) {
 						posArray.add(pos);
-						raf.seek(pos + blockSize - POS_SIZE);
-						raf.read(block);
+						readBlock(pos + blockSize - POS_SIZE, block);
 						pos = (((long)(block[0] & 0xff) << 32) +
 								((long)(block[1] & 0xff) << 24) +
 								((block[2] & 0xff) << 16) +
@@ -981,8 +1140,7 @@ abstract public class GroupTable implements IBlockStorage {
 				try {
 					while (pos > 1) {
 						posArray.add(pos);
-						raf.seek(pos + blockSize - POS_SIZE);
-						raf.read(block);
+						readBlock(pos + blockSize - POS_SIZE, block);
 						pos = (((long)(block[0] & 0xff) << 32) +
 								((long)(block[1] & 0xff) << 24) +
 								((block[2] & 0xff) << 16) +
@@ -1013,8 +1171,7 @@ abstract public class GroupTable implements IBlockStorage {
 		try {
 			do {
 				posArray.add(pos);
-				raf.seek(pos + blockSize - POS_SIZE);
-				raf.read(block);
+				readBlock(pos + blockSize - POS_SIZE, block);
 				pos = (((long)(block[0] & 0xff) << 32) +
 						((long)(block[1] & 0xff) << 24) +
 						((block[2] & 0xff) << 16) +
@@ -9,9 +9,11 @@ public interface IBlockStorage extends IResource {
 	
 	int getBlockSize(); // ȡС
 	void loadBlock(long pos, byte []block) throws IOException; // װ
+	MappedFile getMappedFile(); // ȡļڴӳ䣬֧ʱnull
 	void saveBlock(long pos, byte []block) throws IOException; // 
 	void saveBlock(long pos, byte []block, int off, int len) throws IOException;
 	long applyNewBlock() throws IOException; // 
 	StructManager getStructManager();
 	boolean isCompress(); // Ƿѹ洢
+	String getCacheKey(); // ȡ黺еļʶ
 }
\ No newline at end of file
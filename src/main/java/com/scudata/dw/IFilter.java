@@ -79,6 +79,15 @@ public abstract class IFilter implements Comparable<IFilter> {
 	 */
 	public abstract boolean match(Object minValue, Object maxValue);
 	
+	/**
+	 * пǷֵƥ˹˱ʽֻеֵͰÿж
+	 * @param blockFilter пĲ¡
+	 * @return falseпûƥֵtrue
+	 */
+	public boolean matchBlock(BlockFilter blockFilter) {
+		return true;
+	}
+	
 	public int compareTo(IFilter o) {
 		if (priority < o.priority) {
 			return -1;
@@ -1,5 +1,7 @@
 package com.scudata.dw;
 
+import java.nio.ByteBuffer;
+
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4FastDecompressor;
@@ -52,6 +54,38 @@ public class LZ4Util {
 		return buffer;
 	}
 	
+	/**
+	 * ѹlenֽҪĻ
+	 * @param len ѹǰ
+	 * @return
+	 */
+	public int maxCompressedLength(int len) {
+		return compressor.maxCompressedLength(len);
+	}
+	
+	/**
+	 * ѹbytesǰlenֽڵbufferѹĳ
+	 * @param bytes ѹǰ
+	 * @param len ѹǰ
+	 * @param buffer ѹݣȲСmaxCompressedLength(len)
+	 * @return
+	 */
+	public int compress(byte []bytes, int len, byte []buffer) {
+		return compressor.compress(bytes, 0, len, buffer, 0);
+	}
+	
+	/**
+	 * ѹbytesǰlenֽڵbufferoffλãѹĳ
+	 * @param bytes ѹǰ
+	 * @param len ѹǰ
+	 * @param buffer ѹ
+	 * @param off ѹbufferеʼλ
+	 * @return
+	 */
+	public int compress(byte []bytes, int len, byte []buffer, int off) {
+		return compressor.compress(bytes, 0, len, buffer, off);
+	}
+	
 	/**
 	 * ѹsrcCountΪѹ󳤶
 	 * @param bytes
@@ -62,4 +96,26 @@ public class LZ4Util {
 		decompressor.decompress(bytes, buffer, srcCount);
 	}
 	
+	/**
+	 * ѹbytesдoffʼݣsrcCountΪѹ󳤶
+	 * @param bytes ѹ
+	 * @param off ѹbytesеʼλ
+	 * @param buffer ѹ
+	 * @param srcCount ѹ󳤶
+	 */
+	public void decompress(byte []bytes, int off, byte []buffer, int srcCount) {
+		decompressor.decompress(bytes, off, buffer, 0, srcCount);
+	}
+	
+	/**
+	 * ѹеݣڴӳ飬ѹݲҪȸƵֽ
+	 * @param src ѹڵĻ
+	 * @param srcOff ѹڻеλ
+	 * @param buffer ѹ
+	 * @param srcCount ѹ󳤶
+	 */
+	public void decompress(ByteBuffer src, int srcOff, byte []buffer, int srcCount) {
+		decompressor.decompress(src, srcOff, ByteBuffer.wrap(buffer), 0, srcCount);
+	}
+	
 }
\ No newline at end of file
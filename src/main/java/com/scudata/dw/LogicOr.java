@@ -29,4 +29,8 @@ class LogicOr extends IFilter {
 	public boolean match(Object minValue, Object maxValue) {
 		return left.match(minValue, maxValue) || right.match(minValue, maxValue);
 	}
+	
+	public boolean matchBlock(BlockFilter blockFilter) {
+		return left.matchBlock(blockFilter) || right.matchBlock(blockFilter);
+	}
 }
\ No newline at end of file
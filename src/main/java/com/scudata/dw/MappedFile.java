@@ -0,0 +1,209 @@
+package com.scudata.dw;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * ļڴӳ䣬ڶȡ
+ * ļӳ䣬ÿεĴСС鲻
+ * ʱֱӴҳȡҪϵͳҲҪͬ
+ * ȡõ黺ֱӳڴ棬ӳٷʻʹԶȡpinunpinǼǶӳʹ
+ * ļд´ʱֻӳ䣬ڻٱúͷ
+ * رʱcloseûжȡʱӳ
+ * @author RunQian
+ *
+ */
+class MappedFile {
+	private static final long MAX_SEGMENT_SIZE = 1L << 30; // ÿӳ1G
+
+	private RandomAccessFile raf;
+	private FileChannel channel;
+	private final int blockSize; // С
+	private final long segmentSize; // δСС
+	private volatile MappedByteBuffer []segments = new MappedByteBuffer[0]; // ӳĶΣӳ
+	private volatile boolean isClosed; // Ƿѹر
+	private int pinCount; // ʹôӳĶȡ
+
+	/**
+	 * ļӳ
+	 * @param raf ļ
+	 * @param blockSize С
+	 */
+	public MappedFile(RandomAccessFile raf, int blockSize) {
+		this.raf = raf;
+		this.channel = raf.getChannel();
+		this.blockSize = blockSize;
+		this.segmentSize = (MAX_SEGMENT_SIZE / blockSize) * blockSize;
+	}
+
+	/**
+	 * ȡӳļ
+	 * @return RandomAccessFile
+	 */
+	public RandomAccessFile getFile() {
+		return raf;
+	}
+
+	/**
+	 * ȡĻλô0ʼΪС
+	 * @param pos λ
+	 * @return ByteBuffer
+	 * @throws IOException
+	 */
+	public ByteBuffer getBlock(long pos) throws IOException {
+		ByteBuffer buffer = getSegment(pos).duplicate();
+		int offset = (int)(pos % segmentSize);
+		buffer.limit(offset + blockSize);
+		buffer.position(offset);
+		return buffer.slice();
+	}
+
+	/**
+	 * ȡ鵽ָֽ
+	 * @param pos λ
+	 * @param block ֽ飬ΪС
+	 * @throws IOException
+	 */
+	public void loadBlock(long pos, byte []block) throws IOException {
+		ByteBuffer buffer = getSegment(pos).duplicate();
+		buffer.position((int)(pos % segmentSize));
+		try {
+			buffer.get(block, 0, blockSize);
+		} catch (InternalError e) {
+			// ӳļض̣ӳڴ
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	// ȡڵĶΣûӳļӳĳȲʱӳ
+	private MappedByteBuffer getSegment(long pos) throws IOException {
+		int seq = (int)(pos / segmentSize);
+		int end = (int)(pos % segmentSize) + blockSize;
+		MappedByteBuffer []segments = this.segments;
+		if (seq < segments.length) {
+			MappedByteBuffer segment = segments[seq];
+			if (segment != null && segment.capacity() >= end) {
+				return segment;
+			}
+		}
+
+		return mapSegment(seq, end);
+	}
+
+	private synchronized MappedByteBuffer mapSegment(int seq, int end) throws IOException {
+		if (isClosed) {
+			throw new IOException("The mapped file is closed.");
+		}
+		
+		MappedByteBuffer []segments = this.segments;
+		if (seq < segments.length) {
+			MappedByteBuffer segment = segments[seq];
+			if (segment != null && segment.capacity() >= end) {
+				return segment;
+			}
+		} else {
+			MappedByteBuffer []tmp = new MappedByteBuffer[seq + 1];
+			System.arraycopy(segments, 0, tmp, 0, segments.length);
+			segments = tmp;
+		}
+
+		long start = seq * segmentSize;
+		long size = Math.min(segmentSize, channel.size() - start);
+		if (size < end) {
+			throw new IOException("Block position " + (start + end - blockSize) + " exceeds the file size.");
+		}
+
+		// ļӳĶΣԭӳܻжȡãͷ
+		MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+		segments[seq] = segment;
+		this.segments = segments;
+		return segment;
+	}
+
+	/**
+	 * ȡʼʹôӳ黺
+	 */
+	public synchronized void pin() {
+		pinCount++;
+	}
+	
+	/**
+	 * ȡʹôӳ黺
+	 */
+	public synchronized void unpin() {
+		pinCount--;
+	}
+	
+	/**
+	 * ȡʹôӳĶȡ
+	 * @return int
+	 */
+	synchronized int getPinCount() {
+		return pinCount;
+	}
+	
+	/**
+	 * رӳ䣬رʱã֮ȡ
+	 * ûжȡʱжεӳ䣬ͷ
+	 * @return boolean Ƿӳ
+	 */
+	public synchronized boolean close() {
+		MappedByteBuffer []segments = this.segments;
+		isClosed = true;
+		this.segments = new MappedByteBuffer[0];
+		if (pinCount > 0) {
+			return false;
+		}
+		
+		for (MappedByteBuffer segment : segments) {
+			if (segment != null) {
+				unmap(segment);
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Ƿѹر
+	 * @return boolean
+	 */
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	// ӳ䣬Ҫպļɾ
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner;
+			try {
+				invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			} catch (NoSuchMethodException e) {
+				invokeCleaner = null;
+			}
+			
+			if (invokeCleaner != null) {
+				// jdk9Ժ
+				Field field = unsafeClass.getDeclaredField("theUnsafe");
+				field.setAccessible(true);
+				invokeCleaner.invoke(field.get(null), buffer);
+			} else {
+				// jdk8
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			}
+		} catch (Throwable e) {
+			// ʱͷ
+		}
+	}
+}
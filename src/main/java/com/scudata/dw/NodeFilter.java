@@ -9,6 +9,7 @@ class NodeFilter extends IFilter {
 	private Node node;
 	private Param param;
 	private Context ctx;
+	private ValueRange range; // ƳֶȡֵΧ飬Ϊ
 
 	public NodeFilter(ColumnMetaData column, int priority, Node node, Context ctx) {
 		super(column, priority);
@@ -21,6 +22,16 @@ class NodeFilter extends IFilter {
 			param = new Param(column.getColName(), Param.VAR, null);
 			ctx.addParam(param);
 		}
+		
+		range = ValueRange.parse(column, node, ctx);
+	}
+	
+	/**
+	 * ȡƳֶȡֵΧƲʱؿ
+	 * @return ValueRange
+	 */
+	ValueRange getRange() {
+		return range;
 	}
 	
 	public boolean match(Object value) {
@@ -31,6 +42,8 @@ class NodeFilter extends IFilter {
 	public boolean match(Object minValue, Object maxValue) {
 		if (Variant.isEquals(minValue, maxValue)) {
 			return match(minValue);
+		} else if (range != null) {
+			return range.match(minValue, maxValue);
 		} else {
 			return true;
 		}
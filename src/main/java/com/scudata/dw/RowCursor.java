@@ -8,6 +8,7 @@ import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
 import com.scudata.dm.DataStruct;
+import com.scudata.dm.Env;
 import com.scudata.dm.ListBase1;
 import com.scudata.dm.ObjectReader;
 import com.scudata.dm.Record;
@@ -86,6 +87,10 @@ public class RowCursor extends IDWCursor {
 	
 	private IFilter []filters;
 	
+	private int prefetchCount = Env.getCursorPrefetchCount(); // ˳ʱԤ
+	private BlockPrefetcher rowPrefetcher; // ݵԤ
+	private BlockPrefetcher basePrefetcher; // ʱݵԤ
+	
 	public RowCursor(RowTableMetaData table) {
 		this(table, null);
 	}
@@ -1018,7 +1023,7 @@ public class RowCursor extends IDWCursor {
 					}
 				}
 				
-				bufReader = rowReader.readBlockBuffer();
+				bufReader = readBlockBuffer(curBlock);
 				
 				if (gathers != null) {
 					for (TableGather gather : gathers) {
@@ -1035,7 +1040,7 @@ public class RowCursor extends IDWCursor {
 						baseSegmentReader.skipObject();
 						baseSegmentReader.skipObject();
 					}
-					baseBufReader = baseRowReader.readBlockBuffer();
+					baseBufReader = readBaseBlockBuffer(curBlock);
 					baseSeq = (Long) baseBufReader.readObject();
 					for (int k = 0; k < baseAllCount; ++k) {
 						baseValues[k] = baseBufReader.readObject();
@@ -1382,7 +1387,7 @@ public class RowCursor extends IDWCursor {
 					segmentReader.skipObject();
 					segmentReader.skipObject();
 				}
-				bufReader = rowReader.readBlockBuffer();
+				bufReader = readBlockBuffer(curBlock);
 				
 				if (!isPrimaryTable) {
 					baseSegmentReader.readInt32();
@@ -1391,7 +1396,7 @@ public class RowCursor extends IDWCursor {
 						baseSegmentReader.skipObject();
 						baseSegmentReader.skipObject();
 					}
-					baseBufReader = baseRowReader.readBlockBuffer();
+					baseBufReader = readBaseBlockBuffer(curBlock);
 					baseSeq = (Long) baseBufReader.readObject();
 					for (int k = 0; k < baseAllCount; ++k) {
 						baseValues[k] = baseBufReader.readObject();
@@ -1701,7 +1706,7 @@ public class RowCursor extends IDWCursor {
 					segmentReader.skipObject();
 					segmentReader.skipObject();
 				}
-				bufReader = rowReader.readBlockBuffer();
+				bufReader = readBlockBuffer(curBlock);
 				
 				for (TableGather gather : gathers) {
 					if (gather != null) {
@@ -1716,7 +1721,7 @@ public class RowCursor extends IDWCursor {
 						baseSegmentReader.skipObject();
 						baseSegmentReader.skipObject();
 					}
-					baseBufReader = baseRowReader.readBlockBuffer();
+					baseBufReader = readBaseBlockBuffer(curBlock);
 					baseSeq = (Long) baseBufReader.readObject();
 					for (int k = 0; k < baseAllCount; ++k) {
 						baseValues[k] = baseBufReader.readObject();
@@ -2011,6 +2016,14 @@ public class RowCursor extends IDWCursor {
 		cache = null;
 		
 		try {
+			if (rowPrefetcher != null) {
+				rowPrefetcher.close();
+			}
+			
+			if (basePrefetcher != null) {
+				basePrefetcher.close();
+			}
+			
 			if (segmentReader != null) {
 				segmentReader.close();
 			}
@@ -2020,6 +2033,8 @@ public class RowCursor extends IDWCursor {
 		} finally {
 			rowReader = null;
 			segmentReader = null;
+			rowPrefetcher = null;
+			basePrefetcher = null;
 		}
 	}
 	
@@ -2076,6 +2091,45 @@ public class RowCursor extends IDWCursor {
 	public void setFetchByBlock(boolean fetchByBlock) {
 		this.fetchByBlock = fetchByBlock;
 	}
+	
+	/**
+	 * ԤȡǰãйʱЧ
+	 * @param count 0ʾԤ
+	 */
+	public void setPrefetchCount(int count) {
+		this.prefetchCount = count;
+	}
+	
+	// йʱᰴֶϢ飬Ԥ
+	private boolean canPrefetch() {
+		return prefetchCount > 0 && !(isPrimaryTable && filters != null);
+	}
+	
+	// ˳һݣԤʱԤcurBlockΪѾ1ĵǰ
+	private RowBufferReader readBlockBuffer(int curBlock) throws IOException {
+		if (!canPrefetch()) {
+			return rowReader.readBlockBuffer();
+		}
+		
+		if (rowPrefetcher == null) {
+			rowPrefetcher = new BlockPrefetcher(rowReader, endBlock - curBlock + 1, prefetchCount, true);
+		}
+		
+		return rowPrefetcher.readBlockBuffer();
+	}
+	
+	// ˳Ӧһ
+	private RowBufferReader readBaseBlockBuffer(int curBlock) throws IOException {
+		if (!canPrefetch()) {
+			return baseRowReader.readBlockBuffer();
+		}
+		
+		if (basePrefetcher == null) {
+			basePrefetcher = new BlockPrefetcher(baseRowReader, endBlock - curBlock + 1, prefetchCount, true);
+		}
+		
+		return basePrefetcher.readBlockBuffer();
+	}
 
 	public String[] getSortFields() {
 		return sortedFields;
@@ -127,6 +127,8 @@ public class RowGroupTable extends GroupTable {
 	 * @throws IOException
 	 */
 	protected void reopen() throws IOException {
+		purgeCache();
+		releaseMappedFile();
 		raf = new RandomAccessFile(file, "rw");
 		Object syncObj = getSyncObject();
 		synchronized(syncObj) {
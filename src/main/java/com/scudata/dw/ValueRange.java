@@ -0,0 +1,384 @@
+package com.scudata.dw;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+
+import com.scudata.common.DateFactory;
+import com.scudata.dm.Context;
+import com.scudata.expression.CurrentElement;
+import com.scudata.expression.FieldRef;
+import com.scudata.expression.Function;
+import com.scudata.expression.IParam;
+import com.scudata.expression.Node;
+import com.scudata.expression.UnknownSymbol;
+import com.scudata.expression.fn.datetime.ToDate;
+import com.scudata.expression.fn.datetime.Year;
+import com.scudata.expression.fn.string.Left;
+import com.scudata.expression.fn.string.Like;
+import com.scudata.expression.operator.Add;
+import com.scudata.expression.operator.DotOperator;
+import com.scudata.expression.operator.Equals;
+import com.scudata.expression.operator.Greater;
+import com.scudata.expression.operator.NotGreater;
+import com.scudata.expression.operator.NotSmaller;
+import com.scudata.expression.operator.Smaller;
+import com.scudata.expression.operator.Subtract;
+import com.scudata.util.Variant;
+
+/**
+ * ֶȡֵֶķΧڰпСֵֵ
+ * ɲֱתйƳlike(s,"abc*")left(s,3)=="abc"year(dt)==2022date(dt)==dk+1>10
+ * ΧֻжпǷļ¼ڵļ¼ԭ
+ * @author RunQian
+ *
+ */
+class ValueRange {
+	private static final long MAX_EXACT = 1L << 52; // ֵСڴֵӼС1
+
+	private Object minValue; // ½磬ձʾû½
+	private boolean minEquals; // Ƿ½
+	private Object maxValue; // Ͻ磬ձʾûϽ
+	private boolean maxEquals; // ǷϽ
+
+	private ValueRange(Object minValue, boolean minEquals, Object maxValue, boolean maxEquals) {
+		this.minValue = minValue;
+		this.minEquals = minEquals;
+		this.maxValue = maxValue;
+		this.maxEquals = maxEquals;
+	}
+
+	/**
+	 * [blockMin, blockMax]ͷΧǷн
+	 * @param blockMin пСֵ
+	 * @param blockMax пֵ
+	 * @return falseûнtrue
+	 */
+	public boolean match(Object blockMin, Object blockMax) {
+		try {
+			if (minValue != null) {
+				int cmp = Variant.compare(blockMax, minValue, true);
+				if (cmp < 0 || (cmp == 0 && !minEquals)) {
+					return false;
+				}
+			}
+
+			if (maxValue != null) {
+				int cmp = Variant.compare(blockMin, maxValue, true);
+				if (cmp > 0 || (cmp == 0 && !maxEquals)) {
+					return false;
+				}
+			}
+
+			return true;
+		} catch (RuntimeException e) {
+			// ֵֶͷΧͲܱȽϣֶַȡyear
+			return true;
+		}
+	}
+
+	/**
+	 * ɵֶƳֶεȡֵΧ
+	 * @param column õ
+	 * @param node 
+	 * @param ctx 
+	 * @return ValueRangeƲʱؿ
+	 */
+	public static ValueRange parse(ColumnMetaData column, Node node, Context ctx) {
+		String colName = column.getColName();
+		if (node instanceof Like) {
+			return parseLike(colName, (Like)node, ctx);
+		}
+
+		int operator;
+		if (node instanceof Equals) {
+			operator = IFilter.EQUAL;
+		} else if (node instanceof Greater) {
+			operator = IFilter.GREATER;
+		} else if (node instanceof NotSmaller) {
+			operator = IFilter.GREATER_EQUAL;
+		} else if (node instanceof Smaller) {
+			operator = IFilter.LESS;
+		} else if (node instanceof NotGreater) {
+			operator = IFilter.LESS_EQUAL;
+		} else {
+			return null;
+		}
+
+		Node left = node.getLeft();
+		Node right = node.getRight();
+		if (!isColumnExp(colName, left)) {
+			if (!isColumnExp(colName, right)) {
+				return null;
+			}
+
+			// ֶұʱλ
+			Node tmp = left;
+			left = right;
+			right = tmp;
+			operator = IFilter.getInverseOP(operator);
+		}
+
+		Object value = calculateConst(colName, right, ctx);
+		if (value == null) {
+			return null;
+		}
+
+		if (left instanceof Year) {
+			return parseYear(operator, value);
+		} else if (left instanceof ToDate) {
+			return parseDate(operator, value);
+		} else if (left instanceof Left) {
+			return parseLeft(colName, (Left)left, operator, value, ctx);
+		} else if (left instanceof Add || left instanceof Subtract) {
+			return parseAddSubtract(colName, left, operator, value, ctx);
+		} else {
+			return null;
+		}
+	}
+
+	// ݱȽΧֵ x operator value
+	private static ValueRange create(int operator, Object value) {
+		switch (operator) {
+		case IFilter.EQUAL:
+			return new ValueRange(value, true, value, true);
+		case IFilter.GREATER:
+			return new ValueRange(value, false, null, false);
+		case IFilter.GREATER_EQUAL:
+			return new ValueRange(value, true, null, false);
+		case IFilter.LESS:
+			return new ValueRange(null, false, value, false);
+		default: // LESS_EQUAL
+			return new ValueRange(null, false, value, true);
+		}
+	}
+
+	// ڵff(x) operator vƳx[begin, end)һ࣬beginf(x)==vСxendf(x)>vСx
+	private static ValueRange create(int operator, Object begin, Object end) {
+		switch (operator) {
+		case IFilter.EQUAL:
+			return new ValueRange(begin, true, end, false);
+		case IFilter.GREATER:
+			return new ValueRange(end, true, null, false);
+		case IFilter.GREATER_EQUAL:
+			return new ValueRange(begin, true, null, false);
+		case IFilter.LESS:
+			return new ValueRange(null, false, begin, false);
+		default: // LESS_EQUAL
+			return new ValueRange(null, false, end, false);
+		}
+	}
+
+	// ǰ׺ΪprefixĴķΧ[prefix, prefixĩַ1)
+	private static ValueRange createPrefix(String prefix) {
+		int len = prefix.length();
+		if (len == 0) {
+			return null;
+		}
+
+		char last = prefix.charAt(len - 1);
+		if (last == Character.MAX_VALUE) {
+			return new ValueRange(prefix, true, null, false);
+		}
+
+		String end = prefix.substring(0, len - 1) + (char)(last + 1);
+		return new ValueRange(prefix, true, end, false);
+	}
+
+	// like(x, "abc*")
+	private static ValueRange parseLike(String colName, Like like, Context ctx) {
+		IParam param = like.getParam();
+		if (like.getOption() != null || param == null || param.getSubSize() != 2) {
+			return null;
+		}
+
+		IParam sub0 = param.getSub(0);
+		IParam sub1 = param.getSub(1);
+		if (sub0 == null || sub1 == null || !isColumn(colName, sub0.getLeafExpression().getHome())) {
+			return null;
+		}
+
+		Object fmt = calculateConst(colName, sub1.getLeafExpression().getHome(), ctx);
+		if (!(fmt instanceof String)) {
+			return null;
+		}
+
+		// ȡһͨǰĲ֣\*\?ʾַ
+		String str = (String)fmt;
+		StringBuffer sb = new StringBuffer();
+		for (int i = 0, len = str.length(); i < len; ++i) {
+			char c = str.charAt(i);
+			if (c == '*' || c == '?') {
+				return createPrefix(sb.toString());
+			} else if (c == '\\' && i + 1 < len && (str.charAt(i + 1) == '*' || str.charAt(i + 1) == '?')) {
+				sb.append(str.charAt(++i));
+			} else {
+				sb.append(c);
+			}
+		}
+
+		// ûͨʱǵֵȽ
+		return create(IFilter.EQUAL, sb.toString());
+	}
+
+	// left(x, n) == "abc"
+	private static ValueRange parseLeft(String colName, Left left, int operator, Object value, Context ctx) {
+		IParam param = left.getParam();
+		if (operator != IFilter.EQUAL || !(value instanceof String) || param == null || param.getSubSize() != 2) {
+			return null;
+		}
+
+		IParam sub0 = param.getSub(0);
+		IParam sub1 = param.getSub(1);
+		if (sub0 == null || sub1 == null || !isColumn(colName, sub0.getLeafExpression().getHome())) {
+			return null;
+		}
+
+		Object n = calculateConst(colName, sub1.getLeafExpression().getHome(), ctx);
+		if (!(n instanceof Number) || ((Number)n).intValue() <= 0) {
+			return null;
+		}
+
+		// ȡߵnַvaluevalueȲnʱֶһvalueͷ
+		String prefix = (String)value;
+		if (prefix.length() > ((Number)n).intValue()) {
+			return null;
+		}
+
+		return createPrefix(prefix);
+	}
+
+	// year(x) ? n
+	private static ValueRange parseYear(int operator, Object value) {
+		if (!(value instanceof Integer) && !(value instanceof Long)) {
+			return null;
+		}
+
+		long year = ((Number)value).longValue();
+		if (year < 1 || year >= 9999) {
+			return null;
+		}
+
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set((int)year, Calendar.JANUARY, 1);
+		Date begin = new Date(calendar.getTimeInMillis());
+		calendar.add(Calendar.YEAR, 1);
+		Date end = new Date(calendar.getTimeInMillis());
+		return create(operator, begin, end);
+	}
+
+	// date(x) ? d
+	private static ValueRange parseDate(int operator, Object value) {
+		if (!(value instanceof Date)) {
+			return null;
+		}
+
+		Date date = (Date)value;
+		Date begin = DateFactory.get().toDate(date);
+		if (begin.getTime() != date.getTime()) {
+			return null;
+		}
+
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(begin);
+		calendar.add(Calendar.DATE, 1);
+		Date end = new Date(calendar.getTimeInMillis());
+		return create(operator, begin, end);
+	}
+
+	// x+k ? vk+x ? vx-k ? vk-x ? vkv
+	private static ValueRange parseAddSubtract(String colName, Node node, int operator, Object value, Context ctx) {
+		if (!(value instanceof Integer) && !(value instanceof Long)) {
+			return null;
+		}
+
+		Node left = node.getLeft();
+		Node right = node.getRight();
+		boolean isColumnLeft = isColumn(colName, left);
+		if (!isColumnLeft && !isColumn(colName, right)) {
+			return null;
+		}
+
+		Object k = calculateConst(colName, isColumnLeft ? right : left, ctx);
+		if (!(k instanceof Integer) && !(k instanceof Long)) {
+			return null;
+		}
+
+		long v = ((Number)value).longValue();
+		long n = ((Number)k).longValue();
+		if (Math.abs(v) >= MAX_EXACT || Math.abs(n) >= MAX_EXACT) {
+			return null;
+		}
+
+		if (node instanceof Add) {
+			return createAddRange(operator, v - n);
+		} else if (isColumnLeft) {
+			return createAddRange(operator, v + n);
+		} else {
+			// k-x ? vx ?' k-v
+			return createAddRange(IFilter.getInverseOP(operator), n - v);
+		}
+	}
+
+	// x+k ? vƳx ? bb=v-kӼĽ룬ֻϸںСǾȷģ
+	// Ƚϰѱ߽ſ1ֶ˵ûӰ
+	private static ValueRange createAddRange(int operator, long b) {
+		switch (operator) {
+		case IFilter.EQUAL:
+			return new ValueRange(b - 1, false, b + 1, false);
+		case IFilter.GREATER_EQUAL:
+			return new ValueRange(b - 1, false, null, false);
+		case IFilter.LESS_EQUAL:
+			return new ValueRange(null, false, b + 1, false);
+		default:
+			return create(operator, b);
+		}
+	}
+
+	// Ƿֶα
+	private static boolean isColumn(String colName, Node node) {
+		if (node instanceof UnknownSymbol) {
+			return ((UnknownSymbol)node).getName().equals(colName);
+		} else if (node instanceof DotOperator && node.getLeft() instanceof CurrentElement &&
+				node.getRight() instanceof FieldRef) {
+			return ((FieldRef)node.getRight()).getName().equals(colName);
+		} else {
+			return false;
+		}
+	}
+
+	// ǷƳΧֶαʽ
+	private static boolean isColumnExp(String colName, Node node) {
+		if (node instanceof Year || node instanceof ToDate) {
+			IParam param = ((Function)node).getParam();
+			return ((Function)node).getOption() == null && param != null && param.isLeaf() &&
+					isColumn(colName, param.getLeafExpression().getHome());
+		} else if (node instanceof Left) {
+			return ((Function)node).getOption() == null;
+		} else if (node instanceof Add || node instanceof Subtract) {
+			return isColumn(colName, node.getLeft()) || isColumn(colName, node.getRight());
+		} else {
+			return false;
+		}
+	}
+
+	// 㲻ֶεĳʽֶλʱؿ
+	private static Object calculateConst(String colName, Node node, Context ctx) {
+		if (node == null) {
+			return null;
+		}
+
+		ArrayList<String> fieldList = new ArrayList<String>();
+		node.getUsedFields(ctx, fieldList);
+		if (fieldList.contains(colName)) {
+			return null;
+		}
+
+		try {
+			return node.calculate(ctx);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+}
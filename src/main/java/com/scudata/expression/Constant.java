@@ -1,5 +1,7 @@
 package com.scudata.expression;
 
+import com.scudata.array.ConstArray;
+import com.scudata.array.IArray;
 import com.scudata.dm.Context;
 import com.scudata.dm.DBObject;
 
@@ -37,4 +39,12 @@ public class Constant extends Node {
 			return false;
 		}
 	}
+
+	public boolean canCalculateAll() {
+		return true;
+	}
+
+	public IArray calculateAll(Context ctx) {
+		return new ConstArray(value, getTopCurrent(ctx).length());
+	}
 }
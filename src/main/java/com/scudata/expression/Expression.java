@@ -3,6 +3,7 @@ package com.scudata.expression;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.scudata.array.IArray;
 import com.scudata.cellset.ICellSet;
 import com.scudata.cellset.INormalCell;
 import com.scudata.cellset.datamodel.PgmCellSet;
@@ -125,6 +126,14 @@ public class Expression {
 		return home;
 	}
 
+	/**
+	 * ȡʽڵ
+	 * @return ICellSet
+	 */
+	public ICellSet getCellSet() {
+		return cs;
+	}
+
 	/**
 	 * رʽǷǳʽ
 	 * @return trueǣfalse
@@ -146,6 +155,23 @@ public class Expression {
 		}
 	}
 
+	/**
+	 * رʽǷܶݼ㣬нڵ㶼ʱŷ
+	 * @return boolean
+	 */
+	public boolean canCalculateAll() {
+		return home != null && home.canCalculateAll();
+	}
+
+	/**
+	 * ԼջջегԱʽǰcanCalculateAllж
+	 * @param ctx 
+	 * @return IArray ֵ
+	 */
+	public IArray calculateAll(Context ctx) {
+		return home.calculateAll(ctx);
+	}
+
 	/**
 	 * õĵԪ񣬲ȡԪֵʽǵԪ򷵻ؿ
 	 * @param ctx 
@@ -2,6 +2,8 @@ package com.scudata.expression;
 
 import java.util.List;
 
+import com.scudata.array.IArray;
+import com.scudata.array.ObjectArray;
 import com.scudata.cellset.INormalCell;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
@@ -157,6 +159,54 @@ public abstract class Node {
 	 */
 	public abstract Object calculate(Context ctx);
 
+	/**
+	 * ؽڵǷܶݼ㣬ҪӽڵҲ
+	 * Ľڵ㲻иã&&||ԲҪҲĳԱҲҲ
+	 * @return boolean trueܣfalse
+	 */
+	public boolean canCalculateAll() {
+		return false;
+	}
+
+	/**
+	 * ԼջջегԱڵֵֵ
+	 * ĬʵǶÿԱcalculateĽڵش˷
+	 * @param ctx 
+	 * @return IArray ֵ飬ջͬ
+	 */
+	public IArray calculateAll(Context ctx) {
+		Sequence.Current current = getTopCurrent(ctx);
+		int len = current.length();
+		int prevIndex = current.getCurrentIndex();
+		ObjectArray result = new ObjectArray(len);
+		
+		try {
+			for (int i = 1; i <= len; ++i) {
+				current.setCurrent(i);
+				result.add(calculate(ctx));
+			}
+		} finally {
+			current.setCurrent(prevIndex);
+		}
+		
+		return result;
+	}
+
+	/**
+	 * ȡʱջջ
+	 * @param ctx 
+	 * @return Sequence.Current
+	 */
+	protected static Sequence.Current getTopCurrent(Context ctx) {
+		Object top = ctx.getComputeStack().getTopObject();
+		if (top instanceof Sequence.Current) {
+			return (Sequence.Current)top;
+		} else {
+			MessageManager mm = EngineMessage.get();
+			throw new RQException(mm.getMessage("Expression.logicError"));
+		}
+	}
+
 	/**
 	 * õĵԪ񣬲ȡԪֵʽǵԪ򷵻ؿ
 	 * @param ctx 
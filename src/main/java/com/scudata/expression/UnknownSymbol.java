@@ -2,6 +2,9 @@ package com.scudata.expression;
 
 import java.util.List;
 
+import com.scudata.array.ArrayUtil;
+import com.scudata.array.ConstArray;
+import com.scudata.array.IArray;
 import com.scudata.common.DBSession;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
@@ -176,6 +179,52 @@ public class UnknownSymbol extends Node {
 		}
 	}
 
+	public boolean canCalculateAll() {
+		return true;
+	}
+
+	/**
+	 * ջ㣬س飬ջеֶȡ
+	 * Ա
+	 */
+	public IArray calculateAll(Context ctx) {
+		Sequence.Current current = getTopCurrent(ctx);
+		int len = current.length();
+		if (param != null) {
+			return new ConstArray(param.getValue(), len);
+		} else if (computeItem == null) {
+			Param param = EnvUtil.getParam(name, ctx);
+			if (param != null) {
+				this.param = param;
+				return new ConstArray(param.getValue(), len);
+			}
+		} else if (computeItem != current && computeItem.isInStack(ctx.getComputeStack())) {
+			// ϴμʱӦĶ
+			return super.calculateAll(ctx);
+		}
+
+		// ջеĳԱͬṹļ¼
+		Sequence seq = current.getCurrentSequence();
+		DataStruct ds = null;
+		for (int i = 1; i <= len; ++i) {
+			Object obj = seq.getMem(i);
+			if (!(obj instanceof Record)) {
+				return super.calculateAll(ctx);
+			} else if (ds == null) {
+				ds = ((Record)obj).dataStruct();
+			} else if (ds != ((Record)obj).dataStruct()) {
+				return super.calculateAll(ctx);
+			}
+		}
+
+		int col = ds != null ? ds.getFieldIndex(name) : -1;
+		if (col < 0) {
+			return super.calculateAll(ctx);
+		}
+
+		return ArrayUtil.toArray(seq, col);
+	}
+
 	// '=' ֵ
 	public Object assign(Object value, Context ctx) {
 		// ϴμʽʱӦļ¼лڶջʹϴε
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
+import com.scudata.dm.Env;
 import com.scudata.dm.cursor.ICursor;
 import com.scudata.dm.op.New;
 import com.scudata.expression.CursorFunction;
@@ -203,6 +204,9 @@ public class Groupx extends CursorFunction {
 		ICursor	result;
 		if (gexp != null) {
 			result = CursorUtil.groupx_g(cursor, gexp, exps, names, tempExps, tempNames, option, ctx);
+		} else if (n < 0 && Env.getGroupsMemory() > 0) {
+			// ûָnʱ˷ڴڴ飬޲д
+			result = cursor.groupx(exps, names, tempExps, tempNames, option, ctx);
 		} else {
 			result = cursor.groupx(exps, names, tempExps, tempNames, option, ctx, capacity);
 		}
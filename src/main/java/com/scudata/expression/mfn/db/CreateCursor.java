@@ -3,6 +3,7 @@ package com.scudata.expression.mfn.db;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
+import com.scudata.dm.Env;
 import com.scudata.dm.cursor.DBCursor;
 import com.scudata.expression.DBFunction;
 import com.scudata.expression.IParam;
@@ -11,6 +12,7 @@ import com.scudata.resources.EngineMessage;
 /**
  * ݿѯα
  * db.cursor(sql,)
+ * db.cursor(sql,;k,n) kаֳֵnΣÿ½Ӳȡ
  * @author RunQian
  *
  */
@@ -21,6 +23,42 @@ public class CreateCursor extends DBFunction {
 			throw new RQException("cursor" + mm.getMessage("function.missingParam"));
 		}
 
+		IParam param = this.param;
+		String key = null;
+		int segCount = 0;
+		if (param.getType() == IParam.Semicolon) {
+			if (param.getSubSize() != 2 || param.getSub(0) == null || param.getSub(1) == null) {
+				MessageManager mm = EngineMessage.get();
+				throw new RQException("cursor" + mm.getMessage("function.invalidParam"));
+			}
+			
+			IParam rangeParam = param.getSub(1);
+			IParam keyParam = rangeParam;
+			segCount = Env.getCursorParallelNum();
+			if (rangeParam.getType() == IParam.Comma) {
+				keyParam = rangeParam.getSub(0);
+				IParam countParam = rangeParam.getSub(1);
+				if (keyParam == null || !keyParam.isLeaf() || countParam == null || !countParam.isLeaf()) {
+					MessageManager mm = EngineMessage.get();
+					throw new RQException("cursor" + mm.getMessage("function.invalidParam"));
+				}
+				
+				Object obj = countParam.getLeafExpression().calculate(ctx);
+				if (!(obj instanceof Number)) {
+					MessageManager mm = EngineMessage.get();
+					throw new RQException("cursor" + mm.getMessage("function.paramTypeError"));
+				}
+				
+				segCount = ((Number)obj).intValue();
+			} else if (!keyParam.isLeaf()) {
+				MessageManager mm = EngineMessage.get();
+				throw new RQException("cursor" + mm.getMessage("function.invalidParam"));
+			}
+			
+			key = keyParam.getLeafExpression().getIdentifierName();
+			param = param.getSub(0);
+		}
+		
 		char type = param.getType();
 		String strSql;
 		Object []sqlParams = null;
@@ -76,6 +114,10 @@ public class CreateCursor extends DBFunction {
 			throw new RQException("cursor" + mm.getMessage("function.invalidParam"));
 		}
 
-		return new DBCursor(strSql, sqlParams, types, db, option, ctx);
+		if (key != null) {
+			return DBCursor.createRangeCursor(strSql, sqlParams, types, db, key, segCount, 0, option, ctx);
+		} else {
+			return new DBCursor(strSql, sqlParams, types, db, option, ctx);
+		}
 	}
 }
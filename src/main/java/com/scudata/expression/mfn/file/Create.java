@@ -7,6 +7,7 @@ import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
 import com.scudata.dm.FileObject;
+import com.scudata.dw.BlockCodec;
 import com.scudata.dw.ColumnGroupTable;
 import com.scudata.dw.GroupTable;
 import com.scudata.dw.RowGroupTable;
@@ -18,7 +19,8 @@ import com.scudata.resources.EngineMessage;
 
 /**
  * ļ
- * f.create(C,;x)
+ * f.create(C,;x)CдC:cָпıccΪlz4zipdeltadict
+ * C:bloomΪеÿпɲ¡ڵֵͰʱ飬ԺͱһдC:c:bloom
  * @author RunQian
  *
  */
@@ -54,11 +56,18 @@ public class Create extends FileFunction {
 		}
 		
 		String []cols;
-		if (colParam.isLeaf()) {
-			cols = new String[]{colParam.getLeafExpression().getIdentifierName()};
+		byte []codecs; // пı룬ðָ#k:delta
+		boolean []blockFilters; // Ƿɿðָid:bloom
+		if (colParam.isLeaf() || colParam.getType() == IParam.Colon) {
+			cols = new String[1];
+			codecs = new byte[1];
+			blockFilters = new boolean[1];
+			parseColumn(colParam, cols, codecs, blockFilters, 0);
 		} else {
 			int size = colParam.getSubSize();
 			cols = new String[size];
+			codecs = new byte[size];
+			blockFilters = new boolean[size];
 			for (int i = 0; i < size; ++i) {
 				IParam sub = colParam.getSub(i);
 				if (sub == null) {
@@ -66,9 +75,24 @@ public class Create extends FileFunction {
 					throw new RQException("create" + mm.getMessage("function.invalidParam"));
 				}
 				
-				cols[i] = sub.getLeafExpression().getIdentifierName();
+				parseColumn(sub, cols, codecs, blockFilters, i);
 			}
 		}
+		
+		boolean hasCodec = false;
+		boolean hasBlockFilter = false;
+		for (int i = 0; i < cols.length; ++i) {
+			hasCodec |= codecs[i] != BlockCodec.LZ4;
+			hasBlockFilter |= blockFilters[i];
+		}
+		
+		if (!hasCodec) {
+			codecs = null;
+		}
+		
+		if (!hasBlockFilter) {
+			blockFilters = null;
+		}
 
 		if (file.isRemoteFile()) {
 			// Զļ
@@ -78,7 +102,7 @@ public class Create extends FileFunction {
 			Integer partition = file.getPartition();
 			int p = partition == null ? -1 : partition.intValue();
 			ClusterFile cf = new ClusterFile(host, port, fileName, p, ctx);
-			return cf.createGroupTable(cols, distributeExp, option, ctx);
+			return cf.createGroupTable(cols, codecs, blockFilters, distributeExp, option, ctx);
 		} else {
 			
 		}
@@ -105,7 +129,7 @@ public class Create extends FileFunction {
 			if (opt != null && opt.indexOf('r') != -1) {
 				table = new RowGroupTable(file, cols, distribute, opt, ctx);
 			} else {
-				table = new ColumnGroupTable(file, cols, distribute, opt, ctx);
+				table = new ColumnGroupTable(file, cols, codecs, blockFilters, distribute, opt, ctx);
 			}
 			
 			table.setPartition(partition);
@@ -114,4 +138,46 @@ public class Create extends FileFunction {
 			throw new RQException(e.getMessage(), e);
 		}
 	}
+	
+	// вдcolsiλãпı
+	// ðźı롢bloom
+	private static void parseColumn(IParam param, String []cols, byte []codecs, boolean []blockFilters, int i) {
+		codecs[i] = BlockCodec.LZ4;
+		if (param.isLeaf()) {
+			cols[i] = param.getLeafExpression().getIdentifierName();
+			return;
+		}
+		
+		int size = param.getSubSize();
+		IParam nameParam = param.getSub(0);
+		if (size > 3 || nameParam == null) {
+			MessageManager mm = EngineMessage.get();
+			throw new RQException("create" + mm.getMessage("function.invalidParam"));
+		}
+		
+		cols[i] = nameParam.getLeafExpression().getIdentifierName();
+		boolean hasCodec = false;
+		for (int p = 1; p < size; ++p) {
+			IParam sub = param.getSub(p);
+			if (sub == null) {
+				MessageManager mm = EngineMessage.get();
+				throw new RQException("create" + mm.getMessage("function.invalidParam"));
+			}
+			
+			String name = sub.getLeafExpression().getIdentifierName();
+			if ("bloom".equalsIgnoreCase(name) && !blockFilters[i]) {
+				blockFilters[i] = true;
+				continue;
+			}
+			
+			byte codec = BlockCodec.parseType(name);
+			if (codec == -1 || hasCodec) {
+				MessageManager mm = EngineMessage.get();
+				throw new RQException("create" + mm.getMessage("function.invalidParam"));
+			}
+			
+			codecs[i] = codec;
+			hasCodec = true;
+		}
+	}
 }
@@ -289,11 +289,7 @@ public class CreateCursor extends FileFunction {
 					cursors[i] = new BFileCursor(fo, fields, i + 1, segCount, option, ctx);
 				}
 			} else {
-				for (int i = 0; i < segCount; ++i) {
-					FileCursor cursor = new FileCursor(fo, i + 1, segCount, fields, types, s, option, ctx);
-					cursor.setFormats(fmts);
-					cursors[i] = cursor;
-				}
+				cursors = FileCursor.createSegmentCursors(fo, segCount, fields, types, fmts, s, option, ctx);
 			}
 			
 			return new MultipathCursors(cursors, ctx);
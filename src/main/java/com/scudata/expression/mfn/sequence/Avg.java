@@ -19,7 +19,12 @@ public class Avg extends SequenceFunction {
 			return srcSequence.average();
 		} else if (param.isLeaf()) {
 			Expression exp = param.getLeafExpression();
-			return srcSequence.calc(exp, ctx).average();
+			if (exp.canCalculateAll()) {
+				// ڻϼ㣬ΪÿԱļ
+				return srcSequence.calculateAll(exp, ctx).average();
+			} else {
+				return srcSequence.calc(exp, ctx).average();
+			}
 		} else {
 			MessageManager mm = EngineMessage.get();
 			throw new RQException("avg" + mm.getMessage("function.invalidParam"));
@@ -20,7 +20,12 @@ public class Max extends SequenceFunction {
 			return srcSequence.max();
 		} else if (param.isLeaf()) {
 			Expression exp = param.getLeafExpression();
-			return srcSequence.calc(exp, ctx).max();
+			if (exp.canCalculateAll()) {
+				// ڻϼ㣬ΪÿԱļ
+				return srcSequence.calculateAll(exp, ctx).max();
+			} else {
+				return srcSequence.calc(exp, ctx).max();
+			}
 		} else {
 			if (param.getSubSize() != 2) {
 				MessageManager mm = EngineMessage.get();
@@ -20,7 +20,12 @@ public class Min extends SequenceFunction {
 			return srcSequence.min();
 		} else if (param.isLeaf()) {
 			Expression exp = param.getLeafExpression();
-			return srcSequence.calc(exp, ctx).min();
+			if (exp.canCalculateAll()) {
+				// ڻϼ㣬ΪÿԱļ
+				return srcSequence.calculateAll(exp, ctx).min();
+			} else {
+				return srcSequence.calc(exp, ctx).min();
+			}
 		} else {
 			if (param.getSubSize() != 2) {
 				MessageManager mm = EngineMessage.get();
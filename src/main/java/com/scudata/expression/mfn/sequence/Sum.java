@@ -19,7 +19,12 @@ public class Sum extends SequenceFunction {
 			return srcSequence.sum();
 		} else if (param.isLeaf()) {
 			Expression exp = param.getLeafExpression();
-			return srcSequence.calc(exp, ctx).sum();
+			if (exp.canCalculateAll()) {
+				// ڻϼ㣬ΪÿԱļ
+				return srcSequence.calculateAll(exp, ctx).sum();
+			} else {
+				return srcSequence.calc(exp, ctx).sum();
+			}
 		} else {
 			MessageManager mm = EngineMessage.get();
 			throw new RQException("sum" + mm.getMessage("function.invalidParam"));
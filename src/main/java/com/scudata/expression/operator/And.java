@@ -1,8 +1,12 @@
 package com.scudata.expression.operator;
 
+import com.scudata.array.ArrayCalc;
+import com.scudata.array.BoolArray;
+import com.scudata.array.IArray;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
+import com.scudata.dm.Sequence;
 import com.scudata.expression.Operator;
 import com.scudata.resources.EngineMessage;
 import com.scudata.util.Variant;
@@ -40,4 +44,63 @@ public class And extends Operator {
 			return Boolean.FALSE;
 		}
 	}
+
+	public boolean canCalculateAll() {
+		return left != null && right != null && left.canCalculateAll() && right.canCalculateAll();
+	}
+
+	/**
+	 * ʱҲֵֻΪʱ㣬Ҳ˵ûиã
+	 * ʱΪֻҪĳԱ㣬ҪҲĳԱӰ
+	 */
+	public IArray calculateAll(Context ctx) {
+		IArray leftValues = left.calculateAll(ctx);
+		int len = leftValues.size();
+		boolean []datas = new boolean[len + 1];
+		int count = 0; // ҪҲĳԱ
+
+		for (int i = 1; i <= len; ++i) {
+			if (ArrayCalc.isTrue(leftValues, i)) {
+				count++;
+			}
+		}
+
+		if (count == 0) {
+			return new BoolArray(datas, len);
+		}
+
+		IArray rightValues;
+		try {
+			rightValues = right.calculateAll(ctx);
+		} catch (RuntimeException e) {
+			if (count == len) {
+				throw e;
+			}
+
+			rightValues = null;
+		}
+
+		if (rightValues != null) {
+			for (int i = 1; i <= len; ++i) {
+				if (ArrayCalc.isTrue(leftValues, i)) {
+					datas[i] = ArrayCalc.isTrue(rightValues, i);
+				}
+			}
+		} else {
+			Sequence.Current current = getTopCurrent(ctx);
+			int prevIndex = current.getCurrentIndex();
+			try {
+				for (int i = 1; i <= len; ++i) {
+					if (ArrayCalc.isTrue(leftValues, i)) {
+						current.setCurrent(i);
+						datas[i] = Variant.isTrue(right.calculate(ctx));
+					}
+				}
+			} finally {
+				current.setCurrent(prevIndex);
+			}
+		}
+
+		return new BoolArray(datas, len);
+	}
 }
@@ -1,5 +1,7 @@
 package com.scudata.expression.operator;
 
+import com.scudata.array.ArrayCalc;
+import com.scudata.array.IArray;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
@@ -25,4 +27,12 @@ public class Divide extends Operator {
 
 		return Variant.divide(left.calculate(ctx), right.calculate(ctx));
 	}
+
+	public boolean canCalculateAll() {
+		return left != null && right != null && left.canCalculateAll() && right.canCalculateAll();
+	}
+
+	public IArray calculateAll(Context ctx) {
+		return ArrayCalc.divide(left.calculateAll(ctx), right.calculateAll(ctx));
+	}
 }
@@ -1,5 +1,7 @@
 package com.scudata.expression.operator;
 
+import com.scudata.array.ArrayCalc;
+import com.scudata.array.IArray;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
@@ -34,4 +36,12 @@ public class Equals extends Operator {
 			return Boolean.FALSE;
 		}
 	}
+
+	public boolean canCalculateAll() {
+		return left != null && right != null && left.canCalculateAll() && right.canCalculateAll();
+	}
+
+	public IArray calculateAll(Context ctx) {
+		return ArrayCalc.compare(left.calculateAll(ctx), right.calculateAll(ctx), ArrayCalc.EQUAL);
+	}
 }
@@ -2,6 +2,8 @@ package com.scudata.expression.operator;
 
 import java.util.Date;
 
+import com.scudata.array.ArrayCalc;
+import com.scudata.array.IArray;
 import com.scudata.common.MessageManager;
 import com.scudata.common.RQException;
 import com.scudata.dm.Context;
@@ -47,4 +49,18 @@ public class Negative extends Operator {
 			throw new RQException("\"-\"" +mm.getMessage("operator.numberRightOperation"));
 		}
 	}
+
+	public boolean canCalculateAll() {
+		return right != null && right.canCalculateAll();
+	}
+
+	public IArray calculateAll(Context ctx) {
+		IArray result = ArrayCalc.negate(right.calculateAll(ctx));
+		if (result != null) {
+			return result;
+		} else {
+			// ֵԱ
+			return super.calculateAll(ctx);
+		}
+	}
 }
@@ -30,6 +30,7 @@ import com.scudata.expression.Node;
 import com.scudata.resources.EngineMessage;
 import com.scudata.thread.ThreadPool;
 import com.scudata.util.CursorUtil;
+import com.scudata.util.EnvUtil;
 
 /**
  * Ⱥα
@@ -887,6 +888,23 @@ public class ClusterCursor extends ICursor implements IClusterObject, IMultipath
 		}
 	}
 	
+	/**
+	 * ԼȺα㣬ڽڵϷ飬ڴ޷
+	 * @param exps ʽ
+	 * @param names	ֶ
+	 * @param calcExps ܱʽ
+	 * @param calcNames	ֶ
+	 * @param opt ѡ
+	 * @param ctx 
+	 * @return α
+	 */
+	public ICursor groupx(Expression[] exps, String[] names,
+			Expression[] calcExps, String[] calcNames, String opt, Context ctx) {
+		int fcount = exps == null ? 0 : exps.length;
+		if (calcExps != null) fcount += calcExps.length;
+		return groupx(exps, names, calcExps, calcNames, opt, ctx, EnvUtil.getCapacity(fcount));
+	}
+	
 	/**
 	 * ԼȺα
 	 * @param exps ʽ
@@ -341,12 +341,27 @@ public class ClusterFile implements IClusterObject {
 	 * @return Ⱥ
 	 */
 	public ClusterTableMetaData createGroupTable(String []colNames, Expression distribute, String opt, Context ctx) {
+		return createGroupTable(colNames, null, null, distribute, opt, ctx);
+	}
+	
+	/**
+	 * ȺָÿпıǷɿ
+	 * @param colNames ֶ
+	 * @param codecs ÿеı룬ȡֵΪBlockCodecжıͣLZ4
+	 * @param blockFilters ÿǷΪпɲ¡򶼲
+	 * @param distribute ʽ
+	 * @param opt ѡ
+	 * @param ctx 
+	 * @return Ⱥ
+	 */
+	public ClusterTableMetaData createGroupTable(String []colNames, byte []codecs, boolean []blockFilters, 
+			Expression distribute, String opt, Context ctx) {
 		int count = pfs.length;
 		int []proxyIds = new int[count];
 		String dis = distribute == null ? null : distribute.toString();
 		
 		for (int i = 0; i < count; ++i) {
-			proxyIds[i] = pfs[i].createGroupTable(colNames, dis, opt);
+			proxyIds[i] = pfs[i].createGroupTable(colNames, codecs, blockFilters, dis, opt);
 		}
 		
 		ClusterTableMetaData table = new ClusterTableMetaData(this, proxyIds, ctx);
@@ -64,6 +64,19 @@ class PartitionFile {
 	 * @return
 	 */
 	public int createGroupTable(String []colNames, String distribute, String opt) {
+		return createGroupTable(colNames, null, null, distribute, opt);
+	}
+	
+	/**
+	 * ָÿпıǷɿ
+	 * @param colNames ֶ
+	 * @param codecs ÿеı룬ȡֵΪBlockCodecжıͣLZ4
+	 * @param blockFilters ÿǷΪпɲ¡򶼲
+	 * @param distribute
+	 * @param opt
+	 * @return
+	 */
+	public int createGroupTable(String []colNames, byte []codecs, boolean []blockFilters, String distribute, String opt) {
 		UnitClient client = new UnitClient(host, port);
 		String fileName = clusterFile.getFileName();
 		
@@ -74,6 +87,8 @@ class PartitionFile {
 			command.setAttribute("jobSpaceId", clusterFile.getJobSpaceId());
 			
 			command.setAttribute("colNames", colNames);
+			command.setAttribute("codecs", codecs);
+			command.setAttribute("blockFilters", blockFilters);
 			command.setAttribute("distribute", distribute);
 			command.setAttribute("opt", opt);
 			
@@ -95,6 +110,8 @@ class PartitionFile {
 		Integer partition = (Integer)attributes.get("partition");
 		String jobSpaceID = (String)attributes.get("jobSpaceId");
 		String []colNames = (String [])attributes.get("colNames");
+		byte []codecs = (byte [])attributes.get("codecs");
+		boolean []blockFilters = (boolean [])attributes.get("blockFilters");
 		String distribute = (String)attributes.get("distribute");
 		String opt = (String)attributes.get("opt");
 		
@@ -124,7 +141,7 @@ class PartitionFile {
 			if (opt != null && opt.indexOf('r') != -1) {
 				gt = new RowGroupTable(file, colNames, distribute, opt, ctx);
 			} else {
-				gt = new ColumnGroupTable(file, colNames, distribute, opt, ctx);
+				gt = new ColumnGroupTable(file, colNames, codecs, blockFilters, distribute, opt, ctx);
 			}
 			
 			if (partition.intValue() > 0) {
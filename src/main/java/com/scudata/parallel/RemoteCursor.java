@@ -8,6 +8,9 @@ import com.scudata.dm.cursor.ICursor;
 
 /**
  * Զα
+ * ȡʱϱEnv.getRemoteFetchCount()δɵȡ󣬷ֻ˳
+ * 㵱ǰʱֻŲ
+ * Ԥȡɱֻֻյ󣬲֮ǰ
  * 
  * @author Joancy
  *
@@ -20,6 +23,12 @@ public class RemoteCursor extends ICursor implements Serializable {
 	UnitClient unitClient = null;
 	boolean isClosed = false;
 
+	private transient int batchSize; // Ԥȡʱÿļ¼0ʾûпʼԤȡ
+	private transient int pending; // ѷûжȡӦȡ
+	private transient boolean isEnd; // ֻαǷȡ
+	private transient Sequence buffer; // Ԥȡûзص
+	private transient int bufferIndex; // bufferһҪصļ¼
+
 	/**
 	 * һԶα
 	 * @param host IP
@@ -52,37 +61,169 @@ public class RemoteCursor extends ICursor implements Serializable {
 		return unitClient;
 	}
 
+	private Request newRequest(String methodName, Object[] argValues) {
+		Request req = new Request(Request.CURSOR_METHOD);
+		req.setAttr(Request.METHOD_TaskId, new Integer(taskId));
+		req.setAttr(Request.METHOD_ProxyId, new Integer(proxyId));
+		req.setAttr(Request.METHOD_MethodName, methodName);
+		req.setAttr(Request.METHOD_ArgValues, argValues);
+		return req;
+	}
+
+	private static Object getResult(Response res) throws Exception {
+		if (res.getError() != null) {
+			throw res.getError();
+		}
+		if (res.getException() != null) {
+			throw res.getException();
+		}
+		return res.getResult();
+	}
+
 	private Object executeMethod(String methodName, Object[] argValues) {
+		// ͬһϵӦ˳򷵻أȶԤȡӦ
+		readPending();
 		try {
 			UnitClient uc = getUnitClient();
-			Request req = new Request(Request.CURSOR_METHOD);
-			req.setAttr(Request.METHOD_TaskId, new Integer(taskId));
-			req.setAttr(Request.METHOD_ProxyId, new Integer(proxyId));
-			req.setAttr(Request.METHOD_MethodName, methodName);
-			req.setAttr(Request.METHOD_ArgValues, argValues);
-
-			Response res = uc.send(req);
-			if (res.getError() != null) {
-				throw res.getError();
-			}
-			if (res.getException() != null) {
-				throw res.getException();
-			}
-			return res.getResult();
+			return getResult(uc.send(newRequest(methodName, argValues)));
 		} catch (Exception x) {
 			throw new RQException("Execute 'RemoteCursor' method " + methodName
 					+ " failed on " + unitClient + " for " + x.getMessage(), x);
 		}
 	}
 
+	// һȡ󣬲ȴӦ
+	private void sendFetch() throws Exception {
+		unitClient.write(newRequest("fetch", new Object[] { new Integer(batchSize) }));
+		pending++;
+	}
+
+	// ȡ緢ȡӦ׷ӵbuffer
+	private void readFetch() throws Exception {
+		pending--;
+		Response res = (Response) unitClient.read();
+		res.setFromHost(unitClient.toString());
+		Sequence t = (Sequence) getResult(res);
+		if (t == null || t.length() < batchSize) {
+			isEnd = true;
+		}
+
+		if (t != null && t.length() > 0) {
+			if (buffer == null) {
+				buffer = t;
+				bufferIndex = 1;
+			} else {
+				buffer = append(section(buffer, bufferIndex, buffer.length() + 1), t);
+				bufferIndex = 1;
+			}
+		}
+	}
+
+	// ѷȡӦbuffer
+	private void readPending() {
+		try {
+			while (pending > 0) {
+				readFetch();
+			}
+		} catch (Exception x) {
+			pending = 0;
+			throw new RQException("Execute 'RemoteCursor' method fetch failed on "
+					+ unitClient + " for " + x.getMessage(), x);
+		}
+	}
+
+	// ȡеΣλ
+	private static Sequence section(Sequence seq, int start, int end) {
+		Sequence result;
+		if (seq instanceof Table) {
+			result = new Table(seq.dataStruct(), end - start);
+		} else {
+			result = new Sequence(end - start);
+		}
+
+		result.getMems().addSection(seq.getMems(), start, end);
+		return result;
+	}
+
+	// buffern¼
+	private Sequence takeBuffer(int n) {
+		if (buffer == null) {
+			return null;
+		}
+
+		int len = buffer.length();
+		Sequence result;
+		if (bufferIndex == 1 && n >= len) {
+			result = buffer;
+		} else if (n > len - bufferIndex) {
+			result = section(buffer, bufferIndex, len + 1);
+		} else {
+			result = section(buffer, bufferIndex, bufferIndex + n);
+			bufferIndex += n;
+			return result;
+		}
+
+		buffer = null;
+		return result;
+	}
+
+	// prefetchCountȡȡ
+	private Sequence prefetch(int n, int prefetchCount) {
+		if (batchSize == 0) {
+			batchSize = n > ICursor.FETCHCOUNT && n < ICursor.MAXSIZE ? n : ICursor.FETCHCOUNT;
+		}
+
+		try {
+			while (!isEnd && (buffer == null || buffer.length() - bufferIndex + 1 < n)) {
+				while (pending < prefetchCount) {
+					sendFetch();
+				}
+
+				readFetch();
+			}
+
+			// صʱֻȡ
+			while (!isEnd && pending < prefetchCount) {
+				sendFetch();
+			}
+		} catch (Exception x) {
+			throw new RQException("Execute 'RemoteCursor' method fetch failed on "
+					+ unitClient + " for " + x.getMessage(), x);
+		}
+
+		return takeBuffer(n);
+	}
+
 	protected long skipOver(long n) {
 		if( isClosed ) return 0;
+		readPending();
+		long count = 0;
+		if (buffer != null) {
+			int rest = buffer.length() - bufferIndex + 1;
+			if (n < rest) {
+				bufferIndex += (int)n;
+				return n;
+			}
+
+			buffer = null;
+			count = rest;
+			if (isEnd || count == n) {
+				if (count < n) {
+					close();
+				}
+				return count;
+			}
+		} else if (isEnd) {
+			close();
+			return 0;
+		}
+
 		Long I = null;
 		try {
-			I = (Long) executeMethod("skip", new Object[] { new Long(n) });
-			return I.longValue();
+			I = (Long) executeMethod("skip", new Object[] { new Long(n - count) });
+			return count + I.longValue();
 		} finally {
-			if (I != null && I.longValue() < n) {
+			if (I != null && I.longValue() < n - count) {
 				close();
 			}
 		}
@@ -90,11 +231,14 @@ public class RemoteCursor extends ICursor implements Serializable {
 
 	public synchronized void close() {
 		if( isClosed ) return;
+		buffer = null;
 		try {
 			executeMethod("close", null);
 		} catch (Exception x) {
 		} finally {
-			unitClient.close();
+			if (unitClient != null) {
+				unitClient.close();
+			}
 			isClosed = true;
 		}
 	}
@@ -103,8 +247,18 @@ public class RemoteCursor extends ICursor implements Serializable {
 		if( isClosed ) return null;
 		Sequence t = null;
 		try {
-			t = (Sequence) executeMethod("fetch", new Object[] { new Integer(n) });
+			int prefetchCount = Env.getRemoteFetchCount();
+			if (batchSize > 0 || (prefetchCount > 0 && getUnitClient().isConnected())) {
+				t = prefetch(n, Math.max(prefetchCount, 1));
+			} else {
+				t = (Sequence) executeMethod("fetch", new Object[] { new Integer(n) });
+			}
+			
 			return t;
+		} catch (RQException e) {
+			throw e;
+		} catch (Exception x) {
+			throw new RQException(x.getMessage(), x);
 		} finally {
 			if (t == null || t.length() < n) {
 				close();
@@ -127,6 +281,14 @@ public class RemoteCursor extends ICursor implements Serializable {
 	}
 	
 
+	/**
+	 * ȡѷûжȡӦȡ
+	 * @return 
+	 */
+	int getPendingCount() {
+		return pending;
+	}
+
 	/**
 	 * ʵtoStringı
 	 */
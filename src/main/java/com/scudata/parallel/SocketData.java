@@ -2,13 +2,20 @@ package com.scudata.parallel;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.scudata.common.Logger;
 import com.scudata.dm.Env;
@@ -16,6 +23,9 @@ import com.scudata.dm.Env;
 /**
  * װ˲׽
  * ʹøö󣬿ͻ˺ͷ˿ֱӽиЧݴ
+ * WireProtocolĶ֡ʽдܱĶʹJavaл
+ * ӽʱͻ˷ЭʶͰ汾˻ظ˫ֵ֧İ汾
+ * ԷǲʶЭľɰ汾ʱJavaлдɰ汾Ŀͻֱӷлͷɰ汾ķ˻ر
  * @author Joancy
  *
  */
@@ -23,9 +33,18 @@ public class SocketData{
 	int socketBuf = Env.getFileBufSize();
 	private Socket socket;
 	
+	private DataOutputStream dos=null;
+	private DataInputStream dis=null;
+	
+	// Javaлдʱ
 	private ObjectOutputStream oos=null;
 	private ObjectInputStream ois=null;
 	
+	private int version = WireProtocol.VERSION; // Э̺Э汾
+	
+	// ֻ֧Javaлľɰ汾ֻٴʱٷЭʶ
+	private static Map<SocketAddress, Boolean> serialEndpoints = new ConcurrentHashMap<SocketAddress, Boolean>();
+	
 	/**
 	 * socketһ׽
 	 * @param socket ׽ֶ
@@ -33,6 +52,10 @@ public class SocketData{
 	 */
 	public SocketData(Socket socket) throws Exception{
 		this.socket = socket;
+		setSocketOptions(socket);
+	}
+	
+	private void setSocketOptions(Socket socket) throws SocketException{
 		socket.setTcpNoDelay(true);
 		socket.setKeepAlive(true);
 		socket.setReceiveBufferSize(socketBuf);
@@ -51,12 +74,43 @@ public class SocketData{
 		//ٶҲԽ죬Ҷһúܴʱڴע
 		// ڴݷʱл
 		BufferedOutputStream bos = new BufferedOutputStream(os);// ,socketBuf,˻sizeòǺܴ
-		oos = new ObjectOutputStream(bos);
-		oos.flush();//flushдʱ
+		dos = new DataOutputStream(bos);
 		
 		InputStream is = socket.getInputStream();
 		BufferedInputStream bis = new BufferedInputStream(is);
-		ois = new ObjectInputStream(bis);
+		dis = new DataInputStream(bis);
+		
+		// Эʶͱ˵İ汾˻ظ˫ֵ֧İ汾
+		dos.writeInt(WireProtocol.MAGIC);
+		dos.writeByte(WireProtocol.VERSION);
+		dos.flush();
+		
+		if (dis.readInt() != WireProtocol.MAGIC) {
+			throw new IOException("invalid stream header");
+		}
+		
+		version = Math.min(dis.readByte(), WireProtocol.VERSION);
+		if (version == WireProtocol.SERIAL_VERSION) {
+			holdSerialStream();
+		}
+	}
+	
+	/**
+	 * ֻ֧Javaлľɰ汾ʱͻͨѶ
+	 * @throws IOException ʱ׳쳣
+	 */
+	public void holdSerialStreamClient() throws IOException{
+		dos = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		dis = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		version = WireProtocol.SERIAL_VERSION;
+		holdSerialStream();
+	}
+	
+	// ϲflush˫ڵȶԷͷ
+	private void holdSerialStream() throws IOException{
+		oos = new ObjectOutputStream(dos);
+		oos.flush();
+		ois = new ObjectInputStream(dis);
 	}
 
 	/**
@@ -66,15 +120,40 @@ public class SocketData{
 	public void holdCommunicateStreamServer() throws IOException{
 		InputStream is = socket.getInputStream();
 		BufferedInputStream bis = new BufferedInputStream(is);
-		ois = new ObjectInputStream(bis);
+		dis = new DataInputStream(bis);
 
 		OutputStream os = socket.getOutputStream();
 		// ԽsocketĽջԽԭԽ죻ļĶдûлʱٶҲԽ죬Ҷһúܴʱڴע
 		// ڴݷʱл
 		BufferedOutputStream bos = new BufferedOutputStream(os);// ,socketBuf,˻sizeòǺܴ
-		oos = new ObjectOutputStream(bos);
-		oos.flush();//flushдʱ
+		dos = new DataOutputStream(bos);
 		
+		// ɰ汾Ŀͻ˲ЭʶֱӷJavaлͷ
+		dis.mark(2);
+		short head = dis.readShort();
+		dis.reset();
+		if (head == ObjectStreamConstants.STREAM_MAGIC) {
+			ois = new ObjectInputStream(dis);
+			oos = new ObjectOutputStream(dos);
+			oos.flush();
+			version = WireProtocol.SERIAL_VERSION;
+			return;
+		}
+		
+		if (dis.readInt() != WireProtocol.MAGIC) {
+			throw new IOException("invalid stream header");
+		}
+		
+		version = Math.min(dis.readByte(), WireProtocol.VERSION);
+		dos.writeInt(WireProtocol.MAGIC);
+		dos.writeByte(version);
+		dos.flush();
+		
+		if (version == WireProtocol.SERIAL_VERSION) {
+			ois = new ObjectInputStream(dis);
+			oos = new ObjectOutputStream(dos);
+			oos.flush();
+		}
 	}
 
 	/**
@@ -87,12 +166,46 @@ public class SocketData{
             int timeout) throws Exception{
 		try{
 			socket.connect( endpoint, timeout);
-			holdCommunicateStreamClient();
+			if (serialEndpoints.containsKey(endpoint)) {
+				holdSerialStreamClient();
+				return;
+			}
+			
+			try{
+				holdCommunicateStreamClient();
+			}catch(EOFException e){
+				reconnectSerial(endpoint, timeout);
+			}catch(SocketException e){
+				reconnectSerial(endpoint, timeout);
+			}
 		}catch(Exception e){
 			throw new Exception(endpoint+":"+e.getMessage(),e);
 		}
 	}
 	
+	// ɰ汾ķ˶ЭʶرӣӸJavaл
+	private void reconnectSerial(SocketAddress endpoint, int timeout) throws IOException{
+		try{
+			socket.close();
+		}catch(IOException e){
+		}
+		
+		socket = new Socket();
+		setSocketOptions(socket);
+		socket.connect(endpoint, timeout);
+		holdSerialStreamClient();
+		serialEndpoints.put(endpoint, Boolean.TRUE);
+		Logger.debug(endpoint + " does not support wire protocol, use java serialization.");
+	}
+	
+	/**
+	 * ȡЭ̺Э汾
+	 * @return 汾ţWireProtocol.SERIAL_VERSIONʾJavaлд
+	 */
+	public int getVersion(){
+		return version;
+	}
+	
 	/**
 	 * ȡԭʼ׽
 	 * @return ׽ֶ
@@ -108,9 +221,14 @@ public class SocketData{
 	 */
 	public void write(Object obj)
 			throws IOException {
-		oos.writeUnshared(obj);
-		oos.flush();
-		oos.reset();//дڴ棬ڴ
+		if (oos != null) {
+			oos.writeUnshared(obj);
+			oos.flush();
+			oos.reset();//дڴ棬ڴ
+		} else {
+			WireProtocol.write(dos, obj);
+			dos.flush();
+		}
 	}
 
 	/**
@@ -121,8 +239,11 @@ public class SocketData{
 	 */
 	public Object read()
 			throws IOException, ClassNotFoundException {
-		Object obj = ois.readUnshared();
-		return obj;
+		if (ois != null) {
+			return ois.readUnshared();
+		} else {
+			return WireProtocol.read(dis);
+		}
 	}
 
 	/**
@@ -153,10 +153,8 @@ public class UnitClient implements Serializable {
 		if (isEqualToLocal()) {
 			return true;
 		}
-		SocketData sd = null;
-
 		try {
-			sd = newSocketData();
+			UnitSocketPool.connect(this);
 		} catch (Exception x) {
 			if (reason != null) {
 				if (!isReachable()) {
@@ -167,14 +165,6 @@ public class UnitClient implements Serializable {
 				}
 			}
 			return false;
-		} finally {
-			if (sd != null) {
-				try {
-					sd.clientClose();
-				} catch (Exception x) {
-				}
-				sd = null;
-			}
 		}
 		return true;
 	}
@@ -544,7 +534,21 @@ public class UnitClient implements Serializable {
 //		// catch (Exception x) {}
 //	}
 
+	/**
+	 * һ󣬲ռõǰͻ˵
+	 * ʹ÷ֻӳеӣļͷӹӣʹ½
+	 * @param req 
+	 * @return Ӧ
+	 * @throws Exception ʱ׳쳣
+	 */
 	public Response sendByNewSocket(Request req) throws Exception {
+		int type = req.getActionType();
+		if (type != Request.TYPE_FILE && type != Request.TYPE_PARTITION) {
+			Response res = UnitSocketPool.send(this, req);
+			res.setFromHost(this.toString());
+			return res;
+		}
+		
 		SocketData tmp = null;
 		try {
 			tmp = newSocketData();
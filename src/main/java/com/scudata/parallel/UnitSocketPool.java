@@ -0,0 +1,273 @@
+package com.scudata.parallel;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import com.scudata.common.Logger;
+
+/**
+ * ֻӳأֻӣͶʱãʡȥÿνӵĿ
+ * ֻ˳һϵһͬһʱֻһãԴӳȡ
+ * гIDLE_TIMEOUTɺ̨̹߳رգֻ϶Ӧҵ֮߳
+ * @author RunQian
+ *
+ */
+class UnitSocketPool {
+	private static final int MAX_IDLE = 8; // ÿֻ໺Ŀ
+	private static final long IDLE_TIMEOUT = 60 * 1000; // ӳ˺ر
+	private static final long CHECK_TIME = 10 * 1000; // г˺ʹǰȼǷ
+
+	// ַֻӦĿӣùǰ
+	private static HashMap<String, LinkedList<PooledSocket>> poolMap = new HashMap<String, LinkedList<PooledSocket>>();
+	private static Thread cleaner; // رճʱӵ߳
+
+	private static class PooledSocket {
+		SocketData sd;
+		long releaseTime; // Żسеʱ
+
+		PooledSocket(SocketData sd) {
+			this.sd = sd;
+			this.releaseTime = System.currentTimeMillis();
+		}
+	}
+
+	private UnitSocketPool() {
+	}
+
+	private static String getKey(UnitClient uc) {
+		return uc.getHost() + ":" + uc.getPort();
+	}
+
+	/**
+	 * óеӷ󲢶ȡӦ𣬳ûʱ½ӣŻس
+	 * õӿѱֻرգûдʱִֻУطһ
+	 * дӦʱֻѾִֻֻطִ
+	 * @param uc ֻͻ
+	 * @param req 
+	 * @return Ӧ
+	 * @throws Exception
+	 */
+	public static Response send(UnitClient uc, Request req) throws Exception {
+		String key = getKey(uc);
+		SocketData sd = take(key);
+		if (sd != null) {
+			boolean isSent = false;
+			try {
+				sd.write(req);
+				isSent = true;
+				return receive(key, sd, req);
+			} catch (IOException e) {
+				close(sd);
+				if (isSent && !isIdempotent(req)) {
+					throw e;
+				}
+
+				Logger.debug("Pooled connection to " + key + " is broken, retry with new connection.", e);
+			}
+		}
+
+		sd = uc.newSocketData();
+		try {
+			sd.write(req);
+		} catch (Exception e) {
+			close(sd);
+			throw e;
+		}
+
+		return receive(key, sd, req);
+	}
+
+	// ȡӦ𣬳ɹӷŻسУʱر
+	private static Response receive(String key, SocketData sd, Request req) throws Exception {
+		Response res;
+		try {
+			res = (Response) sd.read();
+		} catch (Exception e) {
+			close(sd);
+			throw e;
+		}
+
+		if (req.getAction() == Request.SERVER_SHUTDOWN) {
+			close(sd);
+			clear(key);
+		} else {
+			release(key, sd);
+		}
+
+		return res;
+	}
+
+	// Ƿֻȡֻ״̬ظִûи
+	private static boolean isIdempotent(Request req) {
+		switch (req.getAction()) {
+		case Request.SERVER_LISTTASK:
+		case Request.SERVER_CANACCEPTTASK:
+		case Request.SERVER_GETTASKNUMS:
+		case Request.SERVER_LISTPARAM:
+		case Request.SERVER_GETCONCURRENTCOUNT:
+		case Request.SERVER_GETTABLEMEMBERS:
+		case Request.SERVER_GETUNITS_MAXNUM:
+		case Request.SERVER_GETAREANO:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * ֻǷӣùӻŻس
+	 * @param uc ֻͻ
+	 * @throws Exception Ӳʱ׳쳣
+	 */
+	public static void connect(UnitClient uc) throws Exception {
+		String key = getKey(uc);
+		SocketData sd = take(key);
+		if (sd != null && ping(sd)) {
+			release(key, sd);
+		} else {
+			release(key, uc.newSocketData());
+		}
+	}
+
+	// ȡһõĿӣûʱnull
+	private static SocketData take(String key) {
+		while (true) {
+			PooledSocket ps;
+			synchronized (poolMap) {
+				LinkedList<PooledSocket> pool = poolMap.get(key);
+				if (pool == null || pool.isEmpty()) {
+					return null;
+				}
+
+				ps = pool.removeFirst();
+			}
+
+			if (ps.sd.isClosed()) {
+				continue;
+			} else if (System.currentTimeMillis() - ps.releaseTime < CHECK_TIME || ping(ps.sd)) {
+				return ps.sd;
+			}
+		}
+	}
+
+	// һǷãʱر
+	private static boolean ping(SocketData sd) {
+		try {
+			sd.write(new Request(Request.SERVER_GETCONCURRENTCOUNT));
+			sd.read();
+			return true;
+		} catch (Exception e) {
+			close(sd);
+			return false;
+		}
+	}
+
+	// ӷŻسУʱر
+	private static void release(String key, SocketData sd) {
+		synchronized (poolMap) {
+			LinkedList<PooledSocket> pool = poolMap.get(key);
+			if (pool == null) {
+				pool = new LinkedList<PooledSocket>();
+				poolMap.put(key, pool);
+			}
+
+			if (pool.size() < MAX_IDLE) {
+				pool.addFirst(new PooledSocket(sd));
+				startCleaner();
+				return;
+			}
+		}
+
+		close(sd);
+	}
+
+	// رշֻп
+	private static void clear(String key) {
+		LinkedList<PooledSocket> pool;
+		synchronized (poolMap) {
+			pool = poolMap.remove(key);
+		}
+
+		if (pool != null) {
+			for (PooledSocket ps : pool) {
+				close(ps.sd);
+			}
+		}
+	}
+
+	private static void close(SocketData sd) {
+		try {
+			sd.clientClose();
+		} catch (Exception e) {
+		}
+	}
+
+	/**
+	 * رյָʱʱѿгIDLE_TIMEOUT
+	 * @param now ǰʱ
+	 */
+	static void closeIdle(long now) {
+		LinkedList<PooledSocket> timeoutList = new LinkedList<PooledSocket>();
+		synchronized (poolMap) {
+			long time = now - IDLE_TIMEOUT;
+			Iterator<LinkedList<PooledSocket>> itr = poolMap.values().iterator();
+			while (itr.hasNext()) {
+				LinkedList<PooledSocket> pool = itr.next();
+				while (!pool.isEmpty() && pool.getLast().releaseTime < time) {
+					timeoutList.add(pool.removeLast());
+				}
+
+				if (pool.isEmpty()) {
+					itr.remove();
+				}
+			}
+		}
+
+		for (PooledSocket ps : timeoutList) {
+			close(ps.sd);
+		}
+	}
+
+	/**
+	 * ȡֻĿ
+	 * @param uc ֻͻ
+	 * @return 
+	 */
+	static int getIdleCount(UnitClient uc) {
+		synchronized (poolMap) {
+			LinkedList<PooledSocket> pool = poolMap.get(getKey(uc));
+			return pool == null ? 0 : pool.size();
+		}
+	}
+
+	// رտгʱӣûӺ߳̽
+	private static void startCleaner() {
+		if (cleaner != null) {
+			return;
+		}
+
+		cleaner = new Thread("UnitSocketPool cleaner") {
+			public void run() {
+				while (true) {
+					try {
+						sleep(CHECK_TIME);
+					} catch (InterruptedException e) {
+					}
+
+					closeIdle(System.currentTimeMillis());
+					synchronized (poolMap) {
+						if (poolMap.isEmpty()) {
+							cleaner = null;
+							return;
+						}
+					}
+				}
+			}
+		};
+
+		cleaner.setDaemon(true);
+		cleaner.start();
+	}
+}
@@ -0,0 +1,399 @@
+package com.scudata.parallel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.scudata.dm.DataStruct;
+import com.scudata.dm.ListBase1;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.SerialBytes;
+import com.scudata.dm.Table;
+import com.scudata.dw.BufferReader;
+import com.scudata.dw.BufferWriter;
+import com.scudata.dw.LZ4Util;
+import com.scudata.dw.StructManager;
+
+/**
+ * ֻͨѶĶ֡Э飬SocketDataдӦ
+ * ֡ʽ֡ȡ־[ѹǰ]֡ݣ֡ݳCOMPRESS_SIZEʱLZ4ѹ
+ * ֡Ϊݽṹݽṹ󣬶BufferWriterͱд8ֽԭдȣ
+ * ¼ɵадֵֻͬͬдһΣܱĶJavaлд
+ * Ƕ׳MAX_DEPTHĶҲJavaлдļ¼л鲻޵ݹ
+ * ʱ˫MAGICͰ汾ţȡСİ汾ԷǲʶЭľɰ汾ʱJavaлд
+ * @author RunQian
+ *
+ */
+final class WireProtocol {
+	public static final int MAGIC = 0x52515750; // ӽʱȷ͵Эʶ
+	public static final int VERSION = 1; // ǰЭ汾
+	public static final int SERIAL_VERSION = 0; // ôЭ飬Javaлд
+
+	private static final int MAX_DEPTH = 32; // ¼кǶ׵Javaл
+	private static final int COMPRESS_SIZE = 1024 * 8; // ֡ݳֽʱѹ
+	private static final int FLAG_LZ4 = 0x01; // ֡LZ4ѹ
+
+	private static final int NULL = 0;
+	private static final int REQUEST = 1;
+	private static final int RESPONSE = 2;
+	private static final int DATA = 3; // BufferWriterֱдĶ
+	private static final int TABLE = 4; // ¼ɵУд
+	private static final int ARRAY = 5; // Object[]
+	private static final int STRINGS = 6; // String[]
+	private static final int INTS = 7; // int[]
+	private static final int JAVA = 8; // JavaлĶ
+
+	private WireProtocol() {
+	}
+
+	/**
+	 * дһ֡
+	 * @param out 
+	 * @param obj 
+	 * @throws IOException
+	 */
+	public static void write(DataOutputStream out, Object obj) throws IOException {
+		StructManager structManager = new StructManager();
+		BufferWriter body = new BufferWriter(structManager);
+		BufferWriter writer = new BufferWriter(structManager);
+		body.setExactDouble(true);
+
+		try {
+			writeTop(body, structManager, obj);
+			int bodyLen = body.finishWrite();
+
+			// д֪õЩݽṹдڶǰ
+			ArrayList<DataStruct> dsList = structManager.getStructList();
+			writer.writeInt(dsList.size());
+			for (DataStruct ds : dsList) {
+				writer.writeBytes(ds.serialize());
+			}
+
+			writer.write(body.getBuffer(), 0, bodyLen);
+			int len = writer.finishWrite();
+			byte []buffer = writer.getBuffer();
+
+			if (len > COMPRESS_SIZE) {
+				LZ4Util lz4 = LZ4Util.instance();
+				byte []zip = new byte[lz4.maxCompressedLength(len)];
+				int zipLen = lz4.compress(buffer, len, zip);
+				if (zipLen < len) {
+					out.writeInt(zipLen + 4);
+					out.writeByte(FLAG_LZ4);
+					out.writeInt(len);
+					out.write(zip, 0, zipLen);
+					return;
+				}
+			}
+
+			out.writeInt(len);
+			out.writeByte(0);
+			out.write(buffer, 0, len);
+		} finally {
+			body.releaseBuffer();
+			writer.releaseBuffer();
+		}
+	}
+
+	/**
+	 * һ֡
+	 * @param in 
+	 * @return 
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public static Object read(DataInputStream in) throws IOException, ClassNotFoundException {
+		int len = in.readInt();
+		int flag = in.readByte();
+		byte []buffer;
+
+		if ((flag & FLAG_LZ4) != 0) {
+			int srcLen = in.readInt();
+			byte []zip = new byte[len - 4];
+			in.readFully(zip);
+			buffer = new byte[srcLen];
+			LZ4Util.instance().decompress(zip, buffer, srcLen);
+		} else {
+			buffer = new byte[len];
+			in.readFully(buffer);
+		}
+
+		// ǰȶݽṹ¼ʱҪ
+		StructManager structManager = new StructManager();
+		BufferReader reader = new BufferReader(structManager, buffer);
+		ArrayList<DataStruct> dsList = structManager.getStructList();
+		for (int i = 0, count = reader.readInt(); i < count; ++i) {
+			DataStruct ds = new DataStruct();
+			ds.fillRecord(reader.readByteArray());
+			dsList.add(ds);
+		}
+
+		return readTop(reader, structManager);
+	}
+
+	private static void writeTop(BufferWriter writer, StructManager structManager, Object obj) throws IOException {
+		if (obj != null && obj.getClass() == Request.class) {
+			Request req = (Request)obj;
+			Map<?, ?> attrs = req.getAttrs();
+			writer.writeByte(REQUEST);
+			writer.writeInt(req.getAction());
+			writer.writeInt(attrs.size());
+
+			Iterator<? extends Map.Entry<?, ?>> itr = attrs.entrySet().iterator();
+			while (itr.hasNext()) {
+				Map.Entry<?, ?> entry = itr.next();
+				writer.writeString((String)entry.getKey());
+				writeValue(writer, structManager, entry.getValue(), 0);
+			}
+		} else if (obj != null && obj.getClass() == Response.class) {
+			Response res = (Response)obj;
+			writer.writeByte(RESPONSE);
+			writeValue(writer, structManager, res.getResult(), 0);
+			writeValue(writer, structManager, res.getException(), 0);
+			writeValue(writer, structManager, res.getError(), 0);
+		} else {
+			writeValue(writer, structManager, obj, 0);
+		}
+	}
+
+	private static Object readTop(BufferReader reader, StructManager structManager) throws IOException, ClassNotFoundException {
+		int type = reader.readByte();
+		if (type == REQUEST) {
+			Request req = new Request(reader.readInt());
+			for (int i = 0, count = reader.readInt(); i < count; ++i) {
+				String key = reader.readString();
+				req.setAttr(key, readValue(reader, structManager, reader.readByte()));
+			}
+
+			return req;
+		} else if (type == RESPONSE) {
+			Response res = new Response();
+			res.setResult(readValue(reader, structManager, reader.readByte()));
+			res.setException((Exception)readValue(reader, structManager, reader.readByte()));
+			res.setError((Error)readValue(reader, structManager, reader.readByte()));
+			return res;
+		} else {
+			return readValue(reader, structManager, type);
+		}
+	}
+
+	private static void writeValue(BufferWriter writer, StructManager structManager, Object obj, int depth) throws IOException {
+		if (obj == null) {
+			writer.writeByte(NULL);
+		} else if (isRecordSequence(obj, depth)) {
+			writeRecords(writer, structManager, (Sequence)obj);
+		} else if (isData(obj, depth)) {
+			writer.writeByte(DATA);
+			writer.writeObject(obj);
+			writer.flush();
+		} else if (obj.getClass() == Object[].class && isArrayNestingLimited((Object[])obj, depth)) {
+			Object []array = (Object[])obj;
+			writer.writeByte(ARRAY);
+			writer.writeInt(array.length);
+			for (Object val : array) {
+				writeValue(writer, structManager, val, depth + 1);
+			}
+		} else if (obj.getClass() == String[].class) {
+			writer.writeByte(STRINGS);
+			writer.writeStrings((String[])obj);
+		} else if (obj instanceof int[]) {
+			int []array = (int[])obj;
+			writer.writeByte(INTS);
+			writer.writeInt(array.length);
+			for (int n : array) {
+				writer.writeInt(n);
+			}
+		} else {
+			writeJava(writer, obj);
+		}
+	}
+
+	// Javaлܴѭ
+	private static void writeJava(BufferWriter writer, Object obj) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(obj);
+		oos.close();
+
+		writer.writeByte(JAVA);
+		writer.writeBytes(bos.toByteArray());
+	}
+
+	private static Object readValue(BufferReader reader, StructManager structManager, int type) throws IOException, ClassNotFoundException {
+		switch (type) {
+		case NULL:
+			return null;
+		case DATA:
+			return reader.readObject();
+		case TABLE:
+			return readRecords(reader, structManager);
+		case ARRAY:
+			Object []array = new Object[reader.readInt()];
+			for (int i = 0; i < array.length; ++i) {
+				array[i] = readValue(reader, structManager, reader.readByte());
+			}
+
+			return array;
+		case STRINGS:
+			return reader.readStrings();
+		case INTS:
+			int []ints = new int[reader.readInt()];
+			for (int i = 0; i < ints.length; ++i) {
+				ints[i] = reader.readInt();
+			}
+
+			return ints;
+		case JAVA:
+			ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(reader.readByteArray()));
+			try {
+				return ois.readObject();
+			} finally {
+				ois.close();
+			}
+		default:
+			throw new IOException("error frame type: " + type);
+		}
+	}
+
+	// ǷǳԱͬṹ¼УֵֶܰBufferWriter
+	private static boolean isRecordSequence(Object obj, int depth) {
+		Class<?> c = obj.getClass();
+		if (c != Table.class && c != Sequence.class) {
+			return false;
+		}
+
+		Sequence seq = (Sequence)obj;
+		DataStruct ds = seq.dataStruct();
+		if (ds == null) {
+			return false;
+		}
+
+		ListBase1 mems = seq.getMems();
+		for (int i = 1, len = mems.size(); i <= len; ++i) {
+			Object r = mems.get(i);
+			if (r.getClass() != Record.class || ((Record)r).dataStruct() != ds) {
+				return false;
+			}
+
+			for (Object val : ((Record)r).getFieldValues()) {
+				if (!isData(val, depth + 1)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	// Ƕ׵ĲǷ񲻳MAX_DEPTHᳬJavaлдԱùϵ
+	private static boolean isArrayNestingLimited(Object []array, int depth) {
+		if (depth >= MAX_DEPTH) {
+			return false;
+		}
+
+		for (Object val : array) {
+			if (val != null && val.getClass() == Object[].class && !isArrayNestingLimited((Object[])val, depth + 1)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	// д¼ͬеֵͬBufferWriterϲд
+	private static void writeRecords(BufferWriter writer, StructManager structManager, Sequence seq) throws IOException {
+		ListBase1 mems = seq.getMems();
+		int len = mems.size();
+		DataStruct ds = seq.dataStruct();
+		int fcount = ds.getFieldCount();
+
+		writer.writeByte(TABLE);
+		writer.writeBoolean(seq instanceof Table);
+		writer.writeInt(structManager.getDataStructID(ds));
+		writer.writeInt(len);
+
+		for (int f = 0; f < fcount; ++f) {
+			for (int i = 1; i <= len; ++i) {
+				writer.writeObject(((Record)mems.get(i)).getNormalFieldValue(f));
+			}
+
+			writer.flush();
+		}
+	}
+
+	private static Sequence readRecords(BufferReader reader, StructManager structManager) throws IOException {
+		boolean isTable = reader.readBoolean();
+		DataStruct ds = structManager.getDataStruct(reader.readInt());
+		int len = reader.readInt();
+		int fcount = ds.getFieldCount();
+
+		Object [][]values = new Object[len][];
+		for (int i = 0; i < len; ++i) {
+			values[i] = new Object[fcount];
+		}
+
+		for (int f = 0; f < fcount; ++f) {
+			for (int i = 0; i < len; ++i) {
+				values[i][f] = reader.readObject();
+			}
+		}
+
+		Sequence seq = isTable ? new Table(ds, len) : new Sequence(len);
+		ListBase1 mems = seq.getMems();
+		for (int i = 0; i < len; ++i) {
+			mems.add(new Record(ds, values[i]));
+		}
+
+		return seq;
+	}
+
+	// ǷBufferWriter룬ҶͲ䣬ǶײMAX_DEPTHķfalse
+	private static boolean isData(Object obj, int depth) {
+		if (obj == null || obj instanceof String || obj instanceof Integer || obj instanceof Long ||
+				obj instanceof Double || obj instanceof BigDecimal || obj instanceof Boolean) {
+			return true;
+		}
+
+		Class<?> c = obj.getClass();
+		if (c == java.sql.Date.class || c == java.sql.Time.class || c == java.sql.Timestamp.class ||
+				c == byte[].class || c == SerialBytes.class) {
+			return true;
+		} else if (depth >= MAX_DEPTH) {
+			return false;
+		} else if (c == Record.class) {
+			for (Object val : ((Record)obj).getFieldValues()) {
+				if (!isData(val, depth + 1)) {
+					return false;
+				}
+			}
+
+			return true;
+		} else if (c == Sequence.class) {
+			// ¼BufferWriterдisRecordSequence
+			Sequence seq = (Sequence)obj;
+			if (seq.dataStruct() != null) {
+				return false;
+			}
+
+			ListBase1 mems = seq.getMems();
+			for (int i = 1, len = mems.size(); i <= len; ++i) {
+				if (!isData(mems.get(i), depth + 1)) {
+					return false;
+				}
+			}
+
+			return true;
+		} else {
+			return false;
+		}
+	}
+}
@@ -44,6 +44,10 @@ public class HttpContext extends ConfigWriter {
 	private int port = 8508;
 	private int maxLinks = 50;
 	private boolean autoStart=false;
+	private int maxThreads = 100;// ͬʱִе
+	private int queueSize = 1000;// Ŷӵȴִеٶ󷵻503
+	private int endpointLimit = 0;// ÿsplxͬʱִкŶӵ0ʾ
+	private boolean virtualThread = false;// Ƿִ߳ҪJDK21
 
 	private ArrayList<String> sapPath = new ArrayList<String>();
 
@@ -143,6 +147,26 @@ public class HttpContext extends ConfigWriter {
 			maxLinks = Integer.parseInt(buf);
 		}
 
+		buf = XmlUtil.getAttribute(root, "maxthreads");
+		if (StringUtils.isValidString(buf)) {
+			maxThreads = Integer.parseInt(buf);
+		}
+
+		buf = XmlUtil.getAttribute(root, "queuesize");
+		if (StringUtils.isValidString(buf)) {
+			queueSize = Integer.parseInt(buf);
+		}
+
+		buf = XmlUtil.getAttribute(root, "endpointlimit");
+		if (StringUtils.isValidString(buf)) {
+			endpointLimit = Integer.parseInt(buf);
+		}
+
+		buf = XmlUtil.getAttribute(root, "virtualthread");
+		if (StringUtils.isValidString(buf)) {
+			virtualThread = Boolean.parseBoolean(buf);
+		}
+
 		buf = XmlUtil.getAttribute(root, "sapPath");
 		if (StringUtils.isValidString(buf)) {
 			ArgumentTokenizer at = new ArgumentTokenizer(buf, ',');
@@ -167,6 +191,8 @@ public class HttpContext extends ConfigWriter {
 		handler.startElement("", "", "Server", getAttributesImpl(new String[] {
 				ConfigConsts.VERSION, "1", "host", host, "port", port + "", "autostart", autoStart + "",
 				"maxlinks", maxLinks + "",  //parallelNum + "",
+				"maxthreads", maxThreads + "", "queuesize", queueSize + "",
+				"endpointlimit", endpointLimit + "", "virtualthread", virtualThread + "",
 				"sapPath", paths }));
 
 		handler.endElement("", "", "Server");
@@ -214,6 +240,38 @@ public class HttpContext extends ConfigWriter {
 		this.maxLinks = m;
 	}
 
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	public void setMaxThreads(int n) {
+		this.maxThreads = n;
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	public void setQueueSize(int n) {
+		this.queueSize = n;
+	}
+
+	public int getEndpointLimit() {
+		return endpointLimit;
+	}
+
+	public void setEndpointLimit(int n) {
+		this.endpointLimit = n;
+	}
+
+	public boolean isVirtualThread() {
+		return virtualThread;
+	}
+
+	public void setVirtualThread(boolean b) {
+		this.virtualThread = b;
+	}
+
 	public ArrayList<String> getSapPath() {
 		return sapPath;
 	}
@@ -0,0 +1,306 @@
+package com.scudata.server.http;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.scudata.common.Logger;
+import com.scudata.dm.FileObject;
+
+/**
+ * HttpִmaxThreadsͬʱִУqueueSizeŶӣ󱻾ܾ
+ * ÿsplxļͬʱִкŶӵΪendpointLimit
+ * ͳύִĺʱֲ
+ * ֻڵsplxļͳMAX_ENDPOINTSϲͳƵOTHER_ENDPOINT
+ * @author RunQian
+ *
+ */
+public class HttpRequestExecutor {
+	private static final int MAX_ENDPOINTS = 1024; // ൥ͳƵķ
+	private static final String OTHER_ENDPOINT = "(other)"; // splxļ߷޵ͳ
+
+	private HttpContext ctx;
+	private ExecutorService executor;
+	private Semaphore admitPermits; // ִкŶӵ
+	private Semaphore runPermits; // ʹ߳ʱͬʱִеΪ
+	private int endpointLimit; // ÿִкŶӵƣ0ʾ
+
+	private Map<String, Semaphore> endpointPermits = new TreeMap<String, Semaphore>();
+	private Map<String, LatencyHistogram> histograms = new TreeMap<String, LatencyHistogram>();
+	private LatencyHistogram otherHistogram = new LatencyHistogram();
+
+	/**
+	 * ôִ
+	 * @param ctx 
+	 */
+	public HttpRequestExecutor(HttpContext ctx) {
+		this.ctx = ctx;
+		int maxThreads = Math.max(ctx.getMaxThreads(), 1);
+		int queueSize = Math.max(ctx.getQueueSize(), 0);
+		this.admitPermits = new Semaphore(maxThreads + queueSize);
+		this.endpointLimit = ctx.getEndpointLimit();
+
+		if (ctx.isVirtualThread()) {
+			executor = newVirtualThreadExecutor();
+			if (executor != null) {
+				runPermits = new Semaphore(maxThreads);
+				return;
+			}
+
+			Logger.info("Virtual threads are not supported by this JVM, use platform threads.");
+		}
+
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			private AtomicInteger count = new AtomicInteger();
+			public Thread newThread(Runnable r) {
+				return new Thread(r, "SplxHttpWorker-" + count.incrementAndGet());
+			}
+		});
+
+		pool.allowCoreThreadTimeOut(true);
+		executor = pool;
+	}
+
+	// JDK21ʼ̣߳÷䴴֧ʱؿ
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method m = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService)m.invoke(null);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * ȡ·Ӧķڰͳ
+	 * @param path ·
+	 * @return 
+	 */
+	public String getEndpoint(String path) {
+		path = path.trim();
+		int pos = path.indexOf('(');
+		if (pos > 0) {
+			return path.substring(0, pos).trim();
+		}
+
+		// restfulʽurl/sapPath/dfx/argvalue1/...ȡdfxΪֹ
+		String prefix = "";
+		ArrayList<String> saps = ctx.getSapPath();
+		for (int i = 0; i < saps.size(); i++) {
+			String sap = saps.get(i);
+			if (!sap.startsWith("/")) sap = "/" + sap;
+			if (path.startsWith(sap) && sap.length() > prefix.length()) {
+				prefix = sap;
+			}
+		}
+
+		pos = path.indexOf('/', prefix.length() + 1);
+		return pos > 0 ? path.substring(0, pos) : path;
+	}
+
+	/**
+	 * ύ̺߳Ͷж߷ʱܾ
+	 * @param endpoint 
+	 * @param job 
+	 * @return trueύfalseܾ
+	 */
+	public boolean execute(final String endpoint, final Runnable job) {
+		final LatencyHistogram histogram = getHistogram(endpoint);
+		final Semaphore permits = histogram == otherHistogram ? null : getEndpointPermits(endpoint);
+		if (permits != null && !permits.tryAcquire()) {
+			histogram.reject();
+			return false;
+		}
+
+		if (!admitPermits.tryAcquire()) {
+			if (permits != null) permits.release();
+			histogram.reject();
+			return false;
+		}
+
+		final long startTime = System.nanoTime();
+		Runnable task = new Runnable() {
+			public void run() {
+				try {
+					if (runPermits == null) {
+						job.run();
+					} else {
+						runPermits.acquireUninterruptibly();
+						try {
+							job.run();
+						} finally {
+							runPermits.release();
+						}
+					}
+				} finally {
+					admitPermits.release();
+					if (permits != null) permits.release();
+					histogram.add((System.nanoTime() - startTime) / 1000000);
+				}
+			}
+		};
+
+		try {
+			executor.execute(task);
+			return true;
+		} catch (RuntimeException e) {
+			// ִѹر
+			admitPermits.release();
+			if (permits != null) permits.release();
+			histogram.reject();
+			return false;
+		}
+	}
+
+	// ȡźgetHistogramΪͳ
+	private synchronized Semaphore getEndpointPermits(String endpoint) {
+		if (endpointLimit <= 0) {
+			return null;
+		}
+
+		Semaphore permits = endpointPermits.get(endpoint);
+		if (permits == null) {
+			permits = new Semaphore(endpointLimit);
+			endpointPermits.put(endpoint, permits);
+		}
+
+		return permits;
+	}
+
+	// ȡͳǴڵsplxļ߷ѴʱotherHistogram
+	private LatencyHistogram getHistogram(String endpoint) {
+		synchronized(this) {
+			LatencyHistogram histogram = histograms.get(endpoint);
+			if (histogram != null) {
+				return histogram;
+			} else if (histograms.size() >= MAX_ENDPOINTS) {
+				return otherHistogram;
+			}
+		}
+
+		// ļУļʱ
+		if (!isSplx(endpoint)) {
+			return otherHistogram;
+		}
+
+		synchronized(this) {
+			LatencyHistogram histogram = histograms.get(endpoint);
+			if (histogram == null) {
+				if (histograms.size() >= MAX_ENDPOINTS) {
+					return otherHistogram;
+				}
+
+				histogram = new LatencyHistogram();
+				histograms.put(endpoint, histogram);
+			}
+
+			return histogram;
+		}
+	}
+
+	// ǷӦڵsplxļļȡSplxHttpHandlerһ
+	private static boolean isSplx(String endpoint) {
+		if (endpoint == null || endpoint.length() < 2) {
+			return false;
+		}
+
+		String fileName = endpoint.substring(1).trim();
+		String lower = fileName.toLowerCase();
+		if (!lower.endsWith(".splx") && !lower.endsWith(".spl") && !lower.endsWith(".dfx")) {
+			fileName += ".splx";
+		}
+
+		try {
+			return new FileObject(fileName, "s").isExists();
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	/**
+	 * ȡʱͳƱ
+	 * @return ı棬ÿһ
+	 */
+	public synchronized String getLatencyReport() {
+		StringBuffer sb = new StringBuffer();
+		sb.append("endpoint\tcount\trejected\tavg(ms)\tp50(ms)\tp90(ms)\tp99(ms)\tmax(ms)\n");
+		Iterator<Map.Entry<String, LatencyHistogram>> itr = histograms.entrySet().iterator();
+		while (itr.hasNext()) {
+			Map.Entry<String, LatencyHistogram> entry = itr.next();
+			sb.append(entry.getKey()).append('\t');
+			entry.getValue().toString(sb);
+			sb.append('\n');
+		}
+
+		sb.append(OTHER_ENDPOINT).append('\t');
+		otherHistogram.toString(sb);
+		sb.append('\n');
+		return sb.toString();
+	}
+
+	/**
+	 * رִύִ
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * ʱķֲiΪ[2^(i-1), 2^i)룬0Ϊ0
+	 */
+	static class LatencyHistogram {
+		private static final int BUCKET_COUNT = 24; // һΰ2^22
+		private long []buckets = new long[BUCKET_COUNT];
+		private long count;
+		private long rejectCount;
+		private long totalTime;
+		private long maxTime;
+
+		synchronized void add(long ms) {
+			int i = 64 - Long.numberOfLeadingZeros(ms);
+			buckets[i < BUCKET_COUNT ? i : BUCKET_COUNT - 1]++;
+			count++;
+			totalTime += ms;
+			if (ms > maxTime) {
+				maxTime = ms;
+			}
+		}
+
+		synchronized void reject() {
+			rejectCount++;
+		}
+
+		// ȡλڶε
+		private long getPercentile(double p) {
+			long n = (long)Math.ceil(count * p);
+			long sum = 0;
+			for (int i = 0; i < BUCKET_COUNT; ++i) {
+				sum += buckets[i];
+				if (sum >= n) {
+					return i == 0 ? 0 : Math.min((1L << i) - 1, maxTime);
+				}
+			}
+
+			return maxTime;
+		}
+
+		synchronized void toString(StringBuffer sb) {
+			sb.append(count).append('\t').append(rejectCount).append('\t');
+			sb.append(count > 0 ? totalTime / count : 0).append('\t');
+			sb.append(getPercentile(0.5)).append('\t');
+			sb.append(getPercentile(0.9)).append('\t');
+			sb.append(getPercentile(0.99)).append('\t');
+			sb.append(maxTime);
+		}
+	}
+}
@@ -7,6 +7,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -22,6 +25,7 @@ import com.scudata.common.Logger;
 import com.scudata.common.MessageManager;
 import com.scudata.common.StringUtils;
 import com.scudata.dm.Context;
+import com.scudata.dm.DfxManager;
 import com.scudata.dm.Env;
 import com.scudata.dm.FileObject;
 import com.scudata.dm.JobSpaceManager;
@@ -36,7 +40,6 @@ import com.scudata.parallel.Task;
 import com.scudata.resources.ParallelMessage;
 import com.scudata.server.IServer;
 import com.scudata.thread.Job;
-import com.scudata.util.CellSetUtil;
 import com.scudata.util.DatabaseUtil;
 import com.scudata.util.Variant;
 import com.sun.net.httpserver.Headers;
@@ -62,6 +65,7 @@ import com.sun.net.httpserver.HttpHandler;
  */
 public class SplxHttpHandler implements HttpHandler {
 	private IServer server = null;
+	private HttpRequestExecutor executor = null;
 	static MessageManager mm = ParallelMessage.get();
 
 	/**
@@ -72,6 +76,14 @@ public class SplxHttpHandler implements HttpHandler {
 		server = is;
 	}
 
+	/**
+	 * ִִ
+	 * @param executor ִ
+	 */
+	public void setExecutor(HttpRequestExecutor executor) {
+		this.executor = executor;
+	}
+
 	/**
 	 * Http
 	 */
@@ -96,7 +108,21 @@ public class SplxHttpHandler implements HttpHandler {
 			if (path.equals("/favicon.ico")) {
 				return;
 			}
-			new Thread(new HandlerThread(httpExchange)).start();
+			// ʱͳƣֻܷ
+			if (path.equals("/latency")) {
+				if (!isLocalClient(httpExchange)) {
+					sendText(httpExchange, 403, mm.getMessage("DfxHttpHandler.forbidden"));
+					return;
+				}
+				
+				sendText(httpExchange, 200, executor.getLatencyReport() + DfxManager.getInstance() + "\n");
+				return;
+			}
+			if (!executor.execute(executor.getEndpoint(path), new HandlerThread(httpExchange))) {
+				// ̺߳ŶӶˣÿͻԺ
+				httpExchange.getResponseHeaders().add("Retry-After", "1");
+				sendText(httpExchange, 503, mm.getMessage("DfxHttpHandler.busy"));
+			}
 		} catch (Throwable t) {
 			String result;
 			ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -121,6 +147,32 @@ public class SplxHttpHandler implements HttpHandler {
 		
 	}
 
+	// ǷԷķǻػַҲ
+	private static boolean isLocalClient(HttpExchange httpExchange) {
+		InetSocketAddress remote = httpExchange.getRemoteAddress();
+		InetAddress addr = remote == null ? null : remote.getAddress();
+		if (addr == null) {
+			return false;
+		} else if (addr.isLoopbackAddress() || addr.isAnyLocalAddress()) {
+			return true;
+		}
+
+		try {
+			return NetworkInterface.getByInetAddress(addr) != null;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private static void sendText(HttpExchange httpExchange, int status, String text) throws IOException {
+		byte[] bytes = text.getBytes("UTF-8");
+		httpExchange.getResponseHeaders().add("Content-Type", "text/plain;charset=UTF-8");
+		httpExchange.sendResponseHeaders(status, bytes.length);
+		OutputStream os = httpExchange.getResponseBody();
+		os.write(bytes);
+		os.close();
+	}
+
 	private Object obj2String(Object obj) {
 		if (obj == null)
 			return "";
@@ -252,9 +304,10 @@ public class SplxHttpHandler implements HttpHandler {
 							}
 						}
 						PgmCellSet pcs1 = null;
+						DfxManager dfxManager = DfxManager.getInstance();
 						try {
 							FileObject fo = new FileObject(fileName, "s");
-							pcs1 = fo.readPgmCellSet();
+							pcs1 = dfxManager.removeDfx(fo, new Context());
 						}
 						catch( Throwable th ) {
 							status = 404;
@@ -318,8 +371,8 @@ public class SplxHttpHandler implements HttpHandler {
 							} else {
 								if (!splx2.startsWith("/"))
 									splx2 = "/" + splx2;
-								PgmCellSet pcs2 = CellSetUtil
-										.readPgmCellSet(HttpContext.dfxHome + splx2);
+								FileObject fo2 = new FileObject(HttpContext.dfxHome + splx2, "s");
+								PgmCellSet pcs2 = dfxManager.removeDfx(fo2, new Context());
 								ParamList list2 = pcs2.getParamList();
 								Context ctx2 = new Context();
 								ctx2.setParamValue(((Param) list2.get(0)).getName(), obj1);
@@ -328,11 +381,14 @@ public class SplxHttpHandler implements HttpHandler {
 								pcs2.calculateResult();
 								Object obj2 = pcs2.nextResult();
 								result = obj2String(obj2);
+								dfxManager.putDfx(pcs2);
 							}
 							Object hs = pcs1.nextResult();
 							if( hs != null ) {
 								headers = (String)obj2String( hs );
 							}
+							// ĳ棬´ٶļ
+							dfxManager.putDfx(pcs1);
 						}
 					}
 				}
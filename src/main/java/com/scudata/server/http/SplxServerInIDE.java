@@ -23,6 +23,7 @@ public class SplxServerInIDE implements IServer {
 	public static SplxServerInIDE instance=null;
 	
 	private HttpServer httpServer;
+	private HttpRequestExecutor executor;
 	private HttpContext ctx=null;
 	private RaqsoftConfig rc = null;
 	StartUnitListener listener = null;
@@ -85,8 +86,10 @@ public class SplxServerInIDE implements IServer {
 		}catch(java.net.BindException ex){
 			throw new Exception(ParallelMessage.get().getMessage("SplxServerInIDE.portbind",port));
 		}
+		executor = new HttpRequestExecutor(ctx);
 		SplxHttpHandler dhh = new SplxHttpHandler();
 		dhh.setIServer(this);
+		dhh.setExecutor(executor);
 		httpServer.createContext("/", dhh);
 		httpServer.setExecutor(null);
 		httpServer.start();
@@ -114,6 +117,8 @@ public class SplxServerInIDE implements IServer {
 			return false;
 		httpServer.stop(2); // ȴ2
 		httpServer = null;
+		executor.shutdown();
+		executor = null;
 		Logger.info(ParallelMessage.get().getMessage("SplxServerInIDE.stop"));
 		return true;
 	}
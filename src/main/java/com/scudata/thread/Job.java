@@ -1,5 +1,7 @@
 package com.scudata.thread;
 
+import java.util.concurrent.CancellationException;
+
 import com.scudata.common.RQException;
 
 /**
@@ -8,22 +10,23 @@ import com.scudata.common.RQException;
  *
  */
 public abstract class Job implements Runnable {
-	private boolean isFinished; // Ƿ
-	private Throwable error; // ִйе쳣ϢûΪ
-	
+	private volatile boolean isFinished; // Ƿ
+	private volatile Throwable error; // ִйе쳣ϢûΪ
+	private volatile ThreadPool pool; // ύ̳߳أJobThreadִʱΪ
+
 	/**
 	 * ȴִ
+	 * ̳߳صĹ̵߳ȴŶӵʱԼִύ񲢵ȴ
 	 */
-	public final synchronized void join() {
-		if (!isFinished) {
-			try {
-				wait();
-			} catch (InterruptedException e) {
-				// idẹ߳˴׳쳣ܵjvm
-				//throw new RQException(e);
-			}
+	public final void join() {
+		ThreadPool pool = this.pool;
+		if (pool != null) {
+			pool.join(this);
+		} else {
+			waitFinish(0);
 		}
-		
+
+		Throwable error = this.error;
 		if (error != null) {
 			if (error instanceof RQException) {
 				throw (RQException)error;
@@ -33,16 +36,48 @@ public abstract class Job implements Runnable {
 		}
 	}
 
+	/**
+	 * ȴִ
+	 * @param timeout ȴʱ䣨룩0ʾһֱȵ
+	 */
+	synchronized void waitFinish(long timeout) {
+		if (!isFinished) {
+			try {
+				wait(timeout);
+			} catch (InterruptedException e) {
+				// idẹ߳˴׳쳣ܵjvm
+				//throw new RQException(e);
+			}
+		}
+	}
+
+	boolean isFinished() {
+		return isFinished;
+	}
+
 	void reset() {
 		isFinished = false;
 		error = null;
+		pool = null;
+	}
+
+	void setPool(ThreadPool pool) {
+		this.pool = pool;
 	}
 
 	synchronized void finish() {
 		isFinished = true;
-		notify();
+		notifyAll();
 	}
-	
+
+	/**
+	 * ̳߳ѹرգûִ
+	 */
+	void cancel() {
+		error = new CancellationException();
+		finish();
+	}
+
 	void setError(Throwable error) {
 		this.error = error;
 	}
@@ -0,0 +1,87 @@
+package com.scudata.thread;
+
+import java.io.IOException;
+
+import com.scudata.common.Logger;
+import com.scudata.common.MessageManager;
+import com.scudata.common.RQException;
+import com.scudata.dm.Context;
+import com.scudata.dm.FileObject;
+import com.scudata.dm.RunFileWriter;
+import com.scudata.dm.Sequence;
+import com.scudata.expression.Expression;
+import com.scudata.resources.EngineMessage;
+
+/**
+ * ʱһдʱļ
+ * @author RunQian
+ *
+ */
+public class SortxJob extends Job {
+	private Sequence data; // Ҫ
+	private Expression []exps; // ʽ
+	private Context ctx; // 
+	private String opt; // ѡ
+
+	private FileObject file; // дʱļ
+
+	/**
+	 * д
+	 * @param data Ҫ
+	 * @param exps ʽĸ
+	 * @param ctx 
+	 * @param opt ѡ
+	 */
+	public SortxJob(Sequence data, Expression []exps, Context ctx, String opt) {
+		this.data = data;
+		this.ctx = ctx.newComputeContext();
+		this.opt = opt;
+
+		int count = exps.length;
+		this.exps = new Expression[count];
+		for (int i = 0; i < count; ++i) {
+			this.exps[i] = exps[i].newExpression(this.ctx);
+		}
+	}
+
+	public void run() {
+		Sequence sequence;
+		if (exps.length == 1) {
+			sequence = data.sort(exps[0], null, opt, ctx);
+		} else {
+			sequence = data.sort(exps, null, opt, ctx);
+		}
+
+		// ͷãźԭݿԱ
+		data = null;
+		exps = null;
+
+		FileObject fo = FileObject.createTempFileObject();
+		MessageManager mm = EngineMessage.get();
+		Logger.info(mm.getMessage("engine.createTmpFile") + fo.getFileName());
+
+		RunFileWriter writer = new RunFileWriter(fo);
+		try {
+			writer.write(sequence, 1, sequence.length());
+			writer.close();
+		} catch (IOException e) {
+			try {
+				writer.close();
+			} catch (IOException e2) {
+			}
+
+			fo.delete();
+			throw new RQException(e.getMessage(), e);
+		}
+
+		file = fo;
+	}
+
+	/**
+	 * ȡдʱļ
+	 * @return FileObject
+	 */
+	public FileObject getFile() {
+		return file;
+	}
+}
@@ -1,87 +1,75 @@
 package com.scudata.thread;
 
-import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.scudata.dm.Env;
 
 /**
  * ̳߳ضڶ̴߳
- * ߳Env.getParallelNum()
+ * ߳Env.getParallelNum()̶߳ͬʱִеᳬ߳
+ * ùȡȣÿ߳ԼУе̴̵߳߳ĶȡύҪͬһ
+ * ߳ύŵ̵߳ĶУ̵߳ȴŶʱɵȴ߳ԼִУǶύ񲻻ľ߳
+ * ȴִ̲߳ڳʱִ޹ص޼ջ
  * @author WangXiaoJun
  *
  */
 public class ThreadPool{
 	private static ThreadPool instance;
+	private static final AtomicInteger poolSeq = new AtomicInteger(); // ̳߳ţ߳
 
+	private final String namePrefix; // ߳ǰ׺
 	private WorkThread[] threads;
-	private LinkedList<Job> jobList = new LinkedList<Job>();
-	private boolean shutdown; // Ƿر߳
+	private final ConcurrentLinkedQueue<Job> submitQueue = new ConcurrentLinkedQueue<Job>(); // ǹ߳ύ
+	private final AtomicInteger queuedCount = new AtomicInteger(); // Ŷӵȴִе
 
-	// ̳߳Ĺ߳
-	private class WorkThread extends Thread {
-		private WorkThread(ThreadGroup group, String name) {
-			super(group, name);
-		}
+	private final Object idleLock = new Object(); // ߳ڴ˵ȴ
+	private volatile int idleCount; // е߳޸ʱҪͬidleLock
+	private volatile boolean shutdown; // Ƿر߳
 
-		public void run() {
-			while (true) {
-				// бͬ
-				synchronized(jobList) {
-					if (shutdown) {
-						// ̳߳ص˹رգ߳
-						return;
-					}
+	private final AtomicLong submittedCount = new AtomicLong(); // ύ
+	private final AtomicLong completedCount = new AtomicLong(); // ִ
+	private final AtomicLong stealCount = new AtomicLong(); // ̵߳Ķȡ
 
-					// ûȴ
-					if (jobList.size() == 0) {
-						try {
-							jobList.wait();
-						} catch (InterruptedException e) {
-							if (shutdown) {
-								return;
-							}
-						}
-					}
-				}
+	// ̳߳زḶ́߳ÿ߳Լ
+	private class WorkThread extends Thread {
+		private final int index; // ߳е
+		private final ConcurrentLinkedDeque<Job> jobs = new ConcurrentLinkedDeque<Job>();
 
-				// ѵһȡִ
-				Job job = null;
-				synchronized(jobList) {
-					if (jobList.size() > 0) {
-						job = jobList.removeFirst();
-					}
-				}
+		private WorkThread(ThreadGroup group, int index) {
+			super(group, namePrefix + index);
+			this.index = index;
+			setDaemon(true);
+		}
 
-				if (job != null) {
-					try {
-						job.run();
-					} catch (Throwable e) {
-						job.setError(e);
-					}
+		private ThreadPool getPool() {
+			return ThreadPool.this;
+		}
 
-					job.finish();
+		public void run() {
+			while (!shutdown) {
+				Job job = nextJob(this);
+				if (job != null) {
+					runJob(job);
+				} else {
+					waitJob();
 				}
 			}
 		}
 	}
 
 	private ThreadPool(int threadCount) {
+		namePrefix = "ThreadPool" + poolSeq.getAndIncrement() + "-";
 		ThreadGroup group = Thread.currentThread().getThreadGroup();
-		// 鲻ideģideide߳Ľ̷߳˷ݹ߳߳
-		/*while (true) {
-			ThreadGroup g = group.getParent();
-			if (g == null) {
-				break;
-			} else {
-				group = g;
-			}
-		}*/
-
 		threads = new WorkThread[threadCount];
 		for (int i = 0; i < threadCount; ++i) {
-			threads[i] = new WorkThread(group, "ThreadPool" + i);
-			threads[i].setDaemon(true);
-			threads[i].start();
+			threads[i] = new WorkThread(group, i);
+		}
+
+		for (WorkThread thread : threads) {
+			thread.start();
 		}
 	}
 
@@ -98,20 +86,25 @@ public class ThreadPool{
 
 			instance = new ThreadPool(n);
 		} else {
-			// Ƿ߳
+			// Ƿ̵߳߳Ķ߳ȡִ
 			WorkThread[] threads = instance.threads;
 			for (int i = 0, len = threads.length; i < len; ++i) {
 				if (!threads[i].isAlive()) {
-					threads[i] = instance.new WorkThread(threads[i].getThreadGroup(), "ThreadPool" + i);
-					threads[i].setDaemon(true);
-					threads[i].start();
+					WorkThread thread = instance.new WorkThread(threads[i].getThreadGroup(), i);
+					ConcurrentLinkedDeque<Job> jobs = threads[i].jobs;
+					for (Job job = jobs.pollFirst(); job != null; job = jobs.pollFirst()) {
+						thread.jobs.addLast(job);
+					}
+					
+					threads[i] = thread;
+					thread.start();
 				}
 			}
 		}
 
 		return instance;
 	}
-	
+
 	/**
 	 * ²һ̳߳
 	 * @param threadCount ߳õ
@@ -126,7 +119,7 @@ public class ThreadPool{
 				threadCount = n;
 			}
 		}
-		
+
 		return new ThreadPool(threadCount);
 	}
 
@@ -140,18 +133,35 @@ public class ThreadPool{
 		if (n < 1) {
 			n = 1;
 		}
-		
+
 		return new ThreadPool(n);
 	}
 
 	/**
-	 * رѾ̳߳ʵ̳߳ʵܼʹ
+	 * رѾ̳߳ʵ̳߳ʵܼʹãûпʼִеȡ
 	 */
 	public synchronized void shutdown() {
 		shutdown = true;
-		synchronized(jobList) {
-			jobList.notifyAll();
-			jobList.clear();
+		synchronized(idleLock) {
+			idleLock.notifyAll();
+		}
+
+		// ȡûпʼִе񣬵ȴЩ̻߳׳쳣
+		for (Job job = submitQueue.poll(); job != null; job = submitQueue.poll()) {
+			cancel(job);
+		}
+
+		for (WorkThread thread : threads) {
+			for (Job job = thread.jobs.pollFirst(); job != null; job = thread.jobs.pollFirst()) {
+				cancel(job);
+			}
+		}
+	}
+
+	private void cancel(Job job) {
+		if (job != null) {
+			queuedCount.decrementAndGet();
+			job.cancel();
 		}
 	}
 
@@ -161,17 +171,128 @@ public class ThreadPool{
 	 */
 	public void submit(Job job) {
 		job.reset();
-		synchronized(jobList) {
-			jobList.add(job);
-			jobList.notify();
+		job.setPool(this);
+		submittedCount.incrementAndGet();
+
+		if (shutdown) {
+			job.cancel();
+			return;
+		}
+
+		Thread thread = Thread.currentThread();
+		if (thread instanceof WorkThread && ((WorkThread)thread).getPool() == this) {
+			// ̳߳صύŵ̵߳Ķ
+			((WorkThread)thread).jobs.addLast(job);
+		} else {
+			submitQueue.offer(job);
+		}
+
+		// Ŷټ̣߳waitJob˳෴֤©
+		queuedCount.incrementAndGet();
+		if (idleCount > 0) {
+			synchronized(idleLock) {
+				idleLock.notify();
+			}
+		}
+	}
+
+	/**
+	 * ȴִ꣬ǰ߳Ǳ̳߳صĹ̲߳Ŷӣɵǰִ߳д
+	 * @param job ύ̳߳ص
+	 */
+	void join(Job job) {
+		Thread thread = Thread.currentThread();
+		if (!(thread instanceof WorkThread) || ((WorkThread)thread).getPool() != this) {
+			job.waitFinish(0);
+			return;
+		}
+
+		// ǰ̷߳Ҫȣִеȴͬʱִе
+		if (!job.isFinished() && unqueue((WorkThread)thread, job)) {
+			runJob(job);
+		}
+
+		// ѱ߳ȡߣִ
+		while (!job.isFinished()) {
+			job.waitFinish(0);
 		}
 	}
-	
+
+	// ѻûʼִеӶɾǷɾɹȡ̺߳ɾֻ߳һܳɹ
+	private boolean unqueue(WorkThread thread, Job job) {
+		boolean isRemoved = thread.jobs.removeLastOccurrence(job) || submitQueue.remove(job);
+		if (!isRemoved) {
+			for (WorkThread other : threads) {
+				if (other != thread && other.jobs.removeLastOccurrence(job)) {
+					isRemoved = true;
+					break;
+				}
+			}
+		}
+
+		if (isRemoved) {
+			queuedCount.decrementAndGet();
+		}
+
+		return isRemoved;
+	}
+
+	// δӱ̶߳СύС̵߳Ķȡ
+	private Job nextJob(WorkThread thread) {
+		Job job = thread.jobs.pollFirst();
+		if (job == null) {
+			job = submitQueue.poll();
+			if (job == null) {
+				WorkThread []threads = this.threads;
+				int count = threads.length;
+				for (int i = 1; i < count; ++i) {
+					job = threads[(thread.index + i) % count].jobs.pollFirst();
+					if (job != null) {
+						stealCount.incrementAndGet();
+						break;
+					}
+				}
+			}
+		}
+
+		if (job != null) {
+			queuedCount.decrementAndGet();
+		}
+
+		return job;
+	}
+
+	private void runJob(Job job) {
+		try {
+			job.run();
+		} catch (Throwable e) {
+			job.setError(e);
+		}
+
+		// ȼٻѵȴ̣߳joinغܿļ
+		completedCount.incrementAndGet();
+		job.finish();
+	}
+
+	// ûʱȴֱύ̳߳عر
+	private void waitJob() {
+		synchronized(idleLock) {
+			idleCount++;
+			try {
+				while (!shutdown && queuedCount.get() <= 0) {
+					idleLock.wait();
+				}
+			} catch (InterruptedException e) {
+			} finally {
+				idleCount--;
+			}
+		}
+	}
+
 	protected void finalize() throws Throwable {
 		try {
 			if (!shutdown) {
-				jobList.notifyAll();
-				jobList.clear();
+				shutdown();
 			}
 		} catch (Throwable e) {
 		}
@@ -184,4 +305,44 @@ public class ThreadPool{
 	public int getThreadCount() {
 		return threads.length;
 	}
+
+	/**
+	 * ضеȴִе
+	 * @return long
+	 */
+	public long getQueuedJobCount() {
+		return queuedCount.get();
+	}
+
+	/**
+	 * ؿ̴̵߳߳Ķȡ
+	 * @return long
+	 */
+	public long getStealCount() {
+		return stealCount.get();
+	}
+
+	/**
+	 * ִ߳
+	 * @return int
+	 */
+	public int getActiveThreadCount() {
+		return threads.length - idleCount;
+	}
+
+	/**
+	 * ύ
+	 * @return long
+	 */
+	public long getSubmittedJobCount() {
+		return submittedCount.get();
+	}
+
+	/**
+	 * ִ
+	 * @return long
+	 */
+	public long getCompletedJobCount() {
+		return completedCount.get();
+	}
 }
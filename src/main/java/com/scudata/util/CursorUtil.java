@@ -23,6 +23,7 @@ import com.scudata.dm.HashArraySet;
 import com.scudata.dm.IndexTable;
 import com.scudata.dm.ListBase1;
 import com.scudata.dm.Record;
+import com.scudata.dm.RunFileWriter;
 import com.scudata.dm.Sequence;
 import com.scudata.dm.Table;
 import com.scudata.dm.comparator.*;
@@ -43,9 +44,13 @@ import com.scudata.resources.EngineMessage;
 import com.scudata.thread.GroupsJob;
 import com.scudata.thread.GroupxJob;
 import com.scudata.thread.MultithreadUtil;
+import com.scudata.thread.SortxJob;
 import com.scudata.thread.ThreadPool;
 
 public final class CursorUtil {
+	private static final int MIN_MERGE_COUNT = 8; // ڴȷʱһٹ鲢ļ
+	private static final int MAX_MERGE_COUNT = 512; // ڴȷʱһ鲢ļ
+	
 	/**
 	 * ȡαݽṹ
 	 * @param cs
@@ -1458,10 +1463,14 @@ public final class CursorUtil {
 	 * @param exps ֶαʽ
 	 * @param ctx 
 	 * @param capacity ڴܹļ¼ûԶһ
-	 * @param opt ѡ 0null
+	 * @param opt ѡ 0nullm߳
 	 * @return źα
 	 */
 	public static ICursor sortx(ICursor cursor, Expression[] exps, Context ctx, int capacity, String opt) {
+		if (opt != null && opt.indexOf('m') != -1) {
+			return sortx_m(cursor, exps, ctx, capacity, opt);
+		}
+		
 		int fcount = exps.length;
 		ArrayList<ICursor> cursorList = new ArrayList<ICursor>();
 		
@@ -1539,6 +1548,259 @@ public final class CursorUtil {
 		}
 	}
 
+	/**
+	 * ߳ÿݷָ߳ͬʱдʱļͬʱ̶߳ȡһ
+	 * ļLZ4ѹ鲢ʱðÿļ̳߳Ԥѹһ
+	 * ļһܹ鲢ļʱȷ鲢ɽϴΣ޼Env.getMergeFileCount
+	 * @param cursor α꣬ҪǴ
+	 * @param exps ֶαʽ
+	 * @param ctx 
+	 * @param capacity ڴܹļ¼ûԶһ
+	 * @param opt ѡ 0null
+	 * @return źα
+	 */
+	private static ICursor sortx_m(ICursor cursor, Expression[] exps, Context ctx, int capacity, String opt) {
+		Sequence table;
+		if (capacity <= 1) {
+			table = tryFetch(cursor);
+			if (table != null) {
+				// дͶȡһͬʱУڴл
+				capacity = table.length() / 2;
+				if (capacity < ICursor.INITSIZE) {
+					capacity = ICursor.INITSIZE;
+				}
+			}
+		} else {
+			table = cursor.fetch(capacity);
+		}
+		
+		if (table == null || table.length() == 0) {
+			return new MemoryCursor(null);
+		}
+		
+		DataStruct ds = table.dataStruct();
+		if (ds == null) {
+			MessageManager mm = EngineMessage.get();
+			throw new RQException(mm.getMessage("engine.needPurePmt"));
+		}
+		
+		int parallelNum = Env.getParallelNum();
+		if (parallelNum < 1) {
+			parallelNum = 1;
+		}
+		
+		ThreadPool pool = ThreadPool.instance();
+		ArrayList<SortxJob> jobList = new ArrayList<SortxJob>();
+		int prevCount = 0; // һݵjobListеĽλ
+		
+		try {
+			while (table != null && table.length() > 0) {
+				// һεɺύһε񣬿ڴе
+				for (int i = prevCount, size = jobList.size(); i < size; ++i) {
+					jobList.get(i).join();
+				}
+				
+				prevCount = jobList.size();
+				int len = table.length();
+				int jobCount = (len - 1) / MultithreadUtil.SINGLE_PROSS_COUNT + 1;
+				if (jobCount > parallelNum) {
+					jobCount = parallelNum;
+				}
+				
+				int singleCount = len / jobCount;
+				int start = 1;
+				for (int i = 0; i < jobCount; ++i) {
+					int end = i + 1 == jobCount ? len + 1 : start + singleCount;
+					SortxJob job = new SortxJob(table.get(start, end), exps, ctx, opt);
+					jobList.add(job);
+					pool.submit(job);
+					start = end;
+				}
+				
+				table = null;
+				table = cursor.fetch(capacity);
+			}
+			
+			for (int i = prevCount, size = jobList.size(); i < size; ++i) {
+				jobList.get(i).join();
+			}
+		} catch (RuntimeException e) {
+			// ɾѾдʱļ
+			for (SortxJob job : jobList) {
+				try {
+					job.join();
+				} catch (RuntimeException e2) {
+				}
+				
+				if (job.getFile() != null) {
+					job.getFile().delete();
+				}
+			}
+			
+			throw e;
+		}
+		
+		int size = jobList.size();
+		FileObject []files = new FileObject[size];
+		for (int i = 0; i < size; ++i) {
+			files[i] = jobList.get(i).getFile();
+		}
+		
+		if (size == 1) {
+			return new RunFileCursor(files[0], ds);
+		}
+		
+		// ̫ʱȷ鲢ɽϴΣʹһι鲢ļ
+		files = mergeRunFiles(files, ds, exps, ctx, opt, getMaxMergeCount());
+		return createRunFileMergeCursor(files, ds, exps, ctx, opt);
+	}
+	
+	// ȡһ鲢ļûʱڴȷ
+	// 鲢ʱÿļҪļҪ浱ǰԤһ飬ѹɼ¼ѹǰ
+	private static int getMaxMergeCount() {
+		int count = Env.getMergeFileCount();
+		if (count > 1) {
+			return count;
+		}
+		
+		Runtime rt = Runtime.getRuntime();
+		long size = (rt.maxMemory() - rt.totalMemory() + rt.freeMemory() - 1024 * 1024 * 128) / 2;
+		long fileSize = Env.getFileBufSize() + RunFileWriter.BLOCK_SIZE * 8L;
+		long n = size / fileSize;
+		if (n < MIN_MERGE_COUNT) {
+			return MIN_MERGE_COUNT;
+		} else if (n > MAX_MERGE_COUNT) {
+			return MAX_MERGE_COUNT;
+		} else {
+			return (int)n;
+		}
+	}
+	
+	/**
+	 * ˹鲢ļÿ˰ǰļmaxCountһ鲢ɽϴΣֱļmaxCount
+	 * @param files ļ
+	 * @param ds ¼ݽṹ
+	 * @param exps ֶαʽ
+	 * @param ctx 
+	 * @param opt ѡ 0null
+	 * @param maxCount һ鲢ļ
+	 * @return 鲢ļѹ鲢ļᱻɾ
+	 */
+	static FileObject[] mergeRunFiles(FileObject []files, DataStruct ds, Expression[] exps, 
+			Context ctx, String opt, int maxCount) {
+		if (maxCount < 2) {
+			maxCount = 2;
+		}
+		
+		MessageManager mm = EngineMessage.get();
+		String msg = mm.getMessage("engine.createTmpFile");
+		ArrayList<FileObject> fileList = new ArrayList<FileObject>();
+		for (FileObject file : files) {
+			fileList.add(file);
+		}
+		
+		// һ˹鲢ļļû鲢ļǰ棬εȺȵļ¼鲢򲻱
+		ArrayList<FileObject> nextList = new ArrayList<FileObject>();
+		int start = 0; // һ˻û鲢ĵһļ
+		try {
+			while (fileList.size() > maxCount) {
+				int size = fileList.size();
+				while (size - start > 1 && size - start + nextList.size() > maxCount) {
+					int end = Math.min(start + maxCount, size);
+					FileObject []group = new FileObject[end - start];
+					fileList.subList(start, end).toArray(group);
+					
+					FileObject fo = FileObject.createTempFileObject();
+					Logger.info(msg + fo.getFileName());
+					nextList.add(fo);
+					mergeRunFiles(group, fo, ds, exps, ctx, opt);
+					start = end;
+				}
+				
+				nextList.addAll(fileList.subList(start, size));
+				fileList = nextList;
+				nextList = new ArrayList<FileObject>();
+				start = 0;
+			}
+		} catch (RuntimeException e) {
+			// ʱɾеʱļڹ鲢飬ɾļɾûӰ
+			for (FileObject file : nextList) {
+				file.delete();
+			}
+			
+			for (int i = start, size = fileList.size(); i < size; ++i) {
+				fileList.get(i).delete();
+			}
+			
+			throw e;
+		}
+		
+		FileObject []result = new FileObject[fileList.size()];
+		fileList.toArray(result);
+		return result;
+	}
+	
+	// һļ鲢дµļ鲢αرʱɾ鲢ļ
+	private static void mergeRunFiles(FileObject []files, FileObject out, DataStruct ds, 
+			Expression[] exps, Context ctx, String opt) {
+		ICursor cursor = createRunFileMergeCursor(files, ds, exps, ctx, opt);
+		RunFileWriter writer = new RunFileWriter(out);
+		boolean isSuccess = false;
+		try {
+			Sequence seq = cursor.fetch(ICursor.FETCHCOUNT);
+			while (seq != null && seq.length() > 0) {
+				writer.write(seq, 1, seq.length());
+				seq = cursor.fetch(ICursor.FETCHCOUNT);
+			}
+			
+			writer.close();
+			isSuccess = true;
+		} catch (IOException e) {
+			throw new RQException(e.getMessage(), e);
+		} finally {
+			cursor.close();
+			if (!isSuccess) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+				}
+				
+				out.delete();
+			}
+		}
+	}
+	
+	// 鲢ļα꣬ʽֶʱð鲢
+	private static ICursor createRunFileMergeCursor(FileObject []files, DataStruct ds, 
+			Expression[] exps, Context ctx, String opt) {
+		int size = files.length;
+		ICursor []cursors = new ICursor[size];
+		for (int i = 0; i < size; ++i) {
+			cursors[i] = new RunFileCursor(files[i], ds);
+		}
+		
+		if (size == 1) {
+			return cursors[0];
+		}
+		
+		int fcount = exps.length;
+		int []fields = new int[fcount];
+		for (int i = 0; i < fcount; ++i) {
+			fields[i] = exps[i].getFieldIndex(ds);
+			if (fields[i] == -1) {
+				fields = null;
+				break;
+			}
+		}
+		
+		String mergeOpt = opt == null || opt.indexOf('0') == -1 ? null : "0";
+		if (fields != null) {
+			return new MergeCursor(cursors, fields, mergeOpt, ctx);
+		} else {
+			return new MergesCursor(cursors, exps, mergeOpt, ctx);
+		}
+	}
+
 	/**
 	 * ֵֶͬļ¼ֵͬͬ
 	 * ֵͬļ¼浽һʱļȻÿʱļ
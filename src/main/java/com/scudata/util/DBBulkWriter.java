@@ -0,0 +1,468 @@
+package com.scudata.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+import com.scudata.common.DBSession;
+import com.scudata.common.DBTypes;
+import com.scudata.common.ISessionFactory;
+import com.scudata.common.Logger;
+import com.scudata.common.RQException;
+import com.scudata.common.SQLTool;
+import com.scudata.dm.ComputeStack;
+import com.scudata.dm.Context;
+import com.scudata.dm.Sequence;
+import com.scudata.expression.Expression;
+import com.scudata.thread.Job;
+import com.scudata.thread.ThreadPool;
+
+/**
+ * öӲݿ¼ڰѴαдݿ
+ * ÿһִ̳߳УÿеӲ벢ύʧʱعӶϿʱĴ
+ * ĴСÿִʱִпӴִС
+ * ֵ֧ݿѶкϳһinsert ... values (...),(...)ִ
+ * ÿڸԵύɵ߿@k
+ * @author RunQian
+ *
+ */
+public class DBBulkWriter {
+	private static final long TARGET_TIME = 500; // ÿִʱ䣬
+	private static final int MAX_BATCH_SIZE = 100000; // ¼
+	private static final int MAX_MULTI_ROW = 100; // insert
+	private static final int MAX_PARAM_COUNT = 2000; // insertĲ
+	private static final int RETRY_COUNT = 3; // ÿʧܺԴ
+
+	private ISessionFactory factory; // ½
+	private String sqlPrefix; // insertvaluesǰĲ
+	private String rowSql; // һеvalues
+	private String sql; // insert
+	private String multiRowSql; // insert䣬ձʾʹ
+	private int multiRowCount; // insert
+	private byte []types; // 
+	private int dbType;
+	private String dbCharset;
+	private boolean tranSQL;
+	private String dbName;
+
+	private int threadCount; // е
+	private volatile int batchSize; // ǰĴС
+
+	private LinkedList<WriteJob> jobs = new LinkedList<WriteJob>(); // ûȴ
+	private LinkedList<DBSession> freeSessions = new LinkedList<DBSession>(); // е
+	private ArrayList<DBSession> sessions = new ArrayList<DBSession>(); // 
+
+	// ͳϢ
+	private long startTime;
+	private long endTime;
+	private long rowCount;
+	private int batchCount;
+	private int retryCount;
+	private long totalBatchTime;
+	private long maxBatchTime;
+
+	/**
+	 * в
+	 * @param factory ½ݿӵĹ
+	 * @param table Ѿ
+	 * @param fields ֶΣѾ
+	 * @param types ֶεͣcom.scudata.common.Typesж
+	 * @param dbType ݿͣDBTypesж
+	 * @param dbCharset ݿַҪתʱΪ
+	 * @param tranSQL ǷҪתַ
+	 * @param dbName ݿڳϢ
+	 * @param threadCount е
+	 * @param batchSize ʼĴС
+	 */
+	public DBBulkWriter(ISessionFactory factory, String table, String []fields, byte []types,
+			int dbType, String dbCharset, boolean tranSQL, String dbName, int threadCount, int batchSize) {
+		this.factory = factory;
+		this.types = types;
+		this.dbType = dbType;
+		this.dbCharset = dbCharset;
+		this.tranSQL = tranSQL;
+		this.dbName = dbName;
+		this.threadCount = threadCount > 1 ? threadCount : 1;
+		this.batchSize = batchSize > 1 ? batchSize : 1;
+
+		int fcount = fields.length;
+		StringBuffer sb = new StringBuffer("insert into ");
+		sb.append(table).append(" (");
+		StringBuffer row = new StringBuffer("(");
+		for (int i = 0; i < fcount; ++i) {
+			if (i > 0) {
+				sb.append(", ");
+				row.append(", ");
+			}
+
+			sb.append(fields[i]);
+			row.append('?');
+		}
+
+		sb.append(") values ");
+		row.append(')');
+
+		sqlPrefix = sb.toString();
+		rowSql = row.toString();
+		sql = sqlPrefix + rowSql;
+		multiRowCount = Math.min(MAX_MULTI_ROW, MAX_PARAM_COUNT / (fcount > 0 ? fcount : 1));
+		setMultiRow(isMultiRowPreferred(dbType));
+	}
+
+	/**
+	 * ݿǷʺöinsert
+	 * @param dbType ݿͣDBTypesж
+	 * @return boolean
+	 */
+	public static boolean isMultiRowPreferred(int dbType) {
+		return dbType == DBTypes.MYSQL || dbType == DBTypes.POSTGRES ||
+				dbType == DBTypes.GREENPLUM || dbType == DBTypes.KINGBASE;
+	}
+
+	/**
+	 * Ƿöinsert룬ȱʡݿȷ
+	 * @param b trueʹãfalseʹ
+	 */
+	public void setMultiRow(boolean b) {
+		if (!b || multiRowCount < 2) {
+			multiRowSql = null;
+			return;
+		}
+
+		StringBuffer sb = new StringBuffer(sqlPrefix.length() + (rowSql.length() + 1) * multiRowCount);
+		sb.append(sqlPrefix);
+		for (int i = 0; i < multiRowCount; ++i) {
+			if (i > 0) {
+				sb.append(',');
+			}
+
+			sb.append(rowSql);
+		}
+
+		multiRowSql = sb.toString();
+	}
+
+	/**
+	 * ȡǰĴСÿΰ˴Сαȡ
+	 * @return int
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * ÿԱĲֵȻύ̳߳ز룬еﵽʱȴ
+	 * @param seq Դ
+	 * @param exps ʽ
+	 * @param ctx 
+	 */
+	public void write(Sequence seq, Expression []exps, Context ctx) {
+		int len = seq == null ? 0 : seq.length();
+		if (len == 0) {
+			return;
+		}
+
+		int paramCount = exps.length;
+		Object [][]rows = new Object[len][];
+		ComputeStack stack = ctx.getComputeStack();
+		Sequence.Current current = seq.new Current();
+		stack.push(current);
+
+		try {
+			for (int i = 1; i <= len; ++i) {
+				current.setCurrent(i);
+				Object []values = new Object[paramCount];
+				rows[i - 1] = values;
+				for (int p = 0; p < paramCount; ++p) {
+					if (exps[p] != null) {
+						values[p] = exps[p].calculate(ctx);
+					}
+				}
+			}
+		} finally {
+			stack.pop();
+		}
+
+		write(rows);
+	}
+
+	/**
+	 * һֵύ̳߳ز룬еﵽʱȴ
+	 * @param rows ÿеĲֵ
+	 */
+	public void write(Object [][]rows) {
+		if (startTime == 0) {
+			startTime = System.currentTimeMillis();
+		}
+
+		if (jobs.size() >= threadCount) {
+			jobs.removeFirst().join();
+		}
+
+		WriteJob job = new WriteJob(rows);
+		jobs.add(job);
+		ThreadPool.instance().submit(job);
+	}
+
+	/**
+	 * ȴеɣرӣͳϢ
+	 */
+	public void finish() {
+		try {
+			while (jobs.size() > 0) {
+				jobs.removeFirst().join();
+			}
+		} finally {
+			close();
+		}
+
+		endTime = System.currentTimeMillis();
+		Logger.info(getStatistics());
+	}
+
+	/**
+	 * ȡͳϢ¼ʱÿ¼ÿƽִʱ䡢Դ
+	 * @return String
+	 */
+	public synchronized String getStatistics() {
+		long time = startTime == 0 ? 0 : (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+		long rowsPerSecond = time > 0 ? rowCount * 1000 / time : rowCount;
+		long avgTime = batchCount > 0 ? totalBatchTime / batchCount : 0;
+		return "Bulk insert: " + rowCount + " rows in " + time + "ms, " + rowsPerSecond + " rows/s, " +
+			batchCount + " batches, batch latency avg " + avgTime + "ms max " + maxBatchTime +
+			"ms, " + retryCount + " retries, " + threadCount + " connections, batch size " + batchSize;
+	}
+
+	/**
+	 * ȡļ¼
+	 * @return long
+	 */
+	public synchronized long getRowCount() {
+		return rowCount;
+	}
+
+	// ȡԵĴʧܵ
+	synchronized int getRetryCount() {
+		return retryCount;
+	}
+
+	/**
+	 * ȴύִ꣬ǵĴȻرеӣڳ
+	 */
+	public void close() {
+		try {
+			while (jobs.size() > 0) {
+				try {
+					jobs.removeFirst().join();
+				} catch (RuntimeException e) {
+					// ѾдˣĴٴ
+				}
+			}
+		} finally {
+			synchronized(this) {
+				for (DBSession session : sessions) {
+					session.close();
+				}
+
+				sessions.clear();
+				freeSessions.clear();
+			}
+		}
+	}
+
+	// ȡеӣû½DBSessionʱرӣҪ
+	private DBSession getSession() throws Exception {
+		synchronized(this) {
+			if (freeSessions.size() > 0) {
+				return freeSessions.removeFirst();
+			}
+		}
+
+		DBSession session = factory.getSession();
+		((Connection)session.getSession()).setAutoCommit(false);
+		synchronized(this) {
+			sessions.add(session);
+		}
+
+		return session;
+	}
+
+	private synchronized void releaseSession(DBSession session) {
+		freeSessions.add(session);
+	}
+
+	// ӳʹ
+	private synchronized void discardSession(DBSession session) {
+		sessions.remove(session);
+		session.close();
+	}
+
+	private synchronized void addRetry() {
+		retryCount++;
+	}
+
+	// ¼һִݳɹǴִеʱĴС
+	synchronized void addStatistics(int rows, long time) {
+		rowCount += rows;
+		batchCount++;
+		totalBatchTime += time;
+		if (time > maxBatchTime) {
+			maxBatchTime = time;
+		}
+
+		int size = batchSize;
+		if (time < TARGET_TIME / 2 && rows >= size && size < MAX_BATCH_SIZE) {
+			batchSize = Math.min(size * 2, MAX_BATCH_SIZE);
+		} else if (time > TARGET_TIME * 2 && size > 1) {
+			batchSize = size / 2;
+		}
+	}
+
+	// һݲύ
+	private void insert(Connection con, Object [][]rows) throws Exception {
+		PreparedStatement pst = null;
+		try {
+			int len = rows.length;
+			int i = 0;
+			if (multiRowSql != null && len >= multiRowCount) {
+				pst = con.prepareStatement(tranSQL(multiRowSql));
+				int rowCount = multiRowCount;
+				for (; i + rowCount <= len; i += rowCount) {
+					int pos = 1;
+					for (int r = 0; r < rowCount; ++r) {
+						pos = setParams(pst, rows[i + r], pos);
+					}
+
+					pst.addBatch();
+				}
+
+				pst.executeBatch();
+				pst.close();
+				pst = null;
+			}
+
+			if (i < len) {
+				pst = con.prepareStatement(tranSQL(sql));
+				for (; i < len; ++i) {
+					setParams(pst, rows[i], 1);
+					pst.addBatch();
+				}
+
+				pst.executeBatch();
+			}
+
+			con.commit();
+		} finally {
+			if (pst != null) {
+				pst.close();
+			}
+		}
+	}
+
+	private String tranSQL(String sql) throws Exception {
+		if (tranSQL) {
+			return new String(sql.getBytes(), dbCharset);
+		} else {
+			return sql;
+		}
+	}
+
+	// һеĲһλ
+	private int setParams(PreparedStatement pst, Object []values, int pos) throws Exception {
+		byte []types = this.types;
+		for (int i = 0; i < values.length; ++i, ++pos) {
+			Object val = values[i];
+			if (tranSQL && val instanceof String) {
+				val = new String(((String)val).getBytes(), dbCharset);
+			}
+
+			byte type = types == null || types.length <= i ? com.scudata.common.Types.DT_DEFAULT : types[i];
+			SQLTool.setObject(dbType, pst, pos, val, type);
+		}
+
+		return pos;
+	}
+
+	/**
+	 * ǷԿܳɹĴ쳣SQLState08عлʧܺ40
+	 * ΪʱɻָĴΥԼ﷨Ҳʧ
+	 * @param e 쳣
+	 * @return boolean
+	 */
+	static boolean isTransient(Throwable e) {
+		for (int i = 0; e != null && i < 16; ++i) {
+			if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+				return true;
+			}
+
+			if (e instanceof SQLException) {
+				String state = ((SQLException)e).getSQLState();
+				if (state != null && (state.startsWith("08") || state.startsWith("40"))) {
+					return true;
+				}
+
+				SQLException next = ((SQLException)e).getNextException();
+				if (next != null && next != e && isTransient(next)) {
+					return true;
+				}
+			}
+
+			Throwable cause = e.getCause();
+			e = cause == e ? null : cause;
+		}
+
+		return false;
+	}
+
+	// һݵ
+	private class WriteJob extends Job {
+		private Object [][]rows;
+
+		public WriteJob(Object [][]rows) {
+			this.rows = rows;
+		}
+
+		public void run() {
+			for (int retries = 0; ; ++retries) {
+				DBSession session = null;
+				try {
+					session = getSession();
+
+					// ֻƳɹǴִеʱ䣬ʧܺ͵ȴԵʱ䲻ӰĴС
+					long start = System.currentTimeMillis();
+					insert((Connection)session.getSession(), rows);
+					long time = System.currentTimeMillis() - start;
+					releaseSession(session);
+					addStatistics(rows.length, time);
+					rows = null;
+					return;
+				} catch (Exception e) {
+					if (session != null) {
+						try {
+							((Connection)session.getSession()).rollback();
+							releaseSession(session);
+						} catch (SQLException se) {
+							discardSession(session);
+						}
+					}
+
+					if (retries >= RETRY_COUNT || !isTransient(e)) {
+						throw new RQException(dbName + " bulk insert error: " + e.getMessage(), e);
+					}
+
+					addRetry();
+					Logger.debug("Bulk insert retry " + (retries + 1) + ": " + e.getMessage());
+					try {
+						Thread.sleep(100L << retries);
+					} catch (InterruptedException ie) {
+						throw new RQException(ie);
+					}
+				}
+			}
+		}
+	}
+}
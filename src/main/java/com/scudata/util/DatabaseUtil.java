@@ -2261,21 +2261,19 @@ public class DatabaseUtil {
 	 */
 	public static Object tranData(int type, int dbType, ResultSet rs, int index, boolean needTranContent,
 			String dbCharset, String toCharset, boolean bb, String opt) throws Exception {
-		if (dbType == DBTypes.ORACLE && oracleTIMESTAMP == null) {
-			try {
-				oracleTIMESTAMP = Class.forName("oracle.sql.TIMESTAMP");
-				oracleDATE = Class.forName("oracle.sql.DATE");
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-		} else if (dbType == DBTypes.SYBASE && sybaseTIMESTAMP == null) {
-			try {
-				sybaseTIMESTAMP = Class.forName("com.sybase.jdbc2.tds.SybTimestamp");
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
+		Object obj = readData(type, rs, index);
+		return tranObject(obj, dbType, needTranContent, dbCharset, toCharset, bb, opt);
+	}
 
+	/**
+	 * ӽݣת
+	 * @param type	
+	 * @param rs	
+	 * @param index	
+	 * @return
+	 * @throws SQLException
+	 */
+	public static Object readData(int type, ResultSet rs, int index) throws SQLException {
 		Object obj = null;
 		if (type == -1) {
 			Reader rd = rs.getCharacterStream(index);
@@ -2295,6 +2293,38 @@ public class DatabaseUtil {
 		} else {
 			obj = rs.getObject(index);
 		}
+		
+		return obj;
+	}
+
+	/**
+	 * ѴӽתɼʹõͣתֻݵйأҪתķԭ
+	 * @param obj	ӽ
+	 * @param dbType	ݿ
+	 * @param needTranContent	ǷҪתַ
+	 * @param dbCharset	ݿַ
+	 * @param toCharset	նַ
+	 * @param bb	ַǷһ
+	 * @param opt	ѡ
+	 * @return
+	 * @throws Exception
+	 */
+	public static Object tranObject(Object obj, int dbType, boolean needTranContent,
+			String dbCharset, String toCharset, boolean bb, String opt) throws Exception {
+		if (dbType == DBTypes.ORACLE && oracleTIMESTAMP == null) {
+			try {
+				oracleTIMESTAMP = Class.forName("oracle.sql.TIMESTAMP");
+				oracleDATE = Class.forName("oracle.sql.DATE");
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		} else if (dbType == DBTypes.SYBASE && sybaseTIMESTAMP == null) {
+			try {
+				sybaseTIMESTAMP = Class.forName("com.sybase.jdbc2.tds.SybTimestamp");
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
 
 		if (obj == null)
 			return null;
@@ -3815,7 +3845,8 @@ public class DatabaseUtil {
 	 * @param fields	String[] ֶ
 	 * @param fopts	String[] pֶaֶֶ
 	 * @param exps	Expression[] ֵʽ
-	 * @param opt	String tΪǸkɺ״̬
+	 * @param opt	String tΪǸkɺ״̬
+	 * 				i@möӲв룬ÿύʧʱԣĴСִʱkʱm
 	 * @param dbs	DBSession
 	 * @param ctx	Context
 	 * @return int	ӷֵɹ
@@ -3836,6 +3867,7 @@ public class DatabaseUtil {
 		String dbName = "";
 		int batchSize = 1000;
 		PreparedStatement pst = null;
+		DBBulkWriter writer = null;
 
 		try {
 			DBConfig dsConfig = null;
@@ -3912,7 +3944,7 @@ public class DatabaseUtil {
 			String update_sql = "";
 			String insert_sql = "";
 			while (true) {
-				Sequence fetchSeq = cs.fetch(batchSize);
+				Sequence fetchSeq = cs.fetch(writer == null ? batchSize : writer.getBatchSize());
 				if (fetchSeq == null || fetchSeq.length() == 0)
 					break;
 				if (initial) {
@@ -4159,7 +4191,21 @@ public class DatabaseUtil {
 					boolean isAutoDetect = true;
 					if (opt != null) {
 						if (opt.indexOf('i') > -1) {
-							if (initial) {
+							// @kʱɵ߿񣬲ϷύֻõǰӲ
+							if (initial && opt.indexOf('m') > -1 && opt.indexOf('k') < 0) {
+								writer = createBulkWriter(table, fields, ais, toByteArray(insertTypes), dbs, 
+										dbType, dbCharset, tranSQL, dbName, batchSize);
+								if (writer != null) {
+									// ӲǰύձĲ⻥ס
+									con.commit();
+								}
+							}
+							
+							if (writer != null) {
+								Expression[] expParams = new Expression[insertParams.size()];
+								insertParams.toArray(expParams);
+								writer.write(fetchSeq, expParams, ctx);
+							} else if (initial) {
 								try {
 									Logger.debug("Insert-only, preparing insert records: "+insert_sql);
 									pst = con.prepareStatement(insert_sql);
@@ -4172,8 +4218,12 @@ public class DatabaseUtil {
 									}
 								}
 							}
-							executeBatchPst(fetchSeq, pst, insertParams, insertTypes, ctx, dbs, dbCharset, tranSQL,
-									dbType, dbName);
+							
+							if (writer == null) {
+								executeBatchPst(fetchSeq, pst, insertParams, insertTypes, ctx, dbs, dbCharset, tranSQL,
+										dbType, dbName);
+							}
+							
 							isAutoDetect = false;
 						} else if (opt.indexOf('u') > -1) {
 							if (initial) {
@@ -4231,11 +4281,20 @@ public class DatabaseUtil {
 					}
 				}
 			}
+			
+			if (writer != null) {
+				writer.finish();
+				writer = null;
+			}
 		} catch (RQException re) {
 			throw re;
 		} catch (Exception e) {
 			throw new RQException(e.getMessage(), e);
 		} finally {
+			if (writer != null) {
+				writer.close();
+			}
+			
 			try {
 				if (opt == null || opt.indexOf('k') < 0) {
 					con.commit();
@@ -4253,6 +4312,29 @@ public class DatabaseUtil {
 		return 0;// ֪ĳֵ壬ʼշ0 xq 2015.4.21
 	}
 
+	// в󣬲½ʱؿ
+	private static DBBulkWriter createBulkWriter(String table, String[] fields, byte[] ais, byte[] insertTypes,
+			DBSession dbs, int dbType, String dbCharset, boolean tranSQL, String dbName, int batchSize) {
+		ISessionFactory factory = getSessionFactory(dbs);
+		if (factory == null) {
+			return null;
+		}
+		
+		ArrayList<String> insertFields = new ArrayList<String>();
+		for (int i = 0; i < fields.length; i++) {
+			if (ais[i] != Col_AutoIncrement) {
+				insertFields.add(fields[i]);
+			}
+		}
+		
+		String[] names = new String[insertFields.size()];
+		insertFields.toArray(names);
+		int threadCount = Env.getParallelNum();
+		Logger.debug("Bulk insert into " + table + " with " + threadCount + " connections");
+		return new DBBulkWriter(factory, addTilde(table, dbs), names, insertTypes, dbType, dbCharset, 
+				tranSQL, dbName, threadCount, batchSize);
+	}
+
 	/**
 	 * db.update(A:A',tbl,F:x,;P,)ԴкͶԱУݿеtbl
 	 * @param srcSeq	Sequence ԴУtblӻ¼¼
@@ -5730,6 +5812,30 @@ public class DatabaseUtil {
 		executeBatch(pst, valueGroup, types, dbs, dbCharset, tranSQL, dbType, name, true);
 	}
 	
+	/**
+	 * ȡ½dbsͬһݿӵĹڶӲжд
+	 * @param dbs ݿ
+	 * @return ISessionFactoryȡؿ
+	 */
+	public static ISessionFactory getSessionFactory(DBSession dbs) {
+		DBInfo info = dbs == null ? null : dbs.getInfo();
+		if (info == null) {
+			return null;
+		}
+		
+		ISessionFactory factory = info.getName() == null ? null : Env.getDBSessionFactory(info.getName());
+		if (factory != null) {
+			return factory;
+		}
+		
+		try {
+			return info.createSessionFactory();
+		} catch (Exception e) {
+			Logger.debug(e.getMessage());
+			return null;
+		}
+	}
+	
 	/**
 	 * autoDBڸdfxʱӺͷŶõԶԴ
 	 * @param ctx
@@ -151,6 +151,44 @@ public final class HashUtil {
         return (int)(value ^ (value >>> 32));
     }
 
+	/**
+	 * ȡѰַϣĲΪСԪ4/3ʹװӲ0.75ϣ
+	 * @param count Ԫ
+	 * @return new HashUtil(, false)ϣֵ
+	 */
+	public static int getSlotCount(int count) {
+		long c = count * 4L / 3 + 1;
+		for (int i = 0, len = PRIMES.length; i < len; ++i) {
+			if (PRIMES[i] >= c) {
+				return PRIMES[i];
+			}
+		}
+
+		return PRIMES[PRIMES.length - 1];
+	}
+	
+	/**
+	 * intĹϣֵIntegerͬ
+	 * @param value ֵ
+	 * @return ϣֵ
+	 */
+	public int hashInt(int value) {
+		return hash(value);
+	}
+	
+	/**
+	 * longĹϣֵ64λĻϺsplitmix64սắɢλٶȡ
+	 * intƴɵļߵλأLong.hashCodeѸߵλ򣬶Խϵļᶼ䵽һ
+	 * @param value ֵ
+	 * @return ϣֵ
+	 */
+	public int hashLong(long value) {
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+		value ^= value >>> 31;
+		return (int)((value >>> 1) % capacity);
+	}
+
 	private int hash(int h) {
 		h = (h + (h >> 16)) % capacity;
 		if (h > 0) {
@@ -0,0 +1,175 @@
+package com.esproc.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+
+import org.junit.Test;
+
+import com.scudata.dm.Record;
+import com.scudata.dm.Table;
+import com.scudata.dm.cursor.MemoryCursor;
+
+/**
+ * αԤȡĲԣȡֵwasNullisLastlast
+ * @author RunQian
+ *
+ */
+public class ResultSetTest {
+	private static final int FETCH_SIZE = 7;
+
+	// ΪͳϵУǰпֵ
+	private static Table createData(int count) {
+		Table table = new Table(new String[] {"i", "l", "d", "s", "m"}, count);
+		for (int n = 1; n <= count; ++n) {
+			Record r = table.newLast();
+			r.setNormalFieldValue(0, n % 5 == 0 ? null : new Integer(n));
+			r.setNormalFieldValue(1, n % 6 == 0 ? null : new Long(n * 10000000000L));
+			r.setNormalFieldValue(2, n % 4 == 0 ? null : new Double(n + 0.25));
+			r.setNormalFieldValue(3, "s" + n);
+			r.setNormalFieldValue(4, n % 2 == 0 ? (Object)new Integer(n) : (Object)new Long(n));
+		}
+
+		return table;
+	}
+
+	private static ResultSet newResultSet(Table table) throws SQLException {
+		return new ResultSet(new MemoryCursor(table), FETCH_SIZE);
+	}
+
+	// 鵱ǰеֵ¼ͬ
+	private static void assertRow(Record r, ResultSet rs) throws SQLException {
+		Integer i = (Integer)r.getNormalFieldValue(0);
+		assertEquals(i == null ? 0 : i.intValue(), rs.getInt(1));
+		assertEquals(i == null, rs.wasNull());
+		assertEquals(i == null ? 0 : i.longValue(), rs.getLong(1));
+		assertEquals(i == null, rs.wasNull());
+		assertEquals(i, rs.getObject(1));
+		assertEquals(i == null, rs.wasNull());
+
+		Long l = (Long)r.getNormalFieldValue(1);
+		assertEquals(l == null ? 0 : l.longValue(), rs.getLong(2));
+		assertEquals(l == null, rs.wasNull());
+		assertEquals(l, rs.getObject(2));
+
+		Double d = (Double)r.getNormalFieldValue(2);
+		assertEquals(d == null ? 0 : d.doubleValue(), rs.getDouble(3), 0);
+		assertEquals(d == null, rs.wasNull());
+		assertEquals(d == null ? 0 : d.floatValue(), rs.getFloat(3), 0);
+		assertEquals(d == null ? 0 : d.intValue(), rs.getInt(3));
+		assertEquals(d == null, rs.wasNull());
+		assertEquals(d == null ? null : d.toString(), rs.getString(3));
+
+		assertEquals(r.getNormalFieldValue(3), rs.getString(4));
+		assertTrue(!rs.wasNull());
+
+		Number m = (Number)r.getNormalFieldValue(4);
+		assertEquals(m, rs.getObject(5));
+		assertEquals(m.longValue(), rs.getLong(5));
+		assertTrue(!rs.wasNull());
+	}
+
+	private static void assertNext(Table table, int count) throws SQLException {
+		ResultSet rs = newResultSet(table);
+		try {
+			for (int n = 1; n <= count; ++n) {
+				assertTrue(rs.next());
+				assertEquals(n, rs.getRow());
+				assertEquals(n == count, rs.isLast());
+				assertRow((Record)table.getMem(n), rs);
+			}
+
+			assertTrue(!rs.next());
+			assertTrue(rs.isAfterLast());
+		} finally {
+			rs.close();
+		}
+	}
+
+	@Test
+	public void testNext() throws SQLException {
+		assertNext(createData(50), 50);
+	}
+
+	@Test
+	public void testBatchBoundary() throws SQLException {
+		// һ1У֮ÿFETCH_SIZEУһĩβ
+		int count = 1 + FETCH_SIZE * 3;
+		assertNext(createData(count), count);
+		assertNext(createData(1), 1);
+	}
+
+	@Test
+	public void testLast() throws SQLException {
+		Table table = createData(50);
+		ResultSet rs = newResultSet(table);
+		try {
+			assertTrue(rs.next());
+			assertTrue(rs.next());
+			assertTrue(rs.last());
+			assertEquals(50, rs.getRow());
+			assertTrue(rs.isLast());
+			assertRow((Record)table.getMem(50), rs);
+			assertTrue(!rs.next());
+		} finally {
+			rs.close();
+		}
+	}
+
+	@Test
+	public void testAbsolute() throws SQLException {
+		Table table = createData(50);
+		ResultSet rs = newResultSet(table);
+		try {
+			assertTrue(rs.absolute(3));
+			assertRow((Record)table.getMem(3), rs);
+			assertTrue(rs.absolute(20));
+			assertRow((Record)table.getMem(20), rs);
+			assertTrue(rs.relative(25));
+			assertEquals(45, rs.getRow());
+			assertRow((Record)table.getMem(45), rs);
+			assertTrue(!rs.absolute(60));
+		} finally {
+			rs.close();
+		}
+	}
+
+	@Test
+	public void testAfterLast() throws SQLException {
+		ResultSet rs = newResultSet(createData(50));
+		try {
+			assertTrue(rs.next());
+			rs.afterLast();
+			assertTrue(rs.isAfterLast());
+			assertTrue(!rs.next());
+		} finally {
+			rs.close();
+		}
+	}
+
+	@Test
+	public void testEmpty() throws SQLException {
+		ResultSet rs = newResultSet(createData(0));
+		try {
+			assertTrue(!rs.next());
+			assertTrue(!rs.isLast());
+			assertTrue(!rs.last());
+		} finally {
+			rs.close();
+		}
+	}
+
+	@Test
+	public void testNoCurrentRow() throws SQLException {
+		ResultSet rs = newResultSet(createData(3));
+		try {
+			rs.getObject(1);
+			fail();
+		} catch (SQLException e) {
+		} finally {
+			rs.close();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.scudata.app.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Env;
+
+/**
+ * ļвĶд
+ * @author RunQian
+ *
+ */
+public class ConfigUtilTest {
+	private long groupsMemory;
+	private boolean mapGroupTable;
+	private int cursorPrefetchCount;
+	private long prefetchMemory;
+	private int remoteFetchCount;
+	private int dfxCacheSize;
+	private long blockCacheSize;
+
+	@Before
+	public void setUp() {
+		groupsMemory = Env.getGroupsMemory();
+		mapGroupTable = Env.isMapGroupTable();
+		cursorPrefetchCount = Env.getCursorPrefetchCount();
+		prefetchMemory = Env.getPrefetchMemory();
+		remoteFetchCount = Env.getRemoteFetchCount();
+		dfxCacheSize = Env.getDfxCacheSize();
+		blockCacheSize = Env.getBlockCacheSize();
+	}
+
+	@After
+	public void tearDown() {
+		Env.setGroupsMemory(groupsMemory);
+		Env.setMapGroupTable(mapGroupTable);
+		Env.setCursorPrefetchCount(cursorPrefetchCount);
+		Env.setPrefetchMemory(prefetchMemory);
+		Env.setRemoteFetchCount(remoteFetchCount);
+		Env.setDfxCacheSize(dfxCacheSize);
+		Env.setBlockCacheSize(blockCacheSize);
+	}
+
+	@Test
+	public void testParseMemorySize() {
+		assertEquals(100L, ConfigUtil.parseMemorySize("100"));
+		assertEquals(2048L, ConfigUtil.parseMemorySize("2kb"));
+		assertEquals(512L * 1024 * 1024, ConfigUtil.parseMemorySize("512m"));
+		assertEquals(3L * 1024 * 1024 * 1024, ConfigUtil.parseMemorySize("3G"));
+		assertEquals(-1L, ConfigUtil.parseMemorySize(" "));
+		assertEquals(-2L, ConfigUtil.parseMemorySize("abc"));
+		assertEquals(-2L, ConfigUtil.parseMemorySize("-1"));
+	}
+
+	@Test
+	public void testGroupsMemory() throws Exception {
+		RaqsoftConfig config = new RaqsoftConfig();
+		config.setGroupsMemory("1g");
+
+		RaqsoftConfig result = writeAndLoad(config);
+		assertEquals("1g", result.getGroupsMemory());
+		assertEquals("1g", serialize(config).getGroupsMemory());
+
+		ConfigUtil.setConfig(null, null, result, false, false);
+		assertEquals(1024L * 1024 * 1024, Env.getGroupsMemory());
+	}
+
+	@Test
+	public void testMapGroupTable() throws Exception {
+		RaqsoftConfig config = new RaqsoftConfig();
+		config.setMapGroupTable("true");
+
+		RaqsoftConfig result = writeAndLoad(config);
+		assertEquals("true", result.getMapGroupTable());
+		assertEquals("true", serialize(config).getMapGroupTable());
+
+		Env.setMapGroupTable(false);
+		ConfigUtil.setConfig(null, null, result, false, false);
+		assertTrue(Env.isMapGroupTable());
+	}
+
+	@Test
+	public void testPrefetch() throws Exception {
+		RaqsoftConfig config = new RaqsoftConfig();
+		config.setCursorPrefetchCount("4");
+		config.setPrefetchMemory("128m");
+
+		RaqsoftConfig result = writeAndLoad(config);
+		assertEquals("4", result.getCursorPrefetchCount());
+		assertEquals("128m", result.getPrefetchMemory());
+		assertEquals("4", serialize(config).getCursorPrefetchCount());
+		assertEquals("128m", serialize(config).getPrefetchMemory());
+
+		ConfigUtil.setConfig(null, null, result, false, false);
+		assertEquals(4, Env.getCursorPrefetchCount());
+		assertEquals(128L * 1024 * 1024, Env.getPrefetchMemory());
+	}
+
+	@Test
+	public void testRemoteFetchCount() throws Exception {
+		RaqsoftConfig config = new RaqsoftConfig();
+		config.setRemoteFetchCount("5");
+
+		RaqsoftConfig result = writeAndLoad(config);
+		assertEquals("5", result.getRemoteFetchCount());
+		assertEquals("5", serialize(config).getRemoteFetchCount());
+
+		ConfigUtil.setConfig(null, null, result, false, false);
+		assertEquals(5, Env.getRemoteFetchCount());
+	}
+
+	@Test
+	public void testDfxCacheSize() throws Exception {
+		RaqsoftConfig config = new RaqsoftConfig();
+		config.setDfxCacheSize("32");
+
+		RaqsoftConfig result = writeAndLoad(config);
+		assertEquals("32", result.getDfxCacheSize());
+		assertEquals("32", serialize(config).getDfxCacheSize());
+
+		ConfigUtil.setConfig(null, null, result, false, false);
+		assertEquals(32, Env.getDfxCacheSize());
+	}
+
+	@Test
+	public void testBlockCacheSize() throws Exception {
+		RaqsoftConfig config = new RaqsoftConfig();
+		config.setBlockCacheSize("256m");
+
+		RaqsoftConfig result = writeAndLoad(config);
+		assertEquals("256m", result.getBlockCacheSize());
+		assertEquals("256m", serialize(config).getBlockCacheSize());
+
+		ConfigUtil.setConfig(null, null, result, false, false);
+		assertEquals(256L * 1024 * 1024, Env.getBlockCacheSize());
+	}
+
+	// дļٶ
+	static RaqsoftConfig writeAndLoad(RaqsoftConfig config) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ConfigWriter().write(out, config);
+		return ConfigUtil.load(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	// лٷл
+	static RaqsoftConfig serialize(RaqsoftConfig config) throws Exception {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(config);
+		oos.close();
+
+		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+		try {
+			return (RaqsoftConfig)ois.readObject();
+		} finally {
+			ois.close();
+		}
+	}
+}
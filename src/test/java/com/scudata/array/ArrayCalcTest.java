@@ -0,0 +1,137 @@
+package com.scudata.array;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.scudata.common.RQException;
+import com.scudata.util.Variant;
+
+/**
+ * 鰴ĲԣԱVariantһ
+ * @author RunQian
+ *
+ */
+public class ArrayCalcTest {
+	private static void assertSameAsVariant(IArray a, IArray b) {
+		assertSameAsVariant('+', a, b);
+	}
+
+	private static void assertSameAsVariant(char op, IArray a, IArray b) {
+		IArray result;
+		switch (op) {
+		case '+':
+			result = ArrayCalc.add(a, b);
+			break;
+		case '-':
+			result = ArrayCalc.subtract(a, b);
+			break;
+		case '*':
+			result = ArrayCalc.multiply(a, b);
+			break;
+		default:
+			result = ArrayCalc.divide(a, b);
+		}
+
+		for (int i = 1, len = a.size(); i <= len; ++i) {
+			Object expect = calculate(op, a.get(i), b.get(i));
+			Object value = result.get(i);
+			assertEquals("index " + i, expect, value);
+			if (expect != null) {
+				assertEquals("index " + i, expect.getClass(), value.getClass());
+			}
+		}
+	}
+
+	@Test
+	public void testAddWithNull() {
+		IntArray a = new IntArray(4);
+		IntArray b = new IntArray(4);
+		a.add(new Integer(1));
+		b.add(new Integer(2));
+		a.add(null);
+		b.add(new Integer(3));
+		a.add(new Integer(4));
+		b.add(null);
+		a.add(null);
+		b.add(null);
+
+		assertSameAsVariant(a, b);
+		assertSameAsVariant(b, a);
+	}
+
+	@Test
+	public void testAddIntToLongWithNull() {
+		IntArray a = new IntArray(4);
+		LongArray b = new LongArray(4);
+		a.add(new Integer(5));
+		b.add(null);
+		a.add(null);
+		b.add(new Long(7));
+		assertSameAsVariant(a, b);
+
+		DoubleArray c = new DoubleArray(4);
+		c.add(null);
+		c.add(new Double(1.5));
+		assertSameAsVariant(a, c);
+		assertSameAsVariant(new ConstArray(new Integer(3), 2), b);
+	}
+
+	private static Object calculate(char op, Object x, Object y) {
+		switch (op) {
+		case '+':
+			return Variant.add(x, y);
+		case '-':
+			return Variant.subtract(x, y);
+		case '*':
+			return Variant.multiply(x, y);
+		default:
+			return Variant.divide(x, y);
+		}
+	}
+
+	@Test
+	public void testOtherOpsWithNull() {
+		// ֵͲͬ͵ĳԱһʱҪVariantһ
+		IntArray a = new IntArray(4);
+		LongArray b = new LongArray(4);
+		DoubleArray c = new DoubleArray(4);
+		a.add(new Integer(5));
+		b.add(null);
+		c.add(null);
+		a.add(null);
+		b.add(new Long(7));
+		c.add(new Double(1.5));
+		a.add(new Integer(2));
+		b.add(new Long(3));
+		c.add(new Double(0.5));
+
+		char []ops = new char[] {'-', '*', '/'};
+		for (char op : ops) {
+			assertSameAsVariant(op, a, b);
+			assertSameAsVariant(op, b, a);
+			assertSameAsVariant(op, a, c);
+			assertSameAsVariant(op, c, b);
+			assertSameAsVariant(op, new ConstArray(new Integer(3), 3), b);
+		}
+	}
+
+	@Test
+	public void testAddWithoutNull() {
+		IntArray a = new IntArray(4);
+		IntArray b = new IntArray(4);
+		for (int i = 0; i < 100; ++i) {
+			a.add(new Integer(i));
+			b.add(new Integer(Integer.MAX_VALUE - i));
+		}
+
+		IArray result = ArrayCalc.add(a, b);
+		assertEquals(LongArray.class, result.getClass());
+		assertSameAsVariant(a, b);
+	}
+
+	@Test(expected = RQException.class)
+	public void testConstArrayModify() {
+		new ConstArray(new Integer(1), 3).set(1, new Integer(2));
+	}
+}
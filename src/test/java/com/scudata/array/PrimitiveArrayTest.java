@@ -0,0 +1,69 @@
+package com.scudata.array;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Ŀֵλͼ
+ * @author RunQian
+ *
+ */
+public class PrimitiveArrayTest {
+	// ÿֵ׷ԪأλóλͼķΧ
+	@Test
+	public void testAddAfterNull() {
+		IntArray array = new IntArray(4);
+		array.add(null);
+		for (int i = 1; i <= 1000; ++i) {
+			array.add(new Integer(i));
+		}
+
+		assertEquals(1001, array.size());
+		assertEquals(1000, array.count());
+		assertTrue(array.isNull(1));
+		for (int i = 2; i <= 1001; ++i) {
+			assertFalse(array.isNull(i));
+			assertEquals(new Integer(i - 1), array.get(i));
+		}
+
+		assertEquals(new Integer(1000), array.max());
+		assertEquals(new Integer(1), array.min());
+		assertEquals(new Long(500500), array.sum());
+	}
+
+	@Test
+	public void testSetNullAtEnd() {
+		LongArray array = new LongArray(4);
+		for (int i = 1; i <= 200; ++i) {
+			array.add(new Long(i));
+		}
+
+		array.set(200, null);
+		array.set(1, null);
+		assertEquals(198, array.count());
+		assertEquals(new Long(199), array.max());
+		assertEquals(new Long(2), array.min());
+
+		array.set(200, new Long(-5));
+		assertFalse(array.isNull(200));
+		assertEquals(new Long(-5), array.min());
+	}
+
+	@Test
+	public void testAllNull() {
+		DoubleArray array = new DoubleArray(2);
+		for (int i = 0; i < 100; ++i) {
+			array.add(null);
+		}
+
+		assertEquals(0, array.count());
+		assertNull(array.max());
+		assertNull(array.min());
+		assertNull(array.sum());
+		assertNull(array.average());
+	}
+}
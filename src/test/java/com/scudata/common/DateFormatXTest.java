@@ -0,0 +1,47 @@
+package com.scudata.common;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.UnsupportedEncodingException;
+
+import org.junit.Test;
+
+/**
+ * ֽڵĲԣӴͬ
+ * @author RunQian
+ *
+ */
+public class DateFormatXTest {
+	private static final String []PATTERNS = new String[] {
+		"yyyy-MM-dd", "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss.SSS", "HH:mm:ss",
+		"yyyyMMdd", "yyyyMMdd", "yy-MM-dd"
+	};
+
+	private static final String []TEXTS = new String[] {
+		"2024-03-15", "2024-03-15 ", "2024-03-15\t", "2024-03-15x", "2024-3-5", "2024-13-40",
+		"2024-03-15 08:09:10", "2024-03-15 08:09:10 ", "2024-03-15 8:9:10", "2024-03-15 08:09",
+		"2024/03/15 08:09:10.123", "2024/03/15 08:09:10.5", "08:09:10", "23:59:59  ",
+		"20240315", "2024315 ", "20240315", "24-03-15", " 2024-03-15",
+		"2024-03-15", "abc", "", "-", "2024--03-15", "2024-03-"
+	};
+
+	private static void assertSameAsString(DateFormatX fmt, String text) throws UnsupportedEncodingException {
+		Object expected = fmt.parse(text);
+		byte []bytes = text.getBytes("UTF-8");
+		assertEquals(fmt.toPattern() + ": " + text, expected, fmt.parse(bytes, 0, bytes.length, "UTF-8"));
+
+		// ڻм
+		byte []buffer = ("12," + text + ",34").getBytes("UTF-8");
+		assertEquals(fmt.toPattern() + ": " + text, expected, fmt.parse(buffer, 3, 3 + bytes.length, "UTF-8"));
+	}
+
+	@Test
+	public void testParseBytes() throws UnsupportedEncodingException {
+		for (String pattern : PATTERNS) {
+			DateFormatX fmt = new DateFormatX(pattern);
+			for (String text : TEXTS) {
+				assertSameAsString(fmt, text);
+			}
+		}
+	}
+}
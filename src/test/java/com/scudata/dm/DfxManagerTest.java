@@ -0,0 +1,83 @@
+package com.scudata.dm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.cellset.datamodel.PgmCellSet;
+import com.scudata.util.CellSetUtil;
+
+/**
+ * dfxĸṷ́
+ * @author RunQian
+ *
+ */
+public class DfxManagerTest {
+	private int dfxCacheSize;
+	private ArrayList<File> files = new ArrayList<File>();
+	private Context ctx = new Context();
+
+	@Before
+	public void setUp() {
+		dfxCacheSize = Env.getDfxCacheSize();
+		DfxManager.getInstance().clear();
+	}
+
+	@After
+	public void tearDown() {
+		DfxManager.getInstance().clear();
+		Env.setDfxCacheSize(dfxCacheSize);
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	private FileObject createDfx() throws Exception {
+		PgmCellSet pcs = new PgmCellSet(1, 1);
+		pcs.getPgmNormalCell(1, 1).setExpString("=1+1");
+		File file = File.createTempFile("dfx", ".splx");
+		files.add(file);
+		CellSetUtil.writePgmCellSet(file.getAbsolutePath(), pcs);
+		return new FileObject(file.getAbsolutePath(), null, "s", ctx);
+	}
+
+	@Test
+	public void testReuse() throws Exception {
+		Env.setDfxCacheSize(4);
+		DfxManager manager = DfxManager.getInstance();
+		FileObject fo = createDfx();
+		PgmCellSet pcs = manager.removeDfx(fo, ctx);
+		manager.putDfx(pcs);
+		
+		// ۼƵģclear
+		long hitCount = manager.getHitCount();
+		assertSame(pcs, manager.removeDfx(fo, ctx));
+		assertEquals(hitCount + 1, manager.getHitCount());
+		manager.putDfx(pcs);
+	}
+
+	@Test
+	public void testEvictWhileInUse() throws Exception {
+		// ûõļĳȡʱ̭ܳ
+		Env.setDfxCacheSize(1);
+		DfxManager manager = DfxManager.getInstance();
+		FileObject a = createDfx();
+		FileObject b = createDfx();
+		FileObject c = createDfx();
+
+		manager.putDfx(manager.removeDfx(a, ctx));
+		PgmCellSet pcsA = manager.removeDfx(a, ctx);
+		manager.putDfx(manager.removeDfx(b, ctx));
+		manager.putDfx(manager.removeDfx(c, ctx));
+		assertEquals(1, manager.getCacheCount());
+
+		manager.putDfx(pcsA);
+		assertEquals(1, manager.getCacheCount());
+	}
+}
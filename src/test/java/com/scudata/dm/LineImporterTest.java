@@ -0,0 +1,224 @@
+package com.scudata.dm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.cursor.FileCursor;
+
+/**
+ * ıļֶεĲԣ@oѡʱڵĻк@lѡʱвᱻ
+ * ԼֱֽӽĲԣDouble.parseDoubleͬ
+ * @author RunQian
+ *
+ */
+public class LineImporterTest {
+	private static final int COUNT = 2000;
+	private static final int SEG_COUNT = 7;
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("segment", ".csv");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	// ÿ3һеıֶںлСźת
+	private byte[] writeQuoteFile() throws IOException {
+		StringBuffer sb = new StringBuffer("id,text,amount\n");
+		for (int i = 1; i <= COUNT; ++i) {
+			sb.append(i).append(',');
+			if (i % 3 == 0) {
+				sb.append("\"line").append(i).append("\nnext,\"\"q\"\"\r\nend\"");
+			} else {
+				sb.append("plain").append(i);
+			}
+
+			sb.append(',').append(i * 1.5).append(i % 5 == 0 ? "\r\n" : "\n");
+		}
+
+		return write(sb.toString());
+	}
+
+	// ÿ4һβ\һ
+	private byte[] writeContinueFile() throws IOException {
+		StringBuffer sb = new StringBuffer("id,text,amount\n");
+		for (int i = 1; i <= COUNT; ++i) {
+			sb.append(i).append(",text").append(i);
+			if (i % 4 == 0) {
+				sb.append("\\\nmore");
+			}
+
+			sb.append(',').append(i).append('\n');
+		}
+
+		return write(sb.toString());
+	}
+
+	private byte[] write(String str) throws IOException {
+		byte []bytes = str.getBytes("UTF-8");
+		FileOutputStream os = new FileOutputStream(file);
+		try {
+			os.write(bytes);
+		} finally {
+			os.close();
+		}
+
+		return bytes;
+	}
+
+	// ȡҲеλ
+	private static Set<Long> getLineStarts(byte []bytes, boolean isQuote, boolean isContinue) {
+		Set<Long> starts = new HashSet<Long>();
+		boolean inQuote = false;
+		for (int i = 0; i < bytes.length; ++i) {
+			if (isQuote && bytes[i] == '"') {
+				inQuote = !inQuote;
+			} else if (bytes[i] == '\n' && !inQuote) {
+				int prev = i > 0 && bytes[i - 1] == '\r' ? i - 2 : i - 1;
+				if (!isContinue || prev < 0 || bytes[prev] != '\\') {
+					starts.add(new Long(i + 1));
+				}
+			}
+		}
+
+		return starts;
+	}
+
+	private void assertSegmentEnds(byte []bytes, String opt, boolean isQuote, boolean isContinue) throws IOException {
+		// СпԽ
+		LineImporter importer = new LineImporter(new FileInputStream(file), "UTF-8", new byte[] {','}, opt, 64);
+		try {
+			assertTrue(importer.skipLine());
+			long []ends = importer.getSegmentEnds(SEG_COUNT, bytes.length);
+			Set<Long> starts = getLineStarts(bytes, isQuote, isContinue);
+			assertEquals(SEG_COUNT, ends.length);
+			assertEquals(bytes.length, ends[SEG_COUNT - 1]);
+			for (int i = 0; i < SEG_COUNT - 1; ++i) {
+				assertTrue("end " + ends[i] + " is not at line start", starts.contains(new Long(ends[i])));
+				assertTrue(ends[i] >= (long)bytes.length / SEG_COUNT * (i + 1));
+				assertTrue(i == 0 || ends[i] > ends[i - 1]);
+			}
+		} finally {
+			importer.close();
+		}
+	}
+
+	// ֶζĸƴӺ벻ֶζͬ
+	private void assertSegmentCursors(String opt) {
+		Context ctx = new Context();
+		FileObject fo = new FileObject(file.getAbsolutePath());
+		Sequence expected = new FileCursor(fo, 1, 1, ",", opt, ctx).fetch();
+		assertEquals(COUNT, expected.length());
+
+		FileCursor []cursors = FileCursor.createSegmentCursors(fo, SEG_COUNT, null, null, null, ",", opt, ctx);
+		Sequence result = new Sequence();
+		for (FileCursor cs : cursors) {
+			Sequence seq = cs.fetch();
+			if (seq != null) {
+				result.addAll(seq);
+			}
+		}
+
+		assertEquals(expected.length(), result.length());
+		for (int i = 1; i <= COUNT; ++i) {
+			Record r1 = (Record)expected.getMem(i);
+			Record r2 = (Record)result.getMem(i);
+			for (int f = 0; f < 3; ++f) {
+				assertEquals(r1.getNormalFieldValue(f), r2.getNormalFieldValue(f));
+			}
+		}
+	}
+
+	@Test
+	public void testQuoteSegmentEnds() throws IOException {
+		byte []bytes = writeQuoteFile();
+		assertSegmentEnds(bytes, "o", true, false);
+	}
+
+	@Test
+	public void testContinueSegmentEnds() throws IOException {
+		byte []bytes = writeContinueFile();
+		assertSegmentEnds(bytes, "l", false, true);
+	}
+
+	@Test
+	public void testQuoteSegmentCursors() throws IOException {
+		writeQuoteFile();
+		assertSegmentCursors("tcoq");
+	}
+
+	@Test
+	public void testContinueSegmentCursors() throws IOException {
+		writeContinueFile();
+		assertSegmentCursors("tcl");
+	}
+
+	// ٽܴķֵDouble.parseDoubleͬ
+	private static Double assertParseDouble(String str) throws IOException {
+		byte []bytes = ("," + str + ",").getBytes("UTF-8");
+		Double d = LineImporter.parseDouble(bytes, 1, bytes.length - 1);
+		if (d != null) {
+			assertEquals(str, Double.doubleToLongBits(Double.parseDouble(str)), Double.doubleToLongBits(d.doubleValue()));
+		}
+
+		return d;
+	}
+
+	@Test
+	public void testParseDouble() throws IOException {
+		String []strs = new String[] {"0", "-0", "+1.5", "1.", ".5", "-.5", "0.1", "0.3", "2.9999999",
+				"123456789012345", "12345678901234.5", "0.00000000000001", "999999999999999"};
+		for (String str : strs) {
+			assertNotNull(str, assertParseDouble(str));
+		}
+
+		// ѧЧ̫ͲFloatingDecimal
+		strs = new String[] {"1e5", "1.5E-3", "1234567890123456", "0.000000000000001", "1.2.3",
+				"abc", "-", ".", "+", "1,000", "1 5", "0x10", "NaN", "Infinity"};
+		for (String str : strs) {
+			assertNull(str, assertParseDouble(str));
+		}
+	}
+
+	@Test
+	public void testParseRandomDouble() throws IOException {
+		Random random = new Random(18);
+		for (int n = 0; n < 200000; ++n) {
+			int digitCount = random.nextInt(15) + 1;
+			StringBuffer sb = new StringBuffer();
+			if (random.nextInt(3) == 0) {
+				sb.append('-');
+			}
+
+			int point = random.nextInt(digitCount + 1);
+			for (int i = 0; i < digitCount; ++i) {
+				if (i == point) {
+					sb.append('.');
+				}
+
+				sb.append((char)('0' + random.nextInt(10)));
+			}
+
+			assertNotNull(sb.toString(), assertParseDouble(sb.toString()));
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.scudata.dm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.scudata.util.HashUtil;
+
+/**
+ * ĿѰַϣ
+ * @author RunQian
+ *
+ */
+public class LongHashIndexTableTest {
+	private static final int SIZE = 300;
+
+	@Test
+	public void testPackedKeySpread() {
+		// intƴɵļߵ32λͬʱǰ䵽ͬһ
+		int count = 10000;
+		int slotCount = HashUtil.getSlotCount(count);
+		HashUtil hashUtil = new HashUtil(slotCount, false);
+		boolean []used = new boolean[slotCount];
+		int distinct = 0;
+		for (int i = 0; i < count; ++i) {
+			long key = ((long)i << 32) | i;
+			int slot = hashUtil.hashLong(key);
+			assertTrue(slot >= 0 && slot < slotCount);
+			if (!used[slot]) {
+				used[slot] = true;
+				distinct++;
+			}
+		}
+
+		assertTrue(distinct > count / 2);
+	}
+
+	@Test
+	public void testTwoIntKeys() {
+		int count = SIZE * SIZE;
+		Table table = new Table(new String[] {"k1", "k2"}, count);
+		Object []keys1 = new Object[count];
+		Object []keys2 = new Object[count];
+		int n = 0;
+		for (int i = 0; i < SIZE; ++i) {
+			for (int j = 0; j < SIZE; ++j) {
+				Record r = table.newLast();
+				r.setNormalFieldValue(0, new Integer(i));
+				r.setNormalFieldValue(1, new Integer(j));
+				keys1[n] = new Integer(i);
+				keys2[n] = new Integer(j);
+				n++;
+			}
+		}
+
+		LongHashIndexTable it = new LongHashIndexTable(count);
+		assertTrue(it.tryCreate(table, keys1, keys2));
+
+		for (int i = 0; i < SIZE; ++i) {
+			for (int j = 0; j < SIZE; ++j) {
+				Record r = (Record)it.find(new Object[] {new Integer(i), new Integer(j)});
+				assertSame(table.getMem(i * SIZE + j + 1), r);
+			}
+		}
+
+		assertNull(it.find(new Object[] {new Integer(SIZE), new Integer(0)}));
+		assertNull(it.find(new Object[] {new Integer(-1), new Integer(-1)}));
+	}
+
+	@Test
+	public void testLongKeys() {
+		int count = 10000;
+		Table table = new Table(new String[] {"k"}, count);
+		Object []keys = new Object[count];
+		for (int i = 0; i < count; ++i) {
+			// ֻи32λͬļ
+			Long key = new Long((long)i << 32);
+			table.newLast().setNormalFieldValue(0, key);
+			keys[i] = key;
+		}
+
+		LongHashIndexTable it = new LongHashIndexTable(count);
+		assertTrue(it.tryCreate(table, keys));
+		for (int i = 0; i < count; ++i) {
+			assertEquals(i + 1, it.findSeq(keys[i]));
+		}
+
+		assertEquals(-1, it.findSeq(new Long(1)));
+	}
+}
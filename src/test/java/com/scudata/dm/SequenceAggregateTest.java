@@ -0,0 +1,80 @@
+package com.scudata.dm;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Timestamp;
+
+import org.junit.Test;
+
+import com.scudata.cellset.datamodel.PgmCellSet;
+import com.scudata.expression.Expression;
+
+/**
+ * оۺϺĲԣȼԱپۺһ
+ * @author RunQian
+ *
+ */
+public class SequenceAggregateTest {
+	private static final String []FUNCTIONS = new String[] {"sum", "avg", "max", "min"};
+	private static final String []EXPS = new String[] {"x", "x*2", "x+y", "x-y", "x/2", "-x", "x>y"};
+
+	private static Object calculate(Table table, String exp) {
+		Context ctx = new Context();
+		ctx.setParamValue("T", table);
+		return new Expression(new PgmCellSet(1, 1), ctx, exp).calculate(ctx);
+	}
+
+	private static void assertSameAsBoxed(Table table) {
+		for (String fn : FUNCTIONS) {
+			for (String exp : EXPS) {
+				// T.(x).fn()ÿԱֵپۺ
+				Object expect = calculate(table, "T.(" + exp + ")." + fn + "()");
+				Object value = calculate(table, "T." + fn + "(" + exp + ")");
+				String msg = fn + "(" + exp + ")";
+				assertEquals(msg, expect, value);
+				if (expect != null) {
+					assertEquals(msg, expect.getClass(), value.getClass());
+				}
+			}
+		}
+	}
+
+	private static Table createTable(Object []xs, Object []ys) {
+		Table table = new Table(new String[] {"x", "y"});
+		for (int i = 0; i < xs.length; ++i) {
+			table.newLast(new Object[] {xs[i], ys[i]});
+		}
+
+		return table;
+	}
+
+	@Test
+	public void testInt() {
+		assertSameAsBoxed(createTable(new Object[] {1, 5, 3, -2}, new Object[] {4, 2, 6, 8}));
+	}
+
+	@Test
+	public void testWithNull() {
+		assertSameAsBoxed(createTable(new Object[] {null, 5, null, 7}, new Object[] {4L, null, 6L, null}));
+		assertSameAsBoxed(createTable(new Object[] {null, null}, new Object[] {1.5, null}));
+	}
+
+	@Test
+	public void testSingleAndEmpty() {
+		assertSameAsBoxed(createTable(new Object[] {3}, new Object[] {2}));
+		assertSameAsBoxed(createTable(new Object[0], new Object[0]));
+	}
+
+	@Test
+	public void testDouble() {
+		assertSameAsBoxed(createTable(new Object[] {1.25, 2.5, -3.75}, new Object[] {1, 2L, 0.5}));
+	}
+
+	@Test
+	public void testDate() {
+		Table table = createTable(new Object[] {new Timestamp(2000), null, new Timestamp(1000)},
+				new Object[] {1, 2, 3});
+		assertEquals(calculate(table, "T.(x).max()"), calculate(table, "T.max(x)"));
+		assertEquals(calculate(table, "T.(x).min()"), calculate(table, "T.min(x)"));
+	}
+}
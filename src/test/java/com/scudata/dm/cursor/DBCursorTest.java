@@ -0,0 +1,201 @@
+package com.scudata.dm.cursor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.common.DBConfig;
+import com.scudata.common.DBSession;
+import com.scudata.common.DBSessionFactory;
+import com.scudata.dm.Context;
+import com.scudata.dm.DBObject;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+
+/**
+ * ݿα갴ֵΧֶεĲԣֶεͷֶκĽ벻ֶεͬ
+ * @author RunQian
+ *
+ */
+public class DBCursorTest {
+	private static final int COUNT = 1000;
+
+	private Context ctx;
+	private DBSessionFactory factory;
+	private DBSession session; // DBSessionʱرӣҪ
+	private Connection conn;
+
+	@Before
+	public void setUp() throws Exception {
+		DBConfig cfg = new DBConfig();
+		cfg.setDriver("org.hsqldb.jdbcDriver");
+		cfg.setUrl("jdbc:hsqldb:mem:rangetest");
+		cfg.setUser("SA");
+		cfg.setPassword("");
+		factory = new DBSessionFactory(cfg);
+		ctx = new Context();
+
+		// ڴʱһֱڣ½ܿͬ
+		session = factory.getSession();
+		conn = (Connection)session.getSession();
+		Statement st = conn.createStatement();
+		st.execute("create table T(ID int, K int, D timestamp, V varchar(20))");
+		st.close();
+
+		PreparedStatement pst = conn.prepareStatement("insert into T values(?,?,?,?)");
+		for (int i = 0; i < COUNT; ++i) {
+			pst.setInt(1, i);
+			if (i % 10 == 0) {
+				pst.setNull(2, java.sql.Types.INTEGER);
+			} else {
+				pst.setInt(2, (i * 7) % 300 - 50);
+			}
+
+			pst.setTimestamp(3, new Timestamp(1600000000000L + i * 3600000L));
+			pst.setString(4, "v" + i);
+			pst.addBatch();
+		}
+
+		pst.executeBatch();
+		pst.close();
+		conn.commit();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Statement st = conn.createStatement();
+		st.execute("drop table T");
+		st.close();
+		conn.commit();
+		session.close();
+	}
+
+	@Test
+	public void testIntegralBounds() {
+		assertBounds(new Object[] {25L, 50L, 75L}, DBCursor.getRangeBounds(0, 100, 4));
+		assertBounds(new Object[] {-3L, 0L, 4L}, DBCursor.getRangeBounds(-7L, 7L, 4));
+
+		// ֵȶСʱȥظķֶε
+		assertBounds(new Object[] {1L, 2L}, DBCursor.getRangeBounds(0, 2, 8));
+		assertBounds(new Object[] {1L}, DBCursor.getRangeBounds(0, 1, 4));
+
+		// Сλ0BigDecimal
+		assertBounds(new Object[] {15L}, DBCursor.getRangeBounds(new BigDecimal("10.00"), new BigDecimal("20"), 2));
+	}
+
+	@Test
+	public void testDecimalBounds() {
+		assertBounds(new Object[] {0.25, 0.5, 0.75}, DBCursor.getRangeBounds(0.0, 1.0, 4));
+		assertBounds(new Object[] {1.25}, DBCursor.getRangeBounds(new BigDecimal("1.0"), new BigDecimal("1.5"), 2));
+	}
+
+	@Test
+	public void testDateBounds() {
+		Timestamp min = new Timestamp(1000);
+		Timestamp max = new Timestamp(1003);
+		assertBounds(new Object[] {new Timestamp(1001), new Timestamp(1002), new Timestamp(1003)},
+				DBCursor.getRangeBounds(min, max, 4));
+		assertBounds(new Object[] {new Timestamp(1002)},
+				DBCursor.getRangeBounds(new java.sql.Date(1000), new java.sql.Date(1003), 2));
+	}
+
+	@Test
+	public void testNoBounds() {
+		assertNull(DBCursor.getRangeBounds(5, 5, 4));
+		assertNull(DBCursor.getRangeBounds("a", "z", 4));
+		assertNull(DBCursor.getRangeBounds(1, new Timestamp(2), 4));
+		assertNull(DBCursor.getRangeBounds(null, null, 4));
+	}
+
+	@Test
+	public void testBoundsInRange() {
+		// ֶεϸ(min, max]
+		long []mins = new long[] {0, -100, 3, 1L << 40};
+		long []maxs = new long[] {7, 100, 1000003, (1L << 40) + 9};
+		for (int i = 0; i < mins.length; ++i) {
+			for (int segCount = 2; segCount <= 16; ++segCount) {
+				Object []bounds = DBCursor.getRangeBounds(mins[i], maxs[i], segCount);
+				long prev = mins[i];
+				assertTrue(bounds.length < segCount);
+				for (Object bound : bounds) {
+					long value = (Long)bound;
+					assertTrue(value > prev && value <= maxs[i]);
+					prev = value;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRangeCursor() throws Exception {
+		assertRangeCursor("select * from T", "ID", 4);
+		assertRangeCursor("select * from T", "K", 5);
+		assertRangeCursor("select * from T", "D", 3);
+
+		// ķΧֶܷʱһα
+		assertRangeCursor("select * from T where ID=3", "ID", 4);
+		assertRangeCursor("select * from T", "V", 4);
+	}
+
+	@Test
+	public void testRangeCursorParams() throws Exception {
+		// ֶĲԭв
+		String sql = "select * from T where ID>=? and V<>?";
+		Object []params = new Object[] {100, "v500"};
+		DBObject db = new DBObject(factory, null, ctx);
+		try {
+			Sequence expected = new DBCursor(sql, params, null, db, null, ctx).fetch();
+			Sequence result = DBCursor.createRangeCursor(sql, params, null, db, "K", 4, 0, null, ctx).fetch();
+			assertEquals(COUNT - 101, expected.length());
+			assertSameRows(expected, result);
+		} finally {
+			db.close();
+		}
+	}
+
+	private void assertRangeCursor(String sql, String key, int segCount) throws Exception {
+		DBObject db = new DBObject(factory, null, ctx);
+		try {
+			Sequence expected = new DBCursor(sql, null, null, db, null, ctx).fetch();
+			ICursor cs = DBCursor.createRangeCursor(sql, null, null, db, key, segCount, 100, null, ctx);
+			assertSameRows(expected, cs.fetch());
+		} finally {
+			db.close();
+		}
+	}
+
+	// εкһ벻ֶεͬȽ˳
+	private static void assertSameRows(Sequence expected, Sequence result) {
+		assertEquals(expected.length(), result.length());
+		assertEquals(getIds(expected), getIds(result));
+	}
+
+	private static ArrayList<Integer> getIds(Sequence seq) {
+		ArrayList<Integer> ids = new ArrayList<Integer>();
+		for (int i = 1, len = seq.length(); i <= len; ++i) {
+			ids.add(((Number)((Record)seq.getMem(i)).getFieldValue("ID")).intValue());
+		}
+
+		Collections.sort(ids);
+		return ids;
+	}
+
+	private static void assertBounds(Object []expected, Object []bounds) {
+		assertEquals(expected.length, bounds.length);
+		for (int i = 0; i < expected.length; ++i) {
+			assertEquals(expected[i], bounds[i]);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.scudata.dm.op;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Context;
+import com.scudata.dm.Env;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.dm.cursor.ICursor;
+import com.scudata.dm.cursor.MemoryCursor;
+import com.scudata.expression.Expression;
+
+/**
+ * ڴĲԣ벻ʱһ
+ * @author RunQian
+ *
+ */
+public class GroupsResultTest {
+	private static final int COUNT = 20000;
+	private long oldMemory;
+
+	@Before
+	public void setUp() {
+		oldMemory = Env.getGroupsMemory();
+	}
+
+	@After
+	public void tearDown() {
+		Env.setGroupsMemory(oldMemory);
+	}
+
+	private static Table createTable() {
+		Table table = new Table(new String[] {"k", "v"});
+		for (int i = 0; i < COUNT; ++i) {
+			table.newLast(new Object[] {(i * 7919) % 5000, i});
+		}
+
+		return table;
+	}
+
+	private static GroupsResult groups(Table table, String opt, long memory) {
+		Env.setGroupsMemory(memory);
+		Context ctx = new Context();
+		Expression []exps = new Expression[] {new Expression(ctx, "k")};
+		Expression []calcExps = new Expression[] {new Expression(ctx, "sum(v)"), new Expression(ctx, "count(v)")};
+		GroupsResult groups = new GroupsResult(exps, new String[] {"k"}, calcExps, new String[] {"s", "c"}, opt, ctx);
+		groups.push(new MemoryCursor(table));
+		return groups;
+	}
+
+	private static Table fetchAll(ICursor cursor) {
+		Sequence seq = cursor.fetch();
+		cursor.close();
+		Table table = new Table(new String[] {"k", "s", "c"});
+		for (int i = 1, len = seq.length(); i <= len; ++i) {
+			table.newLast(((Record)seq.getMem(i)).getFieldValues());
+		}
+
+		return table;
+	}
+
+	private static void sortByKey(Table table) {
+		table.sortFields(new int[] {0});
+	}
+
+	@Test
+	public void testSpillTable() {
+		Table table = createTable();
+		Table expect = groups(table, null, 0).getResultTable();
+		
+		// һĽҲޣҪٷ
+		Table result = groups(table, null, 4096).getResultTable();
+		assertEquals(5000, expect.length());
+		assertEquals(expect.toExportString(), result.toExportString());
+	}
+
+	@Test
+	public void testSpillCursor() {
+		Table table = createTable();
+		Table expect = groups(table, null, 0).getResultTable();
+		Table result = fetchAll(groups(table, null, 4096).getResultCursor());
+		assertEquals(expect.toExportString(), result.toExportString());
+	}
+
+	@Test
+	public void testSpillCursorUnsorted() {
+		Table table = createTable();
+		Table expect = groups(table, null, 0).getResultTable();
+		Table result = fetchAll(groups(table, "u", 4096).getResultCursor());
+		assertEquals(expect.length(), result.length());
+		sortByKey(result);
+		assertEquals(expect.toExportString(), result.toExportString());
+	}
+
+	@Test
+	public void testNoSpillCursor() {
+		Table table = createTable();
+		Table expect = groups(table, null, 0).getResultTable();
+		ICursor cursor = groups(table, null, 1L << 30).getResultCursor();
+		assertTrue(cursor instanceof MemoryCursor);
+		assertEquals(expect.toExportString(), fetchAll(cursor).toExportString());
+	}
+}
@@ -0,0 +1,88 @@
+package com.scudata.dm.op;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.scudata.cellset.datamodel.PgmCellSet;
+import com.scudata.dm.Context;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.expression.Expression;
+
+/**
+ * α긽ֶεĲԣҼһ
+ * @author RunQian
+ *
+ */
+public class OperationTest {
+	private static Sequence calculate(String exp) {
+		return calculate(exp, new Context());
+	}
+
+	private static Sequence calculate(String exp, Context ctx) {
+		Table table = new Table(new String[] {"x"});
+		for (int i = 1; i <= 3; ++i) {
+			table.newLast(new Object[] {i});
+		}
+
+		// 2¼yֱȽϻ
+		Table mixed = new Table(new String[] {"x", "y"});
+		mixed.newLast(new Object[] {1, 1});
+		mixed.newLast(new Object[] {2, "s"});
+		mixed.newLast(new Object[] {3, 3});
+
+		ctx.setParamValue("T", table);
+		ctx.setParamValue("U", mixed);
+		return (Sequence)new Expression(new PgmCellSet(1, 1), ctx, exp).calculate(ctx);
+	}
+
+	@Test
+	public void testNewWithAssign() {
+		// ڶֶҪڵһֶεĸֵ֮
+		Sequence result = calculate("T.cursor().new(~.x=~.x+1:a, x*10:b).fetch()");
+		assertEquals("[{\"a\":2,\"b\":20},{\"a\":3,\"b\":30},{\"a\":4,\"b\":40}]", result.toExportString());
+	}
+
+	@Test
+	public void testDeriveWithAssign() {
+		// ԭֶڼֶǰ
+		Sequence result = calculate("T.cursor().derive(~.x=~.x+1:a, x*10:b).fetch()");
+		assertEquals("[{\"x\":1,\"a\":2,\"b\":20},{\"x\":2,\"a\":3,\"b\":30},{\"x\":3,\"a\":4,\"b\":40}]",
+				result.toExportString());
+	}
+
+	@Test
+	public void testNewAllBatch() {
+		Sequence result = calculate("T.cursor().new(x+1:a, x*10:b).fetch()");
+		assertEquals("[{\"a\":2,\"b\":10},{\"a\":3,\"b\":20},{\"a\":4,\"b\":30}]", result.toExportString());
+	}
+
+	@Test
+	public void testAndSideEffect() {
+		// ҲиֵʱֵֻΪļ¼
+		Context ctx = new Context();
+		ctx.setParamValue("n", 0);
+		Sequence result = calculate("T.cursor().select(x>1 && (n=n+1)>0).fetch()", ctx);
+		assertEquals(2, result.length());
+		assertEquals(2, ((Number)ctx.getParam("n").getValue()).intValue());
+	}
+
+	@Test
+	public void testOrSideEffect() {
+		Context ctx = new Context();
+		ctx.setParamValue("n", 0);
+		Sequence result = calculate("T.cursor().select(x==1 || (n=n+1)>1).fetch()", ctx);
+		assertEquals(2, result.length());
+		assertEquals(2, ((Number)ctx.getParam("n").getValue()).intValue());
+	}
+
+	@Test
+	public void testAndRightError() {
+		// ҲԲҪļ¼ʱͬ
+		Sequence result = calculate("U.cursor().select(x!=2 && y>1).fetch()");
+		assertEquals("[{\"x\":3,\"y\":3}]", result.toExportString());
+		result = calculate("U.cursor().select(x==2 || y>2).fetch()");
+		assertEquals("[{\"x\":2,\"y\":\"s\"},{\"x\":3,\"y\":3}]", result.toExportString());
+	}
+}
@@ -0,0 +1,213 @@
+package com.scudata.dw;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Context;
+import com.scudata.dm.Env;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.dm.cursor.MemoryCursor;
+
+/**
+ * 黺ʧЧͷźͶݿʱʹõĲ
+ * @author RunQian
+ *
+ */
+public class BlockCacheTest {
+	private long blockCacheSize;
+	private Context ctx;
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		blockCacheSize = Env.getBlockCacheSize();
+		Env.setBlockCacheSize(64L * 1024 * 1024);
+		ctx = new Context();
+		file = File.createTempFile("cache", ".ctx");
+	}
+
+	@After
+	public void tearDown() {
+		Env.setBlockCacheSize(blockCacheSize);
+		BlockCache.clear();
+		file.delete();
+	}
+
+	@Test
+	public void testDisabled() throws IOException {
+		Env.setBlockCacheSize(0);
+		GroupTable gt = createTable(0, 1000, false);
+
+		// ʱдļ¼ļĸд
+		String path = file.getAbsolutePath();
+		assertEquals(path + "|0|1|2", BlockCache.getFileKey(path, 1, 2));
+		gt.close();
+	}
+
+	@Test
+	public void testReleaseOnClose() throws IOException {
+		String path = file.getAbsolutePath();
+		GroupTable gt = createTable(0, 1000, false);
+		assertTrue(!BlockCache.getFileKey(path, 1, 2).equals(path + "|0|1|2"));
+
+		gt.close();
+		assertEquals(path + "|0|1|2", BlockCache.getFileKey(path, 1, 2));
+	}
+
+	@Test
+	public void testAppendAfterRead() throws IOException {
+		createTable(0, 1000);
+		GroupTable gt = GroupTable.open(file, ctx);
+		try {
+			assertEquals(1000, gt.getBaseTable().cursor().fetch().length());
+			assertEquals(1000, gt.getBaseTable().cursor().fetch().length());
+			assertTrue(BlockCache.getHitCount() > 0);
+
+			gt.getBaseTable().append(new MemoryCursor(createData(1000, 500)));
+			gt.getBaseTable().appendCache();
+			Sequence seq = gt.getBaseTable().cursor().fetch();
+			assertEquals(1500, seq.length());
+			assertEquals(new Integer(1499), ((Record)seq.getMem(1500)).getNormalFieldValue(0));
+		} finally {
+			gt.close();
+		}
+	}
+
+	@Test
+	public void testDelete() throws IOException {
+		createTable(0, 1000);
+		GroupTable gt = GroupTable.open(file, ctx);
+		gt.getBaseTable().cursor().fetch();
+		gt.close();
+
+		// ֻļرպݿ鱣
+		int count = BlockCache.getBlockCount();
+		assertTrue(count > 0);
+
+		gt = GroupTable.open(file, ctx);
+		gt.delete();
+		assertEquals(0, BlockCache.getBlockCount());
+	}
+
+	@Test
+	public void testReset() throws IOException {
+		createTable(0, 1000);
+		GroupTable gt = GroupTable.open(file, ctx);
+		gt.getBaseTable().cursor().fetch();
+		assertTrue(gt.reset(null, null, ctx, null));
+		gt.close();
+
+		gt = GroupTable.open(file, ctx);
+		try {
+			Sequence seq = gt.getBaseTable().cursor().fetch();
+			assertEquals(1000, seq.length());
+			assertEquals(new Integer(999), ((Record)seq.getMem(1000)).getNormalFieldValue(0));
+		} finally {
+			gt.close();
+		}
+	}
+
+	@Test
+	public void testReuseBufferWhenNotCached() throws IOException {
+		// ̫СŲݿʱõĽѹ
+		createTable(0, 20000);
+		Env.setBlockCacheSize(16 * 200);
+		GroupTable gt = GroupTable.open(file, ctx);
+		try {
+			int blockCount = gt.getBaseTable().getDataBlockCount();
+			assertTrue(blockCount > 2);
+			BlockLinkReader reader = getColReader(gt);
+			BlockLinkReader reader2 = getColReader(gt);
+			byte []prev = null;
+			int reuseCount = 0;
+			for (int i = 0; i < blockCount; ++i) {
+				byte []expected = reader2.readDataBlockBytes();
+				byte []block = reader.readDataBlock();
+				assertBlock(expected, block);
+
+				// ʱãʱӴ
+				if (prev != null && expected.length <= prev.length) {
+					assertSame(prev, block);
+					reuseCount++;
+				}
+
+				prev = block;
+			}
+
+			assertTrue(reuseCount > 0);
+			assertEquals(0, BlockCache.getBlockCount());
+		} finally {
+			gt.close();
+		}
+	}
+
+	@Test
+	public void testCachedBlockCopy() throws IOException {
+		// 뻺ݿøԵ飬ʱػ
+		createTable(0, 20000);
+		GroupTable gt = GroupTable.open(file, ctx);
+		try {
+			BlockLinkReader reader = getColReader(gt);
+			byte []block1 = reader.readDataBlock();
+			byte []block2 = reader.readDataBlock();
+			assertNotSame(block1, block2);
+			assertEquals(2, BlockCache.getBlockCount());
+
+			BlockLinkReader reader2 = getColReader(gt);
+			assertSame(block1, reader2.readDataBlock());
+			assertSame(block2, reader2.readDataBlock());
+		} finally {
+			gt.close();
+		}
+	}
+
+	private static BlockLinkReader getColReader(GroupTable gt) {
+		return ((ColumnTableMetaData)gt.getBaseTable()).getColumn("name").getColReader(true);
+	}
+
+	// õĻܱݳֻȽݲ
+	private static void assertBlock(byte []expected, byte []buffer) {
+		assertTrue(buffer.length >= expected.length);
+		for (int i = 0; i < expected.length; ++i) {
+			assertEquals(expected[i], buffer[i]);
+		}
+	}
+
+	private static Table createData(int start, int count) {
+		Table table = new Table(new String[] {"id", "name"}, count);
+		for (int i = start, end = start + count; i < end; ++i) {
+			Record r = table.newLast();
+			r.setNormalFieldValue(0, new Integer(i));
+			r.setNormalFieldValue(1, "name" + i);
+		}
+
+		return table;
+	}
+
+	private void createTable(int start, int count) throws IOException {
+		createTable(start, count, true);
+	}
+
+	private GroupTable createTable(int start, int count, boolean close) throws IOException {
+		file.delete();
+		ColumnGroupTable gt = new ColumnGroupTable(file, new String[] {"#id", "name"}, null, null, ctx);
+		gt.getBaseTable().append(new MemoryCursor(createData(start, count)));
+		gt.getBaseTable().appendCache();
+		if (close) {
+			gt.close();
+		}
+
+		return gt;
+	}
+}
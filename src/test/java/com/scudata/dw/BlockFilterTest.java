@@ -0,0 +1,105 @@
+package com.scudata.dw;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+
+import org.junit.Test;
+
+import com.scudata.dm.Sequence;
+
+/**
+ * п鲼¡ɺжϲ
+ * @author RunQian
+ *
+ */
+public class BlockFilterTest {
+	// пддֵɹ
+	private static BlockFilter createFilter(Object []values) throws IOException {
+		BufferWriter writer = new BufferWriter(null);
+		for (Object value : values) {
+			writer.writeObject(value);
+		}
+
+		byte []bytes = writer.finish();
+		byte []data = BlockFilter.create(bytes, bytes.length);
+		return data == null ? null : new BlockFilter(data);
+	}
+
+	@Test
+	public void testContainsInserted() throws IOException {
+		Object []values = new Object[3000];
+		for (int i = 0; i < 1000; ++i) {
+			values[i] = i * 7;
+			values[1000 + i] = "key" + i;
+			values[2000 + i] = new Timestamp(1600000000000L + i * 86400000L);
+		}
+
+		BlockFilter filter = createFilter(values);
+		for (Object value : values) {
+			assertTrue(filter.mayContain(value));
+		}
+
+		assertTrue(filter.mayContainAny(new Object[] {"none", "key10"}));
+	}
+
+	@Test
+	public void testRepeatAndNull() throws IOException {
+		Object []values = new Object[] {null, "a", "a", "a", "a", Boolean.TRUE, null, 3, 3, 3};
+		BlockFilter filter = createFilter(values);
+		for (Object value : values) {
+			assertTrue(filter.mayContain(value));
+		}
+	}
+
+	@Test
+	public void testNumberNormalize() throws IOException {
+		BlockFilter filter = createFilter(new Object[] {5, 2.5, 1L << 40, new BigDecimal("7.25")});
+
+		// ȵͶҪжΪܴ
+		assertTrue(filter.mayContain(5L));
+		assertTrue(filter.mayContain(5.0));
+		assertTrue(filter.mayContain(new BigDecimal("5.00")));
+		assertTrue(filter.mayContain(BigInteger.valueOf(5)));
+		assertTrue(filter.mayContain(2.5f));
+		assertTrue(filter.mayContain(new BigDecimal("2.50")));
+		assertTrue(filter.mayContain((double)(1L << 40)));
+		assertTrue(filter.mayContain(BigInteger.ONE.shiftLeft(40)));
+		assertTrue(filter.mayContain(7.25));
+	}
+
+	@Test
+	public void testAbsent() throws IOException {
+		Object []values = new Object[1000];
+		for (int i = 0; i < 1000; ++i) {
+			values[i] = i;
+		}
+
+		BlockFilter filter = createFilter(values);
+		int count = 0;
+		for (int i = 1000; i < 11000; ++i) {
+			if (filter.mayContain(i)) {
+				count++;
+			}
+		}
+
+		// ÿֵ10λ7ϣʱԼΪ1%
+		assertTrue("false positive " + count, count < 300);
+		assertFalse(filter.mayContain("0"));
+	}
+
+	@Test
+	public void testUnsupported() throws IOException {
+		BlockFilter filter = createFilter(new Object[] {new Sequence(new Object[] {1, 2})});
+		assertNull(filter);
+
+		filter = createFilter(new Object[] {1});
+		assertTrue(filter.mayContain(new Sequence()));
+		assertTrue(filter.mayContainAny(new Object[] {new Sequence()}));
+	}
+}
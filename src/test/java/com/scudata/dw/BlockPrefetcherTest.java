@@ -0,0 +1,190 @@
+package com.scudata.dw;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Context;
+import com.scudata.dm.Env;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.dm.cursor.MemoryCursor;
+import com.scudata.thread.Job;
+import com.scudata.thread.ThreadPool;
+
+/**
+ * ԤĲԣԤڴȡȡΪͬ͹ر
+ * @author RunQian
+ *
+ */
+public class BlockPrefetcherTest {
+	private static final int COUNT = 200000;
+
+	private Context ctx;
+	private File file;
+	private GroupTable groupTable;
+	private long oldPrefetchMemory;
+
+	@Before
+	public void setUp() throws IOException {
+		ctx = new Context();
+		oldPrefetchMemory = Env.getPrefetchMemory();
+		file = File.createTempFile("prefetch", ".ctx");
+		file.delete();
+
+		Table data = new Table(new String[] {"id", "amount"}, COUNT);
+		for (int i = 0; i < COUNT; ++i) {
+			Record r = data.newLast();
+			r.setNormalFieldValue(0, new Integer(i));
+			r.setNormalFieldValue(1, new Double(i * 1.5));
+		}
+
+		ColumnGroupTable gt = new ColumnGroupTable(file, new String[] {"#id", "amount"}, null, null, ctx);
+		try {
+			gt.getBaseTable().append(new MemoryCursor(data));
+		} finally {
+			gt.close();
+		}
+
+		groupTable = GroupTable.open(file, ctx);
+	}
+
+	@After
+	public void tearDown() {
+		Env.setPrefetchMemory(oldPrefetchMemory);
+		groupTable.close();
+		file.delete();
+	}
+
+	private ColumnMetaData getColumn() {
+		return ((ColumnTableMetaData)groupTable.getBaseTable()).getColumn("amount");
+	}
+
+	private int getBlockCount() {
+		return groupTable.getBaseTable().getDataBlockCount();
+	}
+
+	private static void waitPrefetch(BlockPrefetcher prefetcher) throws InterruptedException {
+		for (int i = 0; i < 1000 && prefetcher.isPrefetching(); ++i) {
+			Thread.sleep(5);
+		}
+	}
+
+	// Ԥͬͬ
+	private void assertBlocks(BlockPrefetcher prefetcher, int blockCount) throws IOException {
+		BlockLinkReader reader = getColumn().getColReader(true);
+		for (int i = 0; i < blockCount; ++i) {
+			byte []expected = reader.readDataBlockBytes();
+			BufferReader actual = prefetcher.readBlockData();
+			byte []bytes = new byte[actual.available()];
+			actual.readFully(bytes);
+			assertArrayEquals(expected, bytes);
+		}
+	}
+
+	@Test
+	public void testPrefetchCount() throws Exception {
+		int blockCount = getBlockCount();
+		assertTrue(blockCount > 3);
+
+		BlockPrefetcher prefetcher = new BlockPrefetcher(getColumn().getColReader(true), blockCount, 2, false);
+		try {
+			waitPrefetch(prefetcher);
+			assertEquals(2, prefetcher.getCachedBlockCount());
+			assertBlocks(prefetcher, blockCount);
+		} finally {
+			prefetcher.close();
+		}
+
+		assertEquals(0, BlockPrefetcher.getUsedMemory());
+	}
+
+	@Test
+	public void testMemoryLimit() throws Exception {
+		// ڴԤȡʱͬ
+		Env.setPrefetchMemory(1);
+		int blockCount = getBlockCount();
+		BlockPrefetcher prefetcher = new BlockPrefetcher(getColumn().getColReader(true), blockCount, 4, false);
+		try {
+			waitPrefetch(prefetcher);
+			assertEquals(1, prefetcher.getCachedBlockCount());
+			assertBlocks(prefetcher, blockCount);
+		} finally {
+			prefetcher.close();
+		}
+
+		assertEquals(0, BlockPrefetcher.getUsedMemory());
+	}
+
+	@Test
+	public void testCancelPendingJob() throws Exception {
+		// ̳߳æʱȡûʼԤȡ߳ͬ
+		ThreadPool pool = BlockPrefetcher.getThreadPool();
+		final CountDownLatch latch = new CountDownLatch(1);
+		Job []jobs = new Job[pool.getThreadCount()];
+		for (int i = 0; i < jobs.length; ++i) {
+			jobs[i] = new Job() {
+				public void run() {
+					try {
+						latch.await();
+					} catch (InterruptedException e) {
+					}
+				}
+			};
+
+			pool.submit(jobs[i]);
+		}
+
+		BlockPrefetcher prefetcher = new BlockPrefetcher(getColumn().getColReader(true), getBlockCount(), 2, false);
+		try {
+			assertTrue(prefetcher.isPrefetching());
+			assertBlocks(prefetcher, 2);
+			assertEquals(0, prefetcher.getCachedBlockCount());
+		} finally {
+			latch.countDown();
+			for (Job job : jobs) {
+				job.join();
+			}
+
+			prefetcher.close();
+		}
+
+		assertEquals(0, BlockPrefetcher.getUsedMemory());
+	}
+
+	@Test
+	public void testCloseWaitsForJob() throws Exception {
+		// رʱڶ֮Ԥ
+		BlockPrefetcher prefetcher = new BlockPrefetcher(getColumn().getColReader(true), getBlockCount(), 64, false);
+		prefetcher.close();
+		assertTrue(!prefetcher.isPrefetching());
+		assertEquals(0, prefetcher.getCachedBlockCount());
+		assertEquals(0, BlockPrefetcher.getUsedMemory());
+	}
+
+	@Test
+	public void testCursorPrefetch() throws Exception {
+		// Ԥα벻Ԥαͬ
+		TableMetaData table = groupTable.getBaseTable();
+		Cursor cs = (Cursor)table.cursor();
+		cs.setPrefetchCount(3);
+		Sequence result = cs.fetch();
+		assertEquals(COUNT, result.length());
+		for (int i = 1; i <= COUNT; i += 997) {
+			Record r = (Record)result.getMem(i);
+			assertEquals(new Integer(i - 1), r.getNormalFieldValue(0));
+			assertEquals(new Double((i - 1) * 1.5), r.getNormalFieldValue(1));
+		}
+
+		assertEquals(0, BlockPrefetcher.getUsedMemory());
+	}
+}
@@ -0,0 +1,132 @@
+package com.scudata.dw;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * ȡеĲԣÿִ߳Уʹÿյĳ
+ * мȫֵģ߳Ҳãֻ
+ * @author RunQian
+ *
+ */
+public class BufferPoolTest {
+	// ִ߳У̵߳Ļǿյ
+	private static void runInNewThread(final Runnable runnable) throws Throwable {
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		Thread thread = new Thread() {
+			public void run() {
+				try {
+					runnable.run();
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			}
+		};
+
+		thread.start();
+		thread.join();
+		if (error.get() != null) {
+			throw error.get();
+		}
+	}
+
+	@Test
+	public void testHitAndMiss() throws Throwable {
+		runInNewThread(new Runnable() {
+			public void run() {
+				long hit = BufferPool.getHitCount();
+				long miss = BufferPool.getMissCount();
+
+				byte []buffer = BufferPool.get(5000);
+				assertEquals(8192, buffer.length);
+				assertTrue(BufferPool.getMissCount() > miss);
+
+				BufferPool.release(buffer);
+				byte []buffer2 = BufferPool.get(6000);
+				assertSame(buffer, buffer2);
+				assertTrue(BufferPool.getHitCount() > hit);
+
+				// ûһĻ
+				byte []buffer3 = BufferPool.get(6000);
+				assertNotSame(buffer2, buffer3);
+				assertTrue(BufferPool.getMissCount() > miss + 1);
+			}
+		});
+	}
+
+	@Test
+	public void testLevels() throws Throwable {
+		runInNewThread(new Runnable() {
+			public void run() {
+				// С4KСҲȡ4K
+				assertEquals(4096, BufferPool.get(1).length);
+				assertEquals(4096, BufferPool.get(4096).length);
+				assertEquals(8192, BufferPool.get(4097).length);
+
+				// 󼶵Ĳ棬ʵʴС
+				int size = (16 << 20) + 1;
+				byte []big = BufferPool.get(size);
+				assertEquals(size, big.length);
+				BufferPool.release(big);
+				assertNotSame(big, BufferPool.get(size));
+
+				// 2ݳȵĻڳȵļ
+				byte []odd = new byte[12000];
+				BufferPool.release(odd);
+				assertSame(odd, BufferPool.get(8000));
+
+				// ССĲ
+				byte []small = new byte[100];
+				BufferPool.release(small);
+				assertEquals(4096, BufferPool.get(100).length);
+			}
+		});
+	}
+
+	@Test
+	public void testThreadLocal() throws Throwable {
+		final byte []buffer = BufferPool.get(4096);
+		BufferPool.release(buffer);
+		runInNewThread(new Runnable() {
+			public void run() {
+				// ̻߳صĻᱻ߳ȡ
+				assertNotSame(buffer, BufferPool.get(4096));
+			}
+		});
+	}
+
+	@Test
+	public void testWriterReleaseBuffer() throws Throwable {
+		runInNewThread(new Runnable() {
+			public void run() {
+				try {
+					BufferWriter writer = new BufferWriter(null);
+					byte []buffer = writer.getBuffer();
+					writer.writeObject("abc");
+					writer.writeObject(new Integer(12345));
+					byte []bytes = writer.finish();
+					writer.releaseBuffer();
+
+					// һдûصĻдԭͬ
+					long hit = BufferPool.getHitCount();
+					BufferWriter writer2 = new BufferWriter(null);
+					assertSame(buffer, writer2.getBuffer());
+					assertTrue(BufferPool.getHitCount() > hit);
+					writer2.writeObject("abc");
+					writer2.writeObject(new Integer(12345));
+					assertArrayEquals(bytes, writer2.finish());
+					writer2.releaseBuffer();
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,130 @@
+package com.scudata.dw;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Context;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.dm.cursor.ICursor;
+import com.scudata.dm.cursor.MemoryCursor;
+
+/**
+ * пͿĶд
+ * @author RunQian
+ *
+ */
+public class ColumnGroupTableCodecTest {
+	private static final String []COL_NAMES = new String[] {"#id", "amount", "name", "memo"};
+	private static final byte []CODECS = new byte[] {BlockCodec.DELTA, BlockCodec.LZ4, BlockCodec.DICT, BlockCodec.ZIP};
+	private static final boolean []BLOCK_FILTERS = new boolean[] {true, false, true, false};
+	private static final int COUNT = 20000;
+	
+	private Context ctx;
+	private File srcFile;
+	private File dstFile;
+	
+	@Before
+	public void setUp() throws IOException {
+		ctx = new Context();
+		srcFile = File.createTempFile("codec", ".ctx");
+		dstFile = File.createTempFile("codec_reset", ".ctx");
+	}
+	
+	@After
+	public void tearDown() {
+		srcFile.delete();
+		dstFile.delete();
+	}
+	
+	@Test
+	public void testRoundTrip() throws IOException {
+		Table data = createData();
+		createTable(data);
+		
+		GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			assertColumns((ColumnTableMetaData)gt.getBaseTable());
+			assertData(data, gt.getBaseTable().cursor());
+		} finally {
+			gt.close();
+		}
+	}
+	
+	@Test
+	public void testReset() throws IOException {
+		Table data = createData();
+		createTable(data);
+		
+		GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			assertTrue(gt.reset(dstFile, null, ctx, null));
+		} finally {
+			gt.close();
+		}
+		
+		gt = GroupTable.open(dstFile, ctx);
+		try {
+			assertColumns((ColumnTableMetaData)gt.getBaseTable());
+			assertData(data, gt.getBaseTable().cursor());
+		} finally {
+			gt.close();
+		}
+	}
+	
+	private Table createData() {
+		Table table = new Table(new String[] {"id", "amount", "name", "memo"}, COUNT);
+		for (int i = 0; i < COUNT; ++i) {
+			Record r = table.newLast();
+			r.setNormalFieldValue(0, new Integer(i));
+			r.setNormalFieldValue(1, new Double(i / 4.0));
+			r.setNormalFieldValue(2, "name" + (i % 17));
+			r.setNormalFieldValue(3, i % 5 == 0 ? null : "memo" + i);
+		}
+		
+		return table;
+	}
+	
+	private void createTable(Table data) throws IOException {
+		srcFile.delete();
+		ColumnGroupTable gt = new ColumnGroupTable(srcFile, COL_NAMES, CODECS, BLOCK_FILTERS, null, null, ctx);
+		try {
+			gt.getBaseTable().append(new MemoryCursor(data));
+		} finally {
+			gt.close();
+		}
+	}
+	
+	private static void assertColumns(ColumnTableMetaData table) {
+		String []names = table.getColNames();
+		assertEquals(COL_NAMES.length, names.length);
+		for (int i = 0; i < names.length; ++i) {
+			ColumnMetaData col = table.getColumn(names[i]);
+			assertEquals(CODECS[i], col.getCodec());
+			assertEquals(BLOCK_FILTERS[i], col.hasBlockFilter());
+		}
+		
+		assertFalse(table.getColumn("amount").hasBlockFilter());
+	}
+	
+	private static void assertData(Table expected, ICursor cs) {
+		Sequence result = cs.fetch();
+		assertEquals(expected.length(), result.length());
+		for (int i = 1, len = expected.length(); i <= len; ++i) {
+			Record r1 = (Record)expected.getMem(i);
+			Record r2 = (Record)result.getMem(i);
+			for (int f = 0; f < 4; ++f) {
+				assertEquals(r1.getNormalFieldValue(f), r2.getNormalFieldValue(f));
+			}
+		}
+	}
+}
@@ -0,0 +1,312 @@
+package com.scudata.dw;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Context;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.dm.cursor.MemoryCursor;
+import com.scudata.dm.op.Select;
+import com.scudata.expression.Expression;
+
+/**
+ * αĲԣαڼϲαselectͰȡֵΧҪȡٹ˵ͬ
+ * @author RunQian
+ *
+ */
+public class CursorFilterTest {
+	private static final String []COL_NAMES = new String[] {"#id", "amount", "name", "dt"};
+	private static final int COUNT = 20000;
+	private static final int BLOCK_RECORD_COUNT = 1000; // ÿļ¼СЩʹж
+
+	private Context ctx;
+	private File file;
+	private GroupTable groupTable;
+	private Sequence data;
+	private int oldBlockRecordCount;
+
+	@Before
+	public void setUp() throws IOException {
+		ctx = new Context();
+		file = File.createTempFile("filter", ".ctx");
+		file.delete();
+
+		// dt2019-06-01ʼÿм1Сʱ2020ȫ
+		Calendar calendar = Calendar.getInstance();
+		calendar.clear();
+		calendar.set(2019, Calendar.JUNE, 1);
+		long start = calendar.getTimeInMillis();
+
+		Table table = new Table(new String[] {"id", "amount", "name", "dt"}, COUNT);
+		for (int i = 0; i < COUNT; ++i) {
+			Record r = table.newLast();
+			r.setNormalFieldValue(0, new Integer(i));
+			r.setNormalFieldValue(1, i % 7 == 0 ? null : new Double(i / 4.0));
+			if (i % 101 == 0) {
+				r.setNormalFieldValue(2, "a#[~");
+			} else if (i % 53 == 0) {
+				r.setNormalFieldValue(2, "n*" + i);
+			} else {
+				r.setNormalFieldValue(2, "name" + (i % 17));
+			}
+
+			r.setNormalFieldValue(3, new Timestamp(start + i * 3600000L));
+		}
+
+		oldBlockRecordCount = TableMetaData.MIN_BLOCK_RECORD_COUNT;
+		TableMetaData.setMinBlockRecordCount(BLOCK_RECORD_COUNT);
+		ColumnGroupTable gt = new ColumnGroupTable(file, COL_NAMES, null, null, ctx);
+		try {
+			gt.getBaseTable().append(new MemoryCursor(table));
+		} finally {
+			gt.close();
+			TableMetaData.setMinBlockRecordCount(oldBlockRecordCount);
+		}
+
+		groupTable = GroupTable.open(file, ctx);
+		data = groupTable.getBaseTable().cursor().fetch();
+	}
+
+	@After
+	public void tearDown() {
+		groupTable.close();
+		file.delete();
+	}
+
+	@Test
+	public void testPositionalRef() {
+		assertTrue(Cursor.hasPositionalRef(new Expression("#>5")));
+		assertTrue(Cursor.hasPositionalRef(new Expression("#1>5")));
+		assertTrue(Cursor.hasPositionalRef(new Expression("~.id>5")));
+		assertTrue(Cursor.hasPositionalRef(new Expression("amount[-1]>1")));
+		assertTrue(Cursor.hasPositionalRef(new Expression("amount{-1,0}.sum()>1")));
+		assertTrue(Cursor.hasPositionalRef(new Expression("id>5 && if(amount>1,#,0)>1")));
+		assertTrue(Cursor.hasPositionalRef(new Expression("like(name,string(#))")));
+		assertTrue(Cursor.hasPositionalRef(null));
+
+		// г#~[
+		assertFalse(Cursor.hasPositionalRef(new Expression("name==\"a#[~\"")));
+		assertFalse(Cursor.hasPositionalRef(new Expression("[1,2,3].contain(id)")));
+		assertFalse(Cursor.hasPositionalRef(new Expression("id>5 && amount<10")));
+		assertFalse(Cursor.hasPositionalRef(new Expression("like(name,\"n*\")")));
+	}
+
+	@Test
+	public void testLateFilter() {
+		// еתйõеαڼ
+		assertLateFilter("amount*2>id/3+100", true);
+		assertLateFilter("id>100 && like(name,\"*\"+string(id%3))", true);
+
+		// ǰᱻŻλ
+		assertLateFilter("if(name==\"a#[~\",id,amount)>1000", true);
+		assertLateFilter("[1,2,3].contain(if(amount>1000,id%17,0))", true);
+
+		// ֶŵselect
+		assertLateFilter("#1+amount>id+1000", false);
+	}
+
+	@Test
+	public void testPushSelect() {
+		assertPushSelect(null, "amount>1000", true);
+		assertPushSelect(null, "amount*2>id/3+100", true);
+		assertPushSelect("id>100", "amount<3000 && like(name,\"name1*\")", true);
+
+		// ǰᱻŻλ
+		assertPushSelect(null, "name==\"a#[~\"", true);
+		assertPushSelect(null, "[1,2,3].contain(id%17)", true);
+
+		// ֶŻǰԪصϲ
+		assertPushSelect(null, "#1+amount>id+1000", false);
+		assertPushSelect("id>100", "~.amount>1000", false);
+	}
+
+	@Test
+	public void testPositionalNodeFilter() {
+		// ֶεıȽšֶŻǰԪʱתɰмĹ
+		assertLateFilter("year(~.dt)==2020", false);
+		assertEquals(8784, groupTable.getBaseTable().cursor(null, new Expression("year(~.dt)==2020"), ctx).fetch().length());
+		assertLateFilter("amount*2>#1", false);
+		assertLateFilter("amount*5>#1", false);
+		assertNoNodeFilter("amount*2>#1");
+
+		// #αȡÿ¼еţȡм¼ĲֻܼͬҲתɹ
+		assertNoNodeFilter("id+1>#");
+		assertNoNodeFilter("left(name,5)==string(#)");
+	}
+
+	@Test
+	public void testMultiBlock() {
+		assertTrue(groupTable.getBaseTable().getDataBlockCount() >= COUNT / BLOCK_RECORD_COUNT);
+	}
+
+	@Test
+	public void testDateRange() {
+		assertRange("year(dt)==2020", true);
+		assertRange("year(dt)>=2020", true);
+		assertRange("year(dt)<2020", true);
+		assertRange("year(dt)>2020", true);
+		assertRange("year(dt)<=2019", true);
+		assertRange("2020==year(dt)", true);
+		assertRange("year(dt)==2030", true);
+		assertRange("date(dt)==date(\"2020-02-29\")", true);
+		assertRange("date(dt)==date(\"2019-06-01\")", true);
+		assertRange("date(dt)>=date(\"2021-01-15\")", true);
+
+		// ʱֵƲΧ
+		assertRange("date(dt)==datetime(\"2020-02-29 10:00:00\")", false);
+	}
+
+	@Test
+	public void testAddSubtractRange() {
+		String []ops = new String[] {"==", ">", ">=", "<", "<="};
+		for (String op : ops) {
+			assertRange("id+3" + op + "4567", true);
+			assertRange("3+id" + op + "4567", true);
+			assertRange("id-3" + op + "4567", true);
+			assertRange("9000-id" + op + "4567", true);
+			assertRange("amount+3" + op + "1234", true);
+			assertRange("amount-3" + op + "1234", true);
+			assertRange("3000-amount" + op + "1234", true);
+			assertRange("4567" + op + "id+3", true);
+		}
+
+		// ߽ڿβ
+		assertRange("id+1==" + BLOCK_RECORD_COUNT, true);
+		assertRange("id-1<" + (BLOCK_RECORD_COUNT - 2), true);
+		assertRange("amount+0.5>1000", false);
+	}
+
+	@Test
+	public void testPrefixRange() {
+		assertRange("left(name,5)==\"name1\"", true);
+		assertRange("left(name,4)==\"name\"", true);
+		assertRange("left(name,2)==\"n*\"", true);
+		assertRange("like(name,\"name1*\")", true);
+		assertRange("like(name,\"name1?\")", true);
+		assertRange("like(name,\"name16\")", true);
+
+		// \*ʾ*
+		assertRange("like(name,\"n\\\\**\")", true);
+		assertTrue(((Sequence)data.select(new Expression("like(name,\"n\\\\**\")"), null, ctx)).length() > 0);
+
+		// ȳnĴȣƲǰ׺
+		assertRange("left(name,3)==\"name1\"", false);
+	}
+
+	@Test
+	public void testBetween() {
+		assertColumnFilter("between(id,1000:2500)");
+		assertColumnFilter("between@l(id,1000:2500)");
+		assertColumnFilter("between@r(id,1000:2500)");
+		assertColumnFilter("between@lr(id,1000:2500)");
+		assertColumnFilter("between(id,1000)");
+		assertColumnFilter("between(id,:2500)");
+		assertColumnFilter("between(id,1000:)");
+		assertColumnFilter("between(amount,1000.25:2000)");
+		assertColumnFilter("between@l(dt,datetime(\"2020-01-01 00:00:00\"):datetime(\"2020-03-01 00:00:00\"))");
+
+		// @bرȽϽתɹ
+		assertLateFilter("between@b(id,1000:2500)==0", false);
+		assertLateFilter("between@b(id,1000:2500)", true);
+	}
+
+	// תɵйܷƳȡֵΧȽαȡм¼ٹ˵Ľ
+	private void assertRange(String filter, boolean hasRange) {
+		Cursor cs = (Cursor)groupTable.getBaseTable().cursor(null, new Expression(filter), ctx);
+		IFilter []filters = cs.getFilters();
+		assertNotNull(filter, filters);
+		assertEquals(filter, 1, filters.length);
+		assertTrue(filter, filters[0] instanceof NodeFilter);
+		assertEquals(filter, hasRange, ((NodeFilter)filters[0]).getRange() != null);
+
+		Sequence expected = (Sequence)data.select(new Expression(filter), null, ctx);
+		assertData(filter, expected, cs.fetch());
+	}
+
+	// ת˲NodeFilterйȽϽ
+	private void assertColumnFilter(String filter) {
+		Cursor cs = (Cursor)groupTable.getBaseTable().cursor(null, new Expression(filter), ctx);
+		IFilter []filters = cs.getFilters();
+		assertNotNull(filter, filters);
+		for (IFilter f : filters) {
+			assertFalse(filter, f instanceof NodeFilter);
+		}
+
+		assertNull(filter, cs.getLateFilter());
+		Sequence expected = (Sequence)data.select(new Expression(filter), null, ctx);
+		assertData(filter, expected, cs.fetch());
+	}
+
+	// ûתйܹ
+	private void assertNoNodeFilter(String filter) {
+		Cursor cs = (Cursor)groupTable.getBaseTable().cursor(null, new Expression(filter), ctx);
+		IFilter []filters = cs.getFilters();
+		if (filters != null) {
+			for (IFilter f : filters) {
+				assertFalse(filter, f instanceof NodeFilter);
+			}
+		}
+
+		assertNull(filter, cs.getLateFilter());
+		cs.fetch();
+	}
+
+	// ȽϺϲselectαȡм¼ٹ˵Ľ
+	private void assertPushSelect(String filter, String select, boolean isPushed) {
+		TableMetaData table = groupTable.getBaseTable();
+		Cursor cs = (Cursor)(filter == null ? table.cursor() : table.cursor(null, new Expression(filter), ctx));
+		IFilter []filters = cs.getFilters();
+		Expression lateFilter = cs.getLateFilter();
+		cs.addOperation(new Select(new Expression(select), null), ctx);
+
+		boolean isChanged = cs.getFilters() != filters || cs.getLateFilter() != lateFilter;
+		assertEquals(select, isPushed, isChanged);
+
+		String all = filter == null ? select : "(" + filter + ")&&(" + select + ")";
+		Sequence expected = (Sequence)data.select(new Expression(all), null, ctx);
+		assertData(select, expected, cs.fetch());
+	}
+
+	// ȽαĽȡм¼ٹ˵Ľ
+	private void assertLateFilter(String filter, boolean isLate) {
+		Cursor cs = (Cursor)groupTable.getBaseTable().cursor(null, new Expression(filter), ctx);
+		if (isLate) {
+			assertNotNull(filter, cs.getLateFilter());
+		} else {
+			assertNull(filter, cs.getLateFilter());
+		}
+
+		Sequence expected = (Sequence)data.select(new Expression(filter), null, ctx);
+		assertData(filter, expected, cs.fetch());
+	}
+
+	private static void assertData(String filter, Sequence expected, Sequence result) {
+		if (expected.length() == 0) {
+			assertTrue(filter, result == null || result.length() == 0);
+			return;
+		}
+
+		assertEquals(filter, expected.length(), result.length());
+		for (int i = 1, len = expected.length(); i <= len; ++i) {
+			Record r1 = (Record)expected.getMem(i);
+			Record r2 = (Record)result.getMem(i);
+			for (int f = 0; f < COL_NAMES.length; ++f) {
+				assertEquals(filter, r1.getNormalFieldValue(f), r2.getNormalFieldValue(f));
+			}
+		}
+	}
+}
@@ -0,0 +1,481 @@
+package com.scudata.dw;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Context;
+import com.scudata.dm.Env;
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.dm.cursor.ICursor;
+import com.scudata.dm.cursor.MemoryCursor;
+
+/**
+ * Ĳԣڴӳ䡢λö̱߳жϺ͸дļٶ
+ * @author RunQian
+ *
+ */
+public class GroupTableReadTest {
+	private static final String []COL_NAMES = new String[] {"#id", "amount", "name"};
+	private static final int COUNT = 20000;
+
+	private Context ctx;
+	private File srcFile;
+	private File dstFile;
+	private boolean oldMapGroupTable;
+
+	@Before
+	public void setUp() throws IOException {
+		ctx = new Context();
+		srcFile = File.createTempFile("read", ".ctx");
+		dstFile = File.createTempFile("read_reset", ".ctx");
+		oldMapGroupTable = Env.isMapGroupTable();
+	}
+
+	@After
+	public void tearDown() {
+		Env.setMapGroupTable(oldMapGroupTable);
+		srcFile.delete();
+		dstFile.delete();
+	}
+
+	@Test
+	public void testMappedFile() throws IOException {
+		int blockSize = 1024;
+		File file = File.createTempFile("mapped", ".bin");
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			byte []data = new byte[blockSize * 4];
+			for (int i = 0; i < data.length; ++i) {
+				data[i] = (byte)(i * 31);
+			}
+
+			raf.write(data, 0, blockSize * 2);
+			MappedFile mappedFile = new MappedFile(raf, blockSize);
+			byte []block = new byte[blockSize];
+			mappedFile.loadBlock(blockSize, block);
+			assertArrayEquals(copy(data, blockSize, blockSize), block);
+
+			// ļӳ
+			raf.write(data, blockSize * 2, blockSize * 2);
+			ByteBuffer buffer = mappedFile.getBlock(blockSize * 3);
+			buffer.get(block);
+			assertArrayEquals(copy(data, blockSize * 3, blockSize), block);
+
+			assertTrue(mappedFile.close());
+			try {
+				mappedFile.loadBlock(0, block);
+				fail();
+			} catch (IOException e) {
+			}
+
+			// жȡʱرղӳ䣬ȡõĻܶ
+			mappedFile = new MappedFile(raf, blockSize);
+			mappedFile.pin();
+			buffer = mappedFile.getBlock(blockSize * 2);
+			assertFalse(mappedFile.close());
+			buffer.get(block);
+			assertArrayEquals(copy(data, blockSize * 2, blockSize), block);
+			mappedFile.unpin();
+			assertEquals(0, mappedFile.getPinCount());
+		} finally {
+			raf.close();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testByteBufferReader() throws IOException {
+		BufferWriter writer = new BufferWriter(null);
+		Object []values = new Object[] {1, -7, 70000, 5L, 1L << 40, 2.5, "abc", "", null,
+				new BigDecimal("12.345"), Boolean.TRUE};
+		writer.writeInt32(-123456);
+		writer.writeLong40(1L << 38);
+		writer.writeLong48(1L << 46);
+		writer.writeLong64(-1L);
+		for (Object value : values) {
+			writer.writeObject(value);
+		}
+
+		byte []bytes = writer.finish();
+
+		// ӳм
+		ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 20);
+		direct.position(10);
+		direct.put(bytes);
+		direct.limit(10 + bytes.length);
+		direct.position(10);
+
+		BufferReader reader = new BufferReader(null, direct);
+		assertEquals(-123456, reader.readInt32());
+		assertEquals(1L << 38, reader.readLong40());
+		assertEquals(1L << 46, reader.readLong48());
+		assertEquals(-1L, reader.readLong64());
+		for (Object value : values) {
+			assertEquals(value, reader.readObject());
+		}
+
+		assertTrue(!reader.hasNext());
+	}
+
+	@Test
+	public void testMappedRead() throws IOException {
+		Env.setMapGroupTable(true);
+		Table data = createData(0, COUNT);
+		createTable(data);
+		assertTableData(srcFile, data);
+	}
+
+	@Test
+	public void testMappedUncompressedRead() throws IOException {
+		// ѹֱӴӳĻ
+		Env.setMapGroupTable(true);
+		Table data = createData(0, COUNT);
+		createTable(data);
+
+		GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			assertTrue(gt.reset(dstFile, "u", ctx, null));
+		} finally {
+			gt.close();
+		}
+
+		assertTableData(dstFile, data);
+	}
+
+	@Test
+	public void testPositionalRead() throws Exception {
+		// ߳ͬʱλöͬһ
+		Env.setMapGroupTable(false);
+		final Table data = createData(0, COUNT);
+		createTable(data);
+
+		final GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+			Thread []threads = new Thread[4];
+			for (int i = 0; i < threads.length; ++i) {
+				threads[i] = new Thread() {
+					public void run() {
+						try {
+							for (int n = 0; n < 3; ++n) {
+								assertData(data, gt.getBaseTable().cursor().fetch());
+							}
+						} catch (Throwable e) {
+							error.compareAndSet(null, e);
+						}
+					}
+				};
+
+				threads[i].start();
+			}
+
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			if (error.get() != null) {
+				throw new AssertionError(error.get());
+			}
+		} finally {
+			gt.close();
+		}
+	}
+
+	@Test
+	public void testInterruptedRead() throws Exception {
+		// жϵ̶߳ʱͨرգ´ļ̻߳ܶ
+		Env.setMapGroupTable(false);
+		Table data = createData(0, COUNT);
+		createTable(data);
+
+		final GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			final byte []expected = new byte[gt.getBlockSize()];
+			gt.loadBlock(0, expected);
+
+			final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+			Thread thread = new Thread() {
+				public void run() {
+					interrupt();
+					try {
+						gt.loadBlock(0, new byte[expected.length]);
+					} catch (Throwable e) {
+						error.set(e);
+					}
+				}
+			};
+
+			thread.start();
+			thread.join();
+			assertTrue(error.get() instanceof ClosedByInterruptException);
+
+			byte []block = new byte[expected.length];
+			gt.loadBlock(0, block);
+			assertArrayEquals(expected, block);
+			assertData(data, gt.getBaseTable().cursor().fetch());
+		} finally {
+			gt.close();
+		}
+	}
+
+	@Test
+	public void testReadAfterChannelClosed() throws Exception {
+		// ߳жϹرͨû´ʱ߳´ļٶ
+		Env.setMapGroupTable(false);
+		Table data = createData(0, COUNT);
+		createTable(data);
+
+		GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			byte []expected = new byte[gt.getBlockSize()];
+			gt.loadBlock(0, expected);
+			gt.raf.getChannel().close();
+
+			byte []block = new byte[expected.length];
+			gt.loadBlock(0, block);
+			assertArrayEquals(expected, block);
+
+			gt.raf.getChannel().close();
+			assertData(data, gt.getBaseTable().cursor().fetch());
+		} finally {
+			gt.close();
+		}
+	}
+
+	@Test
+	public void testReadWhileInterrupting() throws Exception {
+		// ߳ɨʱһ̷߳жϣɨ̲߳Ӱ
+		Env.setMapGroupTable(false);
+		final Table data = createData(0, COUNT);
+		createTable(data);
+
+		final GroupTable gt = GroupTable.open(srcFile, ctx);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		final AtomicBoolean isDone = new AtomicBoolean();
+		try {
+			Thread interrupter = new Thread() {
+				public void run() {
+					byte []block = new byte[gt.getBlockSize()];
+					while (!isDone.get()) {
+						interrupt();
+						try {
+							gt.loadBlock(0, block);
+						} catch (ClosedByInterruptException e) {
+						} catch (Throwable e) {
+							error.compareAndSet(null, e);
+						}
+
+						Thread.interrupted();
+					}
+				}
+			};
+
+			Thread []threads = new Thread[3];
+			for (int i = 0; i < threads.length; ++i) {
+				threads[i] = new Thread() {
+					public void run() {
+						try {
+							for (int n = 0; n < 3; ++n) {
+								assertData(data, gt.getBaseTable().cursor().fetch());
+							}
+						} catch (Throwable e) {
+							error.compareAndSet(null, e);
+						}
+					}
+				};
+			}
+
+			interrupter.start();
+			for (Thread thread : threads) {
+				thread.start();
+			}
+
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			isDone.set(true);
+			interrupter.join();
+			if (error.get() != null) {
+				throw new AssertionError(error.get());
+			}
+		} finally {
+			isDone.set(true);
+			gt.close();
+		}
+	}
+
+	@Test
+	public void testMappedReadAfterReset() throws IOException {
+		// ļ滻ӳ
+		Env.setMapGroupTable(true);
+		Table data = createData(0, COUNT);
+		createTable(data);
+
+		GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			assertData(data, gt.getBaseTable().cursor().fetch());
+			assertTrue(gt.reset(null, null, ctx, null));
+		} finally {
+			gt.close();
+		}
+
+		assertTableData(srcFile, data);
+	}
+
+	@Test
+	public void testMappedReadAfterMergeAppend() throws IOException {
+		// 鲢׷ʱļرա滻´򿪣ͬһٶ
+		Env.setMapGroupTable(true);
+		Table data = createData(0, COUNT);
+		createTable(data);
+
+		GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			assertData(data, gt.getBaseTable().cursor().fetch());
+			Table more = createData(COUNT, 100);
+			gt.getBaseTable().append(new MemoryCursor(more), "m");
+
+			data.addAll(more);
+			assertData(data, gt.getBaseTable().cursor().fetch());
+		} finally {
+			gt.close();
+		}
+	}
+
+	@Test
+	public void testCursorAcrossAppend() throws IOException {
+		// αȡһֺ׷ӣԭӳ䲻ܱα
+		assertCursorAcrossRewrite(null);
+	}
+
+	@Test
+	public void testCursorAcrossMergeAppend() throws IOException {
+		// αȡһֺ鲢׷ӣļ滻´򿪣αԭӳ
+		assertCursorAcrossRewrite("m");
+	}
+
+	@Test
+	public void testCursorAcrossReset() throws IOException {
+		// αȡһֺԭرʱα껹ӳ䣬ܽӳ
+		Env.setMapGroupTable(true);
+		Table data = createData(0, COUNT);
+		createTable(data);
+
+		GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			ICursor cs = gt.getBaseTable().cursor();
+			Sequence result = cs.fetch(1000);
+			MappedFile mappedFile = gt.getMappedFile();
+			assertTrue(mappedFile.getPinCount() > 0);
+
+			assertTrue(gt.reset(null, null, ctx, null));
+			assertTrue(mappedFile.isClosed());
+			result.addAll(cs.fetch());
+			cs.close();
+			assertData(data, result);
+			assertEquals(0, mappedFile.getPinCount());
+		} finally {
+			gt.close();
+		}
+
+		assertTableData(srcFile, data);
+	}
+
+	private void assertCursorAcrossRewrite(String opt) throws IOException {
+		Env.setMapGroupTable(true);
+		Table data = createData(0, COUNT);
+		createTable(data);
+
+		GroupTable gt = GroupTable.open(srcFile, ctx);
+		try {
+			ICursor cs = gt.getBaseTable().cursor();
+			Sequence result = cs.fetch(1000);
+			MappedFile mappedFile = gt.getMappedFile();
+			assertTrue(mappedFile.getPinCount() > 0);
+
+			Table more = createData(COUNT, 100);
+			gt.getBaseTable().append(new MemoryCursor(more), opt);
+			Sequence rest = cs.fetch();
+			cs.close();
+			assertEquals(0, mappedFile.getPinCount());
+
+			// α괴ʱݶҪ׷ӵݿܶҲܶ
+			for (int i = 1, len = rest.length(); i <= len && result.length() < COUNT; ++i) {
+				result.add(rest.getMem(i));
+			}
+
+			assertData(data, result);
+			data.addAll(more);
+			assertData(data, gt.getBaseTable().cursor().fetch());
+		} finally {
+			gt.close();
+		}
+	}
+
+	private static byte[] copy(byte []src, int off, int len) {
+		byte []bytes = new byte[len];
+		System.arraycopy(src, off, bytes, 0, len);
+		return bytes;
+	}
+
+	private static Table createData(int start, int count) {
+		Table table = new Table(new String[] {"id", "amount", "name"}, count);
+		for (int i = start, end = start + count; i < end; ++i) {
+			Record r = table.newLast();
+			r.setNormalFieldValue(0, new Integer(i));
+			r.setNormalFieldValue(1, i % 7 == 0 ? null : new Double(i / 4.0));
+			r.setNormalFieldValue(2, "name" + (i % 17));
+		}
+
+		return table;
+	}
+
+	private void createTable(Table data) throws IOException {
+		srcFile.delete();
+		ColumnGroupTable gt = new ColumnGroupTable(srcFile, COL_NAMES, null, null, null, null, ctx);
+		try {
+			gt.getBaseTable().append(new MemoryCursor(data));
+		} finally {
+			gt.close();
+		}
+	}
+
+	private void assertTableData(File file, Table data) throws IOException {
+		GroupTable gt = GroupTable.open(file, ctx);
+		try {
+			assertData(data, gt.getBaseTable().cursor().fetch());
+		} finally {
+			gt.close();
+		}
+	}
+
+	private static void assertData(Table expected, Sequence result) {
+		assertEquals(expected.length(), result.length());
+		for (int i = 1, len = expected.length(); i <= len; ++i) {
+			Record r1 = (Record)expected.getMem(i);
+			Record r2 = (Record)result.getMem(i);
+			for (int f = 0; f < 3; ++f) {
+				assertEquals(r1.getNormalFieldValue(f), r2.getNormalFieldValue(f));
+			}
+		}
+	}
+}
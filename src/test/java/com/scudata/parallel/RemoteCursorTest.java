@@ -0,0 +1,162 @@
+package com.scudata.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Env;
+import com.scudata.dm.Sequence;
+
+/**
+ * ԶαԤȡĲԣģķֻ˳Ӧα귽
+ * @author RunQian
+ *
+ */
+public class RemoteCursorTest {
+	private static final int BATCH = 10000; // ÿȡICursor.FETCHCOUNTʱΪÿļ¼
+	private static final int PREFETCH = 3;
+
+	private ServerSocket serverSocket;
+	private Thread serverThread;
+	private int oldFetchCount;
+	private final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+	private final List<String> methods = Collections.synchronizedList(new ArrayList<String>()); // ֻյķ
+
+	@Before
+	public void setUp() throws IOException {
+		oldFetchCount = Env.getRemoteFetchCount();
+		Env.setRemoteFetchCount(PREFETCH);
+		serverSocket = new ServerSocket(0);
+	}
+
+	@After
+	public void tearDown() throws Throwable {
+		Env.setRemoteFetchCount(oldFetchCount);
+		serverSocket.close();
+		if (serverThread != null) {
+			serverThread.join(5000);
+		}
+
+		if (error.get() != null) {
+			throw error.get();
+		}
+	}
+
+	// ģֻϵαΪ1countյnullʱ
+	private void startNode(final int count) {
+		serverThread = new Thread() {
+			public void run() {
+				try {
+					SocketData sd = new SocketData(serverSocket.accept());
+					sd.holdCommunicateStreamServer();
+					int next = 1;
+					while (true) {
+						Request req = (Request)sd.read();
+						if (req == null) {
+							break;
+						}
+
+						String method = (String)req.getAttr(Request.METHOD_MethodName);
+						methods.add(method);
+						if (method.equals("fetch")) {
+							int n = ((Integer)((Object[])req.getAttr(Request.METHOD_ArgValues))[0]).intValue();
+							Sequence seq = null;
+							if (next <= count) {
+								seq = new Sequence(n);
+								for (int end = Math.min(next + n, count + 1); next < end; ++next) {
+									seq.add(new Integer(next));
+								}
+							}
+
+							sd.write(new Response(seq));
+						} else if (method.equals("skip")) {
+							long n = ((Long)((Object[])req.getAttr(Request.METHOD_ArgValues))[0]).longValue();
+							long skip = Math.min(n, count - next + 1);
+							next += skip;
+							sd.write(new Response(new Long(skip)));
+						} else {
+							sd.write(new Response(null));
+						}
+					}
+
+					sd.serverClose();
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			}
+		};
+
+		serverThread.start();
+	}
+
+	private RemoteCursor newCursor() {
+		return new RemoteCursor("127.0.0.1", serverSocket.getLocalPort(), 1, 1);
+	}
+
+	private static void assertSequence(Sequence seq, int start, int len) {
+		assertEquals(len, seq.length());
+		for (int i = 1; i <= len; ++i) {
+			assertEquals(new Integer(start + i - 1), seq.getMem(i));
+		}
+	}
+
+	@Test
+	public void testFetchToEnd() throws Exception {
+		// ȡʱѷȡ󣬹رǰǵӦٷclose
+		int count = BATCH * 2 + 10;
+		startNode(count);
+		RemoteCursor cs = newCursor();
+		assertSequence(cs.fetch(BATCH), 1, BATCH);
+		assertTrue(cs.getPendingCount() > 0);
+		assertSequence(cs.fetch(BATCH), BATCH + 1, BATCH);
+		assertSequence(cs.fetch(BATCH), BATCH * 2 + 1, 10);
+		assertEquals(0, cs.getPendingCount());
+		assertNull(cs.fetch(BATCH));
+
+		serverThread.join(5000);
+		assertEquals("close", methods.get(methods.size() - 1));
+		assertEquals(methods.size() - 1, methods.indexOf("close"));
+		assertTrue(methods.size() - 1 > 3);
+	}
+
+	@Test
+	public void testCloseWithPending() throws Exception {
+		// δԤȡӦʱرգcloseӦ𲻻ȡӦλ
+		startNode(BATCH * 20);
+		RemoteCursor cs = newCursor();
+		assertSequence(cs.fetch(BATCH), 1, BATCH);
+		assertEquals(PREFETCH, cs.getPendingCount());
+		cs.close();
+		assertEquals(0, cs.getPendingCount());
+
+		serverThread.join(5000);
+		assertEquals(PREFETCH + 2, methods.size());
+		assertEquals("close", methods.get(PREFETCH + 1));
+	}
+
+	@Test
+	public void testSkipWithPending() throws Exception {
+		// ʱԤȡݣɷֻʣµ
+		startNode(BATCH * 10);
+		RemoteCursor cs = newCursor();
+		assertSequence(cs.fetch(BATCH), 1, BATCH);
+		assertEquals(BATCH * 4, cs.skip(BATCH * 4));
+		assertEquals(0, cs.getPendingCount());
+		assertSequence(cs.fetch(BATCH), BATCH * 5 + 1, BATCH);
+		cs.close();
+
+		serverThread.join(5000);
+		assertTrue(methods.contains("skip"));
+	}
+}
@@ -0,0 +1,185 @@
+package com.scudata.parallel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * ͨѶ׽ֵЭ汾Э̲ԣԷֻ֧Javaлľɰ汾ʱл
+ * @author RunQian
+ *
+ */
+public class SocketDataTest {
+	private ServerSocket serverSocket;
+	private Thread serverThread;
+	private final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+	@Before
+	public void setUp() throws IOException {
+		serverSocket = new ServerSocket(0);
+	}
+
+	@After
+	public void tearDown() throws Throwable {
+		serverSocket.close();
+		if (serverThread != null) {
+			serverThread.join(5000);
+		}
+
+		if (error.get() != null) {
+			throw error.get();
+		}
+	}
+
+	private InetSocketAddress getAddress() {
+		return new InetSocketAddress("127.0.0.1", serverSocket.getLocalPort());
+	}
+
+	private void startServer(final Runnable runnable) {
+		serverThread = new Thread() {
+			public void run() {
+				try {
+					runnable.run();
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			}
+		};
+
+		serverThread.start();
+	}
+
+	// °汾ķˣһԭдأ¼Э̵İ汾
+	private void startServer(final int count, final AtomicInteger version) {
+		startServer(new Runnable() {
+			public void run() {
+				try {
+					for (int i = 0; i < count; ++i) {
+						SocketData sd = new SocketData(serverSocket.accept());
+						sd.holdCommunicateStreamServer();
+						version.set(sd.getVersion());
+						sd.write(sd.read());
+						sd.serverClose();
+					}
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+	}
+
+	private static Request newRequest() {
+		Request req = new Request(Request.SERVER_LISTPARAM);
+		req.setAttr("value", new Double(0.1 + 0.2));
+		req.setAttr("name", "abc");
+		return req;
+	}
+
+	private static void assertRequest(Object obj) {
+		Request req = (Request)obj;
+		assertEquals(Request.SERVER_LISTPARAM, req.getAction());
+		assertEquals(new Double(0.1 + 0.2), req.getAttr("value"));
+		assertEquals("abc", req.getAttr("name"));
+	}
+
+	@Test
+	public void testNegotiate() throws Exception {
+		AtomicInteger serverVersion = new AtomicInteger(-1);
+		startServer(1, serverVersion);
+
+		SocketData sd = new SocketData(new Socket());
+		sd.connect(getAddress(), 5000);
+		try {
+			assertEquals(WireProtocol.VERSION, sd.getVersion());
+			sd.write(newRequest());
+			assertRequest(sd.read());
+		} finally {
+			sd.serverClose();
+		}
+
+		serverThread.join(5000);
+		assertEquals(WireProtocol.VERSION, serverVersion.get());
+	}
+
+	@Test
+	public void testSerialClient() throws Exception {
+		// ɰ汾ĿͻֱöͨѶ
+		AtomicInteger serverVersion = new AtomicInteger(-1);
+		startServer(1, serverVersion);
+
+		Socket socket = new Socket();
+		socket.connect(getAddress(), 5000);
+		try {
+			ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			oos.flush();
+			ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+			oos.writeUnshared(newRequest());
+			oos.flush();
+			assertRequest(ois.readUnshared());
+		} finally {
+			socket.close();
+		}
+
+		serverThread.join(5000);
+		assertEquals(WireProtocol.SERIAL_VERSION, serverVersion.get());
+	}
+
+	@Test
+	public void testSerialServer() throws Exception {
+		// ɰ汾ķ˲ʶЭʶر
+		final AtomicInteger rejectCount = new AtomicInteger();
+		startServer(new Runnable() {
+			public void run() {
+				try {
+					while (true) {
+						Socket socket = serverSocket.accept();
+						try {
+							ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+							ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+							oos.flush();
+							oos.writeUnshared(ois.readUnshared());
+							oos.flush();
+						} catch (StreamCorruptedException e) {
+							rejectCount.incrementAndGet();
+						} finally {
+							socket.close();
+						}
+					}
+				} catch (IOException e) {
+					// ׽ֹر
+				} catch (ClassNotFoundException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+
+		// ڶͬһֱֻJavaлٱܾ
+		for (int i = 0; i < 2; ++i) {
+			SocketData sd = new SocketData(new Socket());
+			sd.connect(getAddress(), 5000);
+			try {
+				assertEquals(WireProtocol.SERIAL_VERSION, sd.getVersion());
+				sd.write(newRequest());
+				assertRequest(sd.read());
+			} finally {
+				sd.serverClose();
+			}
+		}
+
+		assertEquals(1, rejectCount.get());
+	}
+}
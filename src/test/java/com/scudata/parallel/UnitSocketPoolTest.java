@@ -0,0 +1,189 @@
+package com.scudata.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * ֻӳصĲԣӸáѶϿֻдͿӳʱر
+ * @author RunQian
+ *
+ */
+public class UnitSocketPoolTest {
+	// ģֻĴnullʾӦֱӹر
+	private interface Handler {
+		Response handle(int conn, int index, Request req);
+	}
+
+	private ServerSocket serverSocket;
+	private Thread serverThread;
+	private UnitClient uc;
+	private final AtomicInteger connCount = new AtomicInteger(); // ֻܵ
+	private final List<String> requests = Collections.synchronizedList(new ArrayList<String>()); // ֻյӺ:
+	private final CountDownLatch endLatch = new CountDownLatch(1); // ͻر
+
+	@Before
+	public void setUp() throws IOException {
+		serverSocket = new ServerSocket(0);
+		uc = new UnitClient("127.0.0.1", serverSocket.getLocalPort());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		UnitSocketPool.closeIdle(Long.MAX_VALUE);
+		serverSocket.close();
+		if (serverThread != null) {
+			serverThread.join(5000);
+		}
+	}
+
+	private void startNode(final Handler handler) {
+		serverThread = new Thread() {
+			public void run() {
+				try {
+					while (true) {
+						final Socket socket = serverSocket.accept();
+						final int conn = connCount.getAndIncrement();
+						Thread worker = new Thread() {
+							public void run() {
+								serve(socket, conn, handler);
+							}
+						};
+
+						worker.setDaemon(true);
+						worker.start();
+					}
+				} catch (IOException e) {
+					// ׽ֹر
+				}
+			}
+		};
+
+		serverThread.start();
+	}
+
+	private void serve(Socket socket, int conn, Handler handler) {
+		try {
+			SocketData sd = new SocketData(socket);
+			sd.holdCommunicateStreamServer();
+			for (int index = 0; ; ++index) {
+				Request req = (Request)sd.read();
+				if (req == null) {
+					endLatch.countDown();
+					break;
+				}
+
+				requests.add(conn + ":" + req.getAction());
+				Response res = handler.handle(conn, index, req);
+				if (res == null) {
+					break;
+				}
+
+				sd.write(res);
+			}
+		} catch (Exception e) {
+		} finally {
+			try {
+				socket.close();
+			} catch (IOException e) {
+			}
+		}
+	}
+
+	private Response send(int action) throws Exception {
+		return UnitSocketPool.send(uc, new Request(action));
+	}
+
+	@Test
+	public void testReuse() throws Exception {
+		startNode(new Handler() {
+			public Response handle(int conn, int index, Request req) {
+				return new Response("ok");
+			}
+		});
+
+		for (int i = 0; i < 3; ++i) {
+			assertEquals("ok", send(Request.SERVER_LISTPARAM).getResult());
+		}
+
+		assertEquals(1, connCount.get());
+		assertEquals(1, UnitSocketPool.getIdleCount(uc));
+	}
+
+	@Test
+	public void testBrokenPooledSocket() throws Exception {
+		// ֻӦرӣеѶϿӷ
+		startNode(new Handler() {
+			public Response handle(int conn, int index, Request req) {
+				return conn == 0 && index == 1 ? null : new Response("ok" + conn);
+			}
+		});
+
+		assertEquals("ok0", send(Request.SERVER_LISTPARAM).getResult());
+		assertEquals("ok1", send(Request.SERVER_LISTPARAM).getResult());
+		assertEquals(2, connCount.get());
+		assertEquals(1, UnitSocketPool.getIdleCount(uc));
+	}
+
+	@Test
+	public void testNonIdempotentAfterWrite() throws Exception {
+		// ֻյûӦͶϿִУֻط
+		startNode(new Handler() {
+			public Response handle(int conn, int index, Request req) {
+				return index == 1 ? null : new Response("ok" + conn);
+			}
+		});
+
+		assertEquals("ok0", send(Request.SERVER_LISTPARAM).getResult());
+		try {
+			send(Request.SERVER_CLOSESPACE);
+			fail();
+		} catch (IOException e) {
+		}
+
+		assertEquals(1, connCount.get());
+		assertEquals(1, Collections.frequency(requests, "0:" + Request.SERVER_CLOSESPACE));
+		assertEquals(0, UnitSocketPool.getIdleCount(uc));
+
+		// ֻỻط
+		assertEquals("ok1", send(Request.SERVER_LISTPARAM).getResult());
+		assertEquals("ok2", send(Request.SERVER_LISTPARAM).getResult());
+		assertEquals(3, connCount.get());
+	}
+
+	@Test
+	public void testIdleEviction() throws Exception {
+		startNode(new Handler() {
+			public Response handle(int conn, int index, Request req) {
+				return new Response("ok");
+			}
+		});
+
+		send(Request.SERVER_LISTPARAM);
+		long now = System.currentTimeMillis();
+		UnitSocketPool.closeIdle(now);
+		assertEquals(1, UnitSocketPool.getIdleCount(uc));
+
+		// гʱӱرգֻյ־
+		UnitSocketPool.closeIdle(now + 61 * 1000);
+		assertEquals(0, UnitSocketPool.getIdleCount(uc));
+		assertTrue(endLatch.await(5, TimeUnit.SECONDS));
+
+		send(Request.SERVER_LISTPARAM);
+		assertEquals(2, connCount.get());
+	}
+}
@@ -0,0 +1,159 @@
+package com.scudata.parallel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.scudata.dm.Record;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+
+/**
+ * ֻͨѶ֡Ķд
+ * @author RunQian
+ *
+ */
+public class WireProtocolTest {
+	// Сλѹʱܾȷʾĸ
+	private static final double []DOUBLES = new double[] {
+		2.9999999, 0.1, 0.1 + 0.2, 1.0 / 3, 123456.789012345, 1e-300, -7.25e10,
+		Double.MAX_VALUE, Double.MIN_VALUE, -0.0, 0.0, Double.NaN, Double.POSITIVE_INFINITY
+	};
+
+	@Test
+	public void testDouble() throws Exception {
+		for (double d : DOUBLES) {
+			Object result = roundTrip(new Double(d));
+			assertEquals(Double.class, result.getClass());
+			assertBitsEquals(d, ((Double)result).doubleValue());
+		}
+	}
+
+	@Test
+	public void testFloat() throws Exception {
+		Object result = roundTrip(new Float(2.9999999f));
+		assertEquals(new Float(2.9999999f), result);
+	}
+
+	@Test
+	public void testTable() throws Exception {
+		Table table = new Table(new String[] {"id", "value"});
+		for (int i = 0; i < DOUBLES.length; ++i) {
+			// д飬ֵͬϲд
+			Record r = table.newLast();
+			r.setNormalFieldValue(0, new Integer(i));
+			r.setNormalFieldValue(1, new Double(DOUBLES[i]));
+			r = table.newLast();
+			r.setNormalFieldValue(0, new Integer(i));
+			r.setNormalFieldValue(1, new Double(DOUBLES[i]));
+		}
+
+		Sequence result = (Sequence)roundTrip(table);
+		assertTrue(result instanceof Table);
+		assertEquals(table.length(), result.length());
+		for (int i = 1, len = table.length(); i <= len; ++i) {
+			Record r1 = (Record)table.getMem(i);
+			Record r2 = (Record)result.getMem(i);
+			assertEquals(r1.getNormalFieldValue(0), r2.getNormalFieldValue(0));
+			assertBitsEquals(((Double)r1.getNormalFieldValue(1)).doubleValue(), 
+					((Double)r2.getNormalFieldValue(1)).doubleValue());
+		}
+	}
+
+	@Test
+	public void testRequest() throws Exception {
+		Request req = new Request(Request.SERVER_LISTPARAM);
+		req.setAttr("value", new Double(2.9999999));
+		req.setAttr("values", new Object[] {new Double(0.1 + 0.2), "a", new Integer(1)});
+
+		Request result = (Request)roundTrip(req);
+		assertEquals(Request.SERVER_LISTPARAM, result.getAction());
+		assertBitsEquals(2.9999999, ((Double)result.getAttr("value")).doubleValue());
+		Object []values = (Object[])result.getAttr("values");
+		assertBitsEquals(0.1 + 0.2, ((Double)values[0]).doubleValue());
+		assertEquals("a", values[1]);
+		assertEquals(new Integer(1), values[2]);
+	}
+
+	@Test
+	public void testResponse() throws Exception {
+		Response res = (Response)roundTrip(new Response(new Double(1.0 / 3)));
+		assertBitsEquals(1.0 / 3, ((Double)res.getResult()).doubleValue());
+	}
+
+	@Test
+	public void testCycle() throws Exception {
+		// ļ¼Javaлд޵ݹ
+		Table table = new Table(new String[] {"id", "self"});
+		Record r = table.newLast();
+		r.setNormalFieldValue(0, new Integer(1));
+		r.setNormalFieldValue(1, r);
+
+		Record r2 = (Record)roundTrip(r);
+		assertEquals(new Integer(1), r2.getNormalFieldValue(0));
+		assertSame(r2, r2.getNormalFieldValue(1));
+
+		Object []array = new Object[2];
+		array[0] = "a";
+		array[1] = array;
+		Object []array2 = (Object[])roundTrip(array);
+		assertEquals("a", array2[0]);
+		assertSame(array2, array2[1]);
+
+		Sequence seq = new Sequence();
+		seq.add(new Integer(1));
+		seq.add(seq);
+		Sequence seq2 = (Sequence)roundTrip(seq);
+		assertEquals(new Integer(1), seq2.getMem(1));
+		assertSame(seq2, seq2.getMem(2));
+	}
+
+	@Test
+	public void testDeepNesting() throws Exception {
+		// Ƕײ޵ĲJavaлдĽṹ
+		Object []array = new Object[] {"leaf"};
+		Sequence seq = new Sequence();
+		seq.add("leaf");
+		for (int i = 0; i < 100; ++i) {
+			array = new Object[] {new Integer(i), array};
+			Sequence parent = new Sequence();
+			parent.add(new Integer(i));
+			parent.add(seq);
+			seq = parent;
+		}
+
+		Object []array2 = (Object[])roundTrip(array);
+		Sequence seq2 = (Sequence)roundTrip(seq);
+		for (int i = 99; i >= 0; --i) {
+			assertEquals(new Integer(i), array2[0]);
+			array2 = (Object[])array2[1];
+			assertEquals(new Integer(i), seq2.getMem(1));
+			seq2 = (Sequence)seq2.getMem(2);
+		}
+
+		assertEquals("leaf", array2[0]);
+		assertEquals("leaf", seq2.getMem(1));
+	}
+
+	private static void assertBitsEquals(double expected, double actual) {
+		assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+	}
+
+	private static Object roundTrip(Object obj) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bos);
+		WireProtocol.write(out, obj);
+		out.flush();
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+		return WireProtocol.read(in);
+	}
+}
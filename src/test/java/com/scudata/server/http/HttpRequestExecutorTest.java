@@ -0,0 +1,209 @@
+package com.scudata.server.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Env;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Httpִ׼ԣ̺߳Ͷжʱܾ񳬹ʱܾܾ󷵻503
+ * @author RunQian
+ *
+ */
+public class HttpRequestExecutorTest {
+	private String oldMainPath;
+	private File dir;
+	private HttpRequestExecutor executor;
+	private CountDownLatch blockLatch = new CountDownLatch(1);
+
+	@Before
+	public void setUp() throws IOException {
+		oldMainPath = Env.getMainPath();
+		dir = File.createTempFile("http", "");
+		dir.delete();
+		dir.mkdir();
+		new File(dir, "a.splx").createNewFile();
+		new File(dir, "b.splx").createNewFile();
+		Env.setMainPath(dir.getAbsolutePath());
+	}
+
+	@After
+	public void tearDown() {
+		blockLatch.countDown();
+		if (executor != null) {
+			executor.shutdown();
+		}
+
+		Env.setMainPath(oldMainPath);
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+
+		dir.delete();
+	}
+
+	private HttpRequestExecutor newExecutor(int maxThreads, int queueSize, int endpointLimit) {
+		HttpContext ctx = new HttpContext(false);
+		ctx.setMaxThreads(maxThreads);
+		ctx.setQueueSize(queueSize);
+		ctx.setEndpointLimit(endpointLimit);
+		ctx.setVirtualThread(false);
+		executor = new HttpRequestExecutor(ctx);
+		return executor;
+	}
+
+	// blockLatchſ
+	private Runnable newBlockJob() {
+		return new Runnable() {
+			public void run() {
+				try {
+					blockLatch.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+	}
+
+	// ɲͷţһʱֱύɹ
+	private boolean executeWithRetry(String endpoint) throws InterruptedException {
+		for (int i = 0; i < 500; ++i) {
+			if (executor.execute(endpoint, newBlockJob())) {
+				return true;
+			}
+
+			Thread.sleep(10);
+		}
+
+		return false;
+	}
+
+	// ȡз;ܾ
+	private long[] getCounts(String endpoint) {
+		for (String line : executor.getLatencyReport().split("\n")) {
+			String []items = line.split("\t");
+			if (items[0].equals(endpoint)) {
+				return new long[] {Long.parseLong(items[1]), Long.parseLong(items[2])};
+			}
+		}
+
+		return null;
+	}
+
+	@Test
+	public void testOverload() throws Exception {
+		// 2̼߳1Ŷλã4󱻾ܾ
+		newExecutor(2, 1, 0);
+		for (int i = 0; i < 3; ++i) {
+			assertTrue(executor.execute("/a.splx", newBlockJob()));
+		}
+
+		assertTrue(!executor.execute("/a.splx", newBlockJob()));
+		assertTrue(!executor.execute("/b.splx", newBlockJob()));
+		assertEquals(1, getCounts("/a.splx")[1]);
+		assertEquals(1, getCounts("/b.splx")[1]);
+
+		// ִٽµ
+		blockLatch.countDown();
+		assertTrue(executeWithRetry("/a.splx"));
+	}
+
+	@Test
+	public void testEndpointLimit() throws Exception {
+		// ÿ2Ӱ
+		newExecutor(10, 10, 2);
+		assertTrue(executor.execute("/a.splx", newBlockJob()));
+		assertTrue(executor.execute("/a.splx", newBlockJob()));
+		assertTrue(!executor.execute("/a.splx", newBlockJob()));
+		assertTrue(executor.execute("/b.splx", newBlockJob()));
+		assertEquals(1, getCounts("/a.splx")[1]);
+		assertEquals(0, getCounts("/b.splx")[1]);
+
+		blockLatch.countDown();
+		assertTrue(executeWithRetry("/a.splx"));
+	}
+
+	@Test
+	public void testOtherEndpoint() throws Exception {
+		// splxļ󲻵ϲͳƵ(other)
+		newExecutor(10, 10, 1);
+		assertTrue(executor.execute("/none.splx", newBlockJob()));
+		assertTrue(executor.execute("/none.splx", newBlockJob()));
+		assertTrue(executor.execute("/x/y", newBlockJob()));
+		assertEquals(null, getCounts("/none.splx"));
+	}
+
+	@Test
+	public void testLatencyCount() throws Exception {
+		newExecutor(2, 0, 0);
+		blockLatch.countDown();
+		for (int i = 0; i < 5; ++i) {
+			assertTrue(executeWithRetry("/a.splx"));
+		}
+
+		for (int i = 0; i < 500 && getCounts("/a.splx")[0] < 5; ++i) {
+			Thread.sleep(10);
+		}
+
+		assertEquals(5, getCounts("/a.splx")[0]);
+	}
+
+	@Test
+	public void testBusyResponse() throws Exception {
+		// ִʱSplxHttpHandler503ÿͻԺ
+		newExecutor(1, 0, 0);
+		assertTrue(executor.execute("/a.splx", newBlockJob()));
+
+		String oldHome = HttpContext.dfxHome;
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		SplxHttpHandler handler = new SplxHttpHandler();
+		handler.setExecutor(executor);
+		server.createContext("/", handler);
+		server.start();
+		try {
+			URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/a.splx");
+			HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+			try {
+				assertEquals(503, conn.getResponseCode());
+				assertEquals("1", conn.getHeaderField("Retry-After"));
+			} finally {
+				conn.disconnect();
+			}
+		} finally {
+			server.stop(0);
+			HttpContext.dfxHome = oldHome;
+		}
+
+		assertEquals(1, getCounts("/a.splx")[1]);
+	}
+
+	@Test
+	public void testGetEndpoint() {
+		HttpContext ctx = new HttpContext(false);
+		ArrayList<String> saps = new ArrayList<String>();
+		saps.add("/api");
+		ctx.setSapPath(saps);
+		HttpRequestExecutor executor = new HttpRequestExecutor(ctx);
+		try {
+			assertEquals("/a.splx", executor.getEndpoint("/a.splx(1,2)"));
+			assertEquals("/api/a", executor.getEndpoint("/api/a/1/2"));
+			assertEquals("/a", executor.getEndpoint("/a/1"));
+			assertEquals("/a", executor.getEndpoint("/a"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package com.scudata.thread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.scudata.common.RQException;
+
+/**
+ * ̳߳صĲ޺Ƕ
+ * @author RunQian
+ *
+ */
+public class ThreadPoolTest {
+	// ¼ͬʱִеֵ
+	private static class CountJob extends Job {
+		private final AtomicInteger running;
+		private final AtomicInteger maxRunning;
+
+		CountJob(AtomicInteger running, AtomicInteger maxRunning) {
+			this.running = running;
+			this.maxRunning = maxRunning;
+		}
+
+		public void run() {
+			int n = running.incrementAndGet();
+			for (int max = maxRunning.get(); n > max && !maxRunning.compareAndSet(max, n); max = maxRunning.get()) {
+			}
+
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+			}
+
+			running.decrementAndGet();
+		}
+	}
+
+	// ύ񲢵ȴɣ¼ִе߳
+	private static class NestedJob extends Job {
+		private final ThreadPool pool;
+		private final Set<Thread> threads;
+
+		NestedJob(ThreadPool pool, Set<Thread> threads) {
+			this.pool = pool;
+			this.threads = threads;
+		}
+
+		public void run() {
+			threads.add(Thread.currentThread());
+			Job []jobs = new Job[4];
+			for (int i = 0; i < jobs.length; ++i) {
+				jobs[i] = new Job() {
+					public void run() {
+						threads.add(Thread.currentThread());
+					}
+				};
+
+				pool.submit(jobs[i]);
+			}
+
+			for (Job job : jobs) {
+				job.join();
+			}
+		}
+	}
+
+	@Test
+	public void testSingleThreadPool() {
+		ThreadPool pool = ThreadPool.newSpecifiedInstance(1);
+		try {
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maxRunning = new AtomicInteger();
+			Job []jobs = new Job[20];
+			for (int i = 0; i < jobs.length; ++i) {
+				jobs[i] = new CountJob(running, maxRunning);
+				pool.submit(jobs[i]);
+			}
+
+			for (Job job : jobs) {
+				job.join();
+			}
+
+			assertEquals(1, maxRunning.get());
+			assertEquals(jobs.length, pool.getCompletedJobCount());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testFixedThreadCount() {
+		ThreadPool pool = ThreadPool.newSpecifiedInstance(3);
+		try {
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maxRunning = new AtomicInteger();
+			Job []jobs = new Job[60];
+			for (int i = 0; i < jobs.length; ++i) {
+				jobs[i] = new CountJob(running, maxRunning);
+				pool.submit(jobs[i]);
+			}
+
+			for (Job job : jobs) {
+				job.join();
+			}
+
+			assertTrue(maxRunning.get() <= 3);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testNestedJobs() {
+		// ̵߳ĳύ񲢵ȴͬһִ߳УҲ߳
+		ThreadPool pool = ThreadPool.newSpecifiedInstance(1);
+		try {
+			Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+			Job []jobs = new Job[8];
+			for (int i = 0; i < jobs.length; ++i) {
+				jobs[i] = new NestedJob(pool, threads);
+				pool.submit(jobs[i]);
+			}
+
+			for (Job job : jobs) {
+				job.join();
+			}
+
+			assertEquals(1, threads.size());
+			assertEquals(jobs.length * 5, pool.getCompletedJobCount());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testJoinRunsNoOtherJob() throws InterruptedException {
+		// ȴѱִ߳ʱȴִ߳Ŷӵ޹
+		final ThreadPool pool = ThreadPool.newSpecifiedInstance(2);
+		try {
+			final CountDownLatch started = new CountDownLatch(1);
+			final AtomicBoolean isJoining = new AtomicBoolean();
+			final AtomicReference<Thread> joinThread = new AtomicReference<Thread>();
+			final AtomicReference<Thread> otherThread = new AtomicReference<Thread>();
+			final AtomicBoolean isRunInJoin = new AtomicBoolean();
+
+			final Job other = new Job() {
+				public void run() {
+					otherThread.set(Thread.currentThread());
+					if (isJoining.get() && Thread.currentThread() == joinThread.get()) {
+						isRunInJoin.set(true);
+					}
+				}
+			};
+
+			Job job = new Job() {
+				public void run() {
+					joinThread.set(Thread.currentThread());
+					Job sub = new Job() {
+						public void run() {
+							started.countDown();
+							try {
+								Thread.sleep(200);
+							} catch (InterruptedException e) {
+							}
+						}
+					};
+
+					pool.submit(sub);
+					try {
+						started.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+					}
+
+					// ѱһ߳ȡߣύһ޹ص
+					pool.submit(other);
+					isJoining.set(true);
+					sub.join();
+					isJoining.set(false);
+				}
+			};
+
+			pool.submit(job);
+			job.join();
+			other.join();
+
+			assertTrue(started.getCount() == 0);
+			assertTrue(otherThread.get() != null);
+			assertTrue(!isRunInJoin.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = RQException.class)
+	public void testShutdown() {
+		ThreadPool pool = ThreadPool.newSpecifiedInstance(1);
+		Job job = new CountJob(new AtomicInteger(), new AtomicInteger());
+		pool.shutdown();
+		pool.submit(job);
+		job.join();
+	}
+}
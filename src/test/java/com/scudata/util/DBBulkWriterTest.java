@@ -0,0 +1,170 @@
+package com.scudata.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.common.DBConfig;
+import com.scudata.common.DBSession;
+import com.scudata.common.DBSessionFactory;
+import com.scudata.common.DBTypes;
+import com.scudata.common.RQException;
+
+/**
+ * вĲԣִʱĴСֻʱĴ
+ * @author RunQian
+ *
+ */
+public class DBBulkWriterTest {
+	private static final String []FIELDS = new String[] {"ID", "NAME"};
+
+	private DBSessionFactory factory;
+	private DBSession session; // DBSessionʱرӣҪ
+	private Connection conn;
+
+	@Before
+	public void setUp() throws Exception {
+		DBConfig cfg = new DBConfig();
+		cfg.setDriver("org.hsqldb.jdbcDriver");
+		cfg.setUrl("jdbc:hsqldb:mem:bulktest");
+		cfg.setUser("SA");
+		cfg.setPassword("");
+		factory = new DBSessionFactory(cfg);
+
+		session = factory.getSession();
+		conn = (Connection)session.getSession();
+		Statement st = conn.createStatement();
+		st.execute("create table T(ID int primary key, NAME varchar(20))");
+		st.close();
+		conn.commit();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Statement st = conn.createStatement();
+		st.execute("drop table T");
+		st.close();
+		conn.commit();
+		session.close();
+	}
+
+	private DBBulkWriter newWriter(int threadCount, int batchSize) {
+		return new DBBulkWriter(factory, "T", FIELDS, null, DBTypes.HSQL, null, false, "test", threadCount, batchSize);
+	}
+
+	@Test
+	public void testBatchSize() {
+		DBBulkWriter writer = newWriter(1, 100);
+		assertEquals(100, writer.getBatchSize());
+
+		// ִпʱӴ
+		writer.addStatistics(100, 10);
+		assertEquals(200, writer.getBatchSize());
+
+		// ִп첻Ӵ
+		writer.addStatistics(150, 10);
+		assertEquals(200, writer.getBatchSize());
+
+		// ʱʱ
+		writer.addStatistics(200, 500);
+		assertEquals(200, writer.getBatchSize());
+
+		// ִʱС
+		writer.addStatistics(200, 1500);
+		assertEquals(100, writer.getBatchSize());
+
+		// 󲻳100000СΪ1
+		for (int i = 0; i < 20; ++i) {
+			writer.addStatistics(writer.getBatchSize(), 0);
+		}
+
+		assertEquals(100000, writer.getBatchSize());
+		for (int i = 0; i < 30; ++i) {
+			writer.addStatistics(writer.getBatchSize(), 5000);
+		}
+
+		assertEquals(1, writer.getBatchSize());
+	}
+
+	@Test
+	public void testTransient() {
+		assertTrue(DBBulkWriter.isTransient(new SQLException("lost", "08006")));
+		assertTrue(DBBulkWriter.isTransient(new SQLException("serialization", "40001")));
+		assertTrue(DBBulkWriter.isTransient(new SQLException("deadlock", "40P01")));
+		assertTrue(DBBulkWriter.isTransient(new SQLTransientConnectionException("timeout")));
+
+		// 쳣ĺ쳣
+		assertTrue(DBBulkWriter.isTransient(new RQException(new SQLException("lost", "08S01"))));
+		SQLException batch = new SQLException("batch", "22000");
+		batch.setNextException(new SQLException("deadlock", "40001"));
+		assertTrue(DBBulkWriter.isTransient(batch));
+
+		assertFalse(DBBulkWriter.isTransient(new SQLException("duplicate", "23505")));
+		assertFalse(DBBulkWriter.isTransient(new SQLException("syntax", "42000")));
+		assertFalse(DBBulkWriter.isTransient(new SQLException("no state")));
+		assertFalse(DBBulkWriter.isTransient(new RuntimeException("other")));
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		DBBulkWriter writer = newWriter(3, 7);
+		int count = 0;
+		for (int b = 0; b < 10; ++b) {
+			int size = writer.getBatchSize();
+			Object [][]rows = new Object[size][];
+			for (int i = 0; i < size; ++i, ++count) {
+				rows[i] = new Object[] {count, "n" + count};
+			}
+
+			writer.write(rows);
+		}
+
+		writer.finish();
+		assertEquals(count, writer.getRowCount());
+		assertEquals(0, writer.getRetryCount());
+		assertEquals(count, getTableCount());
+
+		// ܿ죬ĴСӴ
+		assertTrue(writer.getBatchSize() > 7);
+	}
+
+	@Test
+	public void testNoRetryOnConstraint() throws Exception {
+		// ظʱĴ󣬲ԣع
+		DBBulkWriter writer = newWriter(1, 10);
+		writer.write(new Object[][] {{1, "a"}, {2, "b"}});
+		writer.write(new Object[][] {{3, "c"}, {1, "d"}});
+		try {
+			writer.finish();
+			fail();
+		} catch (RQException e) {
+		}
+
+		assertEquals(0, writer.getRetryCount());
+		assertEquals(2, writer.getRowCount());
+		assertEquals(2, getTableCount());
+	}
+
+	private int getTableCount() throws SQLException {
+		Statement st = conn.createStatement();
+		try {
+			ResultSet rs = st.executeQuery("select count(*) from T");
+			rs.next();
+			return rs.getInt(1);
+		} finally {
+			st.close();
+			conn.commit();
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.scudata.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.scudata.dm.Context;
+import com.scudata.dm.DataStruct;
+import com.scudata.dm.Env;
+import com.scudata.dm.FileObject;
+import com.scudata.dm.Record;
+import com.scudata.dm.RunFileWriter;
+import com.scudata.dm.Sequence;
+import com.scudata.dm.Table;
+import com.scudata.dm.cursor.ICursor;
+import com.scudata.dm.cursor.MemoryCursor;
+import com.scudata.dm.cursor.MergeCursor;
+import com.scudata.dm.cursor.RunFileCursor;
+import com.scudata.expression.Expression;
+
+/**
+ * ߳Ĳԣsortx@mĽ뵥߳sortxͬ
+ * @author RunQian
+ *
+ */
+public class SortxTest {
+	private static final int COUNT = 20000;
+	private static final int CAPACITY = 3000; // ÿȡļ¼ʱļ
+
+	private Context ctx;
+	private int oldParallelNum;
+	private int oldMergeFileCount;
+
+	@Before
+	public void setUp() {
+		ctx = new Context();
+		oldParallelNum = Env.getParallelNum();
+		oldMergeFileCount = Env.getMergeFileCount();
+		Env.setParallelNum(4);
+	}
+
+	@After
+	public void tearDown() {
+		Env.setParallelNum(oldParallelNum);
+		Env.setMergeFileCount(oldMergeFileCount);
+	}
+
+	// kظֵͿֵidΨһkidȷ
+	private static Table createData(int count) {
+		Random random = new Random(count);
+		Table table = new Table(new String[] {"id", "k", "v"}, count);
+		for (int i = 0; i < count; ++i) {
+			Record r = table.newLast();
+			r.setNormalFieldValue(0, new Integer(i));
+			r.setNormalFieldValue(1, i % 13 == 0 ? null : new Integer(random.nextInt(100)));
+			r.setNormalFieldValue(2, "v" + random.nextInt(1000));
+		}
+
+		return table;
+	}
+
+	private Sequence sortx(Table data, String []exps, int capacity, String opt) {
+		Expression []expressions = new Expression[exps.length];
+		for (int i = 0; i < exps.length; ++i) {
+			expressions[i] = new Expression(ctx, exps[i]);
+		}
+
+		ICursor cs = CursorUtil.sortx(new MemoryCursor(data), expressions, ctx, capacity, opt);
+		Sequence result = cs.fetch();
+		cs.close();
+		return result;
+	}
+
+	private void assertSameAsSortx(Table data, String []exps, int capacity, String opt) {
+		Sequence expected = sortx(data, exps, capacity, opt);
+		Sequence result = sortx(data, exps, capacity, opt == null ? "m" : opt + "m");
+		assertEquals(expected.length(), result.length());
+		for (int i = 1, len = expected.length(); i <= len; ++i) {
+			Record r1 = (Record)expected.getMem(i);
+			Record r2 = (Record)result.getMem(i);
+			for (int f = 0; f < 3; ++f) {
+				assertEquals(r1.getNormalFieldValue(f), r2.getNormalFieldValue(f));
+			}
+		}
+	}
+
+	@Test
+	public void testFields() {
+		// ʽֶʱð鲢
+		assertSameAsSortx(createData(COUNT), new String[] {"k", "id"}, CAPACITY, null);
+	}
+
+	@Test
+	public void testExpressions() {
+		// ʽֶʱñʽ鲢
+		assertSameAsSortx(createData(COUNT), new String[] {"-id%7", "v", "id"}, CAPACITY, null);
+	}
+
+	@Test
+	public void testNullLast() {
+		assertSameAsSortx(createData(COUNT), new String[] {"k", "id"}, CAPACITY, "0");
+	}
+
+	@Test
+	public void testSingleRun() {
+		// һȡֻ꣬һʱļ
+		assertSameAsSortx(createData(100), new String[] {"k", "id"}, CAPACITY, null);
+	}
+
+	@Test
+	public void testMultiPassMerge() {
+		// ļһܹ鲢ļʱ˹鲢
+		Env.setMergeFileCount(3);
+		Table data = createData(COUNT);
+		assertSameAsSortx(data, new String[] {"k", "id"}, CAPACITY, null);
+		assertSameAsSortx(data, new String[] {"-id%7", "v", "id"}, CAPACITY, null);
+		assertSameAsSortx(data, new String[] {"k", "id"}, CAPACITY, "0");
+	}
+
+	@Test
+	public void testMergeRunFiles() throws Exception {
+		// ÿΰkkȵļ¼idεȺ鲢򲻱
+		int runCount = 10;
+		Table data = createData(2000);
+		DataStruct ds = data.dataStruct();
+		Expression []exps = new Expression[] {new Expression(ctx, "k")};
+		FileObject []files = new FileObject[runCount];
+		int len = data.length() / runCount;
+		for (int i = 0; i < runCount; ++i) {
+			Sequence run = data.get(i * len + 1, (i + 1) * len + 1).sort(exps[0], null, null, ctx);
+			files[i] = FileObject.createTempFileObject();
+			RunFileWriter writer = new RunFileWriter(files[i]);
+			writer.write(run, 1, run.length());
+			writer.close();
+		}
+
+		FileObject []result = CursorUtil.mergeRunFiles(files, ds, exps, ctx, null, 3);
+		assertTrue(result.length <= 3);
+		for (FileObject file : files) {
+			boolean isKept = false;
+			for (FileObject f : result) {
+				isKept |= f == file;
+			}
+
+			assertTrue(isKept || !file.isExists());
+		}
+
+		ICursor []cursors = new ICursor[result.length];
+		for (int i = 0; i < result.length; ++i) {
+			cursors[i] = new RunFileCursor(result[i], ds);
+		}
+
+		ICursor cs = new MergeCursor(cursors, new int[] {1}, null, ctx);
+		Sequence merged = cs.fetch();
+		cs.close();
+		for (FileObject file : result) {
+			assertFalse(file.isExists());
+		}
+
+		Sequence expected = data.sort(exps[0], null, null, ctx);
+		assertEquals(expected.length(), merged.length());
+		for (int i = 1, count = expected.length(); i <= count; ++i) {
+			Record r1 = (Record)expected.getMem(i);
+			Record r2 = (Record)merged.getMem(i);
+			assertEquals(r1.getNormalFieldValue(0), r2.getNormalFieldValue(0));
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		Table data = new Table(new String[] {"id", "k", "v"});
+		Expression []exps = new Expression[] {new Expression(ctx, "k")};
+		ICursor cs = CursorUtil.sortx(new MemoryCursor(data), exps, ctx, CAPACITY, "m");
+		Sequence result = cs.fetch();
+		assertEquals(0, result == null ? 0 : result.length());
+	}
+}